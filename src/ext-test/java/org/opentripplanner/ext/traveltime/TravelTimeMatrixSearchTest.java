@@ -0,0 +1,80 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.ext.traveltime.TravelTimePercentiles.UNREACHED;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+
+class TravelTimeMatrixSearchTest implements RaptorTestConstants {
+
+  private static final int[] PERCENTILES = { 50, 100 };
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  /**
+   * <pre>
+   * Route R1:  A 0:05 0:20
+   *            B 0:15 0:30
+   *            C 0:25 0:40
+   * </pre>
+   */
+  private final TestTransitData data = new TestTransitData()
+    .withRoute(
+      route("R1", STOP_A, STOP_B, STOP_C)
+        .withTimetable(schedule("0:05 0:15 0:25"), schedule("0:20 0:30 0:40"))
+    );
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void travelTimesFromEachOrigin() {
+    var search = new TravelTimeMatrixSearch<TestTripSchedule>(
+      new RaptorService<>(RaptorConfig.defaultConfigForTest()),
+      data,
+      executor,
+      2,
+      new int[] { STOP_B, STOP_C },
+      T00_00,
+      // The departure minutes 0:00 to 0:09
+      10 * D1m,
+      30 * D1m
+    );
+
+    Map<Integer, TravelTimePercentiles> result = new TreeMap<>();
+    search.route(new int[] { STOP_A, STOP_B }, result::put);
+
+    assertEquals(2, result.size());
+    assertEquals(10, result.get(0).numberOfIterations());
+
+    // From A: depart 0:00-0:05 with the first trip, and 0:06-0:09 with the second
+    //   B: 15m 14m 13m 12m 11m 10m 24m 23m 22m 21m
+    //   C: 25m 24m 23m 22m 21m 20m, the second trip is over the max travel time
+    assertArrayEquals(new int[] { 14 * D1m, 24 * D1m }, percentiles(result.get(0), 0));
+    assertArrayEquals(new int[] { 24 * D1m, UNREACHED }, percentiles(result.get(0), 1));
+
+    // From B: the origin is a destination, and C is reached with the first trip
+    assertArrayEquals(new int[] { 0, 0 }, percentiles(result.get(1), 0));
+    assertArrayEquals(new int[] { 20 * D1m, 25 * D1m }, percentiles(result.get(1), 1));
+  }
+
+  private static int[] percentiles(TravelTimePercentiles travelTimes, int destinationIndex) {
+    int[] scratch = new int[travelTimes.numberOfIterations()];
+    return travelTimes.percentiles(destinationIndex, PERCENTILES, scratch);
+  }
+}
@@ -0,0 +1,102 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.ext.traveltime.TravelTimePercentiles.UNREACHED;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
+
+class TravelTimePercentilesTest {
+
+  private static final int STOP_A = 3;
+  private static final int STOP_B = 7;
+  private static final int MAX_TRAVEL_TIME = 3600;
+
+  private final TravelTimePercentiles subject = new TravelTimePercentiles(
+    new int[] { STOP_A, STOP_B },
+    MAX_TRAVEL_TIME
+  );
+
+  @Test
+  void percentiles() {
+    // Iterations run from the latest to the earliest departure, stop B is only reached when
+    // departing late, and the travel time exceeds the max travel time when departing early.
+    subject.iterationComplete(400, arrivals(1000, 2000));
+    subject.iterationComplete(300, arrivals(1000, 2000));
+    subject.iterationComplete(200, arrivals(500, -1));
+    subject.iterationComplete(100, arrivals(500, -1));
+    subject.iterationComplete(0, arrivals(500, 3700));
+
+    assertEquals(5, subject.numberOfIterations());
+    assertEquals(2, subject.numberOfDestinations());
+
+    int[] scratch = new int[subject.numberOfIterations()];
+    int[] percentiles = { 1, 50, 60, 100 };
+
+    // Travel times to A: 600, 700, 300, 400, 500
+    assertArrayEquals(
+      new int[] { 300, 500, 500, 700 },
+      subject.percentiles(0, percentiles, scratch)
+    );
+    // Travel times to B: 1600, 1700, -, -, -
+    assertArrayEquals(
+      new int[] { 1600, UNREACHED, UNREACHED, UNREACHED },
+      subject.percentiles(1, percentiles, scratch)
+    );
+  }
+
+  @Test
+  void noIterations() {
+    int[] result = subject.percentiles(0, new int[] { 50 }, new int[0]);
+    assertArrayEquals(new int[] { UNREACHED }, result);
+  }
+
+  @Test
+  void manyIterations() {
+    for (int t = 10_000; t > 0; t -= 60) {
+      subject.iterationComplete(t, arrivals(t + 100, t + 200));
+    }
+    int[] scratch = new int[subject.numberOfIterations()];
+    assertArrayEquals(new int[] { 100 }, subject.percentiles(0, new int[] { 50 }, scratch));
+    assertArrayEquals(new int[] { 200 }, subject.percentiles(1, new int[] { 50 }, scratch));
+  }
+
+  /** Arrival times at stop A and B, -1 if not reached. */
+  private static StopArrivals arrivals(int timeA, int timeB) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return time(stopIndex) != -1;
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return time(stopIndex);
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        return reached(stopIndex);
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        return time(stopIndex);
+      }
+
+      @Override
+      public int smallestNumberOfTransfers(int stopIndex) {
+        return 0;
+      }
+
+      private int time(int stopIndex) {
+        return switch (stopIndex) {
+          case STOP_A -> timeA;
+          case STOP_B -> timeB;
+          default -> -1;
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,203 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.opentripplanner.api.parameter.QualifiedModeSet;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RoutingRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.standalone.server.OTPServer;
+import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.Stop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.util.time.DurationUtils;
+import org.opentripplanner.util.time.ServiceDateUtils;
+
+/**
+ * The travel time matrix from a set of origin stops to a set of destination stops. The result is a
+ * CSV file with the travel time percentiles in seconds over the departure minutes in the search
+ * window, one row for each origin and destination pair reached. The rows of an origin are written
+ * when its search is complete, so the response is streamed while the matrix is computed.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  private static final String CSV = "text/csv";
+
+  private final Router router;
+  private final TransitLayer transitLayer;
+  private final List<StopLocation> origins;
+  private final List<StopLocation> destinations;
+  private final int[] percentiles;
+  private final TravelTimeMatrixSearch<TripSchedule> search;
+
+  public TravelTimeMatrixResource(
+    @Context OTPServer otpServer,
+    @QueryParam("origins") String origins,
+    @QueryParam("destinations") String destinations,
+    @QueryParam("time") String time,
+    @QueryParam("window") @DefaultValue("60m") String window,
+    @QueryParam("maxDuration") @DefaultValue("2h") String maxDuration,
+    @QueryParam("percentile") @DefaultValue("50") List<Integer> percentiles,
+    @QueryParam("modes") String modes
+  ) {
+    this.router = otpServer.getRouter();
+    this.transitLayer = router.transitModel.getRealtimeTransitLayer();
+    this.origins = parseStops("origins", origins);
+    this.destinations =
+      destinations == null ? this.origins : parseStops("destinations", destinations);
+    this.percentiles = percentiles.stream().mapToInt(Integer::intValue).toArray();
+
+    if (Arrays.stream(this.percentiles).anyMatch(p -> p <= 0 || p > 100)) {
+      throw new BadRequestException("The percentiles must be in the range (0, 100].");
+    }
+
+    RoutingRequest routingRequest = router.copyDefaultRoutingRequest();
+    if (modes != null) {
+      routingRequest.modes = new QualifiedModeSet(modes).getRequestModes();
+    }
+
+    Duration searchWindow = DurationUtils.duration(window);
+    Duration maxTravelTime = DurationUtils.duration(maxDuration);
+    Instant startTime = time == null ? Instant.now() : Instant.parse(time);
+    Instant endTime = startTime.plus(searchWindow).plus(maxTravelTime);
+
+    ZoneId zoneId = transitLayer.getTransitDataZoneId();
+    LocalDate startDate = LocalDate.ofInstant(startTime, zoneId);
+    LocalDate endDate = LocalDate.ofInstant(endTime, zoneId);
+    ZonedDateTime startOfTime = startDate.atStartOfDay(zoneId).toInstant().atZone(zoneId);
+
+    RoutingRequest transferRoutingRequest = Transfer.prepareTransferRoutingRequest(routingRequest);
+
+    var transitData = new RaptorRoutingRequestTransitData(
+      router.transitModel.getTransferService(),
+      transitLayer,
+      startOfTime,
+      0,
+      (int) Period.between(startDate, endDate).get(ChronoUnit.DAYS),
+      new RoutingRequestTransitDataProviderFilter(routingRequest, router.transitModel.index),
+      new RoutingContext(transferRoutingRequest, router.graph, (Vertex) null, null)
+    );
+
+    this.search =
+      new TravelTimeMatrixSearch<>(
+        new RaptorService<>(router.raptorConfig),
+        transitData,
+        router.routingExecutor.executorService(),
+        Runtime.getRuntime().availableProcessors(),
+        stopIndexes(this.destinations),
+        ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime),
+        (int) searchWindow.toSeconds(),
+        (int) maxTravelTime.toSeconds()
+      );
+  }
+
+  @GET
+  @Produces(CSV)
+  public Response getMatrix() {
+    StreamingOutput out = outputStream -> {
+      Writer writer = new BufferedWriter(
+        new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)
+      );
+      writeHeader(writer);
+      try {
+        search.route(
+          stopIndexes(origins),
+          (originIndex, travelTimes) -> writeOrigin(writer, originIndex, travelTimes)
+        );
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      writer.flush();
+    };
+    return Response.ok().entity(out).build();
+  }
+
+  /* private methods */
+
+  private void writeHeader(Writer writer) throws IOException {
+    writer.write("origin,destination");
+    for (int p : percentiles) {
+      writer.write(",p" + p);
+    }
+    writer.write('\n');
+  }
+
+  private void writeOrigin(Writer writer, int originIndex, TravelTimePercentiles travelTimes) {
+    String origin = origins.get(originIndex).getId().toString();
+    int[] scratch = new int[travelTimes.numberOfIterations()];
+    try {
+      for (int i = 0; i < travelTimes.numberOfDestinations(); ++i) {
+        int[] values = travelTimes.percentiles(i, percentiles, scratch);
+        if (Arrays.stream(values).allMatch(it -> it == TravelTimePercentiles.UNREACHED)) {
+          continue;
+        }
+        writer.write(origin);
+        writer.write(',');
+        writer.write(destinations.get(i).getId().toString());
+        for (int value : values) {
+          writer.write(',');
+          if (value != TravelTimePercentiles.UNREACHED) {
+            writer.write(Integer.toString(value));
+          }
+        }
+        writer.write('\n');
+      }
+      // Stream the rows of each origin as they are computed
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private List<StopLocation> parseStops(String parameter, String ids) {
+    if (ids == null || ids.isBlank()) {
+      throw new BadRequestException("The '" + parameter + "' parameter is required.");
+    }
+    return Arrays
+      .stream(ids.split(","))
+      .map(String::trim)
+      .map(id -> {
+        StopLocation stop = router.transitModel.getStopLocationById(FeedScopedId.parseId(id));
+        // Only regular stops are in the Raptor stop index
+        if (!(stop instanceof Stop)) {
+          throw new BadRequestException("Unknown stop in '" + parameter + "': " + id);
+        }
+        return stop;
+      })
+      .toList();
+  }
+
+  private int[] stopIndexes(List<StopLocation> stops) {
+    return stops.stream().mapToInt(transitLayer.getStopIndex()::indexOf).toArray();
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the travel times from a set of origin stops to a set of destination stops, for every
+ * departure minute in the search window. There is one standard Range Raptor search for each
+ * origin, all of them share the same transit data. The searches run in parallel on the given
+ * executor, and the result of each origin is passed to the consumer in the calling thread as soon
+ * as it is complete. The number of searches running at the same time is limited, so the results
+ * can be written as they are produced.
+ */
+class TravelTimeMatrixSearch<T extends RaptorTripSchedule> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TravelTimeMatrixSearch.class);
+
+  private final RaptorService<T> raptorService;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final Executor executor;
+  private final int parallelism;
+  private final int[] destinationStops;
+  private final int earliestDepartureTime;
+  private final int searchWindowInSeconds;
+  private final int maxTravelTime;
+
+  TravelTimeMatrixSearch(
+    RaptorService<T> raptorService,
+    RaptorTransitDataProvider<T> transitData,
+    Executor executor,
+    int parallelism,
+    int[] destinationStops,
+    int earliestDepartureTime,
+    int searchWindowInSeconds,
+    int maxTravelTime
+  ) {
+    this.raptorService = raptorService;
+    this.transitData = transitData;
+    this.executor = executor;
+    this.parallelism = Math.max(1, parallelism);
+    this.destinationStops = destinationStops;
+    this.earliestDepartureTime = earliestDepartureTime;
+    this.searchWindowInSeconds = searchWindowInSeconds;
+    this.maxTravelTime = maxTravelTime;
+  }
+
+  /**
+   * Route from each of the origin stops, and pass the index of the origin and the travel times to
+   * the consumer in the order the searches complete.
+   */
+  void route(int[] originStops, BiConsumer<Integer, TravelTimePercentiles> consumer) {
+    CompletionService<OriginResult> completionService = new ExecutorCompletionService<>(executor);
+    List<Future<OriginResult>> futures = new ArrayList<>();
+    int next = 0;
+    try {
+      while (next < originStops.length && next < parallelism) {
+        futures.add(submit(completionService, next++, originStops));
+      }
+      for (int done = 0; done < originStops.length; ++done) {
+        OriginResult result = completionService.take().get();
+        if (next < originStops.length) {
+          futures.add(submit(completionService, next++, originStops));
+        }
+        consumer.accept(result.originIndex(), result.travelTimes());
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      futures.forEach(it -> it.cancel(true));
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      LOG.error(e.getMessage(), e);
+      throw new IllegalStateException("Failed to compute travel time matrix: " + e.getMessage());
+    } catch (RuntimeException e) {
+      futures.forEach(it -> it.cancel(true));
+      throw e;
+    }
+  }
+
+  private Future<OriginResult> submit(
+    CompletionService<OriginResult> completionService,
+    int originIndex,
+    int[] originStops
+  ) {
+    return completionService.submit(() ->
+      new OriginResult(originIndex, routeFromStop(originStops[originIndex]))
+    );
+  }
+
+  private TravelTimePercentiles routeFromStop(int originStop) {
+    var travelTimes = new TravelTimePercentiles(destinationStops, maxTravelTime);
+    raptorService.routeEachIteration(createRequest(originStop), transitData, travelTimes);
+    return travelTimes;
+  }
+
+  private RaptorRequest<T> createRequest(int originStop) {
+    return new RaptorRequestBuilder<T>()
+      .profile(RaptorProfile.BEST_TIME)
+      .searchParams()
+      .earliestDepartureTime(earliestDepartureTime)
+      .searchWindowInSeconds(searchWindowInSeconds)
+      .latestArrivalTime(earliestDepartureTime + searchWindowInSeconds + maxTravelTime)
+      .addAccessPaths(new StopAccess(originStop))
+      .timetableEnabled(false)
+      .allowEmptyEgressPaths(true)
+      .constrainedTransfersEnabled(false)
+      .build();
+  }
+
+  private record OriginResult(int originIndex, TravelTimePercentiles travelTimes) {}
+
+  /**
+   * The search starts at the origin stop, with no access leg.
+   */
+  private record StopAccess(int stop) implements RaptorTransfer {
+    @Override
+    public int generalizedCost() {
+      return 0;
+    }
+
+    @Override
+    public int durationInSeconds() {
+      return 0;
+    }
+
+    @Override
+    public boolean hasOpeningHours() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.util.Arrays;
+import org.opentripplanner.transit.raptor.api.response.IterationStopArrivalsListener;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
+
+/**
+ * The travel times from one origin to a set of destination stops for every departure minute in the
+ * search window. Add it as the {@link IterationStopArrivalsListener} of a Range Raptor search, and
+ * read the travel time percentiles for each destination when the search is complete.
+ * <p>
+ * A destination not reached within the max travel time at a given departure minute counts as an
+ * infinite travel time, so the percentile is {@link #UNREACHED} if the destination is not reached
+ * for the given share of the departure minutes.
+ */
+class TravelTimePercentiles implements IterationStopArrivalsListener {
+
+  static final int UNREACHED = -1;
+
+  private final int[] destinationStops;
+  private final int maxTravelTime;
+
+  /** The travel times by iteration and destination, one block of destinations per iteration. */
+  private int[] travelTimes;
+  private int nIterations = 0;
+
+  TravelTimePercentiles(int[] destinationStops, int maxTravelTime) {
+    this.destinationStops = destinationStops;
+    this.maxTravelTime = maxTravelTime;
+    this.travelTimes = new int[destinationStops.length * 64];
+  }
+
+  @Override
+  public void iterationComplete(int iterationDepartureTime, StopArrivals stopArrivals) {
+    int n = destinationStops.length;
+    int offset = nIterations * n;
+    if (offset + n > travelTimes.length) {
+      travelTimes = Arrays.copyOf(travelTimes, 2 * (offset + n));
+    }
+    for (int i = 0; i < n; ++i) {
+      int stop = destinationStops[i];
+      int travelTime = Integer.MAX_VALUE;
+      if (stopArrivals.reached(stop)) {
+        int duration = stopArrivals.bestArrivalTime(stop) - iterationDepartureTime;
+        if (duration <= maxTravelTime) {
+          travelTime = duration;
+        }
+      }
+      travelTimes[offset + i] = travelTime;
+    }
+    ++nIterations;
+  }
+
+  int numberOfDestinations() {
+    return destinationStops.length;
+  }
+
+  int numberOfIterations() {
+    return nIterations;
+  }
+
+  /**
+   * The travel time percentiles in seconds to the destination with the given index, using the
+   * nearest-rank method. The percentiles are in the range (0, 100].
+   *
+   * @param scratch an array with at least {@link #numberOfIterations()} elements, to avoid
+   *                allocating an array for each destination.
+   */
+  int[] percentiles(int destinationIndex, int[] percentiles, int[] scratch) {
+    int n = destinationStops.length;
+    for (int i = 0; i < nIterations; ++i) {
+      scratch[i] = travelTimes[i * n + destinationIndex];
+    }
+    Arrays.sort(scratch, 0, nIterations);
+
+    int[] result = new int[percentiles.length];
+    for (int i = 0; i < percentiles.length; ++i) {
+      if (nIterations == 0) {
+        result[i] = UNREACHED;
+        continue;
+      }
+      int rank = (int) Math.ceil(percentiles[i] * nIterations / 100.0);
+      int value = scratch[Math.max(0, rank - 1)];
+      result[i] = value == Integer.MAX_VALUE ? UNREACHED : value;
+    }
+    return result;
+  }
+}
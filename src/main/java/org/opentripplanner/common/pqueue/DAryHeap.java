@@ -0,0 +1,207 @@
+package org.opentripplanner.common.pqueue;
+
+import java.util.Arrays;
+
+/**
+ * A 4-ary min-heap with support for decrease-key. Compared with the {@link BinHeap} the tree is
+ * shallower and the children of a node are adjacent in memory, which reduces the number of cache
+ * misses when sifting.
+ * <p>
+ * Elements can optionally be inserted with a dense integer key (like {@code Vertex#getIndex()}). At
+ * most one element per key can be in the queue at a time, and it can be looked up and replaced with
+ * {@link #rekey(int, Object, double)} instead of inserting a new element. Elements inserted without
+ * a key behave like elements in the {@link BinHeap}.
+ * <p>
+ * The heap is designed to be reused: {@link #reset()} only touches the positions of the elements
+ * still in the queue, so the cost of reuse is independent of the key capacity.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class DAryHeap<T> {
+
+  private static final int D = 4;
+  private static final int NO_KEY = -1;
+
+  private double[] prio;
+  private T[] elem;
+  private int[] keys;
+
+  /** Heap position + 1 for each key, 0 means the key is not in the queue. */
+  private int[] positions;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  public DAryHeap(int capacity, int keyCapacity) {
+    capacity = Math.max(capacity, 16);
+    this.prio = new double[capacity];
+    this.elem = (T[]) new Object[capacity];
+    this.keys = new int[capacity];
+    this.positions = new int[Math.max(keyCapacity, 0)];
+    this.size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean empty() {
+    return size == 0;
+  }
+
+  public double peek_min_key() {
+    if (size > 0) {
+      return prio[0];
+    }
+    throw new IllegalStateException("An empty queue does not have a minimum key.");
+  }
+
+  public T peek_min() {
+    return size > 0 ? elem[0] : null;
+  }
+
+  /** Insert an element which can not be looked up or rekeyed later. */
+  public void insert(T e, double p) {
+    insert(e, p, NO_KEY);
+  }
+
+  /**
+   * Insert an element with the given key. If the key is negative the element is not tracked.
+   *
+   * @throws IllegalStateException if there is already an element with the same key in the queue.
+   */
+  public void insert(T e, double p, int key) {
+    if (key >= 0 && contains(key)) {
+      throw new IllegalStateException("The key is already in the queue: " + key);
+    }
+    if (size == elem.length) {
+      grow();
+    }
+    siftUp(size++, e, p, key);
+  }
+
+  /** @return true if an element with the given key is in the queue. */
+  public boolean contains(int key) {
+    return key >= 0 && key < positions.length && positions[key] != 0;
+  }
+
+  /** @return the element with the given key, or {@code null} if the key is not in the queue. */
+  public T get(int key) {
+    return contains(key) ? elem[positions[key] - 1] : null;
+  }
+
+  /**
+   * Replace the element with the given key and change its priority. This is the decrease-key
+   * operation, but increasing the priority is also supported.
+   *
+   * @throws IllegalStateException if the key is not in the queue.
+   */
+  public void rekey(int key, T e, double p) {
+    if (!contains(key)) {
+      throw new IllegalStateException("The key is not in the queue: " + key);
+    }
+    int i = positions[key] - 1;
+    if (p < prio[i]) {
+      siftUp(i, e, p, key);
+    } else {
+      siftDown(i, e, p, key);
+    }
+  }
+
+  public T extract_min() {
+    if (size == 0) {
+      return null;
+    }
+    T minElem = elem[0];
+    clearPosition(keys[0]);
+
+    --size;
+    T lastElem = elem[size];
+    double lastPrio = prio[size];
+    int lastKey = keys[size];
+    elem[size] = null;
+
+    if (size > 0) {
+      siftDown(0, lastElem, lastPrio, lastKey);
+    }
+    return minElem;
+  }
+
+  /**
+   * Empty the queue, keeping the allocated memory. References to the remaining elements are
+   * released.
+   */
+  public void reset() {
+    for (int i = 0; i < size; ++i) {
+      clearPosition(keys[i]);
+      elem[i] = null;
+    }
+    size = 0;
+  }
+
+  /* private methods */
+
+  private void siftUp(int i, T e, double p, int key) {
+    while (i > 0) {
+      int parent = (i - 1) / D;
+      if (prio[parent] <= p) {
+        break;
+      }
+      move(parent, i);
+      i = parent;
+    }
+    set(i, e, p, key);
+  }
+
+  private void siftDown(int i, T e, double p, int key) {
+    while (true) {
+      int first = D * i + 1;
+      if (first >= size) {
+        break;
+      }
+      int last = Math.min(first + D, size);
+      int child = first;
+      double childPrio = prio[first];
+      for (int c = first + 1; c < last; ++c) {
+        if (prio[c] < childPrio) {
+          child = c;
+          childPrio = prio[c];
+        }
+      }
+      if (p <= childPrio) {
+        break;
+      }
+      move(child, i);
+      i = child;
+    }
+    set(i, e, p, key);
+  }
+
+  private void move(int from, int to) {
+    set(to, elem[from], prio[from], keys[from]);
+  }
+
+  private void set(int i, T e, double p, int key) {
+    elem[i] = e;
+    prio[i] = p;
+    keys[i] = key;
+    if (key >= 0) {
+      if (key >= positions.length) {
+        positions = Arrays.copyOf(positions, Math.max(key + 1, positions.length * 3 / 2));
+      }
+      positions[key] = i + 1;
+    }
+  }
+
+  private void clearPosition(int key) {
+    if (key >= 0) {
+      positions[key] = 0;
+    }
+  }
+
+  private void grow() {
+    int capacity = elem.length * 2;
+    prio = Arrays.copyOf(prio, capacity);
+    elem = Arrays.copyOf(elem, capacity);
+    keys = Arrays.copyOf(keys, capacity);
+  }
+}
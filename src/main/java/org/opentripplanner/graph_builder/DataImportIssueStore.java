@@ -1,6 +1,7 @@
 package org.opentripplanner.graph_builder;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -35,6 +36,16 @@ public class DataImportIssueStore {
     add(Issue.issue(type, message, arguments));
   }
 
+  /**
+   * Add issues already logged, like the issues collected in a separate store while loading a
+   * feed in parallel with other feeds.
+   */
+  public void addAll(Collection<DataImportIssue> issues) {
+    if (storeIssues) {
+      this.issues.addAll(issues);
+    }
+  }
+
   public List<DataImportIssue> getIssues() {
     return this.issues;
   }
@@ -21,6 +21,7 @@ import org.opentripplanner.graph_builder.model.GtfsBundle;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.GraphCoherencyCheckerModule;
 import org.opentripplanner.graph_builder.module.GtfsModule;
+import org.opentripplanner.graph_builder.module.LandmarkModule;
 import org.opentripplanner.graph_builder.module.OsmBoardingLocationsModule;
 import org.opentripplanner.graph_builder.module.PruneNoThruIslands;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
@@ -229,6 +230,10 @@ public class GraphBuilder implements Runnable {
 
     if (loadStreetGraph || hasOsm) {
       graphBuilder.addModule(new GraphCoherencyCheckerModule());
+
+      if (!config.landmarkModes.isEmpty()) {
+        graphBuilder.addModule(new LandmarkModule(config.landmarkModes, config.landmarkCount));
+      }
     }
 
     if (config.dataImportReport) {
@@ -1,15 +1,24 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
@@ -49,10 +58,19 @@ import org.opentripplanner.util.OTPFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Load the GTFS feeds and add them to the transit model.
+ * <p>
+ * The feeds are read, mapped and repaired in parallel, each feed in its own thread with its own
+ * {@link OtpTransitServiceBuilder} and issue store. The loaded feeds are then added to the
+ * transit model one at the time in the same order as the feeds are listed. The agency id
+ * conflicts are resolved in the feed order too, so the result does not depend on the order the
+ * feeds finish loading in.
+ */
 public class GtfsModule implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
+  /** Accessed from the loader threads, one feed at the time, in the feed order. */
   private final Set<String> agencyIdsSeen = Sets.newHashSet();
   /**
    * @see BuildConfig#transitServiceStart
@@ -62,7 +80,6 @@ public class GtfsModule implements GraphBuilderModule {
   private final List<GtfsBundle> gtfsBundles;
   private final FareServiceFactory fareServiceFactory;
   private final boolean discardMinTransferTimes;
-  private DataImportIssueStore issueStore;
   private int nextAgencyId = 1; // used for generating agency IDs to resolve ID conflicts
 
   public GtfsModule(
@@ -94,8 +111,6 @@ public class GtfsModule implements GraphBuilderModule {
     HashMap<Class<?>, Object> extra,
     DataImportIssueStore issueStore
   ) {
-    this.issueStore = issueStore;
-
     // we're about to add another agency to the graph, so clear the cached timezone
     // in case it should change
     // OTP doesn't currently support multiple time zones in a single graph;
@@ -107,31 +122,49 @@ public class GtfsModule implements GraphBuilderModule {
 
     boolean hasTransit = false;
 
-    try {
-      for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
-        GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
-          gtfsBundle.getFeedId().getId(),
-          issueStore,
-          discardMinTransferTimes,
-          gtfsDao
-        );
-        mapper.mapStopTripAndRouteDatantoBuilder();
-
-        OtpTransitServiceBuilder builder = mapper.getBuilder();
+    // Load at most one feed per thread ahead of the feed added to the transit model, this
+    // limits the number of loaded feeds kept in memory at the same time.
+    int nThreads = Math.max(
+      1,
+      Math.min(gtfsBundles.size(), Runtime.getRuntime().availableProcessors())
+    );
+    ExecutorService loadExecutor = Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setNameFormat("gtfs-loader-%d").setDaemon(true).build()
+    );
+    Deque<Future<LoadedFeed>> loadedFeeds = new ArrayDeque<>();
 
-        builder.limitServiceDays(transitPeriodLimit, issueStore);
+    try {
+      Iterator<GtfsBundle> bundles = gtfsBundles.iterator();
+      CountDownLatch previousFeedAgencyIdsResolved = new CountDownLatch(0);
+
+      while (bundles.hasNext() || !loadedFeeds.isEmpty()) {
+        while (bundles.hasNext() && loadedFeeds.size() < nThreads) {
+          GtfsBundle gtfsBundle = bundles.next();
+          CountDownLatch waitFor = previousFeedAgencyIdsResolved;
+          CountDownLatch agencyIdsResolved = new CountDownLatch(1);
+          loadedFeeds.add(
+            loadExecutor.submit(() -> loadFeed(gtfsBundle, waitFor, agencyIdsResolved))
+          );
+          previousFeedAgencyIdsResolved = agencyIdsResolved;
+        }
 
-        calendarServiceData.add(builder.buildCalendarServiceData());
+        LoadedFeed feed = waitForLoadedFeed(loadedFeeds.removeFirst());
+        GtfsBundle gtfsBundle = feed.gtfsBundle();
+        OtpTransitServiceBuilder builder = feed.builder();
 
-        if (OTPFeature.FlexRouting.isOn()) {
-          builder.getFlexTripsById().addAll(FlexTripsMapper.createFlexTrips(builder, issueStore));
-        }
+        issueStore.addAll(feed.issueStore().getIssues());
 
-        repairStopTimesForEachTrip(builder.getStopTimesSortedByTrip());
+        calendarServiceData.add(feed.calendarServiceData());
 
         // NB! The calls below have side effects - the builder state is updated!
-        createTripPatterns(graph, transitModel, builder, calendarServiceData.getServiceIds());
+        createTripPatterns(
+          graph,
+          transitModel,
+          builder,
+          calendarServiceData.getServiceIds(),
+          issueStore
+        );
 
         OtpTransitService otpTransitService = builder.build();
 
@@ -146,9 +179,9 @@ public class GtfsModule implements GraphBuilderModule {
         fareServiceFactory.processGtfs(otpTransitService);
         graph.putService(FareService.class, fareServiceFactory.makeFareService());
       }
-    } catch (IOException e) {
-      throw new RuntimeException(e);
     } finally {
+      loadedFeeds.forEach(f -> f.cancel(true));
+      loadExecutor.shutdownNow();
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -178,10 +211,71 @@ public class GtfsModule implements GraphBuilderModule {
 
   /* Private Methods */
 
+  /**
+   * Read, map and repair a single feed. This is run in a loader thread, the returned builder is
+   * added to the transit model later. The issues found are stored in a feed specific issue store,
+   * and added to the main issue store in the feed order.
+   */
+  private LoadedFeed loadFeed(
+    GtfsBundle gtfsBundle,
+    CountDownLatch previousFeedAgencyIdsResolved,
+    CountDownLatch agencyIdsResolved
+  ) throws IOException, InterruptedException {
+    try {
+      DataImportIssueStore feedIssueStore = new DataImportIssueStore(true);
+      GtfsMutableRelationalDao gtfsDao = loadBundle(
+        gtfsBundle,
+        previousFeedAgencyIdsResolved,
+        agencyIdsResolved
+      );
+      GTFSToOtpTransitServiceMapper mapper = new GTFSToOtpTransitServiceMapper(
+        gtfsBundle.getFeedId().getId(),
+        feedIssueStore,
+        discardMinTransferTimes,
+        gtfsDao
+      );
+      mapper.mapStopTripAndRouteDatantoBuilder();
+
+      OtpTransitServiceBuilder builder = mapper.getBuilder();
+
+      builder.limitServiceDays(transitPeriodLimit, feedIssueStore);
+
+      CalendarServiceData calendarServiceData = builder.buildCalendarServiceData();
+
+      if (OTPFeature.FlexRouting.isOn()) {
+        builder.getFlexTripsById().addAll(FlexTripsMapper.createFlexTrips(builder, feedIssueStore));
+      }
+
+      repairStopTimesForEachTrip(builder.getStopTimesSortedByTrip(), feedIssueStore);
+
+      return new LoadedFeed(gtfsBundle, builder, calendarServiceData, feedIssueStore);
+    } finally {
+      // Make sure the next feed is not blocked if this feed fails before the agencies are read
+      agencyIdsResolved.countDown();
+    }
+  }
+
+  private static LoadedFeed waitForLoadedFeed(Future<LoadedFeed> loadedFeed) {
+    try {
+      return loadedFeed.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
   /**
    * This method have side-effects, the {@code stopTimesByTrip} is updated.
    */
-  private void repairStopTimesForEachTrip(TripStopTimes stopTimesByTrip) {
+  private void repairStopTimesForEachTrip(
+    TripStopTimes stopTimesByTrip,
+    DataImportIssueStore issueStore
+  ) {
     new RepairStopTimesForEachTripOperation(stopTimesByTrip, issueStore).run();
   }
 
@@ -192,11 +286,12 @@ public class GtfsModule implements GraphBuilderModule {
     Graph graph,
     TransitModel transitModel,
     OtpTransitServiceBuilder builder,
-    Set<FeedScopedId> calServiceIds
+    Set<FeedScopedId> calServiceIds,
+    DataImportIssueStore issueStore
   ) {
     GenerateTripPatternsOperation buildTPOp = new GenerateTripPatternsOperation(
       builder,
-      this.issueStore,
+      issueStore,
       graph.deduplicator,
       calServiceIds
     );
@@ -233,7 +328,15 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+  /**
+   * The agency ids are resolved when the previous feed is done resolving its agency ids, this
+   * keeps the generated agency ids the same as when the feeds are loaded one at the time.
+   */
+  private GtfsMutableRelationalDao loadBundle(
+    GtfsBundle gtfsBundle,
+    CountDownLatch previousFeedAgencyIdsResolved,
+    CountDownLatch agencyIdsResolved
+  ) throws IOException, InterruptedException {
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
@@ -246,7 +349,7 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
       LOG.info("reading entities: " + entityClass.getName());
@@ -256,6 +359,7 @@ public class GtfsModule implements GraphBuilderModule {
       // set the agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
       // agency mappings accumulating.
       if (entityClass == Agency.class) {
+        previousFeedAgencyIdsResolved.await();
         for (Agency agency : reader.getAgencies()) {
           String agencyId = agency.getId();
           LOG.info("This Agency has the ID {}", agencyId);
@@ -279,6 +383,7 @@ public class GtfsModule implements GraphBuilderModule {
           }
           if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
         }
+        agencyIdsResolved.countDown();
       }
     }
 
@@ -353,6 +458,14 @@ public class GtfsModule implements GraphBuilderModule {
     route.setTextColor(textColor);
   }
 
+  /** A feed read, mapped and repaired, ready to be added to the transit model. */
+  private record LoadedFeed(
+    GtfsBundle gtfsBundle,
+    OtpTransitServiceBuilder builder,
+    CalendarServiceData calendarServiceData,
+    DataImportIssueStore issueStore
+  ) {}
+
   private static class StoreImpl implements GenericMutableDao {
 
     private final GtfsMutableRelationalDao dao;
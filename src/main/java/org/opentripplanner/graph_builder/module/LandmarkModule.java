@@ -0,0 +1,59 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.HashMap;
+import java.util.Set;
+import org.opentripplanner.graph_builder.DataImportIssueStore;
+import org.opentripplanner.graph_builder.services.GraphBuilderModule;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkService;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkTable;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkTableBuilder;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.util.OtpAppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the landmark tables used by the landmark (ALT) heuristic for direct car and bicycle
+ * searches. This must run after the street network is complete, the tables only cover the
+ * vertices and edges present when they are computed.
+ */
+public class LandmarkModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LandmarkModule.class);
+
+  private final Set<TraverseMode> modes;
+  private final int landmarkCount;
+
+  public LandmarkModule(Set<TraverseMode> modes, int landmarkCount) {
+    this.modes = modes;
+    this.landmarkCount = landmarkCount;
+  }
+
+  @Override
+  public void buildGraph(
+    Graph graph,
+    TransitModel transitModel,
+    HashMap<Class<?>, Object> extra,
+    DataImportIssueStore issueStore
+  ) {
+    LandmarkService service = new LandmarkService();
+    for (TraverseMode mode : modes) {
+      LOG.info("Computing {} landmarks for {}...", landmarkCount, mode);
+      LandmarkTable table = new LandmarkTableBuilder(graph, mode, landmarkCount).build();
+      service.add(table);
+      LOG.info("Done computing landmarks: {}", table);
+    }
+    graph.putService(LandmarkService.class, service);
+  }
+
+  @Override
+  public void checkInputs() {
+    for (TraverseMode mode : modes) {
+      if (mode != TraverseMode.CAR && mode != TraverseMode.BICYCLE) {
+        throw new OtpAppException("Landmarks are only supported for CAR and BICYCLE, not %s", mode);
+      }
+    }
+  }
+}
@@ -211,6 +211,7 @@ public class NearbyStopFinder {
       .allDirections(getSkipEdgeStrategy(reverseDirection, routingRequest))
       .setDominanceFunction(new DominanceFunction.MinimumWeight())
       .setContext(routingContext)
+      .setIndexedSearchState(OTPFeature.IndexedStreetSearch.isOn())
       .getShortestPathTree();
 
     // Only used if OTPFeature.FlexRouting.isOn()
@@ -243,6 +244,7 @@ public class NearbyStopFinder {
           }
         }
       }
+      spt.release();
     }
 
     if (OTPFeature.FlexRouting.isOn()) {
@@ -57,8 +57,8 @@ public class OSMDatabase {
 
   private final DataImportIssueStore issueStore;
 
-  /* Map of all nodes used in ways/areas keyed by their OSM ID */
-  private final TLongObjectMap<OSMNode> nodesById = new TLongObjectHashMap<>();
+  /* All nodes used in ways/areas keyed by their OSM ID */
+  private final OSMNodeStore nodesById = new OSMNodeStore();
 
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OSMNode> bikeParkingNodes = new TLongObjectHashMap<>();
@@ -230,7 +230,7 @@ public class OSMDatabase {
     if (nodesById.containsKey(node.getId())) {
       return;
     }
-    nodesById.put(node.getId(), node);
+    nodesById.put(node);
   }
 
   public void addWay(OSMWay way) {
@@ -368,6 +368,8 @@ public class OSMDatabase {
    * and nodes are loaded, handle areas.
    */
   public void doneThirdPhaseNodes() {
+    nodesById.trimToSize();
+    LOG.info("Nodes loaded: {}", nodesById);
     processMultipolygonRelations();
     processSingleWayAreas();
   }
@@ -692,7 +694,7 @@ public class OSMDatabase {
     node.setId(virtualNodeId);
     virtualNodeId--;
     waysNodeIds.add(node.getId());
-    nodesById.put(node.getId(), node);
+    nodesById.put(node);
     return node;
   }
 
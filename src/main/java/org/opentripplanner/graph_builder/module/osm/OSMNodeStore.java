@@ -0,0 +1,191 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.Arrays;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * Store the OSM nodes used by ways and areas, keyed by the OSM id.
+ * <p>
+ * Most nodes have no tags, for these only the coordinate is needed. To save memory the id and
+ * coordinate of untagged nodes are stored in primitive arrays, and a new {@link OSMNode} is created
+ * each time such a node is fetched. Tagged nodes, and virtual nodes (negative ids), are kept as
+ * objects.
+ * <p>
+ * The untagged nodes are appended to one growing set of arrays. The nodes in a PBF file are sorted
+ * by id, as long as the ids increase the nodes are found using binary search. The nodes added after
+ * the first id out of order are indexed in a hash map until {@link #trimToSize()} sorts the arrays
+ * once. This keeps unsorted input, like several input files, from being slow.
+ */
+class OSMNodeStore {
+
+  /** Some VMs reserve header words in an array, this is the max size safe to allocate. */
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final TLongObjectMap<OSMNode> nodesAsObjects = new TLongObjectHashMap<>();
+
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private double[] lats = new double[INITIAL_CAPACITY];
+  private double[] lons = new double[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /** The nodes before this index are sorted by id, the rest are in the {@code unsortedIndex}. */
+  private int sortedSize = 0;
+
+  /** The array index of the nodes added out of id order, by id. */
+  private TLongIntMap unsortedIndex = newUnsortedIndex();
+
+  /**
+   * Add a node, the caller must check that the node does not already exist.
+   */
+  void put(OSMNode node) {
+    long id = node.getId();
+    if (id < 0 || (node.getTags() != null && !node.getTags().isEmpty())) {
+      nodesAsObjects.put(id, node);
+      return;
+    }
+    if (size == ids.length) {
+      grow(newCapacity());
+    }
+    ids[size] = id;
+    lats[size] = node.lat;
+    lons[size] = node.lon;
+
+    if (sortedSize == size && (size == 0 || id > ids[size - 1])) {
+      ++sortedSize;
+    } else {
+      unsortedIndex.put(id, size);
+    }
+    ++size;
+  }
+
+  boolean containsKey(long id) {
+    return nodesAsObjects.containsKey(id) || indexOf(id) >= 0;
+  }
+
+  /**
+   * Return the node for the given id, or {@code null} if not found. Untagged nodes are created on
+   * each call, so the same node may be returned as different, but equal, instances.
+   */
+  OSMNode get(long id) {
+    OSMNode node = nodesAsObjects.get(id);
+    if (node != null) {
+      return node;
+    }
+    int index = indexOf(id);
+    if (index < 0) {
+      return null;
+    }
+    node = new OSMNode();
+    node.setId(id);
+    node.lat = lats[index];
+    node.lon = lons[index];
+    return node;
+  }
+
+  int size() {
+    return nodesAsObjects.size() + size;
+  }
+
+  /**
+   * Sort the nodes added out of id order and release the unused capacity of the arrays, call this
+   * when all nodes are added.
+   */
+  void trimToSize() {
+    if (sortedSize < size) {
+      heapSort();
+      sortedSize = size;
+      unsortedIndex = newUnsortedIndex();
+    }
+    grow(size);
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "OSMNodeStore{nodesAsObjects: " +
+      nodesAsObjects.size() +
+      ", nodesAsCoordinates: " +
+      size +
+      ", unsortedCoordinates: " +
+      (size - sortedSize) +
+      "}"
+    );
+  }
+
+  private static TLongIntMap newUnsortedIndex() {
+    return new TLongIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, -1);
+  }
+
+  private int indexOf(long id) {
+    if (sortedSize > 0 && id >= ids[0] && id <= ids[sortedSize - 1]) {
+      int index = Arrays.binarySearch(ids, 0, sortedSize, id);
+      if (index >= 0) {
+        return index;
+      }
+    }
+    return unsortedIndex.isEmpty() ? -1 : unsortedIndex.get(id);
+  }
+
+  private int newCapacity() {
+    if (size == MAX_ARRAY_SIZE) {
+      throw new IllegalStateException("Too many OSM nodes, the max is " + MAX_ARRAY_SIZE);
+    }
+    return (int) Math.min(MAX_ARRAY_SIZE, Math.max(INITIAL_CAPACITY, size + (long) (size >> 1)));
+  }
+
+  private void grow(int capacity) {
+    ids = Arrays.copyOf(ids, capacity);
+    lats = Arrays.copyOf(lats, capacity);
+    lons = Arrays.copyOf(lons, capacity);
+  }
+
+  /**
+   * Sort the ids and coordinates by id in place. A heap sort is used to avoid allocating an index
+   * array as large as the node arrays, and it is O(n log n) in the worst case.
+   */
+  private void heapSort() {
+    for (int i = size / 2 - 1; i >= 0; --i) {
+      siftDown(i, size);
+    }
+    for (int end = size - 1; end > 0; --end) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+  }
+
+  private void siftDown(int i, int end) {
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= end) {
+        return;
+      }
+      if (child + 1 < end && ids[child + 1] > ids[child]) {
+        ++child;
+      }
+      if (ids[i] >= ids[child]) {
+        return;
+      }
+      swap(i, child);
+      i = child;
+    }
+  }
+
+  private void swap(int i, int j) {
+    long id = ids[i];
+    ids[i] = ids[j];
+    ids[j] = id;
+    double lat = lats[i];
+    lats[i] = lats[j];
+    lats[j] = lat;
+    double lon = lons[i];
+    lons[i] = lons[j];
+    lons[j] = lon;
+  }
+}
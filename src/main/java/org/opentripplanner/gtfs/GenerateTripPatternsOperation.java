@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
+import org.opentripplanner.graph_builder.DataImportIssue;
 import org.opentripplanner.graph_builder.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GTFSModeNotSupported;
 import org.opentripplanner.graph_builder.issues.TripDegenerate;
@@ -68,13 +69,24 @@ public class GenerateTripPatternsOperation {
     final Collection<Trip> trips = transitDaoBuilder.getTripsById().values();
     final int tripsSize = trips.size();
 
+    /*
+     * Validate the trips and create the stop patterns and trip times in parallel. The trip
+     * patterns are created and the trips are added to them in the trip order, this keeps the
+     * generated trip pattern ids independent of the thread scheduling.
+     */
+    List<TripData> tripData = trips.parallelStream().map(this::createTripData).toList();
+
     /* Loop over all trips, handling each one as a frequency-based or scheduled trip. */
-    for (Trip trip : trips) {
+    for (TripData it : tripData) {
       if (++tripCount % 100000 == 0) {
         LOG.debug("build trip patterns {}/{}", tripCount, tripsSize);
       }
 
-      buildTripPatternForTrip(trip);
+      if (it.issue != null) {
+        issueStore.add(it.issue);
+      } else {
+        buildTripPatternForTrip(it.trip, it.stopPattern, it.tripTimes);
+      }
     }
 
     LOG.info(
@@ -103,20 +115,24 @@ public class GenerateTripPatternsOperation {
     }
   }
 
-  private void buildTripPatternForTrip(Trip trip) {
+  /**
+   * Validate the trip and create the stop pattern and the trip times for it. This is called from
+   * several threads, so it must not change the state of this class.
+   */
+  private TripData createTripData(Trip trip) {
     // TODO: move to a validator module
     // Check that the mode is supported
     if (trip.getRoute().getMode() == null) {
-      issueStore.add(
+      return TripData.ofIssue(
+        trip,
         new GTFSModeNotSupported(trip, Integer.toString(trip.getRoute().getGtfsType()))
       );
-      return;
     }
 
     // TODO: move to a validator module
     if (!calendarServiceIds.contains(trip.getServiceId())) {
-      issueStore.add(new TripUndefinedService(trip));
-      return; // Invalid trip, skip it, it will break later
+      // Invalid trip, skip it, it will break later
+      return TripData.ofIssue(trip, new TripUndefinedService(trip));
     }
 
     List<StopTime> stopTimes = transitDaoBuilder.getStopTimesSortedByTrip().get(trip);
@@ -127,19 +143,23 @@ public class GenerateTripPatternsOperation {
     // flex trips are allowed to have a single stop because that can be an area or a group of stops
     var flexTripWithZeroStops = FlexTrip.containsFlexStops(stopTimes) && stopTimes.size() < 1;
     if (staticTripWithFewerThan2Stops || flexTripWithZeroStops) {
-      issueStore.add(new TripDegenerate(trip));
-      return;
+      return TripData.ofIssue(trip, new TripDegenerate(trip));
     }
 
-    // Get the existing TripPattern for this filtered StopPattern, or create one.
-    StopPattern stopPattern = new StopPattern(stopTimes);
+    // Create a TripTimes object for this list of stoptimes, which form one trip.
+    return new TripData(
+      trip,
+      new StopPattern(stopTimes),
+      new TripTimes(trip, stopTimes, deduplicator),
+      null
+    );
+  }
 
+  private void buildTripPatternForTrip(Trip trip, StopPattern stopPattern, TripTimes tripTimes) {
+    // Get the existing TripPattern for this filtered StopPattern, or create one.
     Direction direction = trip.getDirection();
     TripPattern tripPattern = findOrCreateTripPattern(stopPattern, trip.getRoute(), direction);
 
-    // Create a TripTimes object for this list of stoptimes, which form one trip.
-    TripTimes tripTimes = new TripTimes(trip, stopTimes, deduplicator);
-
     // If this trip is referenced by one or more lines in frequencies.txt, wrap it in a FrequencyEntry.
     List<Frequency> frequencies = frequenciesForTrip.get(trip);
     if (frequencies != null && !(frequencies.isEmpty())) {
@@ -191,4 +211,19 @@ public class GenerateTripPatternsOperation {
 
     return new FeedScopedId(routeId.getFeedId(), id);
   }
+
+  /**
+   * The stop pattern and trip times for a valid trip, or the issue found if the trip is not
+   * valid.
+   */
+  private record TripData(
+    Trip trip,
+    StopPattern stopPattern,
+    TripTimes tripTimes,
+    DataImportIssue issue
+  ) {
+    static TripData ofIssue(Trip trip, DataImportIssue issue) {
+      return new TripData(trip, null, null, issue);
+    }
+  }
 }
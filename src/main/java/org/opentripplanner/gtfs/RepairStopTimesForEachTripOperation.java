@@ -48,36 +48,51 @@ public class RepairStopTimesForEachTripOperation {
     this.issueStore = issueStore;
   }
 
+  /**
+   * The trips are repaired in parallel, each trip is independent of the others. The result is
+   * applied to the {@code stopTimesByTrip} and the issues are reported in the trip order, so the
+   * result does not depend on the thread scheduling.
+   */
   public void run() {
     final int tripSize = stopTimesByTrip.size();
     int tripCount = 0;
 
-    for (Trip trip : stopTimesByTrip.keys()) {
+    List<Trip> trips = new ArrayList<>();
+    stopTimesByTrip.keys().forEach(trips::add);
+
+    List<RepairedTrip> repairedTrips = trips.parallelStream().map(this::repairTrip).toList();
+
+    for (RepairedTrip it : repairedTrips) {
       if (++tripCount % 100000 == 0) {
         LOG.debug("Repair StopTimes for trips {}/{}", tripCount, tripSize);
       }
+      it.issues.forEach(issueStore::add);
+      stopTimesByTrip.replace(it.trip, it.stopTimes);
+    }
+  }
 
-      /* Fetch the stop times for this trip. Copy the list since it's immutable. */
-      List<StopTime> stopTimes = new ArrayList<>(stopTimesByTrip.get(trip));
+  private RepairedTrip repairTrip(Trip trip) {
+    List<DataImportIssue> issues = new ArrayList<>();
 
-      // if we don't have flex routing enabled then remove all the flex locations and location
-      // groups
-      if (OTPFeature.FlexRouting.isOff()) {
-        stopTimes.removeIf(st -> !(st.getStop() instanceof Stop));
-      }
+    /* Fetch the stop times for this trip. Copy the list since it's immutable. */
+    List<StopTime> stopTimes = new ArrayList<>(stopTimesByTrip.get(trip));
 
-      /* Stop times frequently contain duplicate, missing, or incorrect entries. Repair them. */
-      TIntList removedStopSequences = removeRepeatedStops(stopTimes);
-      if (!removedStopSequences.isEmpty()) {
-        issueStore.add(new RepeatedStops(trip, removedStopSequences));
-      }
-      if (!filterStopTimes(stopTimes)) {
-        stopTimesByTrip.replace(trip, List.of());
-      } else {
-        interpolateStopTimes(stopTimes);
-        stopTimesByTrip.replace(trip, stopTimes);
-      }
+    // if we don't have flex routing enabled then remove all the flex locations and location
+    // groups
+    if (OTPFeature.FlexRouting.isOff()) {
+      stopTimes.removeIf(st -> !(st.getStop() instanceof Stop));
+    }
+
+    /* Stop times frequently contain duplicate, missing, or incorrect entries. Repair them. */
+    TIntList removedStopSequences = removeRepeatedStops(stopTimes);
+    if (!removedStopSequences.isEmpty()) {
+      issues.add(new RepeatedStops(trip, removedStopSequences));
+    }
+    if (!filterStopTimes(stopTimes, issues)) {
+      return new RepairedTrip(trip, List.of(), issues);
     }
+    interpolateStopTimes(stopTimes);
+    return new RepairedTrip(trip, stopTimes, issues);
   }
 
   /**
@@ -129,9 +144,10 @@ public class RepairStopTimesForEachTripOperation {
    * are reported to reveal the problems to the user.
    *
    * @param stopTimes the stoptimes to be filtered (from a single trip)
+   * @param issues    the issues found are added to this list
    * @return whether the stop time is usable
    */
-  private boolean filterStopTimes(List<StopTime> stopTimes) {
+  private boolean filterStopTimes(List<StopTime> stopTimes, List<DataImportIssue> issues) {
     if (stopTimes.size() < 2) {
       return false;
     }
@@ -168,13 +184,13 @@ public class RepairStopTimesForEachTripOperation {
       }
       int dwellTime = st0.getDepartureTime() - st0.getArrivalTime();
       if (dwellTime < 0) {
-        issueStore.add(new NegativeDwellTime(st0));
+        issues.add(new NegativeDwellTime(st0));
         return false;
       }
 
       int runningTime = st1.getArrivalTime() - st0.getDepartureTime();
       if (runningTime < 0) {
-        issueStore.add(new NegativeHopTime(new StopTime(st0), new StopTime(st1)));
+        issues.add(new NegativeHopTime(new StopTime(st0), new StopTime(st1)));
         return false;
       }
 
@@ -185,16 +201,16 @@ public class RepairStopTimesForEachTripOperation {
       double hopSpeed = hopDistance / runningTime;
 
       if (hopDistance == 0) {
-        issueStore.add(new HopZeroDistance(runningTime, st1.getTrip(), st1.getStopSequence()));
+        issues.add(new HopZeroDistance(runningTime, st1.getTrip(), st1.getStopSequence()));
       }
       // sanity-check the hop
       if (runningTime == 0) {
         // series of identical stop times at different stops
-        issueStore.add(new HopZeroTime((float) hopDistance, st1.getTrip(), st1.getStopSequence()));
+        issues.add(new HopZeroTime((float) hopDistance, st1.getTrip(), st1.getStopSequence()));
       } else if (hopSpeed > 45) {
         // 45 m/sec ~= 100 miles/hr
         // elapsed time of 0 will give speed of +inf
-        issueStore.add(
+        issues.add(
           new HopSpeedFast(
             (float) hopSpeed,
             (float) hopDistance,
@@ -204,7 +220,7 @@ public class RepairStopTimesForEachTripOperation {
         );
       } else if (hopSpeed < 0.1) {
         // 0.1 m/sec ~= 0.2 miles/hr
-        issueStore.add(
+        issues.add(
           new HopSpeedSlow(
             (float) hopSpeed,
             (float) hopDistance,
@@ -292,4 +308,7 @@ public class RepairStopTimesForEachTripOperation {
       }
     }
   }
+
+  /** The repaired stop times and the issues found for a trip. */
+  private record RepairedTrip(Trip trip, List<StopTime> stopTimes, List<DataImportIssue> issues) {}
 }
@@ -12,4 +12,10 @@ package org.opentripplanner.model;
  */
 public interface TimetableSnapshotProvider {
   TimetableSnapshot getTimetableSnapshot();
+
+  /**
+   * Epoch time in milliseconds at which the current snapshot was committed, -1 if no snapshot is
+   * committed yet.
+   */
+  long getSnapshotCommitTime();
 }
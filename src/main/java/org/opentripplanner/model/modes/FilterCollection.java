@@ -1,6 +1,7 @@
 package org.opentripplanner.model.modes;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import org.opentripplanner.transit.model.network.SubMode;
 import org.opentripplanner.transit.model.network.TransitMode;
@@ -33,4 +34,24 @@ public class FilterCollection implements AllowTransitModeFilter {
     }
     return false;
   }
+
+  /**
+   * The order of the filters does not change which modes are allowed, so it is ignored.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FilterCollection that = (FilterCollection) o;
+    return new HashSet<>(filters).equals(new HashSet<>(that.filters));
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashSet<>(filters).hashCode();
+  }
 }
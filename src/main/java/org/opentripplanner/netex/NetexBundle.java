@@ -1,9 +1,18 @@
 package org.opentripplanner.netex;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.xml.bind.JAXBException;
 import org.opentripplanner.datastore.CompositeDataSource;
 import org.opentripplanner.datastore.DataSource;
@@ -42,24 +51,35 @@ public class NetexBundle implements Closeable {
 
   private final String netexFeedId;
   private final Set<String> ferryIdsNotAllowedForBicycle;
+  private final int parseThreads;
+  private final boolean parseFrameByFrame;
   /** The NeTEx entities loaded from the input files and passed on to the mapper. */
   private NetexEntityIndex index = new NetexEntityIndex();
   /** Report errors to issue store */
   private DataImportIssueStore issueStore;
   /** maps the NeTEx XML document to OTP transit model. */
   private NetexMapper mapper;
-  private NetexXmlParser xmlParser;
+  /** One XML parser for each thread, the parser is not thread safe. */
+  private final ThreadLocal<NetexXmlParser> xmlParser = ThreadLocal.withInitial(
+    NetexXmlParser::new
+  );
+  /** Parse group files in parallel, {@code null} if all files are parsed in the caller thread. */
+  private ExecutorService parseExecutor;
 
   public NetexBundle(
     String netexFeedId,
     CompositeDataSource source,
     NetexDataSourceHierarchy hierarchy,
-    Set<String> ferryIdsNotAllowedForBicycle
+    Set<String> ferryIdsNotAllowedForBicycle,
+    int parseThreads,
+    boolean parseFrameByFrame
   ) {
     this.netexFeedId = netexFeedId;
     this.source = source;
     this.hierarchy = hierarchy;
     this.ferryIdsNotAllowedForBicycle = ferryIdsNotAllowedForBicycle;
+    this.parseThreads = parseThreads;
+    this.parseFrameByFrame = parseFrameByFrame;
   }
 
   /** load the bundle, map it to the OTP transit model and return */
@@ -74,8 +94,7 @@ public class NetexBundle implements Closeable {
     // Store result in a mutable OTP Transit Model
     OtpTransitServiceBuilder transitBuilder = new OtpTransitServiceBuilder();
 
-    // init parser and mapper
-    xmlParser = new NetexXmlParser();
+    // init mapper
     mapper =
       new NetexMapper(
         transitBuilder,
@@ -86,7 +105,21 @@ public class NetexBundle implements Closeable {
       );
 
     // Load data
-    loadFileEntries();
+    if (parseThreads > 1) {
+      parseExecutor =
+        Executors.newFixedThreadPool(
+          parseThreads,
+          new ThreadFactoryBuilder().setNameFormat("netex-parser-%d").setDaemon(true).build()
+        );
+    }
+    try {
+      loadFileEntries();
+    } finally {
+      if (parseExecutor != null) {
+        parseExecutor.shutdownNow();
+        parseExecutor = null;
+      }
+    }
 
     return transitBuilder;
   }
@@ -116,12 +149,8 @@ public class NetexBundle implements Closeable {
         // Load shared group files
         loadFilesThenMapToOtpTransitModel("shared group file", group.sharedEntries());
 
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToOtpTransitModel("group file", List.of(entry));
-          });
-        }
+        // Load each independent file in group
+        loadIndependentFiles(group.independentEntries());
       });
     }
     mapper.finnishUp();
@@ -152,9 +181,70 @@ public class NetexBundle implements Closeable {
   ) {
     for (DataSource entry : entries) {
       // Load entry and store it in the index
-      loadSingeFileEntry(fileDescription, entry);
+      loadSingeFileEntry(index, fileDescription, entry);
+    }
+    validateAndMapToOtpTransitModel();
+  }
+
+  /**
+   * Load each of the independent files in a group, and map it to the OTP Transit model, in a
+   * scope of its own.
+   * <p>
+   * With more than one parse thread, the files are parsed in parallel, each into its own index on
+   * top of the group index. The indexes are then validated and mapped one at the time, in the
+   * same order as the files, so the result does not depend on the number of threads. At most two
+   * files per thread are parsed ahead of the mapping, to limit the memory used.
+   */
+  private void loadIndependentFiles(Collection<DataSource> entries) {
+    if (parseExecutor == null) {
+      for (DataSource entry : entries) {
+        scopeInputData(() -> loadFilesThenMapToOtpTransitModel("group file", List.of(entry)));
+      }
+      return;
+    }
+
+    final NetexEntityIndex groupIndex = index;
+    Deque<Future<NetexEntityIndex>> parsedFiles = new ArrayDeque<>();
+    Iterator<DataSource> it = entries.iterator();
+
+    try {
+      while (it.hasNext() || !parsedFiles.isEmpty()) {
+        while (it.hasNext() && parsedFiles.size() < 2 * parseThreads) {
+          DataSource entry = it.next();
+          parsedFiles.add(
+            parseExecutor.submit(() -> {
+              NetexEntityIndex fileIndex = groupIndex.push();
+              loadSingeFileEntry(fileIndex, "group file", entry);
+              return fileIndex;
+            })
+          );
+        }
+        index = waitForParsedFile(parsedFiles.poll());
+        mapper = mapper.push();
+        validateAndMapToOtpTransitModel();
+        mapper = mapper.pop();
+        index = index.pop();
+      }
+    } finally {
+      parsedFiles.forEach(f -> f.cancel(true));
     }
+  }
 
+  private static NetexEntityIndex waitForParsedFile(Future<NetexEntityIndex> parsedFile) {
+    try {
+      return parsedFile.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  private void validateAndMapToOtpTransitModel() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -162,13 +252,24 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
-  /** Load a single entry and store it in the index for later */
-  private void loadSingeFileEntry(String fileDescription, DataSource entry) {
+  /** Load a single entry and store it in the given index for later */
+  private void loadSingeFileEntry(
+    NetexEntityIndex targetIndex,
+    String fileDescription,
+    DataSource entry
+  ) {
     try {
       LOG.info("reading entity {}: {}", fileDescription, entry.name());
 
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
-      NetexDocumentParser.parseAndPopulateIndex(index, doc);
+      if (parseFrameByFrame) {
+        NetexDocumentParser parser = NetexDocumentParser.frameParser(targetIndex);
+        xmlParser
+          .get()
+          .parseXmlDocFrames(entry.asInputStream(), parser::parseFrameDefaults, parser::parseFrame);
+      } else {
+        PublicationDeliveryStructure doc = xmlParser.get().parseXmlDoc(entry.asInputStream());
+        NetexDocumentParser.parseAndPopulateIndex(targetIndex, doc);
+      }
     } catch (JAXBException e) {
       throw new RuntimeException(e.getMessage(), e);
     }
@@ -67,7 +67,9 @@ public class NetexConfig {
       buildParams.netex.netexFeedId,
       source,
       hierarchy(source),
-      buildParams.netex.ferryIdsNotAllowedForBicycle
+      buildParams.netex.ferryIdsNotAllowedForBicycle,
+      buildParams.netex.parseThreads,
+      buildParams.netex.parseFrameByFrame
     );
   }
 
@@ -1,15 +1,43 @@
 package org.opentripplanner.netex.loader;
 
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
 import java.io.InputStream;
+import java.util.function.Consumer;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.JAXBIntrospector;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.rutebanken.netex.model.Common_VersionFrameStructure;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
+import org.rutebanken.netex.model.VersionFrameDefaultsStructure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * THREAD SAFETY - A parser instance is not thread safe, create one parser for each thread. The
+ * {@link JAXBContext} is created once and shared by all parsers.
+ */
 public class NetexXmlParser {
 
+  private static final Logger LOG = LoggerFactory.getLogger(NetexXmlParser.class);
+
+  private static final JAXBContext CONTEXT = createContext();
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+  private static final String DATA_OBJECTS = "dataObjects";
+  private static final String COMPOSITE_FRAME = "CompositeFrame";
+  private static final String FRAME_DEFAULTS = "FrameDefaults";
+  private static final String FRAMES = "frames";
+
   /** used to parse the XML. */
   private final Unmarshaller unmarshaller;
 
@@ -29,10 +57,137 @@ public class NetexXmlParser {
     return root.getValue();
   }
 
+  /**
+   * Parse an input stream one frame at the time, the whole document is never kept in memory. Each
+   * frame in the {@code dataObjects} element is unmarshalled and passed to the {@code frameHandler}
+   * before the next frame is read. Composite frames are not unmarshalled, instead the frame
+   * defaults(or {@code null}) are passed to the {@code frameDefaultsHandler} and then each of the
+   * nested frames to the {@code frameHandler}. All other elements in the document are skipped.
+   */
+  public void parseXmlDocFrames(
+    InputStream stream,
+    Consumer<VersionFrameDefaultsStructure> frameDefaultsHandler,
+    Consumer<Common_VersionFrameStructure> frameHandler
+  ) throws JAXBException {
+    try {
+      XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(stream);
+      try {
+        // Move to the PublicationDelivery root element
+        reader.nextTag();
+        forEachChildElement(
+          reader,
+          name -> {
+            if (DATA_OBJECTS.equals(name)) {
+              parseFrames(reader, frameDefaultsHandler, frameHandler);
+            } else {
+              skipElement(reader);
+            }
+          }
+        );
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new JAXBException(e.getMessage(), e);
+    }
+  }
+
+  /** Parse each frame in the element at the reader position. */
+  private void parseFrames(
+    XMLStreamReader reader,
+    Consumer<VersionFrameDefaultsStructure> frameDefaultsHandler,
+    Consumer<Common_VersionFrameStructure> frameHandler
+  ) throws XMLStreamException, JAXBException {
+    forEachChildElement(reader, name -> parseFrame(reader, frameDefaultsHandler, frameHandler));
+  }
+
+  private void parseFrame(
+    XMLStreamReader reader,
+    Consumer<VersionFrameDefaultsStructure> frameDefaultsHandler,
+    Consumer<Common_VersionFrameStructure> frameHandler
+  ) throws XMLStreamException, JAXBException {
+    if (COMPOSITE_FRAME.equals(reader.getLocalName())) {
+      // The frame defaults are passed on once for each composite frame, null if not set. The
+      // FrameDefaults element comes before the frames element in a valid document.
+      boolean[] frameDefaultsParsed = { false };
+      forEachChildElement(
+        reader,
+        name -> {
+          if (FRAME_DEFAULTS.equals(name)) {
+            frameDefaultsHandler.accept(
+              unmarshaller.unmarshal(reader, VersionFrameDefaultsStructure.class).getValue()
+            );
+            frameDefaultsParsed[0] = true;
+          } else if (FRAMES.equals(name)) {
+            if (!frameDefaultsParsed[0]) {
+              frameDefaultsHandler.accept(null);
+              frameDefaultsParsed[0] = true;
+            }
+            parseFrames(reader, frameDefaultsHandler, frameHandler);
+          } else {
+            skipElement(reader);
+          }
+        }
+      );
+      if (!frameDefaultsParsed[0]) {
+        frameDefaultsHandler.accept(null);
+      }
+      return;
+    }
+
+    Object frame = JAXBIntrospector.getValue(unmarshaller.unmarshal(reader));
+
+    if (frame instanceof Common_VersionFrameStructure commonFrame) {
+      frameHandler.accept(commonFrame);
+    } else {
+      LOG.warn("Element is not a NeTEx frame, skipped: {}", frame.getClass().getSimpleName());
+    }
+  }
+
+  /**
+   * Call the given {@code handler} for each child element of the element at the reader position.
+   * The reader must be positioned at the start of the parent element. The handler is called with
+   * the reader at the start of the child element, and must leave the reader after the end of the
+   * child element, like {@link Unmarshaller#unmarshal(XMLStreamReader)} does. When this method
+   * returns the reader is after the end of the parent element.
+   */
+  private static void forEachChildElement(XMLStreamReader reader, ElementHandler handler)
+    throws XMLStreamException, JAXBException {
+    reader.next();
+    while (true) {
+      int event = reader.getEventType();
+      if (event == START_ELEMENT) {
+        handler.handle(reader.getLocalName());
+      } else if (event == END_ELEMENT) {
+        reader.next();
+        return;
+      } else {
+        reader.next();
+      }
+    }
+  }
+
+  /**
+   * Skip the element at the reader position, including all children. The reader is left after the
+   * end of the element.
+   */
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == START_ELEMENT) {
+        ++depth;
+      } else if (event == END_ELEMENT) {
+        --depth;
+      }
+    }
+    reader.next();
+  }
+
   /** factory method for unmarshaller */
   private static Unmarshaller createUnmarshaller() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return CONTEXT.createUnmarshaller();
     } catch (JAXBException e) {
       // This is a programming error - not expected!
       // We abort early and also allow for this to happen in the constructor;
@@ -40,4 +195,26 @@ public class NetexXmlParser {
       throw new RuntimeException(e);
     }
   }
+
+  private static JAXBContext createContext() {
+    try {
+      return JAXBContext.newInstance(PublicationDeliveryStructure.class);
+    } catch (JAXBException e) {
+      // This is a programming error - not expected!
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    // The NeTEx files do not use external entities, do not resolve them
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  @FunctionalInterface
+  private interface ElementHandler {
+    void handle(String localName) throws XMLStreamException, JAXBException;
+  }
 }
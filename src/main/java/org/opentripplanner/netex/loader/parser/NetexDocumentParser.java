@@ -44,10 +44,30 @@ public class NetexDocumentParser {
     new NetexDocumentParser(index).parse(doc);
   }
 
+  /**
+   * Create a new parser for a document read one frame at the time. Pass each frame to {@link
+   * #parseFrame(Common_VersionFrameStructure)} and the frame defaults of composite frames to
+   * {@link #parseFrameDefaults(VersionFrameDefaultsStructure)}, in document order. The result is
+   * added to given index for further processing.
+   */
+  public static NetexDocumentParser frameParser(NetexEntityIndex index) {
+    return new NetexDocumentParser(index);
+  }
+
   public static void finnishUp() {
     ServiceFrameParser.logSummary();
   }
 
+  /** Parse a single frame, nested frames in a composite frame are also parsed. */
+  public void parseFrame(Common_VersionFrameStructure frame) {
+    parseCommonFrame(frame);
+  }
+
+  /** Parse the frame defaults of a composite frame. */
+  public void parseFrameDefaults(VersionFrameDefaultsStructure frameDefaults) {
+    parseFrameDefaultsLikeTimeZone(frameDefaults);
+  }
+
   /** Top level parse method - parses the document. */
   private void parse(PublicationDeliveryStructure doc) {
     parseFrameList(doc.getDataObjects().getCompositeFrameOrCommonFrame());
@@ -1,6 +1,6 @@
 package org.opentripplanner.openstreetmap;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.openstreetmap.osmosis.osmbinary.BinaryParser;
@@ -15,17 +15,30 @@ import org.opentripplanner.openstreetmap.model.OSMWay;
 
 /**
  * Parser for the OpenStreetMap PBF Format.
+ * <p>
+ * A parser instance parses a single PBF block in one of the phases. The blocks are parsed in
+ * parallel, so the entities are collected and added to the {@link OSMDatabase} later, in file
+ * order, by calling {@link #addEntitiesTo(OSMDatabase)}. The parser also records which entity
+ * types the block contains, this is used to skip blocks in the later phases.
  *
  * @since 0.4
  */
 public class OpenStreetMapParser extends BinaryParser {
 
-  private final OSMDatabase osmdb;
-  private final Map<String, String> stringTable = new HashMap<>();
-  private OsmParserPhase parsePhase;
+  private final Map<String, String> stringTable;
+  private final OsmParserPhase parsePhase;
+  private final List<OSMNode> nodes = new ArrayList<>();
+  private final List<OSMWay> ways = new ArrayList<>();
+  private final List<OSMRelation> relations = new ArrayList<>();
+  private boolean hasNodes = false;
+  private boolean hasWays = false;
 
-  public OpenStreetMapParser(OSMDatabase osmdb) {
-    this.osmdb = osmdb;
+  /**
+   * @param stringTable the string table is shared by all parsers, so it must be thread safe.
+   */
+  OpenStreetMapParser(OsmParserPhase parsePhase, Map<String, String> stringTable) {
+    this.parsePhase = parsePhase;
+    this.stringTable = stringTable;
   }
 
   // The strings are already being pulled from a string table in the PBF file,
@@ -33,12 +46,8 @@ public class OpenStreetMapParser extends BinaryParser {
   // String.intern grinds to a halt on large PBF files (as it did on GTFS import), so
   // we implement our own.
   public String internalize(String s) {
-    String fromTable = stringTable.get(s);
-    if (fromTable == null) {
-      stringTable.put(s, s);
-      return s;
-    }
-    return fromTable;
+    String fromTable = stringTable.putIfAbsent(s, s);
+    return fromTable == null ? s : fromTable;
   }
 
   @Override
@@ -47,10 +56,21 @@ public class OpenStreetMapParser extends BinaryParser {
   }
 
   /**
-   * Set the phase to be parsed
+   * Add the parsed entities to the database. This is not thread safe, and must be called in the
+   * order the blocks appear in the file.
    */
-  public void setPhase(OsmParserPhase phase) {
-    this.parsePhase = phase;
+  void addEntitiesTo(OSMDatabase osmdb) {
+    relations.forEach(osmdb::addRelation);
+    ways.forEach(osmdb::addWay);
+    nodes.forEach(osmdb::addNode);
+  }
+
+  boolean hasNodes() {
+    return hasNodes;
+  }
+
+  boolean hasWays() {
+    return hasWays;
   }
 
   @Override
@@ -95,7 +115,7 @@ public class OpenStreetMapParser extends BinaryParser {
         tmp.addMember(relMember);
       }
 
-      osmdb.addRelation(tmp);
+      relations.add(tmp);
     }
   }
 
@@ -104,6 +124,7 @@ public class OpenStreetMapParser extends BinaryParser {
     long lastId = 0, lastLat = 0, lastLon = 0;
     int j = 0; // Index into the keysvals array.
 
+    hasNodes |= nodes.getIdCount() > 0;
     if (parsePhase != OsmParserPhase.Nodes) {
       return;
     }
@@ -139,12 +160,13 @@ public class OpenStreetMapParser extends BinaryParser {
         j++; // Skip over the '0' delimiter.
       }
 
-      osmdb.addNode(tmp);
+      this.nodes.add(tmp);
     }
   }
 
   @Override
   protected void parseNodes(List<Osmformat.Node> nodes) {
+    hasNodes |= !nodes.isEmpty();
     if (parsePhase != OsmParserPhase.Nodes) {
       return;
     }
@@ -165,12 +187,13 @@ public class OpenStreetMapParser extends BinaryParser {
         tmp.addTag(tag);
       }
 
-      osmdb.addNode(tmp);
+      this.nodes.add(tmp);
     }
   }
 
   @Override
   protected void parseWays(List<Osmformat.Way> ways) {
+    hasWays |= !ways.isEmpty();
     if (parsePhase != OsmParserPhase.Ways) {
       return;
     }
@@ -197,7 +220,7 @@ public class OpenStreetMapParser extends BinaryParser {
         lastId = j + lastId;
       }
 
-      osmdb.addWay(tmp);
+      this.ways.add(tmp);
     }
   }
 
@@ -1,11 +1,20 @@
 package org.opentripplanner.openstreetmap;
 
 import com.google.common.base.MoreObjects;
-import java.io.ByteArrayInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
 import org.opentripplanner.datastore.DataSource;
 import org.opentripplanner.datastore.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -17,14 +26,26 @@ import org.slf4j.LoggerFactory;
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
  * the ways, then the nodes are also loaded.
+ * <p>
+ * The PBF blocks are decoded and parsed in parallel, and the entities are added to the
+ * {@link OSMDatabase} in file order. A local file is memory mapped and read only once, other
+ * sources are cached in memory if {@code cacheDataInMem} is set. The first pass records which
+ * entity types each block contains, the two last passes skip the blocks without ways or nodes.
  */
 public class OpenStreetMapProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(OpenStreetMapProvider.class);
 
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
   private final DataSource source;
   private final boolean cacheDataInMem;
-  private byte[] cachedBytes = null;
+  private OsmPbfBlobs cachedBlobs = null;
+
+  /** The blocks containing ways and nodes, found in the first pass */
+  private final BitSet blocksWithWays = new BitSet();
+  private final BitSet blocksWithNodes = new BitSet();
 
   /** For tests */
   public OpenStreetMapProvider(File file, boolean cacheDataInMem) {
@@ -37,19 +58,30 @@ public class OpenStreetMapProvider {
   }
 
   public void readOSM(OSMDatabase osmdb) {
+    int nThreads = Runtime.getRuntime().availableProcessors();
+    ExecutorService parseExecutor = Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setNameFormat("osm-parser-%d").setDaemon(true).build()
+    );
     try {
-      OpenStreetMapParser parser = new OpenStreetMapParser(osmdb);
+      OsmPbfBlobs blobs = openBlobs();
+      Map<String, String> stringTable = new ConcurrentHashMap<>();
+
+      blocksWithWays.clear();
+      blocksWithNodes.clear();
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(blobs, OsmParserPhase.Relations, osmdb, stringTable, parseExecutor, nThreads);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(blobs, OsmParserPhase.Ways, osmdb, stringTable, parseExecutor, nThreads);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(blobs, OsmParserPhase.Nodes, osmdb, stringTable, parseExecutor, nThreads);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      parseExecutor.shutdownNow();
     }
   }
 
@@ -68,38 +100,128 @@ public class OpenStreetMapProvider {
     }
   }
 
-  @SuppressWarnings("Convert2MethodRef")
-  private static InputStream track(OsmParserPhase phase, long size, InputStream inputStream) {
-    // Keep logging lambda, replacing it with a method-ref will cause the
-    // logging to report incorrect class and line number
-    return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
-  }
+  /**
+   * Decode and parse the blocks in the parse executor, and add the entities to the database in
+   * file order. At most two blocks per thread are parsed ahead of the block added to the database,
+   * this limits the memory used by parsed blocks waiting to be added.
+   */
+  private void parsePhase(
+    OsmPbfBlobs blobs,
+    OsmParserPhase phase,
+    OSMDatabase osmdb,
+    Map<String, String> stringTable,
+    ExecutorService parseExecutor,
+    int nThreads
+  ) throws IOException {
+    ProgressTracker progress = ProgressTracker.trackBytes(
+      "Parse OSM " + phase,
+      1000,
+      source.size()
+    );
+    LOG.info(progress.startMessage());
 
-  private void parsePhase(OpenStreetMapParser parser, OsmParserPhase phase) throws IOException {
-    parser.setPhase(phase);
-    BlockInputStream in = null;
+    Deque<Future<ParsedBlock>> parsedBlocks = new ArrayDeque<>();
     try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
+      blobs.forEachBlob(
+        index -> includeBlock(phase, index),
+        (index, type, size, blob) -> {
+          if (blob != null) {
+            if (parsedBlocks.size() >= 2 * nThreads) {
+              addToDatabase(waitForParsedBlock(parsedBlocks.removeFirst()), osmdb);
+            }
+            parsedBlocks.add(
+              parseExecutor.submit(() -> parseBlock(index, type, blob, phase, stringTable))
+            );
+          }
+          // Keep the lambda, a method-ref will cause the logging to report incorrect class
+          progress.steps(size, m -> LOG.info(m));
         }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
+      );
+      while (!parsedBlocks.isEmpty()) {
+        addToDatabase(waitForParsedBlock(parsedBlocks.removeFirst()), osmdb);
       }
+    } finally {
+      parsedBlocks.forEach(f -> f.cancel(true));
     }
+    LOG.info(progress.completeMessage());
+  }
+
+  /**
+   * All blocks are parsed in the first phase, the block index is built at the same time. The
+   * later phases only parse the blocks containing the entities they need.
+   */
+  private boolean includeBlock(OsmParserPhase phase, int index) {
+    return switch (phase) {
+      case Relations -> true;
+      case Ways -> blocksWithWays.get(index);
+      case Nodes -> blocksWithNodes.get(index);
+    };
   }
 
-  private InputStream createInputStream(OsmParserPhase phase) {
-    if (cacheDataInMem) {
-      if (cachedBytes == null) {
-        cachedBytes = source.asBytes();
+  private void addToDatabase(ParsedBlock block, OSMDatabase osmdb) {
+    if (block.parser == null) {
+      return;
+    }
+    if (block.phase == OsmParserPhase.Relations) {
+      blocksWithWays.set(block.index, block.parser.hasWays());
+      blocksWithNodes.set(block.index, block.parser.hasNodes());
+    }
+    block.parser.addEntitiesTo(osmdb);
+  }
+
+  /** This is called in the parse executor, in parallel with other blocks. */
+  private static ParsedBlock parseBlock(
+    int index,
+    String type,
+    ByteBuffer blob,
+    OsmParserPhase phase,
+    Map<String, String> stringTable
+  ) throws IOException {
+    OpenStreetMapParser parser = new OpenStreetMapParser(phase, stringTable);
+    if (OSM_HEADER.equals(type)) {
+      // The header is only included in the first phase
+      parser.parse(Osmformat.HeaderBlock.parseFrom(OsmPbfBlobs.decode(blob)));
+      return new ParsedBlock(index, phase, null);
+    }
+    if (OSM_DATA.equals(type)) {
+      parser.parse(Osmformat.PrimitiveBlock.parseFrom(OsmPbfBlobs.decode(blob)));
+      return new ParsedBlock(index, phase, parser);
+    }
+    LOG.warn("Skipped PBF block of unknown type: {}", type);
+    return new ParsedBlock(index, phase, null);
+  }
+
+  private static ParsedBlock waitForParsedBlock(Future<ParsedBlock> parsedBlock) {
+    try {
+      return parsedBlock.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
       }
-      return track(phase, cachedBytes.length, new ByteArrayInputStream(cachedBytes));
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
     }
-    return track(phase, source.size(), source.asInputStream());
   }
+
+  /**
+   * A local uncompressed file is memory mapped. Other sources are read into memory if
+   * {@code cacheDataInMem} is set, if not they are read once for each phase.
+   */
+  private OsmPbfBlobs openBlobs() throws IOException {
+    if (cachedBlobs == null) {
+      if (source instanceof FileDataSource && !source.name().endsWith(".gz")) {
+        cachedBlobs = OsmPbfBlobs.mapFile(new File(source.path()));
+      } else if (cacheDataInMem) {
+        cachedBlobs = OsmPbfBlobs.ofBytes(source.asBytes());
+      } else {
+        return OsmPbfBlobs.ofInputStream(source::asInputStream);
+      }
+    }
+    return cachedBlobs;
+  }
+
+  /** A block parsed in a given phase, the parser is {@code null} if there is nothing to add. */
+  private record ParsedBlock(int index, OsmParserPhase phase, OpenStreetMapParser parser) {}
 }
@@ -0,0 +1,271 @@
+package org.opentripplanner.openstreetmap;
+
+import com.google.protobuf.CodedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+
+/**
+ * The blobs of an OSM PBF file. A PBF file is a sequence of blobs, each blob is prefixed with a
+ * small header containing the blob type and size. The blobs are independent of each other and can
+ * be decoded in any order.
+ * <p>
+ * A local file is memory mapped, and a file cached in memory is read once, in both cases the blobs
+ * are read-only views of the mapped or cached bytes. Other sources are read from the start each
+ * time the blobs are iterated.
+ */
+abstract class OsmPbfBlobs {
+
+  /** The PBF specification limits the size of a blob header to 64 KB */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+
+  /** The PBF specification limits the size of a blob to 32 MB */
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  /**
+   * A mapped byte buffer is limited to 2 GB, so large files are mapped in segments. Each segment
+   * starts at a blob and contains whole blobs only.
+   */
+  private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+  static OsmPbfBlobs mapFile(File file) throws IOException {
+    return mapFile(file, MAX_SEGMENT_SIZE);
+  }
+
+  /**
+   * Map the file in segments of the given size, a segment is made larger if a single blob does not
+   * fit. This is package local to be able to test the segment boundaries with small files.
+   */
+  static OsmPbfBlobs mapFile(File file, long maxSegmentSize) throws IOException {
+    return new IndexedBlobs(readIndexFromFile(file, maxSegmentSize));
+  }
+
+  static OsmPbfBlobs ofBytes(byte[] bytes) throws IOException {
+    return new IndexedBlobs(readIndexFromBuffer(ByteBuffer.wrap(bytes).asReadOnlyBuffer()));
+  }
+
+  static OsmPbfBlobs ofInputStream(Supplier<InputStream> inputStreamSupplier) {
+    return new StreamedBlobs(inputStreamSupplier);
+  }
+
+  /**
+   * Iterate over the blobs in file order. The blobs rejected by the filter are passed on to the
+   * handler with a {@code null} blob, without decoding it - and without reading it if possible.
+   *
+   * @param blobFilter the blob index is passed in, return {@code true} to read the blob.
+   */
+  abstract void forEachBlob(IntPredicate blobFilter, BlobHandler handler) throws IOException;
+
+  /**
+   * Decode the serialized blob - {@code Fileformat.Blob} - and return the uncompressed block
+   * bytes. This is thread safe, and can be called in parallel for different blobs.
+   */
+  static byte[] decode(ByteBuffer blob) throws IOException {
+    Fileformat.Blob b = Fileformat.Blob.parseFrom(CodedInputStream.newInstance(blob));
+    if (b.hasRaw()) {
+      return b.getRaw().toByteArray();
+    }
+    if (b.hasZlibData()) {
+      byte[] data = new byte[b.getRawSize()];
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(b.getZlibData().asReadOnlyByteBuffer());
+        int size = inflater.inflate(data);
+        if (size != data.length || !inflater.finished()) {
+          throw new IOException("Corrupt PBF blob, the size do not match the raw size.");
+        }
+        return data;
+      } catch (DataFormatException e) {
+        throw new IOException("Corrupt PBF blob: " + e.getMessage(), e);
+      } finally {
+        inflater.end();
+      }
+    }
+    throw new IOException("Unsupported PBF blob compression, only raw and zlib is supported.");
+  }
+
+  interface BlobHandler {
+    /**
+     * @param index the blob index, the blobs are numbered in file order starting at zero.
+     * @param type  the blob type, "OSMHeader" or "OSMData"
+     * @param size  the size of the blob and its header in bytes, used for progress tracking.
+     * @param blob  the serialized blob, {@code null} if the blob is skipped.
+     */
+    void handle(int index, String type, int size, ByteBuffer blob) throws IOException;
+  }
+
+  private static List<BlobEntry> readIndexFromFile(File file, long maxSegmentSize)
+    throws IOException {
+    List<BlobEntry> index = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      long position = 0;
+      MappedByteBuffer segment = null;
+      long segmentStart = 0;
+
+      while (position < fileSize) {
+        ByteBuffer sizeBuffer = readFully(channel, position, Integer.BYTES);
+        int headerSize = checkHeaderSize(sizeBuffer.getInt(0));
+        var header = parseHeader(readFully(channel, position + Integer.BYTES, headerSize));
+        long blobStart = position + Integer.BYTES + headerSize;
+        int blobSize = checkBlobSize(header.getDatasize());
+        long blobEnd = blobStart + blobSize;
+
+        if (blobEnd > fileSize) {
+          throw new EOFException("Unexpected end of PBF file: " + file);
+        }
+        if (segment == null || blobEnd > segmentStart + segment.capacity()) {
+          segmentStart = blobStart;
+          long segmentSize = Math.min(Math.max(maxSegmentSize, blobSize), fileSize - segmentStart);
+          segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentSize);
+        }
+        ByteBuffer blob = segment.slice((int) (blobStart - segmentStart), blobSize);
+        index.add(new BlobEntry(header.getType(), (int) (blobEnd - position), blob));
+        position = blobEnd;
+      }
+    }
+    // The mapping is valid after the channel is closed
+    return index;
+  }
+
+  private static List<BlobEntry> readIndexFromBuffer(ByteBuffer buffer) throws IOException {
+    List<BlobEntry> index = new ArrayList<>();
+    int position = 0;
+
+    while (position < buffer.limit()) {
+      if (position + Integer.BYTES > buffer.limit()) {
+        throw new EOFException("Unexpected end of PBF data.");
+      }
+      int headerSize = checkHeaderSize(buffer.getInt(position));
+      int headerStart = position + Integer.BYTES;
+      if (headerStart + headerSize > buffer.limit()) {
+        throw new EOFException("Unexpected end of PBF data.");
+      }
+      var header = parseHeader(buffer.slice(headerStart, headerSize));
+      int blobStart = headerStart + headerSize;
+      int blobSize = checkBlobSize(header.getDatasize());
+      if (blobStart + blobSize > buffer.limit()) {
+        throw new EOFException("Unexpected end of PBF data.");
+      }
+      index.add(
+        new BlobEntry(
+          header.getType(),
+          blobStart + blobSize - position,
+          buffer.slice(blobStart, blobSize)
+        )
+      );
+      position = blobStart + blobSize;
+    }
+    return index;
+  }
+
+  private static ByteBuffer readFully(FileChannel channel, long position, int size)
+    throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Unexpected end of PBF file.");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static Fileformat.BlobHeader parseHeader(ByteBuffer buffer) throws IOException {
+    return Fileformat.BlobHeader.parseFrom(CodedInputStream.newInstance(buffer));
+  }
+
+  private static int checkHeaderSize(int size) throws IOException {
+    if (size < 0 || size > MAX_HEADER_SIZE) {
+      throw new IOException("Invalid PBF blob header size: " + size);
+    }
+    return size;
+  }
+
+  private static int checkBlobSize(int size) throws IOException {
+    if (size < 0 || size > MAX_BLOB_SIZE) {
+      throw new IOException("Invalid PBF blob size: " + size);
+    }
+    return size;
+  }
+
+  private record BlobEntry(String type, int size, ByteBuffer blob) {}
+
+  /** The blobs are views into a memory mapped file or into a byte array. */
+  private static class IndexedBlobs extends OsmPbfBlobs {
+
+    private final List<BlobEntry> blobs;
+
+    private IndexedBlobs(List<BlobEntry> blobs) {
+      this.blobs = blobs;
+    }
+
+    @Override
+    void forEachBlob(IntPredicate blobFilter, BlobHandler handler) throws IOException {
+      for (int i = 0; i < blobs.size(); ++i) {
+        BlobEntry it = blobs.get(i);
+        // Each caller get its own view, the buffer position is not thread safe
+        handler.handle(i, it.type, it.size, blobFilter.test(i) ? it.blob.duplicate() : null);
+      }
+    }
+  }
+
+  /** The blobs are read from the input stream each time they are iterated. */
+  private static class StreamedBlobs extends OsmPbfBlobs {
+
+    private final Supplier<InputStream> inputStreamSupplier;
+
+    private StreamedBlobs(Supplier<InputStream> inputStreamSupplier) {
+      this.inputStreamSupplier = inputStreamSupplier;
+    }
+
+    @Override
+    void forEachBlob(IntPredicate blobFilter, BlobHandler handler) throws IOException {
+      try (DataInputStream in = new DataInputStream(inputStreamSupplier.get())) {
+        int index = 0;
+        byte[] sizeBytes = new byte[Integer.BYTES];
+
+        while (true) {
+          // Check for end of stream before reading the header size
+          int n = in.readNBytes(sizeBytes, 0, sizeBytes.length);
+          if (n == 0) {
+            return;
+          }
+          if (n < sizeBytes.length) {
+            throw new EOFException("Unexpected end of PBF data.");
+          }
+          int headerSize = checkHeaderSize(ByteBuffer.wrap(sizeBytes).getInt());
+          var header = parseHeader(ByteBuffer.wrap(readFully(in, headerSize)));
+          int blobSize = checkBlobSize(header.getDatasize());
+          int size = Integer.BYTES + headerSize + blobSize;
+
+          if (blobFilter.test(index)) {
+            handler.handle(index, header.getType(), size, ByteBuffer.wrap(readFully(in, blobSize)));
+          } else {
+            in.skipNBytes(blobSize);
+            handler.handle(index, header.getType(), size, null);
+          }
+          ++index;
+        }
+      }
+    }
+
+    private static byte[] readFully(DataInputStream in, int size) throws IOException {
+      byte[] bytes = new byte[size];
+      in.readFully(bytes);
+      return bytes;
+    }
+  }
+}
@@ -11,6 +11,26 @@ public class OSMNode extends OSMWithTags {
     return "osm node " + id;
   }
 
+  /**
+   * Nodes without tags are not kept as objects while building the graph, a new instance is created
+   * each time the node is fetched. Hence, two nodes are equal if they have the same id.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return id == ((OSMNode) o).id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
+
   public Coordinate getCoordinate() {
     return new Coordinate(this.lon, this.lat);
   }
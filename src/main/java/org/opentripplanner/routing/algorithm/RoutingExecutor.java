@@ -0,0 +1,143 @@
+package org.opentripplanner.routing.algorithm;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.opentripplanner.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The executor running the parallel stages of the routing requests: the direct street, direct flex
+ * and transit searches in the {@link RoutingWorker}, the access and egress searches in the transit
+ * router and the Raptor heuristics. Before this the stages ran in the JVM common pool, shared with
+ * parallel streams and the GraphQL APIs.
+ * <p>
+ * The pool is bounded by the thread pool size and the queue size. A task is never rejected, when
+ * the queue is full the task runs in the calling thread. The stages wait for each other, so
+ * {@link #runAll(Runnable...)} runs the tasks not yet started by the pool in the calling thread, a
+ * request never waits for a task queued behind other requests.
+ * <p>
+ * The time a task waits in the queue and the time it runs are published to micrometer as the
+ * {@code executor.idle} and {@code executor} timers, tagged with {@code name=routing}.
+ * <p>
+ * This class has APPLICATION scope, there is one instance for each router.
+ */
+public class RoutingExecutor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RoutingExecutor.class);
+
+  private static final String NAME = "routing";
+
+  private final ExecutorService executor;
+
+  public RoutingExecutor(RoutingExecutorParameters parameters, MeterRegistry meterRegistry) {
+    this.executor =
+      ExecutorServiceMetrics.monitor(
+        meterRegistry,
+        createExecutor(parameters),
+        NAME,
+        List.of(Tag.of("pool", NAME))
+      );
+  }
+
+  /**
+   * The executor, shared with Raptor. Tasks submitted directly should not block waiting for other
+   * tasks, use {@link #runAll(Runnable...)} for that.
+   */
+  public ExecutorService executorService() {
+    return executor;
+  }
+
+  /**
+   * Run the given tasks in parallel and wait for all of them to complete. The first task runs in
+   * the calling thread, and so does any task not yet started by the pool when the calling thread
+   * is ready for it.
+   *
+   * @throws CompletionException with the cause set to the first exception thrown by a task, like
+   *                             {@link CompletableFuture#join()}.
+   */
+  public void runAll(Runnable... tasks) {
+    var claimableTasks = new ClaimableTask[tasks.length];
+    for (int i = 0; i < tasks.length; ++i) {
+      claimableTasks[i] = new ClaimableTask(tasks[i]);
+    }
+    for (int i = 1; i < claimableTasks.length; ++i) {
+      executor.execute(claimableTasks[i]);
+    }
+    for (ClaimableTask task : claimableTasks) {
+      task.run();
+    }
+    CompletableFuture
+      .allOf(Arrays.stream(claimableTasks).map(it -> it.done).toArray(CompletableFuture[]::new))
+      .join();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /* private methods */
+
+  private static ExecutorService createExecutor(RoutingExecutorParameters parameters) {
+    if (parameters.virtualThreads()) {
+      if (VirtualThreads.isSupported()) {
+        LOG.info("Routing tasks run in virtual threads.");
+        return VirtualThreads.newVirtualThreadPerTaskExecutor();
+      }
+      LOG.warn(
+        "Virtual threads are not supported by Java {}, using a thread pool for routing tasks.",
+        Runtime.version()
+      );
+    }
+    int size = Math.max(1, parameters.threadPoolSize());
+    var pool = new ThreadPoolExecutor(
+      size,
+      size,
+      60,
+      TimeUnit.SECONDS,
+      new ArrayBlockingQueue<>(Math.max(1, parameters.queueSize())),
+      new ThreadFactoryBuilder().setNameFormat("routing-%d").setDaemon(true).build(),
+      new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * A task which runs at most once, either in the pool or in the thread waiting for it.
+   */
+  private static class ClaimableTask implements Runnable {
+
+    private final Runnable task;
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private ClaimableTask(Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      if (!claimed.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        task.run();
+        done.complete(null);
+      } catch (Throwable e) {
+        done.completeExceptionally(e);
+      }
+    }
+  }
+}
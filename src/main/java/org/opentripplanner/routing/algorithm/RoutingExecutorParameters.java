@@ -0,0 +1,41 @@
+package org.opentripplanner.routing.algorithm;
+
+/**
+ * Parameters for the {@link RoutingExecutor}, the thread pool running the parallel stages of a
+ * routing request.
+ */
+public interface RoutingExecutorParameters {
+  RoutingExecutorParameters DEFAULT = new RoutingExecutorParameters() {};
+
+  /**
+   * The number of threads running the parallel stages of all routing requests. The threads are
+   * created when needed, and only used if {@code ParallelRouting} or the parallel Raptor
+   * heuristics are enabled.
+   * <p/>
+   * The default is the number of available processors.
+   */
+  default int threadPoolSize() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * The maximum number of tasks waiting for a thread. When the queue is full, the request thread
+   * runs the task itself, so a busy server degrades to running each request sequentially.
+   * <p/>
+   * The default is 1000.
+   */
+  default int queueSize() {
+    return 1000;
+  }
+
+  /**
+   * Run each task in a new virtual thread instead of a bounded pool of platform threads. The
+   * thread pool and queue size are ignored. This requires a Java runtime with virtual threads, if
+   * not available the platform thread pool is used.
+   * <p/>
+   * The default is {@code false}.
+   */
+  default boolean virtualThreads() {
+    return false;
+  }
+}
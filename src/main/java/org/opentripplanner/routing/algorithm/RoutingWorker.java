@@ -9,7 +9,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.PagingSearchWindowAdjuster;
@@ -91,13 +90,11 @@ public class RoutingWorker {
 
     if (OTPFeature.ParallelRouting.isOn()) {
       try {
-        CompletableFuture
-          .allOf(
-            CompletableFuture.runAsync(() -> routeDirectStreet(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeDirectFlex(itineraries, routingErrors)),
-            CompletableFuture.runAsync(() -> routeTransit(itineraries, routingErrors))
-          )
-          .join();
+        router.routingExecutor.runAll(
+          () -> routeTransit(itineraries, routingErrors),
+          () -> routeDirectStreet(itineraries, routingErrors),
+          () -> routeDirectFlex(itineraries, routingErrors)
+        );
       } catch (CompletionException e) {
         RoutingValidationException.unwrapAndRethrowCompletionException(e);
       }
@@ -4,17 +4,23 @@ import com.google.common.collect.Lists;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
 import org.opentripplanner.common.pqueue.BinHeap;
+import org.opentripplanner.common.pqueue.DAryHeap;
 import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
 import org.opentripplanner.routing.algorithm.astar.strategies.SearchTerminationStrategy;
 import org.opentripplanner.routing.algorithm.astar.strategies.SkipEdgeStrategy;
 import org.opentripplanner.routing.core.RoutingContext;
 import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.edgetype.TemporaryEdge;
+import org.opentripplanner.routing.graph.AdjacencyIndex;
 import org.opentripplanner.routing.graph.Edge;
 import org.opentripplanner.routing.graph.Vertex;
 import org.opentripplanner.routing.spt.DominanceFunction;
 import org.opentripplanner.routing.spt.GraphPath;
+import org.opentripplanner.routing.spt.IndexedStateStore;
 import org.opentripplanner.routing.spt.ShortestPathTree;
 import org.opentripplanner.util.time.DateUtils;
 import org.slf4j.Logger;
@@ -30,6 +36,11 @@ public class AStar {
 
   private static final boolean verbose = LOG.isDebugEnabled();
 
+  private static final int MAX_HEAP_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  /** Heaps used by indexed searches are reused, they are sized to the graph. */
+  private static final Queue<DAryHeap<State>> HEAP_POOL = new ConcurrentLinkedQueue<>();
+
   private final boolean arriveBy;
   private final RoutingContext rctx;
   private final RemainingWeightHeuristic heuristic;
@@ -39,7 +50,15 @@ public class AStar {
   private final Duration timeout;
 
   private final ShortestPathTree spt;
+
+  /** The priority queue, used if the search is not indexed */
   private final BinHeap<State> pq;
+
+  /** The priority queue, used if the search is indexed */
+  private final DAryHeap<State> indexedPq;
+
+  /** The graph adjacency used to look up edges, if the search is indexed */
+  private final AdjacencyIndex adjacencyIndex;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -53,7 +72,8 @@ public class AStar {
     SearchTerminationStrategy terminationStrategy,
     DominanceFunction dominanceFunction,
     Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    boolean indexedSearchState
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -63,7 +83,6 @@ public class AStar {
     this.timeout = timeout;
 
     this.rctx = rctx;
-    this.spt = new ShortestPathTree(dominanceFunction);
     this.heuristic.initialize(rctx);
 
     // Priority Queue.
@@ -72,24 +91,46 @@ public class AStar {
     // before reaching its target.
     int initialSize = rctx.graph.getVertices().size();
     initialSize = (int) Math.ceil(2 * (Math.sqrt((double) initialSize + 1)));
-    this.pq = new BinHeap<>(initialSize);
+
+    if (indexedSearchState) {
+      this.spt = new ShortestPathTree(dominanceFunction, IndexedStateStore.acquire(rctx.graph));
+      this.pq = null;
+      this.indexedPq = acquireHeap(initialSize, rctx.graph.getVertexIndexSize());
+      this.adjacencyIndex = rctx.graph.getAdjacencyIndex();
+    } else {
+      this.spt = new ShortestPathTree(dominanceFunction);
+      this.pq = new BinHeap<>(initialSize);
+      this.indexedPq = null;
+      this.adjacencyIndex = null;
+    }
     this.nVisited = 0;
     this.targetAcceptedStates = Lists.newArrayList();
 
     for (State initialState : initialStates) {
       spt.add(initialState);
-      pq.insert(initialState, initialState.weight);
+      if (pq != null) {
+        pq.insert(initialState, initialState.weight);
+      } else {
+        indexedPq.insert(initialState, initialState.weight);
+      }
     }
   }
 
+  /**
+   * If the search is indexed the caller should {@link ShortestPathTree#release()} the returned tree
+   * when done with it, so the state store can be reused.
+   */
   protected ShortestPathTree getShortestPathTree() {
     runSearch();
+    releaseHeap();
 
     return spt;
   }
 
   protected List<GraphPath> getPathsToTarget() {
     runSearch();
+    releaseHeap();
+    spt.release();
 
     return targetAcceptedStates
       .stream()
@@ -98,15 +139,20 @@ public class AStar {
       .collect(Collectors.toList());
   }
 
+  private static DAryHeap<State> acquireHeap(int initialSize, int vertexIndexSize) {
+    DAryHeap<State> heap = HEAP_POOL.poll();
+    return heap != null ? heap : new DAryHeap<>(initialSize, vertexIndexSize);
+  }
+
   private boolean iterate() {
     // print debug info
     if (verbose) {
-      double w = pq.peek_min_key();
+      double w = pq != null ? pq.peek_min_key() : indexedPq.peek_min_key();
       LOG.debug("pq min key = " + w);
     }
 
     // get the lowest-weight state in the queue
-    u = pq.extract_min();
+    u = pq != null ? pq.extract_min() : indexedPq.extract_min();
 
     // check that this state has not been dominated
     // and mark vertex as visited
@@ -128,63 +174,117 @@ public class AStar {
       LOG.debug("   vertex " + u_vertex);
     }
 
-    Collection<Edge> edges = arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing();
-    for (Edge edge : edges) {
-      if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
-        continue;
+    if (adjacencyIndex != null && adjacencyIndex.contains(u_vertex)) {
+      // Scan the edges in the compressed adjacency index of the graph
+      int vertexIndex = u_vertex.getIndex();
+      int end = adjacencyIndex.edgesEnd(vertexIndex, arriveBy);
+      for (int i = adjacencyIndex.edgesStart(vertexIndex, arriveBy); i < end; ++i) {
+        relax(adjacencyIndex.edge(adjacencyIndex.edgeAt(i, arriveBy)));
       }
+      // The temporary edges of the requests are not part of the index
+      if (u_vertex.hasTemporaryEdges()) {
+        for (Edge edge : arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing()) {
+          if (edge instanceof TemporaryEdge) {
+            relax(edge);
+          }
+        }
+      }
+    } else {
+      Collection<Edge> edges = arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing();
+      for (Edge edge : edges) {
+        relax(edge);
+      }
+    }
 
-      // Iterate over traversal results. When an edge leads nowhere (as indicated by
-      // returning NULL), the iteration is over.
-      for (State v = edge.traverse(u); v != null; v = v.getNextResult()) {
-        // Could be: for (State v : traverseEdge...)
+    return true;
+  }
 
-        if (traverseVisitor != null) {
-          traverseVisitor.visitEdge(edge);
-        }
+  /** Traverse the given edge from the current state {@code u}, and enqueue the new states. */
+  private void relax(Edge edge) {
+    if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
+      return;
+    }
 
-        double remaining_w = heuristic.estimateRemainingWeight(v);
+    // Iterate over traversal results. When an edge leads nowhere (as indicated by
+    // returning NULL), the iteration is over.
+    for (State v = edge.traverse(u); v != null; v = v.getNextResult()) {
+      // Could be: for (State v : traverseEdge...)
 
-        if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
-          continue;
-        }
-        double estimate = v.getWeight() + remaining_w;
-
-        if (verbose) {
-          LOG.debug("      edge " + edge);
-          LOG.debug(
-            "      " +
-            u.getWeight() +
-            " -> " +
-            v.getWeight() +
-            "(w) + " +
-            remaining_w +
-            "(heur) = " +
-            estimate +
-            " vert = " +
-            v.getVertex()
-          );
-        }
+      if (traverseVisitor != null) {
+        traverseVisitor.visitEdge(edge);
+      }
 
-        // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
-        if (spt.add(v)) {
-          // report to the visitor if there is one
-          if (traverseVisitor != null) {
-            traverseVisitor.visitEnqueue();
-          }
-          pq.insert(v, estimate);
+      double remaining_w = heuristic.estimateRemainingWeight(v);
+
+      if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
+        continue;
+      }
+      double estimate = v.getWeight() + remaining_w;
+
+      if (verbose) {
+        LOG.debug("      edge " + edge);
+        LOG.debug(
+          "      " +
+          u.getWeight() +
+          " -> " +
+          v.getWeight() +
+          "(w) + " +
+          remaining_w +
+          "(heur) = " +
+          estimate +
+          " vert = " +
+          v.getVertex()
+        );
+      }
+
+      // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
+      if (spt.add(v)) {
+        // report to the visitor if there is one
+        if (traverseVisitor != null) {
+          traverseVisitor.visitEnqueue();
         }
+        enqueue(v, estimate);
       }
     }
+  }
 
-    return true;
+  private void enqueue(State state, double estimate) {
+    if (pq != null) {
+      pq.insert(state, estimate);
+      return;
+    }
+    // At most one state per vertex is tracked in the indexed queue. If the tracked state has been
+    // dominated by the new state it is replaced in place (decrease-key), instead of being left in
+    // the queue to be dropped when it comes out.
+    int key = state.getVertex().getIndex();
+    State queued = indexedPq.get(key);
+    if (queued == null) {
+      indexedPq.insert(state, estimate, key);
+    } else if (!spt.visit(queued)) {
+      indexedPq.rekey(key, state, estimate);
+    } else {
+      indexedPq.insert(state, estimate);
+    }
+  }
+
+  private boolean queueEmpty() {
+    return pq != null ? pq.empty() : indexedPq.empty();
+  }
+
+  private void releaseHeap() {
+    if (indexedPq != null) {
+      indexedPq.reset();
+      if (HEAP_POOL.size() < MAX_HEAP_POOL_SIZE) {
+        HEAP_POOL.offer(indexedPq);
+      }
+    }
   }
 
   private void runSearch() {
     long abortTime = DateUtils.absoluteTimeout(timeout);
 
     /* the core of the A* algorithm */
-    while (!pq.empty()) { // Until the priority queue is empty:
+    while (!queueEmpty()) { // Until the priority queue is empty:
       /*
        * Terminate based on timeout?
        */
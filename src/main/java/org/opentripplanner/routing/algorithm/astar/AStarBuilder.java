@@ -28,6 +28,7 @@ public class AStarBuilder {
   private Duration timeout;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  private boolean indexedSearchState = false;
 
   public AStarBuilder(
     RemainingWeightHeuristic remainingWeightHeuristic,
@@ -42,10 +43,14 @@ public class AStarBuilder {
   }
 
   public static AStarBuilder oneToOneMaxDuration(Duration maxDuration) {
-    return new AStarBuilder(
-      new EuclideanRemainingWeightHeuristic(),
-      new DurationSkipEdgeStrategy(maxDuration)
-    );
+    return oneToOneMaxDuration(maxDuration, new EuclideanRemainingWeightHeuristic());
+  }
+
+  public static AStarBuilder oneToOneMaxDuration(
+    Duration maxDuration,
+    RemainingWeightHeuristic heuristic
+  ) {
+    return new AStarBuilder(heuristic, new DurationSkipEdgeStrategy(maxDuration));
   }
 
   public static AStarBuilder allDirectionsMaxDuration(Duration maxDuration) {
@@ -92,6 +97,18 @@ public class AStarBuilder {
     return this;
   }
 
+  /**
+   * Keep the search state in structures indexed by {@code Vertex#getIndex()} instead of hash maps,
+   * and look up the edges in the {@code AdjacencyIndex} of the graph. The structures are sized to
+   * the graph and pooled, so this is faster and allocates less for searches visiting a large part
+   * of the graph. Callers of {@link #getShortestPathTree()} should release the returned tree when
+   * done with it.
+   */
+  public AStarBuilder setIndexedSearchState(boolean indexedSearchState) {
+    this.indexedSearchState = indexedSearchState;
+    return this;
+  }
+
   public ShortestPathTree getShortestPathTree() {
     return build().getShortestPathTree();
   }
@@ -123,7 +140,8 @@ public class AStarBuilder {
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(DominanceFunction.Pareto::new),
       timeout,
-      initialStates
+      initialStates,
+      indexedSearchState
     );
   }
 }
@@ -0,0 +1,26 @@
+package org.opentripplanner.routing.algorithm.astar.landmark;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import org.opentripplanner.routing.core.TraverseMode;
+
+/**
+ * The landmark tables of a graph, one for each street mode they are computed for. The service is
+ * stored in the graph with {@code Graph#putService} and serialized with it.
+ */
+public class LandmarkService implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Map<TraverseMode, LandmarkTable> tables = new HashMap<>();
+
+  public void add(LandmarkTable table) {
+    tables.put(table.getMode(), table);
+  }
+
+  /** @return the table for the given mode, or null if no table is computed for the mode. */
+  public LandmarkTable getTable(TraverseMode mode) {
+    return tables.get(mode);
+  }
+}
@@ -0,0 +1,258 @@
+package org.opentripplanner.routing.algorithm.astar.landmark;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+/**
+ * The precomputed costs between a small set of landmark vertices and all street vertices of the
+ * graph, for one street mode. By the triangle inequality the cost from a vertex {@code v} to a
+ * target {@code t} is at least {@code cost(L, t) - cost(L, v)} and at least
+ * {@code cost(v, L) - cost(t, L)} for every landmark {@code L}, which gives a lower bound for the
+ * A* search that follows the street network instead of the straight line (the ALT heuristic).
+ * <p>
+ * The costs are measured in a metric that never exceeds the real traversal cost for the mode, see
+ * {@link #edgeCost(TraverseMode, Edge)}. Costs are stored as floats, row by row, with the costs
+ * from all landmarks followed by the costs to all landmarks. Unreachable pairs are stored as
+ * {@link Float#POSITIVE_INFINITY}.
+ * <p>
+ * The vertex index is not stable across serialization, so the table keeps its own list of row
+ * vertices. The lookup from {@link Vertex#getIndex()} to the row is rebuilt after the graph is
+ * loaded and indexed.
+ */
+public class LandmarkTable implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Relative slack to compensate for the rounding to float precision. */
+  private static final double FLOAT_SLACK = 1e-6;
+
+  private final TraverseMode mode;
+  private final Vertex[] landmarks;
+  private final Vertex[] vertices;
+  private final float[] costs;
+
+  /**
+   * The lowest ratio between the {@link #bicycleDistance(StreetEdge)} and the length of a street in
+   * the table, at most 1. Always 1 for {@link TraverseMode#CAR}.
+   */
+  private final double minBicycleDistanceRatio;
+
+  /** The row of each vertex by {@link Vertex#getIndex()}, or -1 if the vertex has no row. */
+  private transient volatile int[] rowByVertexIndex;
+
+  LandmarkTable(TraverseMode mode, Vertex[] landmarks, Vertex[] vertices, float[] costs) {
+    this.mode = mode;
+    this.landmarks = landmarks;
+    this.vertices = vertices;
+    this.costs = costs;
+    this.minBicycleDistanceRatio =
+      mode == TraverseMode.BICYCLE ? minBicycleDistanceRatio(vertices) : 1;
+  }
+
+  /**
+   * The cost used for the landmark tables: the travel time at the speed of the street for
+   * {@link TraverseMode#CAR}, and the {@link #bicycleDistance(StreetEdge)} for
+   * {@link TraverseMode#BICYCLE}. Edges
+   * connecting two street vertices that are not street edges, like elevators and links to the
+   * temporary vertices of a request, are free. All other edges can not be traversed.
+   *
+   * @return the cost, or a negative number if the edge can not be traversed.
+   */
+  public static double edgeCost(TraverseMode mode, Edge edge) {
+    if (edge instanceof StreetEdge street) {
+      if (mode == TraverseMode.CAR) {
+        float speed = street.getCarSpeed();
+        return street.canTraverse(TraverseMode.CAR) && speed > 0
+          ? street.getDistanceMeters() / speed
+          : -1;
+      }
+      return street.canTraverse(TraverseMode.BICYCLE) || street.canTraverse(TraverseMode.WALK)
+        ? bicycleDistance(street)
+        : -1;
+    }
+    boolean streetToStreet =
+      edge.getFromVertex() instanceof StreetVertex && edge.getToVertex() instanceof StreetVertex;
+    return streetToStreet ? 0 : -1;
+  }
+
+  /**
+   * The shortest of the distances the bicycle and walk costs of the street are computed from. The
+   * safety distance and the distances adjusted for the slope can be shorter than the street.
+   */
+  public static double bicycleDistance(StreetEdge street) {
+    double distance = Math.min(street.getDistanceMeters(), street.getEffectiveBikeDistance());
+    distance = Math.min(distance, street.getEffectiveBicycleSafetyDistance());
+    distance = Math.min(distance, street.getBicycleSafetyFactor() * street.getDistanceMeters());
+    distance = Math.min(distance, street.getEffectiveBikeDistanceForWorkCost());
+    return Math.min(distance, street.getEffectiveWalkDistance());
+  }
+
+  public TraverseMode getMode() {
+    return mode;
+  }
+
+  /**
+   * The lowest ratio between the bicycle distance and the length of a street, use this to scale
+   * estimates based on the length, like the Euclidean distance, for {@link TraverseMode#BICYCLE}.
+   */
+  public double getMinBicycleDistanceRatio() {
+    return minBicycleDistanceRatio;
+  }
+
+  public int landmarkCount() {
+    return landmarks.length;
+  }
+
+  public int rowCount() {
+    return vertices.length;
+  }
+
+  public Vertex landmark(int landmark) {
+    return landmarks[landmark];
+  }
+
+  /** @return the row of the given vertex, or -1 if the vertex is not part of this table. */
+  public int row(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      return -1;
+    }
+    int[] rows = rowByVertexIndex;
+    if (rows == null || isStale(rows)) {
+      rows = indexRows();
+    }
+    if (index >= rows.length) {
+      return -1;
+    }
+    int row = rows[index];
+    return row >= 0 && vertices[row] == vertex ? row : -1;
+  }
+
+  /** The cost from the landmark to the vertex at the given row. */
+  public float costFromLandmark(int row, int landmark) {
+    return costs[row * 2 * landmarks.length + landmark];
+  }
+
+  /** The cost from the vertex at the given row to the landmark. */
+  public float costToLandmark(int row, int landmark) {
+    return costs[row * 2 * landmarks.length + landmarks.length + landmark];
+  }
+
+  /**
+   * Copy the costs from and to the landmarks for the given row.
+   */
+  public void copyCosts(int row, double[] fromLandmarks, double[] toLandmarks) {
+    int n = landmarks.length;
+    int offset = row * 2 * n;
+    for (int l = 0; l < n; ++l) {
+      fromLandmarks[l] = costs[offset + l];
+      toLandmarks[l] = costs[offset + n + l];
+    }
+  }
+
+  /**
+   * Compute the lower bound of the cost between the vertex at the given row and a target, given
+   * the costs between the target and the landmarks. Landmarks which can not reach or be reached
+   * from either of the vertices do not contribute to the bound.
+   *
+   * @param reverse if false the bound is for the cost from the vertex to the target, if true it is
+   *                for the cost from the target to the vertex.
+   */
+  public double lowerBound(
+    int row,
+    double[] targetFromLandmarks,
+    double[] targetToLandmarks,
+    boolean reverse
+  ) {
+    int n = landmarks.length;
+    int offset = row * 2 * n;
+    double bound = 0;
+    for (int l = 0; l < n; ++l) {
+      double vertexFrom = costs[offset + l];
+      double vertexTo = costs[offset + n + l];
+      double targetFrom = targetFromLandmarks[l];
+      double targetTo = targetToLandmarks[l];
+      if (reverse) {
+        bound = Math.max(bound, difference(vertexFrom, targetFrom));
+        bound = Math.max(bound, difference(targetTo, vertexTo));
+      } else {
+        bound = Math.max(bound, difference(targetFrom, vertexFrom));
+        bound = Math.max(bound, difference(vertexTo, targetTo));
+      }
+    }
+    return bound;
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "LandmarkTable{mode: " +
+      mode +
+      ", landmarks: " +
+      landmarks.length +
+      ", vertices: " +
+      vertices.length +
+      "}"
+    );
+  }
+
+  /* private methods */
+
+  private static double difference(double a, double b) {
+    if (a == Double.POSITIVE_INFINITY || b == Double.POSITIVE_INFINITY) {
+      return 0;
+    }
+    return a - b - FLOAT_SLACK * (a + b);
+  }
+
+  /**
+   * The vertex index is renumbered when the graph is indexed. Check the first and the last row, a
+   * renumbering is very unlikely to keep both.
+   */
+  private boolean isStale(int[] rows) {
+    return vertices.length > 0 && (isMoved(rows, 0) || isMoved(rows, vertices.length - 1));
+  }
+
+  private boolean isMoved(int[] rows, int row) {
+    int index = vertices[row].getIndex();
+    return index < 0 || index >= rows.length || rows[index] != row;
+  }
+
+  private synchronized int[] indexRows() {
+    int[] rows = rowByVertexIndex;
+    if (rows != null && !isStale(rows)) {
+      return rows;
+    }
+    int size = 0;
+    for (Vertex v : vertices) {
+      size = Math.max(size, v.getIndex() + 1);
+    }
+    rows = new int[size];
+    Arrays.fill(rows, -1);
+    for (int row = 0; row < vertices.length; ++row) {
+      int index = vertices[row].getIndex();
+      if (index >= 0) {
+        rows[index] = row;
+      }
+    }
+    rowByVertexIndex = rows;
+    return rows;
+  }
+
+  private static double minBicycleDistanceRatio(Vertex[] vertices) {
+    double ratio = 1;
+    for (Vertex v : vertices) {
+      for (Edge e : v.getOutgoing()) {
+        if (e instanceof StreetEdge street && street.getDistanceMeters() > 0) {
+          ratio = Math.min(ratio, bicycleDistance(street) / street.getDistanceMeters());
+        }
+      }
+    }
+    return ratio;
+  }
+}
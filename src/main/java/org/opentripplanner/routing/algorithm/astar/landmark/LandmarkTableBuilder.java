@@ -0,0 +1,208 @@
+package org.opentripplanner.routing.algorithm.astar.landmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.common.pqueue.DAryHeap;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.AdjacencyIndex;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute a {@link LandmarkTable} for a graph. The landmarks are chosen with the "farthest"
+ * selection: each new landmark is the street vertex farthest away from the landmarks already
+ * selected, which places them at the edges of the network where they give the tightest bounds.
+ * For each landmark one forward and one backward Dijkstra search over the whole street network
+ * are run on the {@link AdjacencyIndex} of the graph.
+ */
+public class LandmarkTableBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LandmarkTableBuilder.class);
+
+  private static final int START_CANDIDATES = 4;
+
+  private final TraverseMode mode;
+  private final int maxLandmarks;
+  private final AdjacencyIndex adjacency;
+
+  /** The street vertices, they are the rows of the table. */
+  private final Vertex[] vertices;
+
+  private final double[] cost;
+  private final DAryHeap<Vertex> queue;
+
+  public LandmarkTableBuilder(Graph graph, TraverseMode mode, int maxLandmarks) {
+    if (mode != TraverseMode.CAR && mode != TraverseMode.BICYCLE) {
+      throw new IllegalArgumentException("Landmarks are only supported for CAR and BICYCLE.");
+    }
+    this.mode = mode;
+    this.maxLandmarks = maxLandmarks;
+    // The graph may have changed since the cached index was created, e.g. by island pruning
+    this.adjacency = graph.rebuildAdjacencyIndex();
+
+    int n = adjacency.vertexCount();
+    List<Vertex> rows = new ArrayList<>();
+    for (int i = 0; i < n; ++i) {
+      if (adjacency.vertex(i) instanceof StreetVertex v) {
+        rows.add(v);
+      }
+    }
+    this.vertices = rows.toArray(new Vertex[0]);
+    this.cost = new double[n];
+    this.queue = new DAryHeap<>(1024, n);
+  }
+
+  public LandmarkTable build() {
+    if (vertices.length == 0) {
+      return new LandmarkTable(mode, new Vertex[0], vertices, new float[0]);
+    }
+    List<Vertex> landmarks = new ArrayList<>();
+    List<float[]> costsFrom = new ArrayList<>();
+    List<float[]> costsTo = new ArrayList<>();
+
+    // The sum of the costs to and from the closest landmark for each row
+    double[] closest = new double[vertices.length];
+    Arrays.fill(closest, Double.POSITIVE_INFINITY);
+
+    Vertex next = firstLandmark();
+
+    while (next != null && landmarks.size() < maxLandmarks) {
+      search(next, false);
+      float[] from = rowCosts();
+      search(next, true);
+      float[] to = rowCosts();
+      landmarks.add(next);
+      costsFrom.add(from);
+      costsTo.add(to);
+      LOG.info("Landmark {} of {} for {}: {}", landmarks.size(), maxLandmarks, mode, next);
+
+      for (int row = 0; row < vertices.length; ++row) {
+        closest[row] = Math.min(closest[row], (double) from[row] + to[row]);
+      }
+      next = farthest(closest);
+    }
+    return new LandmarkTable(
+      mode,
+      landmarks.toArray(new Vertex[0]),
+      vertices,
+      interleave(costsFrom, costsTo)
+    );
+  }
+
+  /* private methods */
+
+  /**
+   * The street network may contain small islands, especially for cars. Search from a few vertices
+   * spread over the table, and start with the vertex farthest away from the search reaching the
+   * largest part of the network.
+   */
+  private Vertex firstLandmark() {
+    Vertex first = null;
+    int maxReached = 0;
+    for (int i = 0; i < START_CANDIDATES; ++i) {
+      search(vertices[(int) ((long) vertices.length * i / START_CANDIDATES)], false);
+      float[] costs = rowCosts();
+      int reached = 0;
+      double[] values = new double[costs.length];
+      for (int row = 0; row < costs.length; ++row) {
+        values[row] = costs[row];
+        if (costs[row] != Float.POSITIVE_INFINITY) {
+          ++reached;
+        }
+      }
+      if (reached > maxReached) {
+        maxReached = reached;
+        first = farthest(values);
+      }
+    }
+    return first;
+  }
+
+  /**
+   * Run a Dijkstra search over the whole network from or to the given vertex, the result is
+   * stored in {@link #cost} by vertex index.
+   */
+  private void search(Vertex source, boolean backward) {
+    Arrays.fill(cost, Double.POSITIVE_INFINITY);
+    queue.reset();
+    cost[source.getIndex()] = 0;
+    queue.insert(source, 0, source.getIndex());
+
+    while (!queue.empty()) {
+      double c = queue.peek_min_key();
+      Vertex u = queue.extract_min();
+      int ui = u.getIndex();
+      for (
+        int p = adjacency.edgesStart(ui, backward), end = adjacency.edgesEnd(ui, backward);
+        p < end;
+        ++p
+      ) {
+        int edgeIndex = adjacency.edgeAt(p, backward);
+        if (edgeIndex == Edge.NO_INDEX) {
+          continue;
+        }
+        Edge edge = adjacency.edge(edgeIndex);
+        double edgeCost = LandmarkTable.edgeCost(mode, edge);
+        if (edgeCost < 0) {
+          continue;
+        }
+        Vertex v = backward ? edge.getFromVertex() : edge.getToVertex();
+        int vi = v.getIndex();
+        if (vi < 0 || vi >= cost.length || adjacency.vertex(vi) != v) {
+          continue;
+        }
+        double vc = c + edgeCost;
+        if (vc < cost[vi]) {
+          cost[vi] = vc;
+          if (queue.contains(vi)) {
+            queue.rekey(vi, v, vc);
+          } else {
+            queue.insert(v, vc, vi);
+          }
+        }
+      }
+    }
+  }
+
+  /** The result of the last search, by row. */
+  private float[] rowCosts() {
+    float[] costs = new float[vertices.length];
+    for (int row = 0; row < vertices.length; ++row) {
+      costs[row] = (float) cost[vertices[row].getIndex()];
+    }
+    return costs;
+  }
+
+  /**
+   * @return the vertex with the largest finite cost, or null if no vertex has a positive cost
+   * (every reachable vertex is already a landmark).
+   */
+  private Vertex farthest(double[] costs) {
+    int best = -1;
+    for (int row = 0; row < costs.length; ++row) {
+      double c = costs[row];
+      if (c != Double.POSITIVE_INFINITY && c > 0 && (best < 0 || c > costs[best])) {
+        best = row;
+      }
+    }
+    return best < 0 ? null : vertices[best];
+  }
+
+  private float[] interleave(List<float[]> costsFrom, List<float[]> costsTo) {
+    int n = costsFrom.size();
+    float[] costs = new float[vertices.length * 2 * n];
+    for (int row = 0; row < vertices.length; ++row) {
+      int offset = row * 2 * n;
+      for (int l = 0; l < n; ++l) {
+        costs[offset + l] = costsFrom.get(l)[row];
+        costs[offset + n + l] = costsTo.get(l)[row];
+      }
+    }
+    return costs;
+  }
+}
@@ -0,0 +1,178 @@
+package org.opentripplanner.routing.algorithm.astar.strategies;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.opentripplanner.common.pqueue.BinHeap;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkTable;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.BicycleOptimizeType;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * A remaining weight strategy using precomputed landmark tables (ALT). The estimate is the largest
+ * of the Euclidean estimate and the landmark lower bound. The landmark bound is only used for
+ * vertices in the table, the temporary vertices of the request use the Euclidean estimate.
+ * <p>
+ * For {@link TraverseMode#CAR} the table holds the travel time at the speed of the street, and the
+ * weight of a car edge is at least its travel time multiplied by the car reluctance. For
+ * {@link TraverseMode#BICYCLE} the table holds the distance, which is converted to weight with the
+ * street speed upper bound. The reluctance and the optimize type factors of a bicycle request can
+ * be less than one, then both estimates are scaled down by the lowest factor to stay admissible.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The maximum number of vertices to visit around a target not in the table, before giving up and
+   * falling back to the Euclidean estimate.
+   */
+  private static final int MAX_TARGET_VERTICES = 1000;
+
+  /** The greenway weight reduction of the {@link BicycleOptimizeType#GREENWAYS} optimization. */
+  private static final double GREENWAY_FACTOR = 0.66;
+
+  private final LandmarkTable table;
+  private final EuclideanRemainingWeightHeuristic euclidean =
+    new EuclideanRemainingWeightHeuristic();
+
+  private double[] targetFromLandmarks;
+  private double[] targetToLandmarks;
+  private double weightPerCost;
+  private double euclideanFactor;
+  private boolean arriveBy;
+  private boolean active;
+
+  public LandmarkRemainingWeightHeuristic(LandmarkTable table) {
+    this.table = table;
+  }
+
+  @Override
+  public void initialize(RoutingContext rctx) {
+    euclidean.initialize(rctx);
+    arriveBy = rctx.opt.arriveBy;
+    if (table.getMode() == TraverseMode.CAR) {
+      weightPerCost = rctx.opt.carReluctance;
+      euclideanFactor = 1;
+    } else {
+      double factor = bicycleWeightFactor(rctx.opt);
+      weightPerCost = factor / rctx.opt.getStreetSpeedUpperBound();
+      euclideanFactor = factor * table.getMinBicycleDistanceRatio();
+    }
+
+    int n = table.landmarkCount();
+    targetFromLandmarks = new double[n];
+    targetToLandmarks = new double[n];
+    // The bound is only valid for a single target
+    active =
+      n > 0 && rctx.toVertices.size() == 1 && initTargetCosts(rctx.toVertices.iterator().next());
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s) * euclideanFactor;
+    if (!active) {
+      return estimate;
+    }
+    // The car table does not cover walking, after parking for example
+    if (table.getMode() == TraverseMode.CAR && s.getNonTransitMode() != TraverseMode.CAR) {
+      return estimate;
+    }
+    int row = table.row(s.getVertex());
+    if (row < 0) {
+      return estimate;
+    }
+    double bound = table.lowerBound(row, targetFromLandmarks, targetToLandmarks, arriveBy);
+    return Math.max(estimate, bound * weightPerCost);
+  }
+
+  /* private methods */
+
+  /**
+   * The weight of a bicycle street is the distance divided by the speed, multiplied by the
+   * reluctance and, for some optimize types, by a factor. Return the lowest product of these, at
+   * most 1 - the street speed upper bound already accounts for the slower walking.
+   */
+  private static double bicycleWeightFactor(RoutingRequest opt) {
+    double reluctance = Math.min(opt.bikeReluctance, opt.bikeWalkingReluctance);
+    reluctance = Math.min(reluctance, Math.min(opt.walkReluctance, opt.stairsReluctance));
+    double optimizeFactor = 1;
+    if (opt.bicycleOptimizeType == BicycleOptimizeType.GREENWAYS) {
+      optimizeFactor = GREENWAY_FACTOR;
+    } else if (opt.bicycleOptimizeType == BicycleOptimizeType.TRIANGLE) {
+      optimizeFactor =
+        opt.bikeTriangleTimeFactor + opt.bikeTriangleSlopeFactor + opt.bikeTriangleSafetyFactor;
+    }
+    return Math.min(1, reluctance * optimizeFactor);
+  }
+
+  private boolean initTargetCosts(Vertex target) {
+    int row = table.row(target);
+    if (row >= 0) {
+      table.copyCosts(row, targetFromLandmarks, targetToLandmarks);
+      return true;
+    }
+    Arrays.fill(targetFromLandmarks, Double.POSITIVE_INFINITY);
+    Arrays.fill(targetToLandmarks, Double.POSITIVE_INFINITY);
+    return (
+      searchTableVertices(target, true, targetFromLandmarks) &&
+      searchTableVertices(target, false, targetToLandmarks)
+    );
+  }
+
+  /**
+   * The target is usually a temporary vertex linked into the street network. Search from the
+   * target to the closest vertices in the table, and compute the costs between the landmarks and
+   * the target through them.
+   *
+   * @param backward search the incoming edges and compute the costs from the landmarks if true,
+   *                 search the outgoing edges and compute the costs to the landmarks if false.
+   * @return false if the search visited too many vertices.
+   */
+  private boolean searchTableVertices(Vertex target, boolean backward, double[] costs) {
+    Map<Vertex, Double> visited = new IdentityHashMap<>();
+    BinHeap<Vertex> queue = new BinHeap<>();
+    visited.put(target, 0.0);
+    queue.insert(target, 0);
+
+    while (!queue.empty()) {
+      double c = queue.peek_min_key();
+      Vertex u = queue.extract_min();
+      if (c > visited.get(u)) {
+        continue;
+      }
+      int row = table.row(u);
+      if (row >= 0) {
+        for (int l = 0; l < costs.length; ++l) {
+          double landmarkCost = backward
+            ? table.costFromLandmark(row, l)
+            : table.costToLandmark(row, l);
+          costs[l] = Math.min(costs[l], landmarkCost + c);
+        }
+        continue;
+      }
+      if (visited.size() > MAX_TARGET_VERTICES) {
+        return false;
+      }
+      for (Edge edge : backward ? u.getIncoming() : u.getOutgoing()) {
+        double edgeCost = LandmarkTable.edgeCost(table.getMode(), edge);
+        if (edgeCost < 0) {
+          continue;
+        }
+        Vertex v = backward ? edge.getFromVertex() : edge.getToVertex();
+        double vc = c + edgeCost;
+        Double old = visited.get(v);
+        if (old == null || vc < old) {
+          visited.put(v, vc);
+          queue.insert(v, vc);
+        }
+      }
+    }
+    return true;
+  }
+}
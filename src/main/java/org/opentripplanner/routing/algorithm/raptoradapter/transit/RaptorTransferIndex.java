@@ -3,50 +3,60 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TransferWithDuration;
 import org.opentripplanner.routing.core.RoutingContext;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
 import org.opentripplanner.transit.raptor.util.ReversedRaptorTransfer;
 
+/**
+ * The transfers with the durations and costs calculated for a request, indexed by stop. The
+ * transfers of each direction are stored in one array, in the compressed sparse row format: the
+ * transfers of stop {@code s} are the entries from {@code offsets[s]} to {@code offsets[s + 1]}.
+ * The {@link RaptorTransfer} of each entry is created once with the index, the Raptor workers keep
+ * these in the stop arrivals.
+ * <p>
+ * The index is cached for each set of street related request parameters, see
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache}.
+ * It is immutable, and can be shared by all requests. Each index has a unique {@link #id()}.
+ */
 public class RaptorTransferIndex {
 
-  private final List<List<RaptorTransfer>> forwardTransfers;
+  private static final AtomicLong ID_COUNTER = new AtomicLong();
 
-  private final List<List<RaptorTransfer>> reversedTransfers;
+  private final long id = ID_COUNTER.incrementAndGet();
 
-  public RaptorTransferIndex(
-    List<List<RaptorTransfer>> forwardTransfers,
-    List<List<RaptorTransfer>> reversedTransfers
-  ) {
-    // Create immutable copies of the lists for each stop to make them immutable and faster to iterate
-    this.forwardTransfers =
-      forwardTransfers.stream().map(List::copyOf).collect(Collectors.toList());
+  private final PackedTransfers forwardTransfers;
+
+  private final PackedTransfers reversedTransfers;
 
-    this.reversedTransfers =
-      reversedTransfers.stream().map(List::copyOf).collect(Collectors.toList());
+  private RaptorTransferIndex(PackedTransfers forwardTransfers, PackedTransfers reversedTransfers) {
+    this.forwardTransfers = forwardTransfers;
+    this.reversedTransfers = reversedTransfers;
   }
 
   public static RaptorTransferIndex create(
     List<List<Transfer>> transfersByStopIndex,
     RoutingContext routingContext
   ) {
-    var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-
-    for (int i = 0; i < transfersByStopIndex.size(); i++) {
-      forwardTransfers.add(new ArrayList<>());
-      reversedTransfers.add(new ArrayList<>());
-    }
+    int nStops = transfersByStopIndex.size();
+    var transfersFromStop = new ArrayList<Collection<TransferWithDuration>>(nStops);
+    int[] nReversedTransfers = new int[nStops];
+    int nTransfers = 0;
 
-    for (int fromStop = 0; fromStop < transfersByStopIndex.size(); fromStop++) {
+    for (int fromStop = 0; fromStop < nStops; fromStop++) {
       // The transfers are filtered so that there is only one possible directional transfer
       // for a stop pair.
       var transfers = transfersByStopIndex
         .get(fromStop)
         .stream()
         .flatMap(s -> s.asRaptorTransfer(routingContext).stream())
+        .map(TransferWithDuration.class::cast)
         .collect(
           toMap(
             RaptorTransfer::stop,
@@ -56,23 +66,108 @@ public class RaptorTransferIndex {
         )
         .values();
 
-      forwardTransfers.get(fromStop).addAll(transfers);
+      transfersFromStop.add(transfers);
+      nTransfers += transfers.size();
+      for (TransferWithDuration it : transfers) {
+        nReversedTransfers[it.stop()]++;
+      }
+    }
 
-      for (RaptorTransfer forwardTransfer : transfers) {
-        reversedTransfers
-          .get(forwardTransfer.stop())
-          .add(new ReversedRaptorTransfer(fromStop, forwardTransfer));
+    var forward = new PackedTransfers(nStops, nTransfers);
+    var reversed = new PackedTransfers(nStops, nTransfers);
+
+    // Start each stop of the reversed index at the end of its entries, and fill it backwards
+    int end = 0;
+    for (int stop = 0; stop < nStops; stop++) {
+      end += nReversedTransfers[stop];
+      reversed.offsets[stop + 1] = end;
+    }
+    int[] reversedPosition = new int[nStops];
+    System.arraycopy(reversed.offsets, 1, reversedPosition, 0, nStops);
+
+    int position = 0;
+    for (int fromStop = nStops - 1; fromStop >= 0; fromStop--) {
+      for (TransferWithDuration it : transfersFromStop.get(fromStop)) {
+        reversed.transfers[--reversedPosition[it.stop()]] =
+          new ReversedRaptorTransfer(fromStop, it);
+      }
+    }
+    for (int fromStop = 0; fromStop < nStops; fromStop++) {
+      for (TransferWithDuration it : transfersFromStop.get(fromStop)) {
+        forward.transfers[position++] = it;
       }
+      forward.offsets[fromStop + 1] = position;
     }
 
-    return new RaptorTransferIndex(forwardTransfers, reversedTransfers);
+    return new RaptorTransferIndex(forward, reversed);
+  }
+
+  /**
+   * A unique id of this index, use it to refer to the transfers without keeping a reference to
+   * them.
+   */
+  public long id() {
+    return id;
+  }
+
+  /** Create a cursor over the transfers from a stop, see {@link Cursor#reset(int)}. */
+  public Cursor forwardCursor() {
+    return new Cursor(forwardTransfers);
   }
 
-  public List<List<RaptorTransfer>> getForwardTransfers() {
-    return forwardTransfers;
+  /** Create a cursor over the transfers to a stop, see {@link Cursor#reset(int)}. */
+  public Cursor reversedCursor() {
+    return new Cursor(reversedTransfers);
   }
 
-  public List<List<RaptorTransfer>> getReversedTransfers() {
-    return reversedTransfers;
+  private static final class PackedTransfers {
+
+    private final int[] offsets;
+    private final RaptorTransfer[] transfers;
+
+    private PackedTransfers(int nStops, int nTransfers) {
+      this.offsets = new int[nStops + 1];
+      this.transfers = new RaptorTransfer[nTransfers];
+    }
+  }
+
+  /**
+   * Iterate over the transfers of a stop, and reset to iterate over the transfers of another stop
+   * without allocating a new iterator.
+   * <p>
+   * The Raptor workers keep the transfers returned by {@link #next()} in the stop arrivals, so
+   * these are not the cursor itself, but the immutable transfers created with the index.
+   * <p>
+   * THIS CLASS IS NOT THREAD-SAFE.
+   */
+  public static final class Cursor implements Iterator<RaptorTransfer> {
+
+    private final PackedTransfers packed;
+    private int index;
+    private int end;
+
+    private Cursor(PackedTransfers packed) {
+      this.packed = packed;
+    }
+
+    /** Move the cursor to before the first transfer of the given stop. */
+    public Cursor reset(int stop) {
+      this.index = packed.offsets[stop] - 1;
+      this.end = packed.offsets[stop + 1];
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index + 1 < end;
+    }
+
+    @Override
+    public RaptorTransfer next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return packed.transfers[++index];
+    }
   }
 }
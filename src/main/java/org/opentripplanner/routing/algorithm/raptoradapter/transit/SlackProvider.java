@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
 import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.transit.model.network.TransitMode;
 import org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider;
@@ -56,6 +58,27 @@ public final class SlackProvider implements RaptorSlackProvider {
     return alightSlack[slackIndex];
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SlackProvider that = (SlackProvider) o;
+    return (
+      transferSlack == that.transferSlack &&
+      Arrays.equals(boardSlack, that.boardSlack) &&
+      Arrays.equals(alightSlack, that.alightSlack)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(transferSlack, Arrays.hashCode(boardSlack), Arrays.hashCode(alightSlack));
+  }
+
   /* private methods */
 
   private static int[] slackByMode(Map<TransitMode, Integer> modeSlack, int defaultSlack) {
@@ -2,17 +2,19 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
+import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TripPatternMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache.TripPatternsForRequest;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TransitDataProviderFilter;
 import org.opentripplanner.routing.core.RoutingContext;
 import org.opentripplanner.transit.model.site.Stop;
 import org.opentripplanner.transit.model.site.StopLocation;
@@ -22,8 +24,10 @@ public class TransitLayer {
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
+   * The lists are immutable, and share the unchanged parts with the lists of the previous realtime
+   * snapshot.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternForDateList> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -45,6 +49,8 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  private final RaptorRequestTripPatternCache tripPatternCache;
+
   private final TripPatternMapper tripPatternMapper;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -56,12 +62,13 @@ public class TransitLayer {
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
-      transitLayer.tripPatternsRunningOnDate,
+      new HashMap<>(transitLayer.tripPatternsRunningOnDate),
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.stopIndex,
       transitLayer.transitDataZoneId,
       transitLayer.transferCache,
+      transitLayer.tripPatternCache,
       transitLayer.tripPatternMapper,
       transitLayer.transferIndexGenerator
     );
@@ -74,15 +81,41 @@ public class TransitLayer {
     StopIndexForRaptor stopIndex,
     ZoneId transitDataZoneId,
     RaptorRequestTransferCache transferCache,
+    RaptorRequestTripPatternCache tripPatternCache,
     TripPatternMapper tripPatternMapper,
     TransferIndexGenerator transferIndexGenerator
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      mapTripPatternsRunningOnDate(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      stopIndex,
+      transitDataZoneId,
+      transferCache,
+      tripPatternCache,
+      tripPatternMapper,
+      transferIndexGenerator
+    );
+  }
+
+  private TransitLayer(
+    HashMap<LocalDate, TripPatternForDateList> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    StopIndexForRaptor stopIndex,
+    ZoneId transitDataZoneId,
+    RaptorRequestTransferCache transferCache,
+    RaptorRequestTripPatternCache tripPatternCache,
+    TripPatternMapper tripPatternMapper,
+    TransferIndexGenerator transferIndexGenerator
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.stopIndex = stopIndex;
     this.transitDataZoneId = transitDataZoneId;
     this.transferCache = transferCache;
+    this.tripPatternCache = tripPatternCache;
     this.tripPatternMapper = tripPatternMapper;
     this.transferIndexGenerator = transferIndexGenerator;
   }
@@ -101,7 +134,8 @@ public class TransitLayer {
   }
 
   public Collection<TripPatternForDate> getTripPatternsForDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    Collection<TripPatternForDate> tripPatternsForDate = tripPatternsRunningOnDate.get(date);
+    return tripPatternsForDate != null ? tripPatternsForDate : List.of();
   }
 
   /**
@@ -118,21 +152,16 @@ public class TransitLayer {
     return stopIndex.size();
   }
 
-  @Nullable
-  public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : null;
-  }
-
-  @Nullable
-  public List<TripPatternForDate> getTripPatternsStartingOnDateCopy(LocalDate date) {
-    List<TripPatternForDate> tripPatternsRunningOnDate = getTripPatternsRunningOnDateCopy(date);
-    return tripPatternsRunningOnDate != null
-      ? tripPatternsRunningOnDate
-        .stream()
-        .filter(t -> t.getLocalDate().equals(date))
-        .collect(Collectors.toList())
-      : null;
+  /**
+   * The TripPatternForDates running on the given date. The list is immutable, use {@link
+   * TripPatternForDateList#edit()} to make a new version for {@link
+   * #replaceTripPatternsForDate(LocalDate, TripPatternForDateList)}.
+   */
+  public TripPatternForDateList getTripPatternsRunningOnDate(LocalDate runningPeriodDate) {
+    return tripPatternsRunningOnDate.getOrDefault(
+      runningPeriodDate,
+      TripPatternForDateList.of(List.of())
+    );
   }
 
   public TransferService getTransferService() {
@@ -143,10 +172,29 @@ public class TransitLayer {
     return transferCache.get(transfersByStopIndex, routingContext);
   }
 
+  public TripPatternsForRequest getTripPatternsForRequest(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    return tripPatternCache.get(
+      this,
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+  }
+
   public RaptorRequestTransferCache getTransferCache() {
     return transferCache;
   }
 
+  public RaptorRequestTripPatternCache getTripPatternCache() {
+    return tripPatternCache;
+  }
+
   public TripPatternMapper getTripPatternMapper() {
     return tripPatternMapper;
   }
@@ -156,13 +204,23 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Replaces all the TripPatternForDates for a single date. This is not thread-safe, it is only
+   * used on a copy of the realtime TransitLayer before the copy is published.
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    TripPatternForDateList tripPatternForDates
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    this.tripPatternsRunningOnDate.put(date, tripPatternForDates);
+  }
+
+  private static HashMap<LocalDate, TripPatternForDateList> mapTripPatternsRunningOnDate(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var result = new HashMap<LocalDate, TripPatternForDateList>();
+    tripPatternsRunningOnDate.forEach((date, list) ->
+      result.put(date, TripPatternForDateList.of(list))
+    );
+    return result;
   }
 }
@@ -46,6 +46,11 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 5;
+    }
+
     @Override
     public List<Duration> pagingSearchWindowAdjustments() {
       return PAGING_SEARCH_WINDOW_ADJUSTMENTS;
@@ -71,6 +76,14 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of trip pattern sets, filtered by search days and request filters, that
+   * should be cached. Requests with the same search date and filters share the same set. If too
+   * small, the average request may be slower due to the required re-filtering. If too large, more
+   * memory may be used than needed.
+   */
+  int tripPatternCacheMaxSize();
+
   /**
    * This parameter is used to reduce the number of pages a client have to step through for a
    * journey where there are few alternatives/low frequency. This also work well to adjust for
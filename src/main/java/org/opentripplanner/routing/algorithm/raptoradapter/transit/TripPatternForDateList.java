@@ -0,0 +1,194 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The TripPatternForDates running on a date. This collection is immutable, and a new version is
+ * made with an {@link Editor}. The elements are stored in blocks of {@link #BLOCK_SIZE}, and the
+ * new version shares all blocks not changed with the previous version. A realtime update changing
+ * a few patterns then copies a few blocks, not all the patterns running on the date.
+ * <p>
+ * A removed element leaves an empty slot in its block, which is reused by the next element added.
+ * The elements are in no particular order.
+ */
+public final class TripPatternForDateList extends AbstractCollection<TripPatternForDate> {
+
+  static final int BLOCK_SIZE = 64;
+
+  private static final TripPatternForDate[][] NO_BLOCKS = new TripPatternForDate[0][];
+
+  /**
+   * All blocks are full length, the slots after {@link #end} and the removed slots are null. There
+   * may be null blocks at the end, for the list to grow.
+   */
+  private final TripPatternForDate[][] blocks;
+
+  /** The number of slots used, including the removed slots. */
+  private final int end;
+
+  private final int size;
+
+  private TripPatternForDateList(TripPatternForDate[][] blocks, int end, int size) {
+    this.blocks = blocks;
+    this.end = end;
+    this.size = size;
+  }
+
+  public static TripPatternForDateList of(Collection<TripPatternForDate> tripPatternsForDate) {
+    var editor = new Editor(new TripPatternForDateList(NO_BLOCKS, 0, 0));
+    tripPatternsForDate.forEach(editor::add);
+    return editor.build();
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int next = nextSlot(0);
+
+      @Override
+      public boolean hasNext() {
+        return next < end;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (next >= end) {
+          throw new NoSuchElementException();
+        }
+        TripPatternForDate element = slot(next);
+        next = nextSlot(next + 1);
+        return element;
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Start editing a new version of this list. */
+  public Editor edit() {
+    return new Editor(this);
+  }
+
+  private TripPatternForDate slot(int index) {
+    return blocks[index / BLOCK_SIZE][index % BLOCK_SIZE];
+  }
+
+  private int nextSlot(int index) {
+    while (index < end && slot(index) == null) {
+      ++index;
+    }
+    return index;
+  }
+
+  /**
+   * Make new versions of a list, copying only the blocks changed. The editor is not thread-safe,
+   * but the lists it builds are, and a list is never changed after it is built.
+   */
+  public static final class Editor {
+
+    private TripPatternForDate[][] blocks;
+    private int end;
+
+    /** The slot of each element, to find the block to change when it is removed. */
+    private final Map<TripPatternForDate, Integer> slotByElement = new HashMap<>();
+
+    /** The removed slots, reused by the elements added. */
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    /** The blocks copied since the last version was built, they can be changed in place. */
+    private final BitSet copiedBlocks = new BitSet();
+
+    private boolean blocksCopied = false;
+
+    private Editor(TripPatternForDateList list) {
+      this.blocks = list.blocks;
+      this.end = list.end;
+      for (int i = 0; i < end; ++i) {
+        TripPatternForDate element = list.slot(i);
+        if (element == null) {
+          freeSlots.add(i);
+        } else {
+          slotByElement.put(element, i);
+        }
+      }
+    }
+
+    /**
+     * Add the element, if it is not in the list already. Return {@code true} if the list changed.
+     */
+    public boolean add(TripPatternForDate element) {
+      if (slotByElement.containsKey(element)) {
+        return false;
+      }
+      int index = freeSlots.isEmpty() ? end++ : freeSlots.removeLast();
+      setSlot(index, element);
+      slotByElement.put(element, index);
+      return true;
+    }
+
+    /** Remove the element, if it is in the list. Return {@code true} if the list changed. */
+    public boolean remove(TripPatternForDate element) {
+      Integer index = slotByElement.remove(element);
+      if (index == null) {
+        return false;
+      }
+      setSlot(index, null);
+      freeSlots.add(index);
+      return true;
+    }
+
+    /** Build a new version of the list, the editor can continue with the next version. */
+    public TripPatternForDateList build() {
+      // Compact the list if it is mostly empty slots, all blocks are copied.
+      if (freeSlots.size() > BLOCK_SIZE && freeSlots.size() > slotByElement.size()) {
+        compact();
+      }
+      copiedBlocks.clear();
+      blocksCopied = false;
+      return new TripPatternForDateList(blocks, end, slotByElement.size());
+    }
+
+    private void setSlot(int index, TripPatternForDate element) {
+      int block = index / BLOCK_SIZE;
+      if (!blocksCopied || block == blocks.length) {
+        // The array of blocks is copied once for each version, and grows with the list
+        int length = block < blocks.length ? blocks.length : Math.max(block + 1, 2 * block);
+        blocks = Arrays.copyOf(blocks, length);
+        blocksCopied = true;
+      }
+      if (blocks[block] == null) {
+        blocks[block] = new TripPatternForDate[BLOCK_SIZE];
+        copiedBlocks.set(block);
+      } else if (!copiedBlocks.get(block)) {
+        blocks[block] = blocks[block].clone();
+        copiedBlocks.set(block);
+      }
+      blocks[block][index % BLOCK_SIZE] = element;
+    }
+
+    private void compact() {
+      var elements = slotByElement.keySet().toArray(TripPatternForDate[]::new);
+      blocks = NO_BLOCKS;
+      end = 0;
+      slotByElement.clear();
+      freeSlots.clear();
+      copiedBlocks.clear();
+      blocksCopied = false;
+      for (TripPatternForDate element : elements) {
+        add(element);
+      }
+    }
+  }
+}
@@ -101,6 +101,10 @@ public class RaptorRequestMapper {
       }
     }
 
+    if (OTPFeature.RaptorStopArrivalArena.isOn()) {
+      builder.enableOptimization(Optimization.STOP_ARRIVAL_ARENA);
+    }
+
     builder.profile(request.raptorOptions.getProfile());
     builder.searchDirection(request.raptorOptions.getSearchDirection());
 
@@ -23,6 +23,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternFo
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternWithRaptorStopIndexes;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache;
 import org.opentripplanner.routing.trippattern.TripTimes;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.util.OTPFeature;
@@ -102,6 +103,9 @@ public class TransitLayerMapper {
     }
 
     var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var tripPatternCache = new RaptorRequestTripPatternCache(
+      tuningParameters.tripPatternCacheMaxSize()
+    );
 
     LOG.info("Mapping complete.");
 
@@ -112,6 +116,7 @@ public class TransitLayerMapper {
       stopIndex,
       transitModel.getTimeZone(),
       transferCache,
+      tripPatternCache,
       tripPatternMapper,
       transferIndexGenerator
     );
@@ -1,19 +1,26 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import gnu.trove.set.TIntSet;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TripIdAndServiceDate;
 import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDateList;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternWithRaptorStopIndexes;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.trippattern.TripTimes;
@@ -28,6 +35,14 @@ import org.slf4j.LoggerFactory;
  * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
  * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
  * from the Graph is never changed.
+ * <p>
+ * The TripPatternForDates running on each date are kept in a {@link TripPatternForDateList}. An
+ * update makes a new version of the lists for the dates changed, copying only the blocks of the
+ * lists with a changed TripPatternForDate. The rest is shared with the previous TransitLayer.
+ * <p>
+ * The time of each update is published to micrometer as the {@code transitLayer.update} timer, and
+ * the number of TripPatternForDates added to or removed from the lists of all dates as the
+ * {@code transitLayer.update.tripPatternsForDate} summary.
  */
 public class TransitLayerUpdater {
 
@@ -49,14 +64,42 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The editors of the TripPatternForDates running on each date. The editors keep the position of
+   * each TripPatternForDate in the list, so that it is not recomputed for each update.
+   */
+  private final Map<LocalDate, TripPatternForDateList.Editor> tripPatternsRunningOnDateEditors = new HashMap<>();
+
+  /** Called each time a new realtime TransitLayer is committed. */
+  private final List<Runnable> snapshotListeners = new ArrayList<>();
+
+  private final Clock clock;
+
+  private final Timer updateTimer;
+
+  private final DistributionSummary changedTripPatternsForDateSummary;
 
   public TransitLayerUpdater(
     TransitModel transitModel,
-    Map<LocalDate, TIntSet> serviceCodesRunningForDate
+    Map<LocalDate, TIntSet> serviceCodesRunningForDate,
+    MeterRegistry meterRegistry
   ) {
     this.transitModel = transitModel;
     this.serviceCodesRunningForDate = serviceCodesRunningForDate;
+    this.clock = meterRegistry.config().clock();
+    this.updateTimer = Timer.builder("transitLayer.update").register(meterRegistry);
+    this.changedTripPatternsForDateSummary =
+      DistributionSummary
+        .builder("transitLayer.update.tripPatternsForDate")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Add a listener called in the updater thread each time a new realtime TransitLayer is
+   * committed. Add the listeners before the updaters are started.
+   */
+  public void addSnapshotListener(Runnable listener) {
+    snapshotListeners.add(listener);
   }
 
   public void update(
@@ -67,11 +110,12 @@ public class TransitLayerUpdater {
       return;
     }
 
-    long startTime = System.currentTimeMillis();
+    Timer.Sample startTime = Timer.start(clock);
 
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
-    TransitLayer realtimeTransitLayer = new TransitLayer(transitModel.getRealtimeTransitLayer());
+    TransitLayer previousTransitLayer = transitModel.getRealtimeTransitLayer();
+    TransitLayer realtimeTransitLayer = new TransitLayer(previousTransitLayer);
 
     // Map TripPatterns for this update to Raptor TripPatterns
     final Map<TripPattern, TripPatternWithRaptorStopIndexes> newTripPatternForOld = realtimeTransitLayer
@@ -102,8 +146,9 @@ public class TransitLayerUpdater {
 
       if (!tripPatternsStartingOnDateMapCache.containsKey(date)) {
         Map<TripPattern, TripPatternForDate> map = realtimeTransitLayer
-          .getTripPatternsStartingOnDateCopy(date)
+          .getTripPatternsRunningOnDate(date)
           .stream()
+          .filter(t -> t.getLocalDate().equals(date))
           .collect(Collectors.toMap(t -> t.getTripPattern().getPattern(), t -> t));
         tripPatternsStartingOnDateMapCache.put(date, map);
       }
@@ -165,24 +210,21 @@ public class TransitLayerUpdater {
 
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
+    int changedTripPatternsForDate = 0;
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
+      // Remove old cached tripPatterns where tripTimes are no longer running
+      TripPatternForDateList.Editor patternsForDate = tripPatternsRunningOnDateEditors.computeIfAbsent(
         date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
+        d -> realtimeTransitLayer.getTripPatternsRunningOnDate(d).edit()
       );
 
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, TripPatternForDate> entry : oldTripPatternsForDate.entrySet()) {
-        TripPattern tripPattern = entry.getKey();
-        TripPatternForDate oldTripPatternForDate = oldTripPatternsForDate.get(tripPattern);
-
+      for (TripPatternForDate oldTripPatternForDate : oldTripPatternsForDate.values()) {
         // Remove old TripPatternForDate for this date if it was valid on this date
-        if (oldTripPatternForDate != null) {
-          if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.remove(oldTripPatternForDate);
-          }
+        if (
+          oldTripPatternForDate.getRunningPeriodDates().contains(date) &&
+          patternsForDate.remove(oldTripPatternForDate)
+        ) {
+          ++changedTripPatternsForDate;
         }
       }
 
@@ -201,8 +243,8 @@ public class TransitLayerUpdater {
               .map(tt -> tt.getTripTimes().isEmpty())
               .orElse(false);
 
-            if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
+            if (toRemove && patternsForDate.remove(tripPatternForDate)) {
+              ++changedTripPatternsForDate;
             }
           } else {
             LOG.warn("Could not fetch timetable for {}", pattern);
@@ -215,13 +257,16 @@ public class TransitLayerUpdater {
 
         // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
         if (newTripPatternForDate != null) {
-          if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-            patternsForDate.add(newTripPatternForDate);
+          if (
+            newTripPatternForDate.getRunningPeriodDates().contains(date) &&
+            patternsForDate.add(newTripPatternForDate)
+          ) {
+            ++changedTripPatternsForDate;
           }
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate.build());
     }
 
     if (transferIndexGenerator != null) {
@@ -232,10 +277,19 @@ public class TransitLayerUpdater {
     // guarantee that the reference is set after all the fields have been updated.
     transitModel.setRealtimeTransitLayer(realtimeTransitLayer);
 
+    // The trip patterns cached for the previous snapshot will not be used by new requests
+    realtimeTransitLayer.getTripPatternCache().invalidate(previousTransitLayer);
+    snapshotListeners.forEach(Runnable::run);
+
+    long nanos = startTime.stop(updateTimer);
+    changedTripPatternsForDateSummary.record(changedTripPatternsForDate);
+
     LOG.debug(
-      "UPDATING {} tripPatterns took {} ms",
+      "UPDATING {} tripPatterns on {} dates, changing {} tripPatternsForDate, took {} ms",
       updatedTimetables.size(),
-      System.currentTimeMillis() - startTime
+      datesToBeUpdated.size(),
+      changedTripPatternsForDate,
+      TimeUnit.NANOSECONDS.toMillis(nanos)
     );
   }
 }
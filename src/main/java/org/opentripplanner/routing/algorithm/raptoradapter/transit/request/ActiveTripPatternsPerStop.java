@@ -0,0 +1,33 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import org.opentripplanner.transit.raptor.util.ReusableBitSet;
+
+/**
+ * The active trip pattern indexes for each stop, packed in the compressed sparse row format: the
+ * patterns of stop {@code s} are the entries from {@code offsets[s]} to {@code offsets[s + 1]}.
+ * This is immutable and shared by all requests using the same {@link TripPatternForDates}.
+ */
+public final class ActiveTripPatternsPerStop {
+
+  private final int numberOfPatterns;
+  private final int[] offsets;
+  private final int[] patterns;
+
+  ActiveTripPatternsPerStop(int numberOfPatterns, int[] offsets, int[] patterns) {
+    this.numberOfPatterns = numberOfPatterns;
+    this.offsets = offsets;
+    this.patterns = patterns;
+  }
+
+  public int numberOfPatterns() {
+    return numberOfPatterns;
+  }
+
+  /** Add the patterns of the given stop to the set. */
+  public void addPatternsForStop(int stop, ReusableBitSet set) {
+    int end = offsets[stop + 1];
+    for (int i = offsets[stop]; i < end; ++i) {
+      set.set(patterns[i]);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+
+/**
+ * Cache the trip patterns filtered by date and {@link TransitDataProviderFilter} for a request, so
+ * that similar requests can share them. Creating these is a significant part of the time spent
+ * preparing the transit data for a request.
+ * <p>
+ * The {@link TransitLayer} instance is part of the key. A realtime update creates a new instance,
+ * so a request never sees patterns filtered from an older snapshot. The cached values are never
+ * modified and are shared between the requests.
+ */
+public class RaptorRequestTripPatternCache {
+
+  private final LoadingCache<CacheKey, TripPatternsForRequest> tripPatternCache;
+
+  public RaptorRequestTripPatternCache(int maximumSize) {
+    tripPatternCache =
+      CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build(cacheLoader());
+  }
+
+  public LoadingCache<CacheKey, TripPatternsForRequest> getTripPatternCache() {
+    return tripPatternCache;
+  }
+
+  public TripPatternsForRequest get(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    try {
+      return tripPatternCache.get(
+        new CacheKey(
+          transitLayer,
+          transitSearchTimeZero,
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          filter
+        )
+      );
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  /**
+   * Remove all entries created from the given transit layer. Call this when a new realtime
+   * snapshot replaces it, to release the memory before the entries are evicted.
+   */
+  public void invalidate(TransitLayer transitLayer) {
+    tripPatternCache.asMap().keySet().removeIf(key -> key.transitLayer == transitLayer);
+  }
+
+  private CacheLoader<CacheKey, TripPatternsForRequest> cacheLoader() {
+    return new CacheLoader<>() {
+      @Override
+      public TripPatternsForRequest load(@javax.annotation.Nonnull CacheKey cacheKey) {
+        var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
+          cacheKey.transitLayer,
+          cacheKey.transitSearchTimeZero
+        );
+        var patternIndex = transitDataCreator.createTripPatterns(
+          cacheKey.additionalPastSearchDays,
+          cacheKey.additionalFutureSearchDays,
+          cacheKey.filter
+        );
+        return new TripPatternsForRequest(
+          List.copyOf(patternIndex),
+          transitDataCreator.createTripPatternsPerStop(patternIndex)
+        );
+      }
+    };
+  }
+
+  /**
+   * The trip patterns by route index, and the route indexes active for each stop index. Each
+   * instance has a unique {@link #id()}, the patterns are created from one snapshot of the
+   * {@link TransitLayer}.
+   */
+  public static final class TripPatternsForRequest {
+
+    private static final AtomicLong ID_COUNTER = new AtomicLong();
+
+    private final long id = ID_COUNTER.incrementAndGet();
+    private final List<TripPatternForDates> patternIndex;
+    private final ActiveTripPatternsPerStop activeTripPatternsPerStop;
+
+    public TripPatternsForRequest(
+      List<TripPatternForDates> patternIndex,
+      ActiveTripPatternsPerStop activeTripPatternsPerStop
+    ) {
+      this.patternIndex = patternIndex;
+      this.activeTripPatternsPerStop = activeTripPatternsPerStop;
+    }
+
+    /**
+     * A unique id of these patterns, use it to refer to them without keeping a reference to them.
+     */
+    public long id() {
+      return id;
+    }
+
+    public List<TripPatternForDates> patternIndex() {
+      return patternIndex;
+    }
+
+    public ActiveTripPatternsPerStop activeTripPatternsPerStop() {
+      return activeTripPatternsPerStop;
+    }
+  }
+
+  private static class CacheKey {
+
+    private final TransitLayer transitLayer;
+    private final ZonedDateTime transitSearchTimeZero;
+    private final int additionalPastSearchDays;
+    private final int additionalFutureSearchDays;
+    private final TransitDataProviderFilter filter;
+
+    private CacheKey(
+      TransitLayer transitLayer,
+      ZonedDateTime transitSearchTimeZero,
+      int additionalPastSearchDays,
+      int additionalFutureSearchDays,
+      TransitDataProviderFilter filter
+    ) {
+      this.transitLayer = transitLayer;
+      this.transitSearchTimeZero = transitSearchTimeZero;
+      this.additionalPastSearchDays = additionalPastSearchDays;
+      this.additionalFutureSearchDays = additionalFutureSearchDays;
+      this.filter = filter;
+    }
+
+    @Override
+    public int hashCode() {
+      // transitLayer is hashed by identity on purpose, the realtime updater creates a new instance
+      // for each snapshot
+      return Objects.hash(
+        System.identityHashCode(transitLayer),
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter
+      );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey cacheKey = (CacheKey) o;
+      // transitLayer is checked using == on purpose, see hashCode()
+      return (
+        transitLayer == cacheKey.transitLayer &&
+        additionalPastSearchDays == cacheKey.additionalPastSearchDays &&
+        additionalFutureSearchDays == cacheKey.additionalFutureSearchDays &&
+        transitSearchTimeZero.equals(cacheKey.transitSearchTimeZero) &&
+        filter.equals(cacheKey.filter)
+      );
+    }
+  }
+}
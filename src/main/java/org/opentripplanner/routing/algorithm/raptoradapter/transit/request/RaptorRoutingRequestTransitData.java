@@ -1,7 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.time.ZonedDateTime;
-import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -11,6 +10,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.McCostParamsMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache.TripPatternsForRequest;
 import org.opentripplanner.routing.core.RoutingContext;
 import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
 import org.opentripplanner.transit.raptor.api.transit.IntIterator;
@@ -20,7 +20,7 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorRoute;
 import org.opentripplanner.transit.raptor.api.transit.RaptorStopNameResolver;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
-import org.opentripplanner.transit.raptor.util.BitSetIterator;
+import org.opentripplanner.transit.raptor.util.ReusableBitSet;
 import org.opentripplanner.util.OTPFeature;
 import org.opentripplanner.util.time.ServiceDateUtils;
 
@@ -28,6 +28,10 @@ import org.opentripplanner.util.time.ServiceDateUtils;
  * This is the data provider for the Range Raptor search engine. It uses data from the TransitLayer,
  * but filters it by dates and modes per request. Transfers durations are pre-calculated per request
  * based on walk speed.
+ * <p>
+ * The iterators returned for the transfers and routes are reused, so an instance must only be used
+ * by one thread. Each Raptor search gets its own copy with {@link #forSearch()}, the copies share
+ * all data except the iterators.
  */
 public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvider<TripSchedule> {
 
@@ -38,17 +42,29 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   /**
    * Active route indices by stop index
    */
-  private final List<int[]> activeTripPatternsPerStop;
+  private final ActiveTripPatternsPerStop activeTripPatternsPerStop;
+
+  /**
+   * The set of routes returned by {@link #routeIndexIterator(IntIterator)}, reused for every round.
+   */
+  private final ReusableBitSet activeTripPatternsForGivenStops;
 
   /**
    * Trip patterns by route index
    */
   private final List<TripPatternForDates> patternIndex;
 
+  private final TripPatternsForRequest tripPatterns;
+
+  private final RaptorTransferIndex transfers;
+
   /**
-   * Transfers by stop index
+   * Transfers by stop index. The cursors are reused for all stops, a search iterates over the
+   * transfers of one stop at a time.
    */
-  private final RaptorTransferIndex transfers;
+  private final RaptorTransferIndex.Cursor transfersFromStop;
+
+  private final RaptorTransferIndex.Cursor transfersToStop;
 
   private final ZonedDateTime transitSearchTimeZero;
 
@@ -71,21 +87,22 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.transitLayer = transitLayer;
     this.transitSearchTimeZero = transitSearchTimeZero;
 
-    // Delegate to the creator to construct the needed data structures. The code is messy so
-    // it is nice to NOT have it in the class. It isolate this code to only be available at
-    // the time of construction
-    var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
-      transitLayer,
-      transitSearchTimeZero
-    );
-    this.patternIndex =
-      transitDataCreator.createTripPatterns(
+    // The filtered trip patterns are shared with other requests for the same transit layer,
+    // search days and filter. They are created by the RaptorRoutingRequestTransitDataCreator.
+    this.tripPatterns =
+      transitLayer.getTripPatternsForRequest(
+        transitSearchTimeZero,
         additionalPastSearchDays,
         additionalFutureSearchDays,
         filter
       );
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(patternIndex);
+    this.patternIndex = tripPatterns.patternIndex();
+    this.activeTripPatternsPerStop = tripPatterns.activeTripPatternsPerStop();
+    this.activeTripPatternsForGivenStops =
+      new ReusableBitSet(activeTripPatternsPerStop.numberOfPatterns());
     this.transfers = transitLayer.getRaptorTransfersForRequest(routingContext);
+    this.transfersFromStop = transfers.forwardCursor();
+    this.transfersToStop = transfers.reversedCursor();
 
     var mcCostParams = McCostParamsMapper.map(routingContext.opt);
 
@@ -108,28 +125,50 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       );
   }
 
+  /**
+   * Copy the data of the given instance, with new iterators for one search.
+   */
+  private RaptorRoutingRequestTransitData(RaptorRoutingRequestTransitData other) {
+    this.transferService = other.transferService;
+    this.transitLayer = other.transitLayer;
+    this.transitSearchTimeZero = other.transitSearchTimeZero;
+    this.tripPatterns = other.tripPatterns;
+    this.patternIndex = other.patternIndex;
+    this.activeTripPatternsPerStop = other.activeTripPatternsPerStop;
+    this.activeTripPatternsForGivenStops =
+      new ReusableBitSet(activeTripPatternsPerStop.numberOfPatterns());
+    this.transfers = other.transfers;
+    this.transfersFromStop = transfers.forwardCursor();
+    this.transfersToStop = transfers.reversedCursor();
+    this.generalizedCostCalculator = other.generalizedCostCalculator;
+    this.validTransitDataStartTime = other.validTransitDataStartTime;
+    this.validTransitDataEndTime = other.validTransitDataEndTime;
+  }
+
+  @Override
+  public RaptorRoutingRequestTransitData forSearch() {
+    return new RaptorRoutingRequestTransitData(this);
+  }
+
   @Override
   public Iterator<RaptorTransfer> getTransfersFromStop(int stopIndex) {
-    return transfers.getForwardTransfers().get(stopIndex).iterator();
+    return transfersFromStop.reset(stopIndex);
   }
 
   @Override
   public Iterator<? extends RaptorTransfer> getTransfersToStop(int stopIndex) {
-    return transfers.getReversedTransfers().get(stopIndex).iterator();
+    return transfersToStop.reset(stopIndex);
   }
 
   @Override
   public IntIterator routeIndexIterator(IntIterator stops) {
-    BitSet activeTripPatternsForGivenStops = new BitSet(patternIndex.size());
+    activeTripPatternsForGivenStops.clear();
 
     while (stops.hasNext()) {
-      int[] patterns = activeTripPatternsPerStop.get(stops.next());
-      for (int i : patterns) {
-        activeTripPatternsForGivenStops.set(i);
-      }
+      activeTripPatternsPerStop.addPatternsForStop(stops.next(), activeTripPatternsForGivenStops);
     }
 
-    return new BitSetIterator(activeTripPatternsForGivenStops);
+    return activeTripPatternsForGivenStops.iterator();
   }
 
   @Override
@@ -191,4 +230,16 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   public int getValidTransitDataEndTime() {
     return validTransitDataEndTime;
   }
+
+  /**
+   * The filtered trip patterns and the transfers are shared by the requests with the same transit
+   * layer, search days, filter and transfer parameters. The key uses their ids, so the cached
+   * results do not keep an old realtime snapshot in memory.
+   */
+  @Override
+  public Object transitDataKey() {
+    return new TransitDataKey(tripPatterns.id(), transfers.id());
+  }
+
+  private record TransitDataKey(long tripPatternsId, long transfersId) {}
 }
@@ -2,10 +2,10 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.opentripplanner.util.time.ServiceDateUtils.secondsSinceStartOfTime;
 
-import gnu.trove.list.array.TIntArrayList;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -44,30 +44,31 @@ class RaptorRoutingRequestTransitDataCreator {
     this.transitSearchTimeZero = transitSearchTimeZero;
   }
 
-  public List<int[]> createTripPatternsPerStop(List<TripPatternForDates> tripPatternsForDate) {
-    // Create temporary array of TIntArrayLists
+  public ActiveTripPatternsPerStop createTripPatternsPerStop(
+    List<TripPatternForDates> tripPatternsForDate
+  ) {
+    // Count the patterns for each stop, a pattern visiting a stop twice is counted twice
     int stopCount = transitLayer.getStopCount();
-    TIntArrayList[] patternsForStop = new TIntArrayList[stopCount];
-    for (int i = 0; i < stopCount; i++) {
-      patternsForStop[i] = new TIntArrayList();
+    int[] offsets = new int[stopCount + 1];
+    for (TripPatternForDates pattern : tripPatternsForDate) {
+      for (int stop : pattern.getTripPattern().getStopIndexes()) {
+        offsets[stop + 1]++;
+      }
+    }
+    for (int stop = 0; stop < stopCount; stop++) {
+      offsets[stop + 1] += offsets[stop];
     }
 
-    // Loop through all patterns, and mark all stops containing that pattern
+    // Loop through all patterns, and add the pattern to each stop visited
     int numPatterns = tripPatternsForDate.size();
+    int[] next = Arrays.copyOf(offsets, stopCount);
+    int[] patterns = new int[offsets[stopCount]];
     for (int patternIndex = 0; patternIndex < numPatterns; patternIndex++) {
-      TripPatternForDates tripPatternForDateList = tripPatternsForDate.get(patternIndex);
-      for (int i : tripPatternForDateList.getTripPattern().getStopIndexes()) {
-        patternsForStop[i].add(patternIndex);
+      for (int stop : tripPatternsForDate.get(patternIndex).getTripPattern().getStopIndexes()) {
+        patterns[next[stop]++] = patternIndex;
       }
     }
-
-    // Create the final list with raw int arrays, in order to get best iteration performance
-    List<int[]> result = new ArrayList<>();
-    for (var patterns : patternsForStop) {
-      result.add(patterns.toArray());
-    }
-
-    return result;
+    return new ActiveTripPatternsPerStop(numPatterns, offsets, patterns);
   }
 
   /**
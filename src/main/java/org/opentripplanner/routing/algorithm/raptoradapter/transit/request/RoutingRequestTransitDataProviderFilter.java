@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.model.modes.AllowTransitModeFilter;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -130,6 +131,56 @@ public class RoutingRequestTransitDataProviderFilter implements TransitDataProvi
     return boardingPossible;
   }
 
+  /**
+   * Two filters are equal if they accept the same trip patterns, trips and stops. The
+   * accessibility request is reduced to the two flags used by the filter, so requests with
+   * different accessibility costs can share the same filtered transit data.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RoutingRequestTransitDataProviderFilter that = (RoutingRequestTransitDataProviderFilter) o;
+    return (
+      requireBikesAllowed == that.requireBikesAllowed &&
+      onlyAccessibleTrips() == that.onlyAccessibleTrips() &&
+      onlyAccessibleStops() == that.onlyAccessibleStops() &&
+      includePlannedCancellations == that.includePlannedCancellations &&
+      transitModeFilter.equals(that.transitModeFilter) &&
+      bannedRoutes.equals(that.bannedRoutes) &&
+      bannedTrips.equals(that.bannedTrips)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      requireBikesAllowed,
+      onlyAccessibleTrips(),
+      onlyAccessibleStops(),
+      includePlannedCancellations,
+      transitModeFilter,
+      bannedRoutes,
+      bannedTrips
+    );
+  }
+
+  private boolean onlyAccessibleTrips() {
+    return (
+      wheelchairAccessibility.enabled() && wheelchairAccessibility.trip().onlyConsiderAccessible()
+    );
+  }
+
+  private boolean onlyAccessibleStops() {
+    return (
+      wheelchairAccessibility.enabled() && wheelchairAccessibility.stop().onlyConsiderAccessible()
+    );
+  }
+
   private boolean routeIsNotBanned(TripPatternForDate tripPatternForDate) {
     FeedScopedId routeId = tripPatternForDate.getTripPattern().getPattern().getRoute().getId();
     return !bannedRoutes.contains(routeId);
@@ -2,7 +2,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.util.BitSet;
 import java.util.List;
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.SlackProvider;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternWithRaptorStopIndexes;
@@ -58,6 +57,13 @@ public class TripPatternForDates
 
   private final WheelchairAccessibility[] wheelchairBoardings;
 
+  /**
+   * The trip schedules by trip index, created the first time they are requested. The patterns are
+   * shared by the searches in all threads; the hot fields of a trip schedule are final, so two
+   * threads creating the same trip schedule is harmless.
+   */
+  private final TripScheduleWithOffset[] tripSchedules;
+
   // bit arrays with boarding/alighting information for all stops on trip pattern
   private final BitSet boardingPossible;
   private final BitSet alightingPossible;
@@ -88,6 +94,7 @@ public class TripPatternForDates
     this.isFrequencyBased = hasFrequencies;
 
     wheelchairBoardings = new WheelchairAccessibility[numberOfTripSchedules];
+    tripSchedules = new TripScheduleWithOffset[numberOfTripSchedules];
 
     final int nStops = tripPattern.getStopIndexes().length;
     this.arrivalTimes = new int[nStops * numberOfTripSchedules];
@@ -196,31 +203,36 @@ public class TripPatternForDates
     return TripScheduleSearchFactory.create(direction, this);
   }
 
+  /**
+   * The board and alight searches call this for each trip found, so the trip schedule is created
+   * once for each trip index and reused.
+   */
   @Override
   public TripSchedule getTripSchedule(int index) {
-    return new TripScheduleWithOffset(this, index);
+    TripScheduleWithOffset tripSchedule = tripSchedules[index];
+    if (tripSchedule == null) {
+      tripSchedule = new TripScheduleWithOffset(this, index);
+      tripSchedules[index] = tripSchedule;
+    }
+    return tripSchedule;
   }
 
   @Override
-  public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> arrivalTimes[base + index];
+  public int[] arrivalTimes() {
+    return arrivalTimes;
   }
 
   @Override
-  public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> departureTimes[base + index];
+  public int[] departureTimes() {
+    return departureTimes;
   }
 
-  public IntUnaryOperator getArrivalTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
+  int arrivalTime(int tripIndex, int stopPositionInPattern) {
+    return arrivalTimes[stopPositionInPattern * numberOfTripSchedules + tripIndex];
   }
 
-  public IntUnaryOperator getDepartureTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
+  int departureTime(int tripIndex, int stopPositionInPattern) {
+    return departureTimes[stopPositionInPattern * numberOfTripSchedules + tripIndex];
   }
 
   @Override
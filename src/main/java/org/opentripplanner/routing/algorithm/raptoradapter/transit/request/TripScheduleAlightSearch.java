@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nullable;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransferConstraint;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
@@ -19,6 +18,10 @@ import org.opentripplanner.util.lang.ToStringBuilder;
  * The search use a binary search if the number of trip schedules is above a given threshold. A
  * linear search is slow when the number of schedules is very large, let say more than 300 trip
  * schedules.
+ * <p/>
+ * The times are read directly from the flat time array of the {@link TripSearchTimetable}. The
+ * search itself does not allocate any objects; the trip schedule of the result is fetched from the
+ * timetable by its index, see {@link TripSearchTimetable#getTripSchedule(int)}.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -29,11 +32,13 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   private final int nTrips;
   private final int binarySearchThreshold;
 
+  /** The raw times of the timetable, see {@link TripSearchTimetable#arrivalTimes()}. */
+  private final int[] arrivalTimes;
+
   private int latestAlightTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator arrivalTimes;
+  private int timesOffset;
 
-  private T candidateTrip;
   private int candidateTripIndex = NOT_FOUND;
 
   /**
@@ -44,13 +49,14 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     this.timetable = timetable;
     this.nTrips = timetable.numberOfTripSchedules();
     this.binarySearchThreshold = binarySearchThreshold;
+    this.arrivalTimes = timetable.arrivalTimes();
   }
 
   /* TripScheduleBoardOrAlightEvent implementation using fly-weight pattern */
 
   @Override
   public T getTrip() {
-    return candidateTrip;
+    return candidateTripIndex == NOT_FOUND ? null : timetable.getTripSchedule(candidateTripIndex);
   }
 
   @Override
@@ -60,7 +66,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
   @Override
   public int getTime() {
-    return candidateTrip.arrival(stopPositionInPattern);
+    return arrivalTimes[timesOffset + candidateTripIndex];
   }
 
   @Override
@@ -91,8 +97,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   ) {
     this.latestAlightTime = latestAlightTime;
     this.stopPositionInPattern = stopPositionInPattern;
-    this.arrivalTimes = timetable.getArrivalTimes(stopPositionInPattern);
-    this.candidateTrip = null;
+    this.timesOffset = stopPositionInPattern * nTrips;
     this.candidateTripIndex = NOT_FOUND;
 
     // No previous trip is found
@@ -117,7 +122,6 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
       .addObj("latestAlightTime", latestAlightTime)
       .addObj("stopPos", stopPositionInPattern)
       .addObj("tripIndex", candidateTripIndex)
-      .addObj("trip", candidateTrip)
       .toString();
   }
 
@@ -154,7 +158,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     int tripIndexLowerBound
   ) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
+      if (arrivalTimes[timesOffset + i] <= latestAlightTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too late. We can break out of the loop since
@@ -166,7 +170,6 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     if (candidateTripIndex == NOT_FOUND) {
       return null;
     }
-    candidateTrip = timetable.getTripSchedule(candidateTripIndex);
     return this;
   }
 
@@ -181,8 +184,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     final int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
-        candidateTrip = timetable.getTripSchedule(i);
+      if (arrivalTimes[timesOffset + i] <= latestAlightTime) {
         candidateTripIndex = i;
         return this;
       }
@@ -207,7 +209,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     while (upper - lower > binarySearchThreshold) {
       int m = (lower + upper) / 2;
 
-      if (arrivalTimes.applyAsInt(m) <= latestAlightTime) {
+      if (arrivalTimes[timesOffset + m] <= latestAlightTime) {
         lower = m;
       } else {
         upper = m;
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nullable;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransferConstraint;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
@@ -18,6 +17,10 @@ import org.opentripplanner.util.lang.ToStringBuilder;
  * The search use a binary search if the number of trip schedules is above a given threshold. A
  * linear search is slow when the number of schedules is very large, let say more than 300 trip
  * schedules.
+ * <p/>
+ * The times are read directly from the flat time array of the {@link TripSearchTimetable}. The
+ * search itself does not allocate any objects; the trip schedule of the result is fetched from the
+ * timetable by its index, see {@link TripSearchTimetable#getTripSchedule(int)}.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -28,11 +31,13 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   private final int nTrips;
   private final int binarySearchThreshold;
 
+  /** The raw times of the timetable, see {@link TripSearchTimetable#departureTimes()}. */
+  private final int[] departureTimes;
+
   private int earliestBoardTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator departureTimes;
+  private int timesOffset;
 
-  private T candidateTrip;
   private int candidateTripIndex = NOT_FOUND;
 
   /**
@@ -43,13 +48,14 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     this.timetable = timetable;
     this.nTrips = timetable.numberOfTripSchedules();
     this.binarySearchThreshold = binarySearchThreshold;
+    this.departureTimes = timetable.departureTimes();
   }
 
   /* TripScheduleBoardOrAlightEvent implementation using fly-weight pattern */
 
   @Override
   public T getTrip() {
-    return candidateTrip;
+    return candidateTripIndex == NOT_FOUND ? null : timetable.getTripSchedule(candidateTripIndex);
   }
 
   @Override
@@ -59,7 +65,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
   @Override
   public int getTime() {
-    return candidateTrip.departure(stopPositionInPattern);
+    return departureTimes[timesOffset + candidateTripIndex];
   }
 
   @Override
@@ -92,8 +98,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   ) {
     this.earliestBoardTime = earliestTime;
     this.stopPositionInPattern = stopPositionInPattern;
-    this.departureTimes = timetable.getDepartureTimes(stopPositionInPattern);
-    this.candidateTrip = null;
+    this.timesOffset = stopPositionInPattern * nTrips;
     this.candidateTripIndex = NOT_FOUND;
 
     // No previous trip is found
@@ -117,7 +122,6 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
       .addObj("earliestBoardTime", earliestBoardTime)
       .addObj("stopPos", stopPositionInPattern)
       .addObj("tripIndex", candidateTripIndex)
-      .addObj("trip", candidateTrip)
       .toString();
   }
 
@@ -157,7 +161,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
+      if (departureTimes[timesOffset + i] >= earliestBoardTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too early. We can break out of the loop since
@@ -169,7 +173,6 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     if (candidateTripIndex == NOT_FOUND) {
       return null;
     }
-    candidateTrip = timetable.getTripSchedule(candidateTripIndex);
     return this;
   }
 
@@ -184,8 +187,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     final int tripIndexLowerBound
   ) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
-        candidateTrip = timetable.getTripSchedule(i);
+      if (departureTimes[timesOffset + i] >= earliestBoardTime) {
         candidateTripIndex = i;
         return this;
       }
@@ -208,7 +210,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     while (upper - lower > binarySearchThreshold) {
       int m = (lower + upper) / 2;
 
-      if (departureTimes.applyAsInt(m) >= earliestBoardTime) {
+      if (departureTimes[timesOffset + m] >= earliestBoardTime) {
         upper = m;
       } else {
         lower = m;
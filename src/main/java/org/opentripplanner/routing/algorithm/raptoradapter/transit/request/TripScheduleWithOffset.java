@@ -1,7 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.time.LocalDate;
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.model.TripPattern;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -15,7 +14,8 @@ import org.opentripplanner.util.lang.ToStringBuilder;
  * This represents a single trip within a TripPattern, but with a time offset in seconds. This is
  * used to represent a trip on a subsequent service day than the first one in the date range used.
  * <p>
- * Use flyweight pattern, reusing TripPatternForDates data
+ * Use flyweight pattern, reusing TripPatternForDates data. One instance is created for each trip
+ * and shared by all searches, the trip times are found the first time they are needed.
  */
 public final class TripScheduleWithOffset implements TripSchedule {
 
@@ -23,14 +23,9 @@ public final class TripScheduleWithOffset implements TripSchedule {
   private final int sortIndex;
   private final int transitReluctanceIndex;
   private final int tripIndexForDates;
-  private final IntUnaryOperator arrivalTimes;
-  private final IntUnaryOperator departureTimes;
 
   // Computed when needed later for RaptorPathToItineraryMapper
-  private int index;
-  private TripTimes tripTimes = null;
-  private LocalDate serviceDate = null;
-  private int secondsOffset;
+  private TripTimesForDate tripTimesForDate = null;
 
   TripScheduleWithOffset(TripPatternForDates pattern, int tripIndexForDates) {
     this.tripIndexForDates = tripIndexForDates;
@@ -38,12 +33,8 @@ public final class TripScheduleWithOffset implements TripSchedule {
     // Mode ordinal is used to index the transit factor/reluctance
     this.transitReluctanceIndex = pattern.getTripPattern().getPattern().getMode().ordinal();
 
-    // get arrival/departures lambda
-    this.arrivalTimes = pattern.getArrivalTimesForTrip(tripIndexForDates);
-    this.departureTimes = pattern.getDepartureTimesForTrip(tripIndexForDates);
-
     // Trip times are sorted based on the arrival times at stop 0,
-    this.sortIndex = arrivalTimes.applyAsInt(0);
+    this.sortIndex = pattern.arrivalTime(tripIndexForDates, 0);
   }
 
   @Override
@@ -53,12 +44,12 @@ public final class TripScheduleWithOffset implements TripSchedule {
 
   @Override
   public int arrival(int stopPosInPattern) {
-    return this.arrivalTimes.applyAsInt(stopPosInPattern);
+    return pattern.arrivalTime(tripIndexForDates, stopPosInPattern);
   }
 
   @Override
   public int departure(int stopPosInPattern) {
-    return this.departureTimes.applyAsInt(stopPosInPattern);
+    return pattern.departureTime(tripIndexForDates, stopPosInPattern);
   }
 
   @Override
@@ -81,10 +72,7 @@ public final class TripScheduleWithOffset implements TripSchedule {
    */
   @Override
   public TripTimes getOriginalTripTimes() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
-    return this.tripTimes;
+    return tripTimesForDate().tripTimes();
   }
 
   @Override
@@ -94,17 +82,11 @@ public final class TripScheduleWithOffset implements TripSchedule {
 
   @Override
   public LocalDate getServiceDate() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
-    return serviceDate;
+    return tripTimesForDate().serviceDate();
   }
 
   public int getSecondsOffset() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
-    return secondsOffset;
+    return tripTimesForDate().secondsOffset();
   }
 
   @Override
@@ -112,12 +94,25 @@ public final class TripScheduleWithOffset implements TripSchedule {
     return ToStringBuilder
       .of(TripScheduleWithOffset.class)
       .addObj("trip", pattern.debugInfo())
-      .addServiceTime("depart", secondsOffset + tripTimes.getDepartureTime(0))
+      .addServiceTime("depart", departure(0))
       .toString();
   }
 
-  private void findTripTimes() {
-    index = tripIndexForDates;
+  /**
+   * The instance is shared by the searches in all threads. The result is kept in one field
+   * referencing an immutable record, so a thread sees either {@code null} or all the values.
+   */
+  private TripTimesForDate tripTimesForDate() {
+    TripTimesForDate result = tripTimesForDate;
+    if (result == null) {
+      result = findTripTimes();
+      tripTimesForDate = result;
+    }
+    return result;
+  }
+
+  private TripTimesForDate findTripTimes() {
+    int index = tripIndexForDates;
     IntIterator indexIterator = pattern.tripPatternForDatesIndexIterator(true);
     while (indexIterator.hasNext()) {
       int i = indexIterator.next();
@@ -125,13 +120,16 @@ public final class TripScheduleWithOffset implements TripSchedule {
       int numSchedules = tripPatternForDate.numberOfTripSchedules();
 
       if (index < numSchedules) {
-        this.tripTimes = tripPatternForDate.getTripTimes(index);
-        this.serviceDate = tripPatternForDate.getLocalDate();
-        this.secondsOffset = pattern.tripPatternForDateOffsets(i);
-        return;
+        return new TripTimesForDate(
+          tripPatternForDate.getTripTimes(index),
+          tripPatternForDate.getLocalDate(),
+          pattern.tripPatternForDateOffsets(i)
+        );
       }
       index -= numSchedules;
     }
     throw new IndexOutOfBoundsException("Index out of bound: " + index);
   }
+
+  private record TripTimesForDate(TripTimes tripTimes, LocalDate serviceDate, int secondsOffset) {}
 }
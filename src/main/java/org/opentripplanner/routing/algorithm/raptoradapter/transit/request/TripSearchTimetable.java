@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTimeTable;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
@@ -14,16 +13,17 @@ import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
  */
 public interface TripSearchTimetable<T extends RaptorTripSchedule> extends RaptorTimeTable<T> {
   /**
-   * Get the arrival times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the arrival time as
-   * seconds from midnight on the search date.
+   * Get the arrival times of all trips in a {@code nStops * numberOfTripSchedules} sized array.
+   * The times are stored first by stop position and then by trip index, so the arrival time of a
+   * trip is at index {@code stopPositionInPattern * numberOfTripSchedules() + tripIndex}. The
+   * times are seconds from midnight on the search date. The trip search read the times directly
+   * from the array, do NOT modify it.
    */
-  IntUnaryOperator getArrivalTimes(int stopPositionInPattern);
+  int[] arrivalTimes();
 
   /**
-   * Get the departure times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the departure time as
-   * seconds from midnight on the search date.
+   * Get the departure times of all trips in a {@code nStops * numberOfTripSchedules} sized array.
+   * The order is the same as in {@link #arrivalTimes()}.
    */
-  IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+  int[] departureTimes();
 }
@@ -26,6 +26,7 @@ import org.opentripplanner.routing.core.StateEditor;
 import org.opentripplanner.routing.core.TraverseMode;
 import org.opentripplanner.routing.core.TraverseModeSet;
 import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.StreetGeometryStore;
 import org.opentripplanner.routing.util.ElevationUtils;
 import org.opentripplanner.routing.vertextype.BarrierVertex;
 import org.opentripplanner.routing.vertextype.IntersectionVertex;
@@ -87,8 +88,14 @@ public class StreetEdge
    */
   protected float bicycleSafetyFactor;
 
+  /** The compact geometry, or null if it is in the {@link #geometryStore}. */
   private byte[] compactGeometry;
 
+  /** The store holding the compact geometry at {@link #geometryIndex}, if not on the heap. */
+  private StreetGeometryStore geometryStore;
+
+  private int geometryIndex;
+
   private I18NString name;
 
   private StreetTraversalPermission permission;
@@ -431,11 +438,36 @@ public class StreetEdge
       fromv.getLat(),
       tov.getLon(),
       tov.getLat(),
-      compactGeometry,
+      compactGeometry(),
       isBack()
     );
   }
 
+  /**
+   * Move the compact geometry off the heap, to the store of the given builder. The geometry can not
+   * be read until the store is built.
+   */
+  public void moveGeometryTo(StreetGeometryStore.Builder builder) {
+    if (geometryStore == builder.store()) {
+      return;
+    }
+    byte[] geometry = compactGeometry();
+    if (geometry == null || geometry.length == 0) {
+      return;
+    }
+    geometryIndex = builder.add(geometry);
+    geometryStore = builder.store();
+    compactGeometry = null;
+  }
+
+  /** Move the compact geometry back to the heap, if it is in a {@link StreetGeometryStore}. */
+  public void moveGeometryToHeap() {
+    if (geometryStore != null) {
+      compactGeometry = geometryStore.get(geometryIndex);
+      geometryStore = null;
+    }
+  }
+
   @Override
   public double getDistanceMeters() {
     return length_mm / 1000.0;
@@ -458,6 +490,11 @@ public class StreetEdge
         isBack() ? (LineString) geometry.reverse() : geometry,
         isBack()
       );
+    this.geometryStore = null;
+  }
+
+  private byte[] compactGeometry() {
+    return geometryStore != null ? geometryStore.get(geometryIndex) : compactGeometry;
   }
 
   public void setRoundabout(boolean roundabout) {
@@ -502,6 +539,9 @@ public class StreetEdge
   }
 
   public void shareData(StreetEdge reversedEdge) {
+    if (geometryStore != null || reversedEdge.geometryStore != null) {
+      return;
+    }
     if (Arrays.equals(compactGeometry, reversedEdge.compactGeometry)) {
       compactGeometry = reversedEdge.compactGeometry;
     } else {
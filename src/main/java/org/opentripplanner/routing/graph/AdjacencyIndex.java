@@ -0,0 +1,191 @@
+package org.opentripplanner.routing.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.opentripplanner.routing.edgetype.TemporaryEdge;
+
+/**
+ * A compressed sparse row (CSR) view of the graph adjacency. The edges are numbered so the outgoing
+ * edges of each vertex form a contiguous range of edge indices, and the incoming edges of each
+ * vertex are stored as a contiguous run in an int array of edge indices. Both directions have an
+ * offset array indexed by {@link Vertex#getIndex()}. Iterating the edges of a vertex is then a scan
+ * over primitive arrays instead of following the pointers of the edge lists of the vertex.
+ * <p>
+ * The index is a snapshot of the permanent edges of the graph at the time it is created. Callers
+ * must check {@link #contains(Vertex)} before using the index for a vertex, and fall back to
+ * {@link Vertex#getOutgoing()} and {@link Vertex#getIncoming()} if it returns false. This is the
+ * case for vertices with permanent edges added or removed after the index was created, like edges
+ * added by the realtime updaters.
+ * <p>
+ * Temporary edges, added and removed by each request, are never part of the index and do not
+ * remove a vertex from it. Callers must also scan the temporary edges of the vertex if
+ * {@link Vertex#hasTemporaryEdges()} is true.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public class AdjacencyIndex {
+
+  private final Vertex[] vertices;
+  private final Edge[] edges;
+
+  /**
+   * The edges are numbered in the order of the outgoing edge lists, so the outgoing edges of vertex
+   * {@code v} are the edges {@code [outgoingOffsets[v], outgoingOffsets[v + 1])}.
+   */
+  private final int[] outgoingOffsets;
+  private final int[] incomingOffsets;
+  private final int[] incomingEdges;
+
+  private AdjacencyIndex(
+    Vertex[] vertices,
+    Edge[] edges,
+    int[] outgoingOffsets,
+    int[] incomingOffsets,
+    int[] incomingEdges
+  ) {
+    this.vertices = vertices;
+    this.edges = edges;
+    this.outgoingOffsets = outgoingOffsets;
+    this.incomingOffsets = incomingOffsets;
+    this.incomingEdges = incomingEdges;
+  }
+
+  /**
+   * Create the index and assign {@link Edge#getIndex()} to all edges. Edges are numbered in the
+   * order of the vertex index and the outgoing edge lists, so the numbering is stable as long as
+   * the graph does not change. The vertices must already be indexed.
+   */
+  static AdjacencyIndex create(Collection<Vertex> graphVertices, int vertexIndexSize) {
+    var vertices = new Vertex[vertexIndexSize];
+    // The edge lists as read from the vertices, used to detect concurrent changes
+    var outgoingRead = new Edge[vertexIndexSize][];
+    var incomingRead = new Edge[vertexIndexSize][];
+    var outgoing = new Edge[vertexIndexSize][];
+    var incoming = new Edge[vertexIndexSize][];
+
+    int nEdges = 0;
+    int nIncoming = 0;
+    for (Vertex v : graphVertices) {
+      int i = v.getIndex();
+      // Skip vertices added concurrently, they are not indexed yet
+      if (i < 0 || i >= vertexIndexSize) {
+        continue;
+      }
+      vertices[i] = v;
+      outgoingRead[i] = v.outgoingEdges();
+      incomingRead[i] = v.incomingEdges();
+      outgoing[i] = withoutTemporaryEdges(outgoingRead[i]);
+      incoming[i] = withoutTemporaryEdges(incomingRead[i]);
+      nEdges += outgoing[i].length;
+      nIncoming += incoming[i].length;
+    }
+
+    // Number the edges by walking the outgoing edge lists
+    var edges = new Edge[nEdges];
+    var outgoingOffsets = new int[vertexIndexSize + 1];
+    int e = 0;
+    for (int v = 0; v < vertexIndexSize; ++v) {
+      outgoingOffsets[v] = e;
+      if (outgoing[v] == null) {
+        continue;
+      }
+      for (Edge edge : outgoing[v]) {
+        edge.setIndex(e);
+        edges[e] = edge;
+        ++e;
+      }
+    }
+    outgoingOffsets[vertexIndexSize] = e;
+
+    // Incoming edges not found in any outgoing list are not part of the graph; the vertices
+    // referring to them are left out of the index below.
+    var incomingOffsets = new int[vertexIndexSize + 1];
+    var incomingEdges = new int[nIncoming];
+    int j = 0;
+    for (int v = 0; v < vertexIndexSize; ++v) {
+      incomingOffsets[v] = j;
+      if (incoming[v] == null) {
+        continue;
+      }
+      for (Edge edge : incoming[v]) {
+        int index = edge.getIndex();
+        if (index == Edge.NO_INDEX || index >= nEdges || edges[index] != edge) {
+          vertices[v] = null;
+          index = Edge.NO_INDEX;
+        }
+        incomingEdges[j++] = index;
+      }
+    }
+    incomingOffsets[vertexIndexSize] = j;
+
+    // Only vertices with edge lists unchanged while the index was built are part of the index
+    for (int v = 0; v < vertexIndexSize; ++v) {
+      if (vertices[v] != null && !vertices[v].markEdgesIndexed(outgoingRead[v], incomingRead[v])) {
+        vertices[v] = null;
+      }
+    }
+
+    return new AdjacencyIndex(vertices, edges, outgoingOffsets, incomingOffsets, incomingEdges);
+  }
+
+  private static Edge[] withoutTemporaryEdges(Edge[] edges) {
+    for (Edge it : edges) {
+      if (it instanceof TemporaryEdge) {
+        return Arrays.stream(edges).filter(e -> !(e instanceof TemporaryEdge)).toArray(Edge[]::new);
+      }
+    }
+    return edges;
+  }
+
+  public int vertexCount() {
+    return vertices.length;
+  }
+
+  public int edgeCount() {
+    return edges.length;
+  }
+
+  /**
+   * @return true if the edges of the given vertex can be looked up in this index, false if the
+   * vertex is not part of the index or if its permanent edges are changed after the index was
+   * created.
+   */
+  public boolean contains(Vertex vertex) {
+    int i = vertex.getIndex();
+    return i >= 0 && i < vertices.length && vertices[i] == vertex && !vertex.isEdgesModified();
+  }
+
+  public Vertex vertex(int vertexIndex) {
+    return vertices[vertexIndex];
+  }
+
+  public Edge edge(int edgeIndex) {
+    return edges[edgeIndex];
+  }
+
+  /**
+   * The edges of a vertex are found in the range {@code [edgesStart(v), edgesEnd(v))} of
+   * {@link #edgeAt(int, boolean)}.
+   *
+   * @param incoming return the incoming edges if true, the outgoing edges if false. A backwards
+   *                 (arrive-by) search uses the incoming edges.
+   */
+  public int edgesStart(int vertexIndex, boolean incoming) {
+    return incoming ? incomingOffsets[vertexIndex] : outgoingOffsets[vertexIndex];
+  }
+
+  /** @see #edgesStart(int, boolean) */
+  public int edgesEnd(int vertexIndex, boolean incoming) {
+    return incoming ? incomingOffsets[vertexIndex + 1] : outgoingOffsets[vertexIndex + 1];
+  }
+
+  /** @return the index of the edge at the given position, see {@link #edgesStart(int, boolean)} */
+  public int edgeAt(int position, boolean incoming) {
+    return incoming ? incomingEdges[position] : position;
+  }
+
+  @Override
+  public String toString() {
+    return "AdjacencyIndex{vertices: " + vertices.length + ", edges: " + edges.length + "}";
+  }
+}
@@ -17,10 +17,16 @@ public abstract class Edge implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
+  /** The index of an edge not part of the graph {@link AdjacencyIndex}. */
+  public static final int NO_INDEX = -1;
+
   protected Vertex fromv;
 
   protected Vertex tov;
 
+  /** Dense integer index, see {@link #getIndex()}. */
+  private transient int index = NO_INDEX;
+
   protected Edge(Vertex v1, Vertex v2) {
     if (v1 == null || v2 == null) {
       String err = String.format(
@@ -45,6 +51,19 @@ public abstract class Edge implements Serializable {
     return tov;
   }
 
+  /**
+   * A dense integer index for this edge, assigned when the {@link AdjacencyIndex} of the graph is
+   * created. Edges created after that, like the temporary edges of a request, return
+   * {@link #NO_INDEX}.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  void setIndex(int index) {
+    this.index = index;
+  }
+
   /**
    * Returns true if this edge is partial - overriden by subclasses.
    */
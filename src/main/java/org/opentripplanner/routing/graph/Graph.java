@@ -42,6 +42,7 @@ import org.opentripplanner.transit.model.basic.WgsCoordinate;
 import org.opentripplanner.transit.model.site.Stop;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.util.OTPFeature;
 import org.opentripplanner.util.WorldEnvelope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,11 @@ public class Graph implements Serializable {
   /* Ideally we could just get rid of vertex labels, but they're used in tests and graph building. */
   private final Map<String, Vertex> vertices = new ConcurrentHashMap<>();
 
+  /** The next free {@link Vertex#getIndex()}, see {@link #getVertexIndexSize()}. */
+  private transient int nextVertexIndex = 0;
+
+  private transient volatile AdjacencyIndex adjacencyIndex;
+
   public final transient Deduplicator deduplicator;
 
   public final Instant buildTime = Instant.now();
@@ -172,6 +178,9 @@ public class Graph implements Serializable {
         v
       );
     }
+    if (old != v) {
+      assignVertexIndex(v);
+    }
   }
 
   /**
@@ -321,6 +330,15 @@ public class Graph implements Serializable {
     this.bundle = bundle;
   }
 
+  /**
+   * All vertices in the graph have a {@link Vertex#getIndex()} less than this value. Indices of
+   * removed vertices are not reused until the graph is indexed again, so this may be larger than
+   * {@link #countVertices()}. Search structures can use this to size arrays indexed by vertex.
+   */
+  public int getVertexIndexSize() {
+    return nextVertexIndex;
+  }
+
   public int countVertices() {
     return vertices.size();
   }
@@ -346,6 +364,11 @@ public class Graph implements Serializable {
    */
   public void index() {
     LOG.info("Index street model...");
+    indexVertices();
+    adjacencyIndex = null;
+    if (OTPFeature.IndexedStreetSearch.isOn()) {
+      getAdjacencyIndex();
+    }
     streetIndex = new StreetVertexIndex(this, stopModel);
     LOG.info("Index street model complete.");
   }
@@ -358,6 +381,40 @@ public class Graph implements Serializable {
     return this.streetIndex;
   }
 
+  /**
+   * A compressed sparse row view of the vertex/edge adjacency, created the first time it is
+   * requested after the graph is indexed. Vertices and edges added after that are not part of it,
+   * see {@link AdjacencyIndex#contains(Vertex)}.
+   */
+  public AdjacencyIndex getAdjacencyIndex() {
+    AdjacencyIndex index = adjacencyIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = adjacencyIndex;
+        if (index == null) {
+          index = AdjacencyIndex.create(vertices.values(), nextVertexIndex);
+          adjacencyIndex = index;
+          LOG.info("Adjacency index created: {}", index);
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Replace the cached adjacency index with a new one covering the current vertices and edges. The
+   * graph builder modules modify the graph after the index might be created, call this before a
+   * module depends on every vertex being part of the index.
+   */
+  public AdjacencyIndex rebuildAdjacencyIndex() {
+    synchronized (this) {
+      AdjacencyIndex index = AdjacencyIndex.create(vertices.values(), nextVertexIndex);
+      adjacencyIndex = index;
+      LOG.info("Adjacency index rebuilt: {}", index);
+      return index;
+    }
+  }
+
   public VertexLinker getLinker() {
     return getStreetIndex().getVertexLinker();
   }
@@ -503,6 +560,22 @@ public class Graph implements Serializable {
     return stopModel;
   }
 
+  /**
+   * Assign a dense index to all vertices, removing any holes left by removed vertices. This must
+   * not be done while routing, since the index is used to look up search state.
+   */
+  private synchronized void indexVertices() {
+    int i = 0;
+    for (Vertex v : vertices.values()) {
+      v.setIndex(i++);
+    }
+    nextVertexIndex = i;
+  }
+
+  private synchronized void assignVertexIndex(Vertex v) {
+    v.setIndex(nextVertexIndex++);
+  }
+
   private void readObject(ObjectInputStream inputStream)
     throws ClassNotFoundException, IOException {
     inputStream.defaultReadObject();
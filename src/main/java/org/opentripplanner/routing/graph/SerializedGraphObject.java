@@ -6,6 +6,10 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -13,20 +17,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.Nullable;
 import org.opentripplanner.common.geometry.CompactElevationProfile;
 import org.opentripplanner.datastore.DataSource;
+import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
+import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.graph.kryosupport.ChunkedInputStream;
+import org.opentripplanner.routing.graph.kryosupport.ChunkedOutputStream;
 import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.transit.model.network.SubMode;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.util.OtpAppException;
-import org.opentripplanner.util.logging.ProgressTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +55,9 @@ public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  /** The number of threads compressing or decompressing the graph file chunks. */
+  private static final int N_THREADS = Runtime.getRuntime().availableProcessors();
+
   public final Graph graph;
   public final TransitModel transitModel;
 
@@ -65,6 +78,12 @@ public class SerializedGraphObject implements Serializable {
    */
   public final List<SubMode> allTransitSubModes;
 
+  /**
+   * The store of the street edge geometries, if {@link BuildConfig#offHeapStreetGeometry} is
+   * enabled. The content of the store is written after this object in the graph file.
+   */
+  private StreetGeometryStore streetGeometryStore;
+
   public SerializedGraphObject(
     Graph graph,
     TransitModel transitModel,
@@ -96,12 +115,16 @@ public class SerializedGraphObject implements Serializable {
   }
 
   public static SerializedGraphObject load(DataSource source) {
-    return load(source.asInputStream(), source.path());
+    // Only an uncompressed local file can be memory-mapped
+    File file = source instanceof FileDataSource && !source.path().endsWith(".gz")
+      ? new File(source.path())
+      : null;
+    return load(source.asInputStream(), source.path(), source.size(), file);
   }
 
   public static SerializedGraphObject load(File file) {
     try {
-      return load(new FileInputStream(file), file.getAbsolutePath());
+      return load(new FileInputStream(file), file.getAbsolutePath(), file.length(), file);
     } catch (FileNotFoundException e) {
       LOG.error("Graph file not found: " + file, e);
       throw new OtpAppException(e.getMessage());
@@ -130,6 +153,7 @@ public class SerializedGraphObject implements Serializable {
    */
   public void save(@Nullable DataSource target) {
     if (target != null) {
+      prepareStreetGeometryStore();
       save(target.asOutputStream(), target.name(), target.size());
     } else {
       LOG.info("Not saving graph to disk, as requested.");
@@ -138,19 +162,45 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
-  private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
+  /**
+   * The graph file is the header, followed by the graph serialized by Kryo in a chunked section,
+   * see {@link ChunkedOutputStream}, and the street geometry store if enabled. The chunks are
+   * decompressed in parallel while Kryo reads the graph.
+   *
+   * @param size the size of the graph file, or a negative number if unknown.
+   * @param file the graph file, if the street geometry store can be memory-mapped from it.
+   */
+  private static SerializedGraphObject load(
+    InputStream inputStream,
+    String sourceDescription,
+    long size,
+    @Nullable File file
+  ) {
     // TODO store version information, halt load if versions mismatch
+    ExecutorService executor = newSerializationExecutor();
     try (inputStream) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
+      var in = new DataInputStream(new BufferedInputStream(inputStream));
 
-      validateGraphSerializationId(
-        input.readBytes(GraphFileHeader.headerLength()),
-        sourceDescription
-      );
+      byte[] header = new byte[GraphFileHeader.headerLength()];
+      in.readFully(header);
+      validateGraphSerializationId(header, sourceDescription);
 
+      var graphSection = new ChunkedInputStream(
+        in,
+        executor,
+        N_THREADS,
+        "Read graph",
+        size,
+        // Keep this to get correct logging info for class and line number
+        msg -> LOG.info(msg)
+      );
       Kryo kryo = KryoBuilder.create();
-      SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      SerializedGraphObject serObj;
+      try (Input input = new Input(graphSection)) {
+        serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      }
+      serObj.loadStreetGeometryStore(in, file, header.length + graphSection.sectionSize());
       SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
       CompactElevationProfile.setDistanceBetweenSamplesM(
         serObj.graph.getDistanceBetweenElevationSamples()
@@ -175,21 +225,52 @@ public class SerializedGraphObject implements Serializable {
         "Graph: " +
         sourceDescription
       );
+    } finally {
+      executor.shutdownNow();
     }
   }
 
-  @SuppressWarnings("Convert2MethodRef")
-  private static OutputStream wrapOutputStreamWithProgressTracker(
-    OutputStream outputStream,
-    long size
-  ) {
-    return ProgressTracker.track(
-      "Save graph",
-      500_000,
-      size,
-      outputStream,
-      // Keep this to get correct logging info for class and line number
-      msg -> LOG.info(msg)
+  private void loadStreetGeometryStore(InputStream in, @Nullable File file, long position)
+    throws IOException {
+    if (streetGeometryStore == null) {
+      return;
+    }
+    if (file != null) {
+      streetGeometryStore.map(file, position);
+      LOG.info("Street geometries memory-mapped, {} MB.", streetGeometryStore.size() >> 20);
+    } else {
+      streetGeometryStore.read(new Input(in));
+      LOG.info("Street geometries read off-heap, {} MB.", streetGeometryStore.size() >> 20);
+    }
+  }
+
+  /**
+   * Move the street edge geometries to a new store, or back to the heap if the store is disabled.
+   * The geometries are moved back if the graph is loaded from a store and saved without it.
+   */
+  private void prepareStreetGeometryStore() {
+    if (buildConfig != null && buildConfig.offHeapStreetGeometry) {
+      var builder = new StreetGeometryStore.Builder();
+      for (Edge edge : edges) {
+        if (edge instanceof StreetEdge streetEdge) {
+          streetEdge.moveGeometryTo(builder);
+        }
+      }
+      streetGeometryStore = builder.build();
+    } else {
+      for (Edge edge : edges) {
+        if (edge instanceof StreetEdge streetEdge) {
+          streetEdge.moveGeometryToHeap();
+        }
+      }
+      streetGeometryStore = null;
+    }
+  }
+
+  private static ExecutorService newSerializationExecutor() {
+    return Executors.newFixedThreadPool(
+      N_THREADS,
+      new ThreadFactoryBuilder().setNameFormat("graph-serialization-%d").setDaemon(true).build()
     );
   }
 
@@ -211,14 +292,36 @@ public class SerializedGraphObject implements Serializable {
     }
   }
 
+  @SuppressWarnings("Convert2MethodRef")
   private void save(OutputStream outputStream, String graphName, long size) {
     LOG.info("Writing graph " + graphName + " ...");
-    outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-    Kryo kryo = KryoBuilder.create();
-    Output output = new Output(outputStream);
-    output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
-    output.close();
+    ExecutorService executor = newSerializationExecutor();
+    try (var out = new BufferedOutputStream(outputStream)) {
+      out.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+
+      var graphSection = new ChunkedOutputStream(
+        out,
+        executor,
+        N_THREADS,
+        "Save graph",
+        size,
+        // Keep this to get correct logging info for class and line number
+        msg -> LOG.info(msg)
+      );
+      Kryo kryo = KryoBuilder.create();
+      try (Output output = new Output(graphSection)) {
+        kryo.writeClassAndObject(output, this);
+      }
+      if (streetGeometryStore != null) {
+        Output output = new Output(out);
+        streetGeometryStore.write(output);
+        output.flush();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write graph: " + graphName, e);
+    } finally {
+      executor.shutdownNow();
+    }
     LOG.info("Graph written: {}", graphName);
     // Summarize serialized classes and associated serializers to stdout:
     // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
@@ -0,0 +1,205 @@
+package org.opentripplanner.routing.graph;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compact street edge geometries of a graph, stored outside the heap in flat buffers. The
+ * geometries are the largest homogeneous part of a street graph. In the graph file they are
+ * written as one block after the serialized graph, and when the graph is loaded from an
+ * uncompressed file the block is memory-mapped instead of deserialized. The geometries are then
+ * read from the page cache on first touch, and JVMs loading the same file on one host share the
+ * pages.
+ * <p>
+ * Each geometry is a record with the length followed by the bytes, aligned to
+ * {@link #ALIGNMENT} bytes, so the record index fits in an int for up to 16 GB of geometries.
+ * The block is split in segments of {@link #SEGMENT_SIZE} bytes, because a buffer is indexed by
+ * int. A record never crosses a segment boundary.
+ * <p>
+ * Only the size is serialized with the graph, the buffers are attached after the graph is read.
+ */
+public class StreetGeometryStore implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int ALIGNMENT_BITS = 3;
+  private static final int ALIGNMENT = 1 << ALIGNMENT_BITS;
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final int READ_BUFFER_SIZE = 1 << 20;
+
+  /** The size of the block in bytes, including the padding at the end of each segment. */
+  private long size;
+
+  private transient ByteBuffer[] segments;
+
+  private StreetGeometryStore() {}
+
+  /** The geometry of the record with the given index. */
+  public byte[] get(int index) {
+    long offset = (long) index << ALIGNMENT_BITS;
+    ByteBuffer segment = segments[(int) (offset >>> SEGMENT_BITS)];
+    int position = (int) (offset & (SEGMENT_SIZE - 1));
+    byte[] geometry = new byte[segment.getInt(position)];
+    segment.get(position + Integer.BYTES, geometry);
+    return geometry;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  /** Write the block, after the serialized graph. */
+  void write(Output output) {
+    output.writeLong(size);
+    byte[] buffer = new byte[READ_BUFFER_SIZE];
+    for (ByteBuffer segment : segments) {
+      ByteBuffer it = segment.duplicate().clear();
+      while (it.hasRemaining()) {
+        int length = Math.min(buffer.length, it.remaining());
+        it.get(buffer, 0, length);
+        output.writeBytes(buffer, 0, length);
+      }
+    }
+  }
+
+  /**
+   * Memory-map the block from the graph file.
+   *
+   * @param position the position of the block in the file, after the serialized graph.
+   */
+  void map(File file, long position) throws IOException {
+    try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long start = position + Long.BYTES;
+      checkSize(channel.size() - start);
+      var buffers = new ByteBuffer[segmentCount()];
+      for (int i = 0; i < buffers.length; ++i) {
+        long offset = i * SEGMENT_SIZE;
+        buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, start + offset, segmentSize(i));
+      }
+      this.segments = buffers;
+    }
+  }
+
+  /**
+   * Read the block from the input into direct buffers. This is used if the graph is not an
+   * uncompressed local file.
+   */
+  void read(Input input) {
+    checkSize(input.readLong());
+    var buffers = new ByteBuffer[segmentCount()];
+    byte[] buffer = new byte[READ_BUFFER_SIZE];
+    for (int i = 0; i < buffers.length; ++i) {
+      ByteBuffer segment = ByteBuffer.allocateDirect((int) segmentSize(i));
+      while (segment.hasRemaining()) {
+        int length = Math.min(buffer.length, segment.remaining());
+        input.readBytes(buffer, 0, length);
+        segment.put(buffer, 0, length);
+      }
+      buffers[i] = segment;
+    }
+    this.segments = buffers;
+  }
+
+  private void checkSize(long actualSize) {
+    if (actualSize < size) {
+      throw new IllegalStateException(
+        "The street geometry block is truncated, expected " + size + " bytes: " + actualSize
+      );
+    }
+  }
+
+  private int segmentCount() {
+    return (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+  }
+
+  private long segmentSize(int segment) {
+    return Math.min(SEGMENT_SIZE, size - segment * SEGMENT_SIZE);
+  }
+
+  /**
+   * Collect the geometries into a new store. Identical geometry arrays, shared between an edge and
+   * its reverse edge, are only stored once. The store can not be read before it is built.
+   */
+  public static class Builder {
+
+    private final StreetGeometryStore store = new StreetGeometryStore();
+    private final Map<byte[], Integer> indexByGeometry = new IdentityHashMap<>();
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private byte[] current = new byte[1024];
+    private int currentSize = 0;
+
+    /** Add a geometry and return its index. */
+    public int add(byte[] geometry) {
+      Integer index = indexByGeometry.get(geometry);
+      if (index != null) {
+        return index;
+      }
+      int recordSize = align(Integer.BYTES + geometry.length);
+      if (currentSize + recordSize > SEGMENT_SIZE) {
+        // Pad the segment, the records are addressed by their offset in the block
+        current = Arrays.copyOf(current, (int) SEGMENT_SIZE);
+        currentSize = (int) SEGMENT_SIZE;
+        closeSegment();
+      }
+      ensureCapacity(currentSize + recordSize);
+      ByteBuffer.wrap(current).putInt(currentSize, geometry.length);
+      System.arraycopy(geometry, 0, current, currentSize + Integer.BYTES, geometry.length);
+
+      long offset = segments.size() * SEGMENT_SIZE + currentSize;
+      if ((offset >>> ALIGNMENT_BITS) > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Too many street geometries for the geometry store.");
+      }
+      index = (int) (offset >>> ALIGNMENT_BITS);
+      currentSize += recordSize;
+      indexByGeometry.put(geometry, index);
+      return index;
+    }
+
+    /** The store the geometries are added to. */
+    public StreetGeometryStore store() {
+      return store;
+    }
+
+    public StreetGeometryStore build() {
+      closeSegment();
+      long size = 0;
+      for (ByteBuffer segment : segments) {
+        size += segment.capacity();
+      }
+      store.size = size;
+      store.segments = segments.toArray(ByteBuffer[]::new);
+      return store;
+    }
+
+    private void closeSegment() {
+      if (currentSize > 0) {
+        segments.add(ByteBuffer.wrap(Arrays.copyOf(current, currentSize)));
+      }
+      current = new byte[1024];
+      currentSize = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > current.length) {
+        long newLength = Math.max(capacity, Math.min(2L * current.length, SEGMENT_SIZE));
+        current = Arrays.copyOf(current, (int) newLength);
+      }
+    }
+
+    private static int align(int size) {
+      return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+  }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.common.geometry.DirectionUtils;
 import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.edgetype.TemporaryEdge;
 import org.opentripplanner.transit.model.site.StationElement;
 import org.opentripplanner.util.I18NString;
 import org.opentripplanner.util.NonLocalizedString;
@@ -27,6 +28,9 @@ public abstract class Vertex implements Serializable, Cloneable {
 
   private static final Logger LOG = LoggerFactory.getLogger(Vertex.class);
 
+  /** The index of a vertex not added to a {@link Graph}, like a temporary vertex. */
+  public static final int NO_INDEX = -1;
+
   /**
    * Short debugging name. This is a graph mathematical term as in https://en.wikipedia.org/wiki/Graph_labeling
    */
@@ -39,6 +43,25 @@ public abstract class Vertex implements Serializable, Cloneable {
 
   private transient Edge[] outgoing = new Edge[0];
 
+  /**
+   * Dense integer index assigned by the graph, see {@link #getIndex()}. The index is not
+   * serialized, the graph renumbers all vertices when it is indexed after loading.
+   */
+  private transient int index = NO_INDEX;
+
+  /**
+   * Set when a permanent edge is added or removed, and cleared when the {@link AdjacencyIndex} of
+   * the graph is created. A vertex with modified edges must not be looked up in the adjacency
+   * index. Temporary edges, added and removed by each request, do not set this flag.
+   */
+  private transient volatile boolean edgesModified = true;
+
+  /**
+   * The number of temporary edges in the edge lists. These are not part of the
+   * {@link AdjacencyIndex}, and must be scanned in the edge lists.
+   */
+  private transient volatile int temporaryEdgeCount = 0;
+
   /* CONSTRUCTORS */
 
   protected Vertex(Graph g, String label, double x, double y) {
@@ -74,6 +97,8 @@ public abstract class Vertex implements Serializable, Cloneable {
   public void initEdgeLists() {
     this.outgoing = new Edge[0];
     this.incoming = new Edge[0];
+    this.edgesModified = true;
+    this.temporaryEdgeCount = 0;
   }
 
   /* EDGE UTILITY METHODS (use arrays to eliminate copy-on-write set objects) */
@@ -81,6 +106,7 @@ public abstract class Vertex implements Serializable, Cloneable {
   public void addOutgoing(Edge edge) {
     synchronized (this) {
       outgoing = addEdge(outgoing, edge);
+      edgeAdded(edge);
     }
   }
 
@@ -89,13 +115,16 @@ public abstract class Vertex implements Serializable, Cloneable {
     synchronized (this) {
       int n = outgoing.length;
       outgoing = removeEdge(outgoing, edge);
-      return (outgoing.length < n);
+      boolean removed = outgoing.length < n;
+      edgeRemoved(edge, removed);
+      return removed;
     }
   }
 
   public void addIncoming(Edge edge) {
     synchronized (this) {
       incoming = addEdge(incoming, edge);
+      edgeAdded(edge);
     }
   }
 
@@ -104,7 +133,30 @@ public abstract class Vertex implements Serializable, Cloneable {
     synchronized (this) {
       int n = incoming.length;
       incoming = removeEdge(incoming, edge);
-      return (incoming.length < n);
+      boolean removed = incoming.length < n;
+      edgeRemoved(edge, removed);
+      return removed;
+    }
+  }
+
+  /** Must be called while holding the lock on this vertex */
+  private void edgeAdded(Edge edge) {
+    if (edge instanceof TemporaryEdge) {
+      ++temporaryEdgeCount;
+    } else {
+      edgesModified = true;
+    }
+  }
+
+  /** Must be called while holding the lock on this vertex */
+  private void edgeRemoved(Edge edge, boolean removed) {
+    if (!removed) {
+      return;
+    }
+    if (edge instanceof TemporaryEdge) {
+      --temporaryEdgeCount;
+    } else {
+      edgesModified = true;
     }
   }
 
@@ -122,6 +174,57 @@ public abstract class Vertex implements Serializable, Cloneable {
     return Arrays.asList(incoming);
   }
 
+  /**
+   * A dense integer index for this vertex, unique within the graph it belongs to. The index is in
+   * the range {@code [0, graph.getVertexIndexSize())} and can be used to look up per vertex search
+   * state in plain arrays instead of hash maps. Vertices not part of a graph, like temporary
+   * vertices created for a request, return {@link #NO_INDEX}.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  void setIndex(int index) {
+    this.index = index;
+  }
+
+  /**
+   * @return true if the edges of this vertex have changed since the {@link AdjacencyIndex} of the
+   * graph was created.
+   */
+  public boolean isEdgesModified() {
+    return edgesModified;
+  }
+
+  /**
+   * @return true if the edge lists contain temporary edges, these are not part of the
+   * {@link AdjacencyIndex}.
+   */
+  public boolean hasTemporaryEdges() {
+    return temporaryEdgeCount > 0;
+  }
+
+  /** Returns the edge arrays, used to build the {@link AdjacencyIndex}. */
+  Edge[] outgoingEdges() {
+    return outgoing;
+  }
+
+  Edge[] incomingEdges() {
+    return incoming;
+  }
+
+  /**
+   * Mark the edges of this vertex as captured by the adjacency index. Synchronized with the edge
+   * list updates, so a concurrent change is not lost.
+   */
+  synchronized boolean markEdgesIndexed(Edge[] indexedOutgoing, Edge[] indexedIncoming) {
+    if (outgoing != indexedOutgoing || incoming != indexedIncoming) {
+      return false;
+    }
+    edgesModified = false;
+    return true;
+  }
+
   public int getDegreeOut() {
     return outgoing.length;
   }
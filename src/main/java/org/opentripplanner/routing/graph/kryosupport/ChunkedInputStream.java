@@ -0,0 +1,178 @@
+package org.opentripplanner.routing.graph.kryosupport;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.opentripplanner.util.logging.ProgressTracker;
+
+/**
+ * Read a section of the graph file written by {@link ChunkedOutputStream}. The calling thread
+ * reads the compressed chunks ahead, and the given executor decompresses them and verifies the
+ * checksums while the caller consumes the previous chunks.
+ * <p>
+ * The stream ends at the end of the section. The underlying stream is positioned after the
+ * section, and is not closed by {@link #close()}, so that more sections can be read after it.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+public class ChunkedInputStream extends InputStream {
+
+  /** The uncompressed length, the compressed length and the checksum. */
+  static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+  private final DataInputStream in;
+  private final ExecutorService executor;
+  private final int maxPendingChunks;
+  private final Deque<Future<byte[]>> pendingChunks = new ArrayDeque<>();
+  private final ProgressTracker progress;
+  private final Consumer<String> progressNotification;
+
+  private byte[] chunk = new byte[0];
+  private int position = 0;
+  private boolean endOfSection = false;
+  private long sectionSize = 0;
+
+  /**
+   * @param sectionName          the name of the section used in the progress notifications.
+   * @param expectedSize         the expected number of bytes read from the underlying stream, or
+   *                             a negative number if unknown.
+   * @param progressNotification the progress notification handler/subscriber.
+   */
+  public ChunkedInputStream(
+    InputStream in,
+    ExecutorService executor,
+    int nThreads,
+    String sectionName,
+    long expectedSize,
+    Consumer<String> progressNotification
+  ) {
+    this.in = new DataInputStream(in);
+    this.executor = executor;
+    this.maxPendingChunks = 2 * Math.max(1, nThreads);
+    this.progress =
+      ProgressTracker.trackBytes(sectionName, ChunkedOutputStream.CHUNK_SIZE, expectedSize);
+    this.progressNotification = progressNotification;
+    progressNotification.accept(progress.startMessage());
+  }
+
+  /** The number of bytes of the section in the underlying stream, read so far. */
+  public long sectionSize() {
+    return sectionSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position == chunk.length && !nextChunk()) {
+      return -1;
+    }
+    return chunk[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position == chunk.length && !nextChunk()) {
+      return -1;
+    }
+    int n = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return chunk.length - position;
+  }
+
+  /**
+   * Read the rest of the section, so that the underlying stream is positioned after it. The
+   * underlying stream is not closed.
+   */
+  @Override
+  public void close() throws IOException {
+    while (nextChunk()) {
+      position = chunk.length;
+    }
+  }
+
+  /* private methods */
+
+  private boolean nextChunk() throws IOException {
+    readAhead();
+    if (pendingChunks.isEmpty()) {
+      return false;
+    }
+    try {
+      chunk = pendingChunks.removeFirst().get();
+      position = 0;
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to read graph chunk: " + e.getCause().getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading graph", e);
+    }
+    readAhead();
+    return true;
+  }
+
+  private void readAhead() throws IOException {
+    while (!endOfSection && pendingChunks.size() < maxPendingChunks) {
+      int length = in.readInt();
+      sectionSize += Integer.BYTES;
+      if (length == 0) {
+        endOfSection = true;
+        progressNotification.accept(progress.completeMessage());
+        return;
+      }
+      int compressedLength = in.readInt();
+      int checksum = in.readInt();
+      byte[] compressed = new byte[compressedLength];
+      in.readFully(compressed);
+      sectionSize += HEADER_SIZE - Integer.BYTES + compressedLength;
+      progress.steps(HEADER_SIZE + compressedLength, progressNotification);
+      pendingChunks.addLast(executor.submit(() -> decompress(compressed, length, checksum)));
+    }
+  }
+
+  private static byte[] decompress(byte[] compressed, int length, int checksum)
+    throws IOException {
+    byte[] data = new byte[length];
+    var inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed);
+      int size = 0;
+      while (size < length && !inflater.finished()) {
+        int n = inflater.inflate(data, size, length - size);
+        if (n == 0 && inflater.needsInput()) {
+          break;
+        }
+        size += n;
+      }
+      if (size != length) {
+        throw new IOException("Truncated graph chunk, expected " + length + " bytes: " + size);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt graph chunk: " + e.getMessage(), e);
+    } finally {
+      inflater.end();
+    }
+    var crc = new CRC32();
+    crc.update(data);
+    if ((int) crc.getValue() != checksum) {
+      throw new IOException("Graph chunk checksum mismatch, the graph file is corrupt.");
+    }
+    return data;
+  }
+}
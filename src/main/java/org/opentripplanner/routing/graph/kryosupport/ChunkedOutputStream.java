@@ -0,0 +1,180 @@
+package org.opentripplanner.routing.graph.kryosupport;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.opentripplanner.util.logging.ProgressTracker;
+
+/**
+ * Write a section of the graph file as a sequence of compressed chunks. The bytes are collected in
+ * chunks of {@link #CHUNK_SIZE}, and each chunk is compressed and checksummed by the given
+ * executor while the caller keeps writing. The compressed chunks are written in order by the
+ * calling thread.
+ * <p>
+ * Each chunk is written as the uncompressed length, the compressed length, the CRC32 checksum of
+ * the uncompressed bytes and the compressed bytes. The section ends with a zero length. Read the
+ * section with {@link ChunkedInputStream}.
+ * <p>
+ * Closing this stream ends the section, but does not close the underlying stream, so that more
+ * sections can be written after it.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+public class ChunkedOutputStream extends OutputStream {
+
+  static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+  private final DataOutputStream out;
+  private final ExecutorService executor;
+  private final int maxPendingChunks;
+  private final Deque<Future<byte[]>> pendingChunks = new ArrayDeque<>();
+  private final ProgressTracker progress;
+  private final Consumer<String> progressNotification;
+
+  private byte[] chunk = new byte[CHUNK_SIZE];
+  private int chunkSize = 0;
+  private boolean closed = false;
+
+  /**
+   * @param sectionName          the name of the section used in the progress notifications.
+   * @param expectedSize         the expected number of bytes written to the underlying stream, or
+   *                             a negative number if unknown.
+   * @param progressNotification the progress notification handler/subscriber.
+   */
+  public ChunkedOutputStream(
+    OutputStream out,
+    ExecutorService executor,
+    int nThreads,
+    String sectionName,
+    long expectedSize,
+    Consumer<String> progressNotification
+  ) {
+    this.out = new DataOutputStream(out);
+    this.executor = executor;
+    // Keep all threads busy while the oldest chunk is written
+    this.maxPendingChunks = 2 * Math.max(1, nThreads);
+    this.progress = ProgressTracker.trackBytes(sectionName, CHUNK_SIZE, expectedSize);
+    this.progressNotification = progressNotification;
+    progressNotification.accept(progress.startMessage());
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (chunkSize == CHUNK_SIZE) {
+      submitChunk();
+    }
+    chunk[chunkSize++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (chunkSize == CHUNK_SIZE) {
+        submitChunk();
+      }
+      int n = Math.min(len, CHUNK_SIZE - chunkSize);
+      System.arraycopy(b, off, chunk, chunkSize, n);
+      chunkSize += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * Write the chunks already compressed, without waiting for the others. The current chunk is not
+   * written, the chunks do not depend on how often the caller flushes. Kryo flushes the stream
+   * each time its buffer is full.
+   */
+  @Override
+  public void flush() throws IOException {
+    while (!pendingChunks.isEmpty() && pendingChunks.getFirst().isDone()) {
+      writeFirstPendingChunk();
+    }
+    out.flush();
+  }
+
+  /** End the section, without closing the underlying stream. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (chunkSize > 0) {
+      submitChunk();
+    }
+    while (!pendingChunks.isEmpty()) {
+      writeFirstPendingChunk();
+    }
+    out.writeInt(0);
+    out.flush();
+    progressNotification.accept(progress.completeMessage());
+  }
+
+  /* private methods */
+
+  private void submitChunk() throws IOException {
+    byte[] data = chunk;
+    int length = chunkSize;
+    pendingChunks.addLast(executor.submit(() -> compress(data, length)));
+    chunk = new byte[CHUNK_SIZE];
+    chunkSize = 0;
+
+    while (pendingChunks.size() > maxPendingChunks) {
+      writeFirstPendingChunk();
+    }
+  }
+
+  private void writeFirstPendingChunk() throws IOException {
+    byte[] frame;
+    try {
+      frame = pendingChunks.removeFirst().get();
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to compress graph chunk: " + e.getCause().getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while writing graph", e);
+    }
+    out.write(frame);
+    progress.steps(frame.length, progressNotification);
+  }
+
+  /** Compress the data and return the complete chunk, including the chunk header. */
+  private static byte[] compress(byte[] data, int length) {
+    var crc = new CRC32();
+    crc.update(data, 0, length);
+
+    var deflater = new Deflater(Deflater.BEST_SPEED, true);
+    try {
+      deflater.setInput(data, 0, length);
+      deflater.finish();
+      // Room for the header, and for incompressible data
+      byte[] frame = new byte[ChunkedInputStream.HEADER_SIZE + length + (length >> 4) + 64];
+      int size = ChunkedInputStream.HEADER_SIZE;
+      while (!deflater.finished()) {
+        if (size == frame.length) {
+          frame = Arrays.copyOf(frame, 2 * frame.length);
+        }
+        size += deflater.deflate(frame, size, frame.length - size);
+      }
+      ByteBuffer
+        .wrap(frame)
+        .putInt(length)
+        .putInt(size - ChunkedInputStream.HEADER_SIZE)
+        .putInt((int) crc.getValue());
+      return Arrays.copyOf(frame, size);
+    } finally {
+      deflater.end();
+    }
+  }
+}
@@ -18,6 +18,7 @@ import org.opentripplanner.routing.spt.DominanceFunction;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TransitMode;
 import org.opentripplanner.transit.service.TransitService;
+import org.opentripplanner.util.OTPFeature;
 
 /**
  * A GraphFinder which uses the street network to traverse the graph in order to find the nearest
@@ -89,7 +90,9 @@ public class StreetGraphFinder implements GraphFinder {
         .setTraverseVisitor(visitor)
         .setDominanceFunction(new DominanceFunction.LeastWalk())
         .setContext(new RoutingContext(rr, graph, temporaryVertices))
-        .getShortestPathTree();
+        .setIndexedSearchState(OTPFeature.IndexedStreetSearch.isOn())
+        .getShortestPathTree()
+        .release();
     }
   }
 }
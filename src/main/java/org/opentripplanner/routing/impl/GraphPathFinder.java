@@ -6,14 +6,21 @@ import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
 import java.util.List;
 import org.opentripplanner.routing.algorithm.astar.AStarBuilder;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkService;
+import org.opentripplanner.routing.algorithm.astar.landmark.LandmarkTable;
+import org.opentripplanner.routing.algorithm.astar.strategies.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.LandmarkRemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.core.TraverseMode;
 import org.opentripplanner.routing.error.PathNotFoundException;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.spt.DominanceFunction;
 import org.opentripplanner.routing.spt.GraphPath;
 import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.util.OTPFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,10 +73,14 @@ public class GraphPathFinder {
     }
 
     AStarBuilder aStar = AStarBuilder
-      .oneToOneMaxDuration(options.getMaxDirectStreetDuration(options.modes.directMode))
+      .oneToOneMaxDuration(
+        options.getMaxDirectStreetDuration(options.modes.directMode),
+        createHeuristic(routingContext)
+      )
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunction.MinimumWeight())
       .setContext(routingContext)
+      .setIndexedSearchState(OTPFeature.IndexedStreetSearch.isOn())
       .setTimeout(Duration.ofMillis((long) (router.streetRoutingTimeoutSeconds() * 1000)));
 
     // If this Router has a GraphVisualizer attached to it, set it as a callback for the AStar search
@@ -90,6 +101,26 @@ public class GraphPathFinder {
     return paths;
   }
 
+  /**
+   * Use the landmark heuristic if the graph has a landmark table for the direct street mode, and
+   * the Euclidean heuristic otherwise.
+   */
+  private static RemainingWeightHeuristic createHeuristic(RoutingContext routingContext) {
+    LandmarkService landmarks = routingContext.graph.getService(LandmarkService.class);
+    if (landmarks == null) {
+      return new EuclideanRemainingWeightHeuristic();
+    }
+    LandmarkTable table =
+      switch (routingContext.opt.modes.directMode) {
+        case CAR -> landmarks.getTable(TraverseMode.CAR);
+        case BIKE -> landmarks.getTable(TraverseMode.BICYCLE);
+        default -> null;
+      };
+    return table == null
+      ? new EuclideanRemainingWeightHeuristic()
+      : new LandmarkRemainingWeightHeuristic(table);
+  }
+
   /**
    * Try to find N paths through the Graph
    */
@@ -0,0 +1,155 @@
+package org.opentripplanner.routing.spt;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * Keep the states in an array indexed by {@link Vertex#getIndex()}. Vertices without an index, like
+ * the temporary vertices of a request, are kept in a small identity map on the side.
+ * <p>
+ * The array is sized to the whole graph, so allocating it for each search would be wasteful.
+ * Instances are pooled instead: use {@link #acquire(Graph)} to get a store and {@link #release()}
+ * to hand it back when the {@link ShortestPathTree} using it is no longer needed. Releasing only
+ * clears the slots touched by the search. The pool is bounded by the number of processors; stores
+ * released when the pool is full are left to the garbage collector.
+ */
+public class IndexedStateStore implements StateStore {
+
+  private static final int MAX_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+  private static final Queue<IndexedStateStore> POOL = new ConcurrentLinkedQueue<>();
+
+  private final Map<Vertex, List<State>> unindexedStates = new IdentityHashMap<>();
+  private List<State>[] states;
+
+  /** The vertex indices in use, in the order they were first visited. */
+  private int[] visited;
+  private int nVisited = 0;
+  private boolean released = false;
+
+  @SuppressWarnings("unchecked")
+  IndexedStateStore(int vertexIndexSize) {
+    this.states = (List<State>[]) new List[vertexIndexSize];
+    this.visited = new int[64];
+  }
+
+  /** Take a store from the pool, or create a new one if the pool is empty. */
+  public static IndexedStateStore acquire(Graph graph) {
+    IndexedStateStore store = POOL.poll();
+    if (store == null) {
+      return new IndexedStateStore(graph.getVertexIndexSize());
+    }
+    store.released = false;
+    return store;
+  }
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index == Vertex.NO_INDEX) {
+      return unindexedStates.get(vertex);
+    }
+    return index < states.length ? states[index] : null;
+  }
+
+  @Override
+  public void put(Vertex vertex, List<State> stateList) {
+    int index = vertex.getIndex();
+    if (index == Vertex.NO_INDEX) {
+      unindexedStates.put(vertex, stateList);
+      return;
+    }
+    if (index >= states.length) {
+      states = Arrays.copyOf(states, Math.max(index + 1, states.length * 3 / 2));
+    }
+    if (states[index] == null) {
+      if (nVisited == visited.length) {
+        visited = Arrays.copyOf(visited, visited.length * 2);
+      }
+      visited[nVisited++] = index;
+    }
+    states[index] = stateList;
+  }
+
+  @Override
+  public Set<Vertex> vertices() {
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>(size()));
+    for (int i = 0; i < nVisited; ++i) {
+      vertices.add(states[visited[i]].get(0).getVertex());
+    }
+    vertices.addAll(unindexedStates.keySet());
+    return vertices;
+  }
+
+  @Override
+  public Collection<List<State>> stateLists() {
+    return new AbstractCollection<>() {
+      @Override
+      public Iterator<List<State>> iterator() {
+        return new StateListIterator();
+      }
+
+      @Override
+      public int size() {
+        return IndexedStateStore.this.size();
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return nVisited + unindexedStates.size();
+  }
+
+  /** Clear the visited slots and return this store to the pool. */
+  @Override
+  public void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    for (int i = 0; i < nVisited; ++i) {
+      states[visited[i]] = null;
+    }
+    nVisited = 0;
+    unindexedStates.clear();
+
+    if (POOL.size() < MAX_POOL_SIZE) {
+      POOL.offer(this);
+    }
+  }
+
+  private class StateListIterator implements Iterator<List<State>> {
+
+    private final Iterator<List<State>> unindexed = unindexedStates.values().iterator();
+    private int i = 0;
+
+    @Override
+    public boolean hasNext() {
+      return i < nVisited || unindexed.hasNext();
+    }
+
+    @Override
+    public List<State> next() {
+      if (i < nVisited) {
+        return states[visited[i++]];
+      }
+      if (unindexed.hasNext()) {
+        return unindexed.next();
+      }
+      throw new NoSuchElementException();
+    }
+  }
+}
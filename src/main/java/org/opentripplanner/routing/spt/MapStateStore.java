@@ -0,0 +1,43 @@
+package org.opentripplanner.routing.spt;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * Keep the states in an identity hash map. This works for all vertices and is a good choice for
+ * searches visiting a small part of the graph.
+ */
+public class MapStateStore implements StateStore {
+
+  private final Map<Vertex, List<State>> stateSets = new IdentityHashMap<>();
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    return stateSets.get(vertex);
+  }
+
+  @Override
+  public void put(Vertex vertex, List<State> states) {
+    stateSets.put(vertex, states);
+  }
+
+  @Override
+  public Set<Vertex> vertices() {
+    return stateSets.keySet();
+  }
+
+  @Override
+  public Collection<List<State>> stateLists() {
+    return stateSets.values();
+  }
+
+  @Override
+  public int size() {
+    return stateSets.size();
+  }
+}
@@ -5,11 +5,9 @@ import com.google.common.collect.Multiset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.core.State;
@@ -39,14 +37,18 @@ public class ShortestPathTree {
 
   public final DominanceFunction dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  private final StateStore stateSets;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction dominanceFunction) {
+    this(dominanceFunction, new MapStateStore());
+  }
+
+  public ShortestPathTree(DominanceFunction dominanceFunction, StateStore stateStore) {
     this.dominanceFunction = dominanceFunction;
-    stateSets = new IdentityHashMap<>();
+    this.stateSets = stateStore;
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -79,8 +81,7 @@ public class ShortestPathTree {
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    for (List<State> states : stateSets.stateLists()) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
@@ -106,7 +107,7 @@ public class ShortestPathTree {
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    return stateSets.vertices();
   }
 
   /**
@@ -126,8 +127,8 @@ public class ShortestPathTree {
     // if the vertex has no states, add one and return
     if (states == null) {
       states = new ArrayList<>();
-      stateSets.put(vertex, states);
       states.add(newState);
+      stateSets.put(vertex, states);
       return true;
     }
 
@@ -187,7 +188,7 @@ public class ShortestPathTree {
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return stateSets.size();
   }
 
   /**
@@ -228,12 +229,20 @@ public class ShortestPathTree {
   /** @return every state in this tree */
   public Collection<State> getAllStates() {
     ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
+    for (List<State> stateSet : stateSets.stateLists()) {
       allStates.addAll(stateSet);
     }
     return allStates;
   }
 
+  /**
+   * Hand back resources held by the tree, like a pooled {@link IndexedStateStore}. The tree must
+   * not be used after this, but the states and paths retrieved from it are still valid.
+   */
+  public void release() {
+    stateSets.release();
+  }
+
   public void setAborted() {
     aborted = true;
   }
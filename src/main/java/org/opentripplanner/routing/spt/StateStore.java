@@ -0,0 +1,35 @@
+package org.opentripplanner.routing.spt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.graph.Vertex;
+
+/**
+ * The storage of states per vertex used by the {@link ShortestPathTree}. The default
+ * {@link MapStateStore} works for any set of vertices, while the {@link IndexedStateStore} looks up
+ * states using the dense {@link Vertex#getIndex()} and avoids allocating a map entry per visited
+ * vertex.
+ */
+public interface StateStore {
+  /** @return the states at the given vertex, or {@code null} if the vertex is not visited. */
+  List<State> get(Vertex vertex);
+
+  void put(Vertex vertex, List<State> states);
+
+  /** @return all visited vertices */
+  Set<Vertex> vertices();
+
+  /** @return the state lists of all visited vertices */
+  Collection<List<State>> stateLists();
+
+  /** @return the number of visited vertices */
+  int size();
+
+  /**
+   * Hand back any resources held by the store, the store must not be used after this. The default
+   * implementation does nothing.
+   */
+  default void release() {}
+}
@@ -1,13 +1,12 @@
 package org.opentripplanner.routing.trippattern;
 
-import com.google.common.collect.Maps;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.util.lang.ToStringBuilder;
@@ -15,20 +14,24 @@ import org.opentripplanner.util.lang.ToStringBuilder;
 /**
  * Does the same thing as String.intern, but for several different types. Java's String.intern uses
  * perm gen space and is broken anyway.
+ * <p>
+ * THREAD SAFETY - The canonical collections are concurrent maps, the same deduplicator can be used
+ * from several threads, like the graph builder threads creating trip times.
  */
 public class Deduplicator implements Serializable {
 
   private static final long serialVersionUID = 20140524L;
 
-  private final Map<BitSet, BitSet> canonicalBitSets = Maps.newHashMap();
-  private final Map<IntArray, IntArray> canonicalIntArrays = Maps.newHashMap();
-  private final Map<String, String> canonicalStrings = Maps.newHashMap();
-  private final Map<StringArray, StringArray> canonicalStringArrays = Maps.newHashMap();
-  private final Map<String2DArray, String2DArray> canonicalString2DArrays = Maps.newHashMap();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new HashMap<>();
-  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new HashMap<>();
+  private final Map<BitSet, BitSet> canonicalBitSets = new ConcurrentHashMap<>();
+  private final Map<IntArray, IntArray> canonicalIntArrays = new ConcurrentHashMap<>();
+  private final Map<String, String> canonicalStrings = new ConcurrentHashMap<>();
+  private final Map<StringArray, StringArray> canonicalStringArrays = new ConcurrentHashMap<>();
+  private final Map<String2DArray, String2DArray> canonicalString2DArrays =
+    new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new ConcurrentHashMap<>();
 
-  private final Map<String, Integer> effectCounter = new HashMap<>();
+  private final Map<String, Integer> effectCounter = new ConcurrentHashMap<>();
 
   /** Free up any memory used by the deduplicator. */
   public void reset() {
@@ -46,11 +49,7 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    BitSet canonical = canonicalBitSets.get(original);
-    if (canonical == null) {
-      canonical = original;
-      canonicalBitSets.put(canonical, canonical);
-    }
+    BitSet canonical = canonicalBitSets.computeIfAbsent(original, it -> it);
     incrementEffectCounter(BitSet.class);
     return canonical;
   }
@@ -61,12 +60,7 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    IntArray intArray = new IntArray(original);
-    IntArray canonical = canonicalIntArrays.get(intArray);
-    if (canonical == null) {
-      canonical = intArray;
-      canonicalIntArrays.put(canonical, canonical);
-    }
+    IntArray canonical = canonicalIntArrays.computeIfAbsent(new IntArray(original), it -> it);
     incrementEffectCounter(IntArray.class);
     return canonical.array;
   }
@@ -76,9 +70,9 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    String canonical = canonicalStrings.putIfAbsent(original, original);
+    String canonical = canonicalStrings.computeIfAbsent(original, it -> it);
     incrementEffectCounter(String.class);
-    return canonical == null ? original : canonical;
+    return canonical;
   }
 
   @Nullable
@@ -86,10 +80,10 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
+    // The key wraps the original array, the value is a copy with each string deduplicated
     StringArray canonical = canonicalStringArrays.get(new StringArray(original, false));
     if (canonical == null) {
-      canonical = new StringArray(original, true);
-      canonicalStringArrays.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalStringArrays, new StringArray(original, true));
     }
     incrementEffectCounter(StringArray.class);
     return canonical.array;
@@ -106,8 +100,7 @@ public class Deduplicator implements Serializable {
     }
     String2DArray canonical = canonicalString2DArrays.get(new String2DArray(original, false));
     if (canonical == null) {
-      canonical = new String2DArray(original, true);
-      canonicalString2DArrays.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalString2DArrays, new String2DArray(original, true));
     }
     incrementEffectCounter(String2DArray.class);
     return canonical.array;
@@ -122,10 +115,13 @@ public class Deduplicator implements Serializable {
     if (original == null) {
       return null;
     }
-    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(cl, c -> new HashMap<T, T>());
-    T canonical = objects.putIfAbsent(original, original);
+    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(
+      cl,
+      c -> new ConcurrentHashMap<T, T>()
+    );
+    T canonical = objects.computeIfAbsent(original, it -> it);
     incrementEffectCounter(cl);
-    return canonical == null ? original : canonical;
+    return canonical;
   }
 
   @Nullable
@@ -135,7 +131,7 @@ public class Deduplicator implements Serializable {
     }
 
     Map<List<?>, List<?>> canonicalLists =
-      this.canonicalLists.computeIfAbsent(clazz, key -> new HashMap<>());
+      this.canonicalLists.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
 
     @SuppressWarnings("unchecked")
     List<T> canonical = (List<T>) canonicalLists.get(original);
@@ -146,7 +142,7 @@ public class Deduplicator implements Serializable {
         Collections.unmodifiableList(
           original.stream().map(it -> deduplicateObject(clazz, it)).collect(Collectors.toList())
         );
-      canonicalLists.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalLists, canonical);
     }
 
     incrementEffectCounter(listKey(clazz));
@@ -181,6 +177,16 @@ public class Deduplicator implements Serializable {
     return "List<" + elementType.getName() + ">";
   }
 
+  /**
+   * Add the value to the map unless an equal value is added by another thread first. Return the
+   * value in the map.
+   */
+  @SuppressWarnings("unchecked")
+  private static <K, V extends K> V putIfAbsent(Map<K, ? super V> map, V value) {
+    var existing = (V) map.putIfAbsent(value, value);
+    return existing == null ? value : existing;
+  }
+
   private void incrementEffectCounter(Class<?> clazz) {
     incrementEffectCounter(clazz.getName());
   }
@@ -191,7 +197,7 @@ public class Deduplicator implements Serializable {
 
   private void incrementEffectCounter(String key) {
     // Count the first element, start at 1
-    effectCounter.compute(key, (k, v) -> v == null ? 1 : ++v);
+    effectCounter.merge(key, 1, Integer::sum);
   }
 
   private String sizeAndCount(int size, String key) {
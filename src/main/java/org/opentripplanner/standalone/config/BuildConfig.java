@@ -15,6 +15,7 @@ import org.opentripplanner.graph_builder.module.osm.WayPropertySetSource;
 import org.opentripplanner.graph_builder.services.osm.CustomNamer;
 import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.TraverseMode;
 import org.opentripplanner.routing.fares.FareServiceFactory;
 import org.opentripplanner.standalone.config.sandbox.DataOverlayConfigMapper;
 import org.slf4j.Logger;
@@ -159,8 +160,18 @@ public class BuildConfig {
    * deployment depending on your infrastructure. Set the parameter to {@code true} to cache the
    * data, and to {@code false} to read the stream from the source each time. The default value is
    * {@code false}.
+   * <p>
+   * A local, uncompressed, OSM file is always memory mapped and read only once, this parameter
+   * apply to the other data sources only.
    */
   public final boolean osmCacheDataInMem;
+  /**
+   * Store the street edge geometries in a separate block at the end of the graph file. When the
+   * graph is loaded from an uncompressed local file the block is memory-mapped, not deserialized,
+   * which reduces the heap size and the startup time of the server. The default value is
+   * {@code false}.
+   */
+  public final boolean offHeapStreetGeometry;
   /**
    * This field indicates the pruning threshold for islands without stops. Any such island under
    * this size will be pruned.
@@ -207,6 +218,17 @@ public class BuildConfig {
    * Visibility calculations for an area will not be done if there are more nodes than this limit.
    */
   public final int maxAreaNodes;
+  /**
+   * Compute landmark tables for these street modes, to speed up long direct searches with the
+   * landmark (ALT) heuristic. Only CAR and BICYCLE are supported. The default is empty, no tables
+   * are computed.
+   */
+  public final Set<TraverseMode> landmarkModes;
+  /**
+   * The number of landmarks for each mode in {@link #landmarkModes}. More landmarks give tighter
+   * bounds, but each landmark costs 8 bytes of memory per street vertex.
+   */
+  public final int landmarkCount;
   /**
    * Config for the DataOverlay Sandbox module
    */
@@ -348,6 +370,8 @@ public class BuildConfig {
     includeEllipsoidToGeoidDifference = c.asBoolean("includeEllipsoidToGeoidDifference", false);
     pruningThresholdIslandWithStops = c.asInt("islandWithStopsMaxSize", 5);
     pruningThresholdIslandWithoutStops = c.asInt("islandWithoutStopsMaxSize", 40);
+    landmarkCount = c.asInt("landmarkCount", 8);
+    landmarkModes = c.asEnumSet("landmarkModes", TraverseMode.class);
     matchBusRoutesToStreets = c.asBoolean("matchBusRoutesToStreets", false);
     maxDataImportIssuesPerFile = c.asInt("maxDataImportIssuesPerFile", 1000);
     maxInterlineDistance = c.asInt("maxInterlineDistance", 200);
@@ -355,6 +379,7 @@ public class BuildConfig {
       c.asDouble("maxTransferDurationSeconds", Duration.ofMinutes(30).toSeconds());
     maxStopToShapeSnapDistance = c.asDouble("maxStopToShapeSnapDistance", 150);
     multiThreadElevationCalculations = c.asBoolean("multiThreadElevationCalculations", false);
+    offHeapStreetGeometry = c.asBoolean("offHeapStreetGeometry", false);
     osmCacheDataInMem = c.asBoolean("osmCacheDataInMem", false);
     osmWayPropertySet = WayPropertySetSource.fromConfig(c.asText("osmWayPropertySet", "default"));
     parentStopLinking = c.asBoolean("parentStopLinking", false);
@@ -121,6 +121,21 @@ public class CommandLineParameters {
   )
   public Integer maxThreads;
 
+  @Parameter(
+    names = { "--virtualThreads" },
+    description = "Handle each HTTP request in a new virtual thread, instead of a fixed pool of " +
+    "handler threads. Requires a Java runtime with virtual threads."
+  )
+  public boolean virtualThreads = false;
+
+  @Parameter(
+    names = { "--maxConcurrentRequests" },
+    validateWith = PositiveInteger.class,
+    description = "The maximum number of HTTP requests handled at the same time when running " +
+    "with --virtualThreads, other requests wait. Defaults to 4 times the --maxThreads."
+  )
+  public Integer maxConcurrentRequests;
+
   @Parameter(
     names = { "--port" },
     validateWith = PositiveInteger.class,
@@ -20,6 +20,10 @@ public class NetexConfig {
 
   private static final Set<String> FERRY_IDS_NOT_ALLOWED_FOR_BICYCLE = Collections.emptySet();
 
+  private static final int PARSE_THREADS = 1;
+
+  private static final boolean PARSE_FRAME_BY_FRAME = false;
+
   /**
    * This field is used to identify the specific NeTEx feed. It is used instead of the feed_id field
    * in GTFS file feed_info.txt.
@@ -98,6 +102,27 @@ public class NetexConfig {
    */
   public final Set<String> ferryIdsNotAllowedForBicycle;
 
+  /**
+   * The number of threads used to parse the <em>group files</em> of a group. The group files do
+   * not reference each other, so they can be parsed in parallel. The files are still validated
+   * and mapped one at the time in the same order, so the result is the same for any number of
+   * threads. Increase this to speed up loading of large data sets with many group files, each
+   * extra thread need memory to hold the parsed files waiting to be mapped.
+   * <p>
+   * Default value is <code>1</code>, the files are parsed one by one in the graph build thread.
+   */
+  public final int parseThreads;
+
+  /**
+   * Read the NeTEx files one frame at the time, instead of reading the whole document before the
+   * frames are parsed. Only one frame(ServiceFrame, SiteFrame, TimetableFrame, etc.) of each file
+   * is kept in memory at the time, this reduce the peak memory used to read large shared files
+   * with many frames. The frames are parsed in the same order, so the result is the same.
+   * <p>
+   * Default value is <code>false</code>.
+   */
+  public final boolean parseFrameByFrame;
+
   NetexConfig(NodeAdapter config) {
     ignoreFilePattern = config.asPattern("ignoreFilePattern", IGNORE_FILE_PATTERN);
     sharedFilePattern = config.asPattern("sharedFilePattern", SHARED_FILE_PATTERN);
@@ -106,5 +131,7 @@ public class NetexConfig {
     netexFeedId = config.asText("netexFeedId", NETEX_FEED_ID);
     ferryIdsNotAllowedForBicycle =
       config.asTextSet("ferryIdsNotAllowedForBicycle", FERRY_IDS_NOT_ALLOWED_FOR_BICYCLE);
+    parseThreads = config.asInt("parseThreads", PARSE_THREADS);
+    parseFrameByFrame = config.asBoolean("parseFrameByFrame", PARSE_FRAME_BY_FRAME);
   }
 }
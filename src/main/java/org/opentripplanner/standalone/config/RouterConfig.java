@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 import java.io.Serializable;
 import org.opentripplanner.ext.flex.FlexParameters;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
+import org.opentripplanner.routing.algorithm.RoutingExecutorParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.standalone.config.sandbox.FlexConfig;
@@ -40,6 +41,7 @@ public class RouterConfig implements Serializable {
   private final double streetRoutingTimeoutSeconds;
   private final RoutingRequest routingRequestDefaults;
   private final TransitRoutingConfig transitConfig;
+  private final RoutingExecutorConfig routingExecutorConfig;
   private final UpdatersParameters updatersParameters;
   private final VectorTileConfig vectorTileLayers;
   private final FlexConfig flexConfig;
@@ -53,6 +55,7 @@ public class RouterConfig implements Serializable {
     this.streetRoutingTimeoutSeconds =
       adapter.asDouble("streetRoutingTimeout", DEFAULT_STREET_ROUTING_TIMEOUT);
     this.transitConfig = new TransitRoutingConfig(adapter.path("transit"));
+    this.routingExecutorConfig = new RoutingExecutorConfig(adapter.path("routingExecutor"));
     this.routingRequestDefaults = mapRoutingRequest(adapter.path("routingDefaults"));
     this.updatersParameters = new UpdatersConfig(adapter);
     this.vectorTileLayers = new VectorTileConfig(adapter.path("vectorTileLayers").asList());
@@ -109,6 +112,10 @@ public class RouterConfig implements Serializable {
     return transitConfig;
   }
 
+  public RoutingExecutorParameters routingExecutorParameters() {
+    return routingExecutorConfig;
+  }
+
   public UpdatersParameters updaterConfig() {
     return updatersParameters;
   }
@@ -0,0 +1,33 @@
+package org.opentripplanner.standalone.config;
+
+import org.opentripplanner.routing.algorithm.RoutingExecutorParameters;
+
+public class RoutingExecutorConfig implements RoutingExecutorParameters {
+
+  private final int threadPoolSize;
+  private final int queueSize;
+  private final boolean virtualThreads;
+
+  public RoutingExecutorConfig(NodeAdapter c) {
+    RoutingExecutorParameters dft = RoutingExecutorParameters.DEFAULT;
+
+    this.threadPoolSize = c.asInt("threadPoolSize", dft.threadPoolSize());
+    this.queueSize = c.asInt("queueSize", dft.queueSize());
+    this.virtualThreads = c.asBoolean("virtualThreads", dft.virtualThreads());
+  }
+
+  @Override
+  public int threadPoolSize() {
+    return threadPoolSize;
+  }
+
+  @Override
+  public int queueSize() {
+    return queueSize;
+  }
+
+  @Override
+  public boolean virtualThreads() {
+    return virtualThreads;
+  }
+}
@@ -17,7 +17,11 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowPartitions;
+  private final int heuristicsCacheMaxSize;
+  private final int heuristicsCacheTimeBucketInSeconds;
   private final int transferCacheMaxSize;
+  private final int tripPatternCacheMaxSize;
   private final List<Duration> pagingSearchWindowAdjustments;
 
   private final Map<StopTransferPriority, Integer> stopTransferCost;
@@ -32,6 +36,10 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
     this.iterationDepartureStepInSeconds =
       c.asInt("iterationDepartureStepInSeconds", dft.iterationDepartureStepInSeconds());
     this.searchThreadPoolSize = c.asInt("searchThreadPoolSize", dft.searchThreadPoolSize());
+    this.searchWindowPartitions = c.asInt("searchWindowPartitions", dft.searchWindowPartitions());
+    this.heuristicsCacheMaxSize = c.asInt("heuristicsCacheMaxSize", dft.heuristicsCacheMaxSize());
+    this.heuristicsCacheTimeBucketInSeconds =
+      c.asInt("heuristicsCacheTimeBucketInSeconds", dft.heuristicsCacheTimeBucketInSeconds());
     // Dynamic Search Window
     this.stopTransferCost =
       c.asEnumMapAllKeysRequired(
@@ -40,6 +48,7 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
         NodeAdapter::asInt
       );
     this.transferCacheMaxSize = c.asInt("transferCacheMaxSize", 25);
+    this.tripPatternCacheMaxSize = c.asInt("tripPatternCacheMaxSize", 10);
 
     this.pagingSearchWindowAdjustments =
       c.asDurations("pagingSearchWindowAdjustments", PAGING_SEARCH_WINDOW_ADJUSTMENTS);
@@ -68,6 +77,21 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowPartitions() {
+    return searchWindowPartitions;
+  }
+
+  @Override
+  public int heuristicsCacheMaxSize() {
+    return heuristicsCacheMaxSize;
+  }
+
+  @Override
+  public int heuristicsCacheTimeBucketInSeconds() {
+    return heuristicsCacheTimeBucketInSeconds;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -88,6 +112,11 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
     return transferCacheMaxSize;
   }
 
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
   @Override
   public List<Duration> pagingSearchWindowAdjustments() {
     return pagingSearchWindowAdjustments;
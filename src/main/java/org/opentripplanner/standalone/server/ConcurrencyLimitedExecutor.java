@@ -0,0 +1,63 @@
+package org.opentripplanner.standalone.server;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor limiting the number of tasks running at the same time. The tasks are started at once
+ * by the delegate, and wait for a permit in their own thread before they run. This is intended for
+ * a delegate starting a virtual thread for each task, where a waiting thread is cheap. The caller
+ * is never blocked, which is important for the Grizzly selector threads handing over requests to
+ * the worker pool.
+ */
+class ConcurrencyLimitedExecutor extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+
+  ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrentTasks) {
+    this.delegate = delegate;
+    // Fair, so that the tasks run in the order the requests arrive
+    this.permits = new Semaphore(maxConcurrentTasks, true);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(() -> {
+      permits.acquireUninterruptibly();
+      try {
+        command.run();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.server;
 import java.io.File;
 import java.io.IOException;
 import java.net.BindException;
+import java.util.concurrent.ExecutorService;
 import javax.ws.rs.core.Application;
 import org.glassfish.grizzly.http.CompressionConfig;
 import org.glassfish.grizzly.http.server.CLStaticHttpHandler;
@@ -15,6 +16,7 @@ import org.glassfish.grizzly.ssl.SSLEngineConfigurator;
 import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 import org.glassfish.jersey.server.ContainerFactory;
 import org.opentripplanner.standalone.config.CommandLineParameters;
+import org.opentripplanner.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
@@ -24,6 +26,8 @@ public class GrizzlyServer {
   private static final Logger LOG = LoggerFactory.getLogger(GrizzlyServer.class);
 
   private static final int MIN_THREADS = 4;
+  /** The default number of concurrent requests with virtual threads, per handler thread. */
+  private static final int CONCURRENT_REQUESTS_PER_THREAD = 4;
   /** The command line parameters, including things like port number and content directories. */
   private final CommandLineParameters params;
   private final Application app;
@@ -72,6 +76,11 @@ public class GrizzlyServer {
       .setMaxPoolSize(nHandlerThreads)
       .setQueueLimit(-1);
 
+    // Alternatively, handle each request in a new virtual thread. A blocked request then only
+    // holds a cheap virtual thread, and the number of requests running at the same time is
+    // limited instead. The HTTP and HTTPS listeners share the same limit.
+    ExecutorService virtualThreadPool = createVirtualThreadPool(nHandlerThreads);
+
     /* HTTP (non-encrypted) listener */
     NetworkListener httpListener = new NetworkListener(
       "otp_insecure",
@@ -98,7 +107,11 @@ public class GrizzlyServer {
       cc.setCompressionMode(CompressionConfig.CompressionMode.ON);
       cc.setCompressionMinSize(50000); // the min number of bytes to compress
       cc.setCompressableMimeTypes("application/json", "text/json"); // the mime types to compress
-      listener.getTransport().setWorkerThreadPoolConfig(threadPoolConfig);
+      if (virtualThreadPool != null) {
+        listener.getTransport().setWorkerThreadPool(virtualThreadPool);
+      } else {
+        listener.getTransport().setWorkerThreadPoolConfig(threadPoolConfig);
+      }
       httpServer.addListener(listener);
     }
 
@@ -157,6 +170,35 @@ public class GrizzlyServer {
     httpServer.shutdown();
   }
 
+  /**
+   * Create the executor handling each request in a new virtual thread, if enabled and supported by
+   * the Java runtime.
+   */
+  private ExecutorService createVirtualThreadPool(int nHandlerThreads) {
+    if (!params.virtualThreads) {
+      return null;
+    }
+    if (!VirtualThreads.isSupported()) {
+      LOG.warn(
+        "Virtual threads are not supported by Java {}, using a pool of {} HTTP handler threads.",
+        Runtime.version(),
+        nHandlerThreads
+      );
+      return null;
+    }
+    int maxConcurrentRequests = params.maxConcurrentRequests != null
+      ? params.maxConcurrentRequests
+      : nHandlerThreads * CONCURRENT_REQUESTS_PER_THREAD;
+    LOG.info(
+      "HTTP requests are handled in virtual threads, at most {} at the same time.",
+      maxConcurrentRequests
+    );
+    return new ConcurrencyLimitedExecutor(
+      VirtualThreads.newVirtualThreadPerTaskExecutor(),
+      maxConcurrentRequests
+    );
+  }
+
   /**
    * OTP is CPU-bound, so we want roughly as many worker threads as we have cores, subject to some
    * constraints.
@@ -1,7 +1,10 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
@@ -17,6 +20,8 @@ import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.micrometer.core.instrument.binder.system.UptimeMetrics;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.opentripplanner.transit.raptor.configure.HeuristicsCache;
 import org.opentripplanner.transit.service.TransitModel;
 
 /**
@@ -48,6 +53,12 @@ public class MetricsLogging {
         List.of(Tag.of("cache", "raptorTransfers"))
       )
         .bindTo(Metrics.globalRegistry);
+      new GuavaCacheMetrics(
+        transitModel.getTransitLayer().getTripPatternCache().getTripPatternCache(),
+        "raptorTripPatternsCache",
+        List.of(Tag.of("cache", "raptorTripPatterns"))
+      )
+        .bindTo(Metrics.globalRegistry);
     }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
@@ -72,6 +83,18 @@ public class MetricsLogging {
         .bindTo(Metrics.globalRegistry);
     }
 
+    // The snapshot source is created by the first realtime updater, so the gauge looks it up in
+    // the transit model each time it is read.
+    TimeGauge
+      .builder(
+        "timetableSnapshot.age",
+        transitModel,
+        TimeUnit.MILLISECONDS,
+        MetricsLogging::timetableSnapshotAgeMillis
+      )
+      .description("The time since the realtime timetable snapshot was committed")
+      .register(Metrics.globalRegistry);
+
     if (router.raptorConfig.isMultiThreaded()) {
       new ExecutorServiceMetrics(
         router.raptorConfig.threadPool(),
@@ -80,5 +103,42 @@ public class MetricsLogging {
       )
         .bindTo(Metrics.globalRegistry);
     }
+
+    HeuristicsCache heuristicsCache = router.raptorConfig.heuristicsCache();
+    if (heuristicsCache != null) {
+      var tags = List.of(Tag.of("cache", "raptorHeuristics"));
+      FunctionCounter
+        .builder("raptorHeuristicsCache.hits", heuristicsCache, HeuristicsCache::hitCount)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      FunctionCounter
+        .builder("raptorHeuristicsCache.misses", heuristicsCache, HeuristicsCache::missCount)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      Gauge
+        .builder("raptorHeuristicsCache.hitRatio", heuristicsCache, HeuristicsCache::hitRatio)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      FunctionCounter
+        .builder(
+          "raptorHeuristicsCache.savedTime",
+          heuristicsCache,
+          it -> it.savedTimeNanos() / 1e9
+        )
+        .baseUnit("seconds")
+        .description("The time spent computing the heuristics served from the cache")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      Gauge
+        .builder("raptorHeuristicsCache.size", heuristicsCache, HeuristicsCache::size)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    }
+  }
+
+  /** The time since the realtime snapshot was committed, NaN if there is no snapshot. */
+  private static double timetableSnapshotAgeMillis(TransitModel transitModel) {
+    long commitTime = transitModel.getTimetableSnapshotCommitTime();
+    return commitTime < 0 ? Double.NaN : System.currentTimeMillis() - commitTime;
   }
 }
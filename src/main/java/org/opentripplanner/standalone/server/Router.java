@@ -11,6 +11,7 @@ import java.util.Locale;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.ext.transmodelapi.TransmodelAPI;
 import org.opentripplanner.inspector.TileRendererManager;
+import org.opentripplanner.routing.algorithm.RoutingExecutor;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerMapper;
@@ -18,6 +19,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.Trans
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.transit.raptor.configure.HeuristicsCache;
 import org.opentripplanner.transit.raptor.configure.RaptorConfig;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphUpdaterConfigurator;
@@ -41,6 +43,7 @@ public class Router {
 
   public final RouterConfig routerConfig;
   public final MeterRegistry meterRegistry;
+  public final RoutingExecutor routingExecutor;
   public final RaptorConfig<TripSchedule> raptorConfig;
 
   /**
@@ -69,7 +72,13 @@ public class Router {
     this.routerConfig = routerConfig;
     this.defaultRoutingRequest = routerConfig.routingRequestDefaults();
     this.meterRegistry = meterRegistry;
-    this.raptorConfig = new RaptorConfig<>(routerConfig.raptorTuningParameters());
+    this.routingExecutor =
+      new RoutingExecutor(routerConfig.routingExecutorParameters(), meterRegistry);
+    this.raptorConfig =
+      new RaptorConfig<>(
+        routerConfig.raptorTuningParameters(),
+        routingExecutor.executorService()
+      );
   }
 
   /*
@@ -100,7 +109,15 @@ public class Router {
       );
       transitModel.setRealtimeTransitLayer(new TransitLayer(transitModel.getTransitLayer()));
       transitModel.transitLayerUpdater =
-        new TransitLayerUpdater(transitModel, transitModel.index.getServiceCodesRunningForDate());
+        new TransitLayerUpdater(
+          transitModel,
+          transitModel.index.getServiceCodesRunningForDate(),
+          meterRegistry
+        );
+      HeuristicsCache heuristicsCache = raptorConfig.heuristicsCache();
+      if (heuristicsCache != null) {
+        transitModel.transitLayerUpdater.addSnapshotListener(heuristicsCache::clear);
+      }
     } else {
       LOG.warn(
         "Cannot create Raptor data, that requires the graph to have transit data and be indexed."
@@ -162,6 +179,7 @@ public class Router {
   public void shutdown() {
     GraphUpdaterConfigurator.shutdownGraph(this.transitModel);
     raptorConfig.shutdown();
+    routingExecutor.shutdown();
   }
 
   public double streetRoutingTimeoutSeconds() {
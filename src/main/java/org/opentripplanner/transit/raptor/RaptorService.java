@@ -1,7 +1,10 @@
 package org.opentripplanner.transit.raptor;
 
+import static org.opentripplanner.transit.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
 import java.util.stream.Collectors;
 import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.response.IterationStopArrivalsListener;
 import org.opentripplanner.transit.raptor.api.response.RaptorResponse;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
@@ -50,6 +53,32 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Run a standard Range Raptor search without a destination, and notify the listener with the
+   * stop arrivals at the end of each iteration. The dynamic search parameters are not supported,
+   * the earliest departure time and the search window must be set in the request.
+   */
+  public void routeEachIteration(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData,
+    IterationStopArrivalsListener listener
+  ) {
+    if (request.profile().is(MULTI_CRITERIA)) {
+      throw new IllegalArgumentException(
+        "The stop arrivals for each iteration is only available with a standard profile."
+      );
+    }
+    var searchParams = request.searchParams();
+    if (!(searchParams.isEarliestDepartureTimeSet() && searchParams.isSearchWindowSet())) {
+      throw new IllegalArgumentException(
+        "The earliest departure time and search window must be set for a search with stop " +
+        "arrivals for each iteration."
+      );
+    }
+    LOG.debug("Stop arrivals request: {}", request);
+    config.createStdWorker(transitData, request, listener).route();
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -32,7 +32,16 @@ public enum Optimization {
    * <p>
    * This only apply to: multi-criteria search.
    */
-  PARETO_CHECK_AGAINST_DESTINATION;
+  PARETO_CHECK_AGAINST_DESTINATION,
+
+  /**
+   * Store the stop arrivals in int arrays, instead of creating an object for each stop arrival.
+   * The arrays are reused by the next search in the same thread, which reduce the garbage created
+   * by searches with a wide search window.
+   * <p>
+   * This only apply to: multi-criteria search.
+   */
+  STOP_ARRIVAL_ARENA;
 
   public boolean is(Optimization other) {
     return this == other;
@@ -136,6 +136,10 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     return optimizationEnabled(Optimization.PARALLEL);
   }
 
+  public boolean useStopArrivalArena() {
+    return optimizationEnabled(Optimization.STOP_ARRIVAL_ARENA);
+  }
+
   public RaptorTimers performanceTimers() {
     return performanceTimers;
   }
@@ -55,10 +55,47 @@ public interface RaptorTuningParameters {
     return 0;
   }
 
+  /**
+   * Split the search window of the main Range Raptor search into this number of sub-windows, and
+   * search them in parallel using the {@link #searchThreadPoolSize()} threads. The paths found in
+   * each sub-window are merged into one pareto set, so the result is the same as searching the
+   * whole window in one thread. The sub-window searches do not share state, so the total amount of
+   * work is higher, but the response time is lower if there are idle threads. Only requests with
+   * the {@link Optimization#PARALLEL} optimization enabled are split.
+   * <p>
+   * Default value is 1, the search window is not split.
+   */
+  default int searchWindowPartitions() {
+    return 1;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
   default DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return new DynamicSearchWindowCoefficients() {};
   }
+
+  /**
+   * The maximum number of reverse heuristic results to keep for reuse by later requests. Requests
+   * to the same destination, with the same transit data and departing in the same time bucket,
+   * share the heuristics used for destination pruning. Set it to 0 to disable the cache.
+   * <p>
+   * Default value is 0.
+   */
+  default int heuristicsCacheMaxSize() {
+    return 0;
+  }
+
+  /**
+   * The size of the time buckets the heuristics cache use. The latest-arrival-time is rounded up
+   * and the earliest-departure-time down to a whole bucket before the heuristics are computed, so
+   * the result is valid for all requests in the bucket. A larger bucket gives more cache hits, but
+   * less effective destination pruning.
+   * <p>
+   * Default value is 900 (15 minutes).
+   */
+  default int heuristicsCacheTimeBucketInSeconds() {
+    return 900;
+  }
 }
@@ -0,0 +1,18 @@
+package org.opentripplanner.transit.raptor.api.response;
+
+/**
+ * Listen to the stop arrivals at the end of each Range Raptor iteration. The iterations run from
+ * the latest to the earliest departure time in the search window, and the best arrival time at a
+ * stop is the earliest arrival for any departure at or after the iteration departure time. This
+ * can be used to compute the travel time to each stop for every departure minute in the search
+ * window.
+ */
+@FunctionalInterface
+public interface IterationStopArrivalsListener {
+  /**
+   * @param iterationDepartureTime the departure time of the iteration just completed.
+   * @param stopArrivals           the stop arrivals of the search, only valid during the call - the
+   *                               next iteration updates them.
+   */
+  void iterationComplete(int iterationDepartureTime, StopArrivals stopArrivals);
+}
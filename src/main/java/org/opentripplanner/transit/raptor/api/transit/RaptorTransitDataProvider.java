@@ -2,6 +2,7 @@ package org.opentripplanner.transit.raptor.api.transit;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * This interface defines the data needed by Raptor. It is the main/top-level interface and together
@@ -20,6 +21,18 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    */
   default void setup() {}
 
+  /**
+   * Return the transit data for one search. Raptor calls this once for each worker, and a worker
+   * runs in one thread at the time. The returned provider can therefore reuse the iterators it
+   * returns, while this provider is shared by all searches of a request, like the heuristics and
+   * the forward search, which run in parallel.
+   * <p>
+   * The default returns this provider, for implementations that do not reuse their iterators.
+   */
+  default RaptorTransitDataProvider<T> forSearch() {
+    return this;
+  }
+
   /**
    * This is the total number of stops, it should be possible to retrieve transfers and pattern for
    * every stop from 0 to {@code numberOfStops()-1}.
@@ -70,6 +83,9 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
 
   /**
    * Return an iterator of route indices for all routes visiting the given set of stops.
+   * <p>
+   * The implementation may reuse the returned iterator, like the transfer iterators above. It is
+   * only valid until the next call to this method, see {@link #forSearch()}.
    *
    * @param stops set of stops for find all routes for.
    */
@@ -123,4 +139,17 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * Unit: seconds since midnight of the day of the search
    */
   int getValidTransitDataEndTime();
+
+  /**
+   * Return a key identifying the routes, trips and transfers of this provider. Two providers with
+   * equal keys must return the same transit data. Raptor use it to share results, like the
+   * heuristics, between requests. The key is kept with the shared results, so it should be small
+   * and not reference the transit data.
+   * <p>
+   * Return {@code null}, the default, if the data is not shared between requests.
+   */
+  @Nullable
+  default Object transitDataKey() {
+    return null;
+  }
 }
@@ -0,0 +1,233 @@
+package org.opentripplanner.transit.raptor.configure;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.request.SearchParams;
+import org.opentripplanner.transit.raptor.api.request.SearchParamsBuilder;
+import org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.transit.SearchDirection;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Heuristics;
+
+/**
+ * Cache the reverse heuristics between requests. Many requests in a short time go to the same
+ * destination, like a station, an airport or an event, and the heuristics computed from the
+ * destination does not depend on the origin.
+ * <p>
+ * A cached result must be admissible for all requests using it, the heuristics must never be
+ * larger than the heuristics computed for the request itself. To ensure this the heuristic search
+ * is widened before it is run:
+ * <ul>
+ *   <li>The latest-arrival-time is rounded up and the earliest-departure-time rounded down to a
+ *   whole time bucket. A wider time window only add trips to the search.</li>
+ *   <li>The search does not stop a number of rounds after the origin is reached, all rounds up to
+ *   the max number of transfers are searched.</li>
+ * </ul>
+ * The key contains everything else the search depends on: the transit data, the direction, the
+ * paths the search start from (the egress paths of a reverse search), the slack, the max number of
+ * transfers and if constrained transfers are enabled. Paths with opening hours are not cached.
+ * <p>
+ * The transit data is part of the key, so the heuristics of an old realtime snapshot are never
+ * used. Call {@link #clear()} when a new snapshot is committed, to release them.
+ * <p>
+ * This class is thread-safe, the cache is shared by all requests.
+ */
+public final class HeuristicsCache {
+
+  private final int maxSize;
+  private final int timeBucket;
+  private final int defaultMaxNumberOfTransfers;
+  private final Map<Key, Entry> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder savedTimeNanos = new LongAdder();
+
+  public HeuristicsCache(RaptorTuningParameters tuningParameters) {
+    this.maxSize = tuningParameters.heuristicsCacheMaxSize();
+    this.timeBucket = tuningParameters.heuristicsCacheTimeBucketInSeconds();
+    this.defaultMaxNumberOfTransfers = tuningParameters.maxNumberOfTransfers();
+    this.cache =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+          return size() > maxSize;
+        }
+      };
+  }
+
+  /** The number of requests served from the cache. */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /** The number of cacheable requests not in the cache. */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * The hit ratio of the cacheable requests, {@code 1.0} before the first request.
+   */
+  public double hitRatio() {
+    long hitCount = hitCount();
+    long total = hitCount + missCount();
+    return total == 0 ? 1.0 : (double) hitCount / total;
+  }
+
+  /**
+   * The total time it took to compute the heuristics served from the cache, this is the time
+   * saved by the cache.
+   */
+  public long savedTimeNanos() {
+    return savedTimeNanos.sum();
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  /**
+   * Create the key for the given heuristic search, return {@code null} if the result can not be
+   * cached.
+   */
+  @Nullable
+  public Key key(
+    RaptorRequest<?> request,
+    SearchDirection direction,
+    RaptorTransitDataProvider<?> transitData
+  ) {
+    SearchParams s = request.searchParams();
+    Object transitDataKey = transitData.transitDataKey();
+    // The egress paths are the access of a reverse search
+    Collection<RaptorTransfer> accessPaths = direction.isForward()
+      ? s.accessPaths()
+      : s.egressPaths();
+
+    if (
+      transitDataKey == null ||
+      !s.isLatestArrivalTimeSet() ||
+      accessPaths.stream().anyMatch(RaptorTransfer::hasOpeningHours)
+    ) {
+      return null;
+    }
+    return new Key(
+      transitDataKey,
+      direction,
+      accessKey(accessPaths),
+      roundUp(s.latestArrivalTime()),
+      s.isEarliestDepartureTimeSet()
+        ? roundDown(s.earliestDepartureTime())
+        : SearchParams.TIME_NOT_SET,
+      maxNumberOfTransfers(s),
+      s.constrainedTransfersEnabled(),
+      request.slackProvider()
+    );
+  }
+
+  /**
+   * Widen the request to the time window of the key, and search all rounds, so the result is
+   * valid for all requests with the same key.
+   */
+  public <T extends RaptorTripSchedule> RaptorRequest<T> widenRequest(
+    RaptorRequest<T> request,
+    Key key
+  ) {
+    SearchParamsBuilder<T> builder = request
+      .mutate()
+      .searchParams()
+      .latestArrivalTime(key.latestArrivalTime())
+      .numberOfAdditionalTransfers(key.maxNumberOfTransfers());
+
+    if (key.earliestDepartureTime() != SearchParams.TIME_NOT_SET) {
+      builder.earliestDepartureTime(key.earliestDepartureTime());
+    }
+    return builder.build();
+  }
+
+  @Nullable
+  public Heuristics get(Key key) {
+    Entry entry;
+    synchronized (this) {
+      entry = cache.get(key);
+    }
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    savedTimeNanos.add(entry.computeTimeNanos());
+    return entry.heuristics();
+  }
+
+  /**
+   * Add the heuristics computed for the given key. Two requests with the same key may compute
+   * the heuristics at the same time, the last one added is kept.
+   */
+  public void put(Key key, Heuristics heuristics, long computeTimeNanos) {
+    synchronized (this) {
+      cache.put(key, new Entry(heuristics, computeTimeNanos));
+    }
+  }
+
+  /**
+   * Remove all heuristics, call this when the transit data they are computed from is replaced.
+   */
+  public synchronized void clear() {
+    cache.clear();
+  }
+
+  /* private methods */
+
+  private int maxNumberOfTransfers(SearchParams s) {
+    return s.isMaxNumberOfTransfersSet() ? s.maxNumberOfTransfers() : defaultMaxNumberOfTransfers;
+  }
+
+  private int roundUp(int time) {
+    return Math.floorDiv(time + timeBucket - 1, timeBucket) * timeBucket;
+  }
+
+  private int roundDown(int time) {
+    return Math.floorDiv(time, timeBucket) * timeBucket;
+  }
+
+  private static Set<AccessKey> accessKey(Collection<RaptorTransfer> accessPaths) {
+    return accessPaths
+      .stream()
+      .map(it ->
+        new AccessKey(
+          it.stop(),
+          it.durationInSeconds(),
+          it.numberOfRides(),
+          it.stopReachedOnBoard()
+        )
+      )
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * The generalized-cost is not part of the key, it is not used by the heuristic search.
+   */
+  record AccessKey(int stop, int duration, int numberOfRides, boolean onBoard) {}
+
+  private record Entry(Heuristics heuristics, long computeTimeNanos) {}
+
+  public record Key(
+    Object transitData,
+    SearchDirection direction,
+    Set<AccessKey> accessPaths,
+    int latestArrivalTime,
+    int earliestDepartureTime,
+    int maxNumberOfTransfers,
+    boolean constrainedTransfersEnabled,
+    RaptorSlackProvider slackProvider
+  ) {}
+}
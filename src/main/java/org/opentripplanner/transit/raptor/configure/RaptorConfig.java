@@ -1,10 +1,17 @@
 package org.opentripplanner.transit.raptor.configure;
 
+import java.util.Collection;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
 import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.response.IterationStopArrivalsListener;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.rangeraptor.RangeRaptorWorker;
@@ -29,11 +36,30 @@ import org.opentripplanner.transit.raptor.rangeraptor.transit.RaptorSearchWindow
 public class RaptorConfig<T extends RaptorTripSchedule> {
 
   private final ExecutorService threadPool;
+  private final boolean sharedThreadPool;
   private final RaptorTuningParameters tuningParameters;
+  private final HeuristicsCache heuristicsCache;
 
   public RaptorConfig(RaptorTuningParameters tuningParameters) {
+    this(tuningParameters, null);
+  }
+
+  /**
+   * @param sharedThreadPool an application thread pool used instead of creating a new one. The
+   *                         {@link RaptorTuningParameters#searchThreadPoolSize()} then only
+   *                         enables or disables running the search in parallel. The shared thread
+   *                         pool is not shut down by this class.
+   */
+  public RaptorConfig(
+    RaptorTuningParameters tuningParameters,
+    @Nullable ExecutorService sharedThreadPool
+  ) {
+    int size = tuningParameters.searchThreadPoolSize();
     this.tuningParameters = tuningParameters;
-    this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
+    this.sharedThreadPool = size > 0 && sharedThreadPool != null;
+    this.threadPool = this.sharedThreadPool ? sharedThreadPool : createNewThreadPool(size);
+    this.heuristicsCache =
+      tuningParameters.heuristicsCacheMaxSize() > 0 ? new HeuristicsCache(tuningParameters) : null;
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -41,7 +67,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   public SearchContext<T> context(RaptorTransitDataProvider<T> transit, RaptorRequest<T> request) {
-    return new SearchContext<>(request, tuningParameters, transit);
+    return new SearchContext<>(request, tuningParameters, transit.forSearch());
   }
 
   public Worker<T> createStdWorker(
@@ -52,6 +78,32 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return new StdRangeRaptorConfig<>(context).createSearch((s, w) -> createWorker(context, s, w));
   }
 
+  /**
+   * Create a standard worker notifying the given listener with the stop arrivals at the end of
+   * each iteration.
+   */
+  public Worker<T> createStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    IterationStopArrivalsListener listener
+  ) {
+    SearchContext<T> context = context(transitData, request);
+    var iterationDepartureTime = new AtomicInteger();
+    var stopArrivals = new AtomicReference<StopArrivals>();
+
+    context.lifeCycle().onSetupIteration(iterationDepartureTime::set);
+    context
+      .lifeCycle()
+      .onIterationComplete(() ->
+        listener.iterationComplete(iterationDepartureTime.get(), stopArrivals.get())
+      );
+
+    Worker<T> worker = new StdRangeRaptorConfig<>(context)
+      .createSearch((s, w) -> createWorker(context, s, w));
+    stopArrivals.set(worker.stopArrivals());
+    return worker;
+  }
+
   public Worker<T> createMcWorker(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
@@ -62,6 +114,21 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       .createWorker(heuristics, (s, w) -> createWorker(context, s, w));
   }
 
+  /**
+   * Create an empty collection to merge the paths of several searches into, like the searches of
+   * the sub-windows of a request. Paths are only added if they are pareto-optimal, using the same
+   * criteria as the worker created for the request.
+   */
+  public Collection<Path<T>> createPathParetoSet(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    SearchContext<T> context = context(transitData, request);
+    return request.profile().is(RaptorProfile.MULTI_CRITERIA)
+      ? new McRangeRaptorConfig<>(context).createPathParetoSet()
+      : new StdRangeRaptorConfig<>(context).createPathParetoSet();
+  }
+
   public HeuristicSearch<T> createHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -71,6 +138,26 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       .createHeuristicSearch((s, w) -> createWorker(context, s, w));
   }
 
+  /**
+   * The number of sub-windows to split the search window of a parallel search into, see
+   * {@link RaptorTuningParameters#searchWindowPartitions()}.
+   */
+  public int searchWindowPartitions() {
+    return tuningParameters.searchWindowPartitions();
+  }
+
+  public int iterationDepartureStepInSeconds() {
+    return tuningParameters.iterationDepartureStepInSeconds();
+  }
+
+  /**
+   * The reverse heuristics shared between requests, {@code null} if the cache is disabled.
+   */
+  @Nullable
+  public HeuristicsCache heuristicsCache() {
+    return heuristicsCache;
+  }
+
   public boolean isMultiThreaded() {
     return threadPool != null;
   }
@@ -80,7 +167,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   public void shutdown() {
-    if (threadPool != null) {
+    if (threadPool != null && !sharedThreadPool) {
       threadPool.shutdown();
     }
   }
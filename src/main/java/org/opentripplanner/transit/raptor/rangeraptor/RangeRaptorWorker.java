@@ -151,6 +151,7 @@ public final class RangeRaptorWorker<T extends RaptorTripSchedule> implements Wo
         runRaptorForMinute();
         inFirstIteration = false;
       }
+      lifeCycle.notifyRouteSearchComplete();
     });
   }
 
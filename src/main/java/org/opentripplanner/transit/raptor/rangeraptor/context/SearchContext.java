@@ -191,6 +191,10 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return searchParams().constrainedTransfersEnabled();
   }
 
+  public boolean useStopArrivalArena() {
+    return request.useStopArrivalArena();
+  }
+
   /* private methods */
 
   public RaptorStopNameResolver stopNameResolver() {
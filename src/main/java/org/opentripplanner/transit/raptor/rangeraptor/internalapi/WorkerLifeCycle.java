@@ -81,4 +81,12 @@ public interface WorkerLifeCycle {
    * @param iterationComplete if {@code null} nothing is added to the publisher.
    */
   void onIterationComplete(Runnable iterationComplete);
+
+  /**
+   * Subscribe to 'route search complete' events by register listener. The listener is notified
+   * after the last iteration of the search, in the thread running the search.
+   *
+   * @param routeSearchComplete if {@code null} nothing is added to the publisher.
+   */
+  void onRouteSearchComplete(Runnable routeSearchComplete);
 }
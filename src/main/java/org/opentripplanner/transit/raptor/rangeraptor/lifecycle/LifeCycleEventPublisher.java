@@ -16,6 +16,7 @@ public class LifeCycleEventPublisher {
   private final Runnable[] transfersForRoundCompleteListeners;
   private final Consumer<Boolean>[] roundCompleteListeners;
   private final Runnable[] iterationCompleteListeners;
+  private final Runnable[] routeSearchCompleteListeners;
 
   @SuppressWarnings("unchecked")
   public LifeCycleEventPublisher(LifeCycleSubscriptions subscriptions) {
@@ -31,6 +32,8 @@ public class LifeCycleEventPublisher {
     this.roundCompleteListeners = subscriptions.roundCompleteListeners.toArray(new Consumer[0]);
     this.iterationCompleteListeners =
       subscriptions.iterationCompleteListeners.toArray(new Runnable[0]);
+    this.routeSearchCompleteListeners =
+      subscriptions.routeSearchCompleteListeners.toArray(new Runnable[0]);
     subscriptions.close();
   }
 
@@ -77,4 +80,10 @@ public class LifeCycleEventPublisher {
       it.run();
     }
   }
+
+  public final void notifyRouteSearchComplete() {
+    for (Runnable it : routeSearchCompleteListeners) {
+      it.run();
+    }
+  }
 }
@@ -21,6 +21,7 @@ public final class LifeCycleSubscriptions implements WorkerLifeCycle {
   final List<Runnable> transfersForRoundCompleteListeners = new ArrayList<>();
   final List<Consumer<Boolean>> roundCompleteListeners = new ArrayList<>();
   final List<Runnable> iterationCompleteListeners = new ArrayList<>();
+  final List<Runnable> routeSearchCompleteListeners = new ArrayList<>();
 
   private boolean openForSubscription = true;
 
@@ -59,6 +60,11 @@ public final class LifeCycleSubscriptions implements WorkerLifeCycle {
     subscribe(iterationCompleteListeners, iterationComplete);
   }
 
+  @Override
+  public void onRouteSearchComplete(Runnable routeSearchComplete) {
+    subscribe(routeSearchCompleteListeners, routeSearchComplete);
+  }
+
   public void close() {
     this.openForSubscription = false;
   }
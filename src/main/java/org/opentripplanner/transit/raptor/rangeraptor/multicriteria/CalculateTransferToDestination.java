@@ -19,7 +19,7 @@ public class CalculateTransferToDestination<T extends RaptorTripSchedule>
   private final List<RaptorTransfer> egressPaths;
   private final DestinationArrivalPaths<T> destinationArrivals;
 
-  CalculateTransferToDestination(
+  public CalculateTransferToDestination(
     List<RaptorTransfer> egressPaths,
     DestinationArrivalPaths<T> destinationArrivals
   ) {
@@ -23,7 +23,7 @@ class StopArrivalParetoSet<T extends RaptorTripSchedule>
    * Use the factory methods in this class to create a new instance.
    */
   StopArrivalParetoSet(ParetoSetEventListener<ArrivalView<T>> listener) {
-    super(AbstractStopArrival.compareArrivalTimeRoundAndCost(), listener);
+    super(AbstractStopArrival.arrivalTimeRoundAndCostCriteria(), listener);
   }
 
   /**
@@ -0,0 +1,125 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.transit.TransitArrival;
+import org.opentripplanner.transit.raptor.api.view.AccessPathView;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+import org.opentripplanner.transit.raptor.api.view.TransferPathView;
+import org.opentripplanner.transit.raptor.api.view.TransitPathView;
+
+/**
+ * A view of an arrival in a {@link StopArrivalArena}. The views are created when a path is mapped,
+ * and for debugging, the search itself uses the arrival indexes.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class ArenaArrivalView<T extends RaptorTripSchedule>
+  implements ArrivalView<T>, TransitPathView<T>, TransitArrival<T> {
+
+  private final StopArrivalArena<T> arena;
+  private final int index;
+
+  ArenaArrivalView(StopArrivalArena<T> arena, int index) {
+    this.arena = arena;
+    this.index = index;
+  }
+
+  @Override
+  public int stop() {
+    return arena.stop(index);
+  }
+
+  @Override
+  public int round() {
+    return arena.round(index);
+  }
+
+  @Override
+  public int arrivalTime() {
+    return arena.arrivalTime(index);
+  }
+
+  @Override
+  public int cost() {
+    return arena.cost(index);
+  }
+
+  @Override
+  public ArrivalView<T> previous() {
+    int previous = arena.previous(index);
+    return previous == StopArrivalArena.NO_ARRIVAL ? null : arena.view(previous);
+  }
+
+  @Override
+  public TransitArrival<T> mostRecentTransitArrival() {
+    int transit = arena.mostRecentTransitArrival(index);
+    return transit == StopArrivalArena.NO_ARRIVAL ? null : new ArenaArrivalView<>(arena, transit);
+  }
+
+  @Override
+  public boolean arrivedByAccess() {
+    return arena.arrivedByAccess(index);
+  }
+
+  @Override
+  public AccessPathView accessPath() {
+    assertType(StopArrivalArena.ACCESS);
+    return () -> arena.accessPath(index);
+  }
+
+  @Override
+  public boolean arrivedByTransit() {
+    return arena.arrivedByTransit(index);
+  }
+
+  @Override
+  public TransitPathView<T> transitPath() {
+    assertType(StopArrivalArena.TRANSIT);
+    return this;
+  }
+
+  @Override
+  public boolean arrivedByTransfer() {
+    return arena.arrivedByTransfer(index);
+  }
+
+  @Override
+  public TransferPathView transferPath() {
+    assertType(StopArrivalArena.TRANSFER);
+    return () -> arena.transferPath(index);
+  }
+
+  @Override
+  public int boardStop() {
+    return arena.stop(arena.previous(index));
+  }
+
+  @Override
+  public T trip() {
+    assertType(StopArrivalArena.TRANSIT);
+    return arena.trip(index);
+  }
+
+  @Override
+  public int hashCode() {
+    return index;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return (
+      o instanceof ArenaArrivalView<?> other && other.arena == arena && other.index == index
+    );
+  }
+
+  @Override
+  public String toString() {
+    return asString();
+  }
+
+  private void assertType(byte type) {
+    if (arena.type(index) != type) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
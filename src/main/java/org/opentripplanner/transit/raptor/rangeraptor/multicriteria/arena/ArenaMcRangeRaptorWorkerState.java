@@ -0,0 +1,203 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
+import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
+import org.opentripplanner.transit.raptor.api.transit.IntIterator;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.WorkerState;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
+import org.opentripplanner.transit.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.transit.raptor.rangeraptor.transit.TransitCalculator;
+
+/**
+ * The multi-criteria worker state with the stop arrivals stored in a {@link StopArrivalArena}.
+ * This does the same as the {@code McRangeRaptorWorkerState}, without creating an object for each
+ * stop arrival.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class ArenaMcRangeRaptorWorkerState<T extends RaptorTripSchedule>
+  implements WorkerState<T> {
+
+  private final StopArrivalArena<T> arena;
+  private final ArenaMcStopArrivals<T> arrivals;
+  private final DestinationArrivalPaths<T> paths;
+  private final HeuristicsProvider<T> heuristics;
+  private final TIntList arrivalsCache = new TIntArrayList();
+  private final CostCalculator<T> costCalculator;
+  private final TransitCalculator<T> transitCalculator;
+  private final IntFunction<ArrivalView<T>> arrivalView;
+
+  public ArenaMcRangeRaptorWorkerState(
+    StopArrivalArena<T> arena,
+    ArenaMcStopArrivals<T> arrivals,
+    DestinationArrivalPaths<T> paths,
+    HeuristicsProvider<T> heuristics,
+    CostCalculator<T> costCalculator,
+    TransitCalculator<T> transitCalculator,
+    WorkerLifeCycle lifeCycle
+  ) {
+    this.arena = arena;
+    this.arrivals = arrivals;
+    this.paths = paths;
+    this.heuristics = heuristics;
+    this.costCalculator = costCalculator;
+    this.transitCalculator = transitCalculator;
+    this.arrivalView = arena::view;
+
+    // Attach to the RR life cycle
+    lifeCycle.onRouteSearch(ignore -> arena.clear());
+    lifeCycle.onRouteSearchComplete(arena::releasePayload);
+    lifeCycle.onSetupIteration(ignore -> setupIteration());
+    lifeCycle.onTransitsForRoundComplete(this::transitsForRoundComplete);
+    lifeCycle.onTransfersForRoundComplete(this::transfersForRoundComplete);
+  }
+
+  @Override
+  public boolean isNewRoundAvailable() {
+    return arrivals.updateExist();
+  }
+
+  @Override
+  public IntIterator stopsTouchedPreviousRound() {
+    return arrivals.stopsTouchedIterator();
+  }
+
+  @Override
+  public IntIterator stopsTouchedByTransitCurrentRound() {
+    return arrivals.stopsTouchedIterator();
+  }
+
+  @Override
+  public boolean isDestinationReachedInCurrentRound() {
+    return paths.isReachedCurrentRound();
+  }
+
+  @Override
+  public void setAccessToStop(RaptorTransfer accessPath, int departureTime) {
+    addStopArrival(arena.addAccess(departureTime, accessPath));
+  }
+
+  @Override
+  public void transferToStops(int fromStop, Iterator<? extends RaptorTransfer> transfers) {
+    var fromArrivals = arrivals.arrivalsAt(fromStop);
+    if (fromArrivals == null) {
+      return;
+    }
+
+    while (transfers.hasNext()) {
+      transferToStop(fromArrivals, transfers.next());
+    }
+  }
+
+  @Override
+  public Collection<Path<T>> extractPaths() {
+    return paths.listPaths();
+  }
+
+  @Override
+  public StopArrivals extractStopArrivals() {
+    return arrivals;
+  }
+
+  StopArrivalArena<T> arena() {
+    return arena;
+  }
+
+  ArenaStopArrivalParetoSet<T> stopArrivalsPreviousRound(int stop) {
+    return arrivals.arrivalsAt(stop);
+  }
+
+  /**
+   * Set the time at a transit stop iff it is optimal.
+   */
+  void transitToStop(
+    final ArenaPatternRide<T> ride,
+    final int alightStop,
+    final int alightTime,
+    final int alightSlack
+  ) {
+    final int stopArrivalTime = alightTime + alightSlack;
+
+    if (exceedsTimeLimit(stopArrivalTime)) {
+      return;
+    }
+
+    final int costTransit = costCalculator.transitArrivalCost(
+      ride.boardCost(),
+      alightSlack,
+      alightTime - ride.boardTime(),
+      ride.trip(),
+      alightStop
+    );
+
+    int prevArrival = ride.prevArrivalIndex();
+    arrivalsCache.add(
+      arena.addTransit(prevArrival, alightStop, stopArrivalTime, costTransit, ride.trip())
+    );
+  }
+
+  /* private methods */
+
+  private void setupIteration() {
+    arrivalsCache.clear();
+    // clear all touched stops to avoid constant re-exploration
+    arrivals.clearTouchedStopsAndSetStopMarkers();
+  }
+
+  private void transitsForRoundComplete() {
+    arrivals.clearTouchedStopsAndSetStopMarkers();
+    commitCachedArrivals();
+  }
+
+  private void transfersForRoundComplete() {
+    commitCachedArrivals();
+  }
+
+  private void transferToStop(ArenaStopArrivalParetoSet<T> fromArrivals, RaptorTransfer transfer) {
+    final int transferTimeInSeconds = transfer.durationInSeconds();
+
+    for (int i = fromArrivals.marker(); i < fromArrivals.size(); ++i) {
+      int it = fromArrivals.get(i);
+      int arrivalTime = arena.arrivalTime(it) + transferTimeInSeconds;
+
+      if (!exceedsTimeLimit(arrivalTime)) {
+        arrivalsCache.add(arena.addTransfer(it, transfer, arrivalTime));
+      }
+    }
+  }
+
+  private void commitCachedArrivals() {
+    for (int i = 0; i < arrivalsCache.size(); ++i) {
+      addStopArrival(arrivalsCache.get(i));
+    }
+    arrivalsCache.clear();
+  }
+
+  private void addStopArrival(int arrival) {
+    boolean rejected = heuristics.rejectDestinationArrivalBasedOnHeuristic(
+      arena.stop(arrival),
+      arena.arrivalTime(arrival),
+      arena.travelDuration(arrival),
+      arena.cost(arrival),
+      arrivalView,
+      arrival
+    );
+    if (!rejected) {
+      arrivals.addStopArrival(arrival);
+    }
+  }
+
+  private boolean exceedsTimeLimit(int time) {
+    return transitCalculator.exceedsTimeLimit(time);
+  }
+}
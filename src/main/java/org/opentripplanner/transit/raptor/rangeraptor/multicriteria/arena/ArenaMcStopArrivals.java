@@ -0,0 +1,167 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
+import org.opentripplanner.transit.raptor.api.transit.IntIterator;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+import org.opentripplanner.transit.raptor.rangeraptor.debug.DebugHandlerFactory;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.CalculateTransferToDestination;
+import org.opentripplanner.transit.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.transit.raptor.rangeraptor.transit.EgressPaths;
+import org.opentripplanner.transit.raptor.util.BitSetIterator;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSetEventListener;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSetEventListenerComposite;
+
+/**
+ * The pareto sets of arrival indexes for each stop, and the stops visited since the "last mark".
+ * This is the {@link StopArrivalArena} version of the {@code McStopArrivals}.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class ArenaMcStopArrivals<T extends RaptorTripSchedule> implements StopArrivals {
+
+  private final StopArrivalArena<T> arena;
+  private final ArenaStopArrivalParetoSet<T>[] arrivals;
+  private final BitSet touchedStops;
+  private final DebugHandlerFactory<T> debugHandlerFactory;
+
+  public ArenaMcStopArrivals(
+    int nStops,
+    StopArrivalArena<T> arena,
+    EgressPaths egressPaths,
+    DestinationArrivalPaths<T> paths,
+    DebugHandlerFactory<T> debugHandlerFactory
+  ) {
+    this.arena = arena;
+    //noinspection unchecked
+    this.arrivals = (ArenaStopArrivalParetoSet<T>[]) new ArenaStopArrivalParetoSet[nStops];
+    this.touchedStops = new BitSet(nStops);
+    this.debugHandlerFactory = debugHandlerFactory;
+
+    glueTogetherEgressStopWithDestinationArrivals(egressPaths, paths);
+  }
+
+  @Override
+  public boolean reached(int stopIndex) {
+    return arrivals[stopIndex] != null && !arrivals[stopIndex].isEmpty();
+  }
+
+  @Override
+  public int bestArrivalTime(int stopIndex) {
+    return min(stopIndex, i -> true, arena::arrivalTime);
+  }
+
+  @Override
+  public boolean reachedByTransit(int stopIndex) {
+    var set = arrivals[stopIndex];
+    if (set != null) {
+      for (int i = 0; i < set.size(); ++i) {
+        if (arena.arrivedByTransit(set.get(i))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int bestTransitArrivalTime(int stopIndex) {
+    return min(stopIndex, arena::arrivedByTransit, arena::arrivalTime);
+  }
+
+  @Override
+  public int smallestNumberOfTransfers(int stopIndex) {
+    return min(stopIndex, arena::arrivedByTransit, i -> arena.round(i) - 1);
+  }
+
+  boolean updateExist() {
+    return !touchedStops.isEmpty();
+  }
+
+  IntIterator stopsTouchedIterator() {
+    return new BitSetIterator(touchedStops);
+  }
+
+  void addStopArrival(int arrival) {
+    int stop = arena.stop(arrival);
+    boolean added = findOrCreateSet(stop).add(arrival);
+    if (added) {
+      touchedStops.set(stop);
+    }
+  }
+
+  /**
+   * The arrivals at the given stop added after the marker, iterate from {@link
+   * ArenaStopArrivalParetoSet#marker()} to {@link ArenaStopArrivalParetoSet#size()}. Return
+   * {@code null} if the stop is not reached.
+   */
+  ArenaStopArrivalParetoSet<T> arrivalsAt(int stop) {
+    return arrivals[stop];
+  }
+
+  void clearTouchedStopsAndSetStopMarkers() {
+    IntIterator it = stopsTouchedIterator();
+    while (it.hasNext()) {
+      arrivals[it.next()].markAtEndOfSet();
+    }
+    touchedStops.clear();
+  }
+
+  /* private methods */
+
+  private int min(int stopIndex, IntPredicate filter, IntUnaryOperator value) {
+    var set = arrivals[stopIndex];
+    int min = Integer.MAX_VALUE;
+    boolean found = false;
+    for (int i = 0; set != null && i < set.size(); ++i) {
+      int arrival = set.get(i);
+      if (filter.test(arrival)) {
+        min = Math.min(min, value.applyAsInt(arrival));
+        found = true;
+      }
+    }
+    if (!found) {
+      throw new IllegalStateException("No arrival at stop: " + stopIndex);
+    }
+    return min;
+  }
+
+  private ArenaStopArrivalParetoSet<T> findOrCreateSet(final int stop) {
+    if (arrivals[stop] == null) {
+      arrivals[stop] =
+        new ArenaStopArrivalParetoSet<>(
+          arena,
+          debugHandlerFactory.paretoSetStopArrivalListener(stop)
+        );
+    }
+    return arrivals[stop];
+  }
+
+  /**
+   * Create the pareto set for each egress stop with a listener adding the destination arrivals,
+   * like {@code StopArrivalParetoSet#createEgressStopArrivalSet}.
+   */
+  private void glueTogetherEgressStopWithDestinationArrivals(
+    EgressPaths egressPaths,
+    DestinationArrivalPaths<T> paths
+  ) {
+    egressPaths
+      .byStop()
+      .forEachEntry((stop, list) -> {
+        ParetoSetEventListener<ArrivalView<T>> listener = new CalculateTransferToDestination<>(
+          list,
+          paths
+        );
+        var debugListener = debugHandlerFactory.paretoSetStopArrivalListener(stop);
+
+        if (debugListener != null) {
+          listener = new ParetoSetEventListenerComposite<>(debugListener, listener);
+        }
+        this.arrivals[stop] = new ArenaStopArrivalParetoSet<>(arena, listener);
+        return true;
+      });
+  }
+}
@@ -0,0 +1,139 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import java.util.function.IntConsumer;
+import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleBoardOrAlightEvent;
+import org.opentripplanner.transit.raptor.api.transit.TransitArrival;
+import org.opentripplanner.transit.raptor.rangeraptor.debug.DebugHandlerFactory;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.RoutingStrategy;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.SlackProvider;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
+
+/**
+ * The multi-criteria routing strategy for the {@link ArenaMcRangeRaptorWorkerState}. This does
+ * the same as the {@code MultiCriteriaRoutingStrategy} with the previous arrival kept as an arena
+ * index.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class ArenaMultiCriteriaRoutingStrategy<T extends RaptorTripSchedule>
+  implements RoutingStrategy<T> {
+
+  private final ArenaMcRangeRaptorWorkerState<T> state;
+  private final StopArrivalArena<T> arena;
+  private final CostCalculator<T> costCalculator;
+  private final SlackProvider slackProvider;
+  private final ParetoSet<ArenaPatternRide<T>> patternRides;
+
+  private int prevArrival;
+
+  public ArenaMultiCriteriaRoutingStrategy(
+    ArenaMcRangeRaptorWorkerState<T> state,
+    SlackProvider slackProvider,
+    CostCalculator<T> costCalculator,
+    DebugHandlerFactory<T> debugHandlerFactory
+  ) {
+    this.state = state;
+    this.arena = state.arena();
+    this.slackProvider = slackProvider;
+    this.costCalculator = costCalculator;
+    this.patternRides =
+      new ParetoSet<>(
+        ArenaPatternRide.paretoComparatorRelativeCost(),
+        debugHandlerFactory.paretoSetPatternRideListener()
+      );
+  }
+
+  @Override
+  public void setAccessToStop(
+    RaptorTransfer accessPath,
+    int iterationDepartureTime,
+    int timeDependentDepartureTime
+  ) {
+    state.setAccessToStop(accessPath, timeDependentDepartureTime);
+  }
+
+  @Override
+  public void prepareForTransitWith() {
+    this.patternRides.clear();
+  }
+
+  @Override
+  public void alight(final int stopIndex, final int stopPos, int alightSlack) {
+    for (ArenaPatternRide<T> ride : patternRides) {
+      state.transitToStop(ride, stopIndex, ride.trip().arrival(stopPos), alightSlack);
+    }
+  }
+
+  @Override
+  public void forEachBoarding(int stopIndex, IntConsumer prevStopArrivalTimeConsumer) {
+    var arrivals = state.stopArrivalsPreviousRound(stopIndex);
+    if (arrivals == null) {
+      return;
+    }
+    for (int i = arrivals.marker(); i < arrivals.size(); ++i) {
+      this.prevArrival = arrivals.get(i);
+      prevStopArrivalTimeConsumer.accept(arena.arrivalTime(prevArrival));
+    }
+  }
+
+  @Override
+  public TransitArrival<T> previousTransit(int boardStopIndex) {
+    int transit = arena.mostRecentTransitArrival(prevArrival);
+    return transit == StopArrivalArena.NO_ARRIVAL ? null : new ArenaArrivalView<>(arena, transit);
+  }
+
+  @Override
+  public void board(
+    final int stopIndex,
+    final int earliestBoardTime,
+    final RaptorTripScheduleBoardOrAlightEvent<T> boarding
+  ) {
+    final T trip = boarding.getTrip();
+    final int boardTime = boarding.getTime();
+
+    if (arena.arrivedByAccess(prevArrival)) {
+      int latestArrivalTime = boardTime - slackProvider.boardSlack(trip.pattern().slackIndex());
+      prevArrival = arena.timeShiftAccess(prevArrival, latestArrivalTime);
+    }
+
+    final int boardCost = calculateCostAtBoardTime(boarding);
+
+    final int relativeBoardCost =
+      boardCost + costCalculator.onTripRelativeRidingCost(boardTime, trip);
+
+    patternRides.add(
+      new ArenaPatternRide<>(
+        arena,
+        prevArrival,
+        stopIndex,
+        boarding.getStopPositionInPattern(),
+        boardTime,
+        boardCost,
+        relativeBoardCost,
+        trip.tripSortIndex(),
+        trip
+      )
+    );
+  }
+
+  /**
+   * Calculate the cost from the beginning of the journey until the trip is boarded, see
+   * {@code MultiCriteriaRoutingStrategy#calculateCostAtBoardTime}.
+   */
+  private int calculateCostAtBoardTime(final RaptorTripScheduleBoardOrAlightEvent<T> boardEvent) {
+    return (
+      arena.cost(prevArrival) +
+      costCalculator.boardingCost(
+        arena.round(prevArrival) == 0,
+        arena.arrivalTime(prevArrival),
+        boardEvent.getBoardStopIndex(),
+        boardEvent.getTime(),
+        boardEvent.getTrip(),
+        boardEvent.getTransferConstraint()
+      )
+    );
+  }
+}
@@ -0,0 +1,52 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+import org.opentripplanner.transit.raptor.api.view.PatternRideView;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.util.lang.ToStringBuilder;
+
+/**
+ * The {@link StopArrivalArena} version of the {@code PatternRide}, the previous arrival is an
+ * index in the arena. See {@code PatternRide} for the pareto criteria.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+record ArenaPatternRide<T extends RaptorTripSchedule>(
+  StopArrivalArena<T> arena,
+  int prevArrivalIndex,
+  int boardStopIndex,
+  int boardPos,
+  int boardTime,
+  int boardCost,
+  int relativeCost,
+  int tripSortIndex,
+  T trip
+)
+  implements PatternRideView<T> {
+  static <
+    T extends RaptorTripSchedule
+  > ParetoComparator<ArenaPatternRide<T>> paretoComparatorRelativeCost() {
+    return (l, r) -> l.tripSortIndex != r.tripSortIndex || l.relativeCost < r.relativeCost;
+  }
+
+  @Override
+  public ArrivalView<T> prevArrival() {
+    return arena.view(prevArrivalIndex);
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(ArenaPatternRide.class)
+      .addNum("prevArrival", arena.stop(prevArrivalIndex))
+      .addNum("boardStop", boardStopIndex)
+      .addNum("boardPos", boardPos)
+      .addServiceTime("boardTime", boardTime)
+      .addNum("boardCost", boardCost)
+      .addNum("relativeCost", relativeCost)
+      .addNum("tripSortIndex", tripSortIndex)
+      .addObj("trip", trip)
+      .toString();
+  }
+}
@@ -0,0 +1,173 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import java.util.Arrays;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSetEventListener;
+
+/**
+ * A pareto optimal set of the stop arrivals at a stop, holding the arrival indexes in a {@link
+ * StopArrivalArena}. This is the same algorithm as the {@link
+ * org.opentripplanner.transit.raptor.util.paretoset.ParetoSetWithMarker} used by the
+ * {@code StopArrivalParetoSet}, with the arrival time, round and cost compared in the arena
+ * arrays.
+ * <p>
+ * The listener is notified with arrival views, which are only created if a listener exist.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class ArenaStopArrivalParetoSet<T extends RaptorTripSchedule> {
+
+  private static final int NONE = StopArrivalArena.NO_ARRIVAL;
+
+  private final StopArrivalArena<T> arena;
+  private final ParetoSetEventListener<ArrivalView<T>> listener;
+
+  private int[] elements = new int[8];
+  private int size = 0;
+  private int marker = 0;
+  private int goodElement = NONE;
+
+  ArenaStopArrivalParetoSet(
+    StopArrivalArena<T> arena,
+    ParetoSetEventListener<ArrivalView<T>> listener
+  ) {
+    this.arena = arena;
+    this.listener = listener;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int get(int i) {
+    return elements[i];
+  }
+
+  int internalArrayLength() {
+    return elements.length;
+  }
+
+  /** The position in the set of the first element added after the marker. */
+  int marker() {
+    return marker;
+  }
+
+  /** Move the marker after the last element in the set. */
+  void markAtEndOfSet() {
+    marker = size;
+  }
+
+  boolean add(int newValue) {
+    if (size == 0) {
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // Quick shortcut, one element probably dominate most of the new elements
+    if (goodElement != NONE && leftVectorDominatesRightVector(goodElement, newValue)) {
+      notifyElementRejected(newValue, goodElement);
+      return false;
+    }
+
+    boolean mutualDominanceExist = false;
+    boolean equivalentVectorExist = false;
+
+    for (int i = 0; i < size; ++i) {
+      int it = elements[i];
+
+      boolean leftDominance = arena.leftDominanceExist(newValue, it);
+      boolean rightDominance = arena.leftDominanceExist(it, newValue);
+
+      if (leftDominance && rightDominance) {
+        mutualDominanceExist = true;
+      } else if (leftDominance) {
+        removeDominatedElementsFromRestOfSetAndAddNewElement(newValue, i);
+        return true;
+      } else if (rightDominance) {
+        goodElement = it;
+        notifyElementRejected(newValue, it);
+        return false;
+      } else {
+        equivalentVectorExist = true;
+      }
+    }
+
+    if (mutualDominanceExist && !equivalentVectorExist) {
+      if (size == elements.length) {
+        elements = Arrays.copyOf(elements, elements.length * 2);
+      }
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // No dominance found, newValue is equivalent with all values in the set
+    notifyElementRejected(newValue, elements[0]);
+    return false;
+  }
+
+  /* private methods */
+
+  /**
+   * Remove all elements dominated by the {@code newValue} starting from {@code index + 1}. The
+   * element at {@code index} is dropped.
+   */
+  private void removeDominatedElementsFromRestOfSetAndAddNewElement(int newValue, int index) {
+    int i = index;
+    int j = index + 1;
+
+    notifyElementDropped(elements[i], newValue);
+
+    while (j < size) {
+      elementMoved(j, i);
+      if (!leftVectorDominatesRightVector(newValue, elements[j])) {
+        elements[i] = elements[j];
+        ++i;
+      } else {
+        notifyElementDropped(elements[j], newValue);
+      }
+      ++j;
+    }
+    elementMoved(j, i);
+    notifyElementAccepted(newValue);
+    elements[i] = newValue;
+    size = i + 1;
+  }
+
+  private boolean leftVectorDominatesRightVector(int left, int right) {
+    return arena.leftDominanceExist(left, right) && !arena.leftDominanceExist(right, left);
+  }
+
+  private void acceptAndAppendValue(int newValue) {
+    notifyElementAccepted(newValue);
+    elements[size++] = newValue;
+  }
+
+  private void elementMoved(int fromIndex, int toIndex) {
+    if (fromIndex == marker) {
+      marker = toIndex;
+    }
+  }
+
+  private void notifyElementAccepted(int newElement) {
+    if (listener != null) {
+      listener.notifyElementAccepted(arena.view(newElement));
+    }
+  }
+
+  private void notifyElementDropped(int element, int droppedByElement) {
+    if (listener != null) {
+      listener.notifyElementDropped(arena.view(element), arena.view(droppedByElement));
+    }
+  }
+
+  private void notifyElementRejected(int element, int rejectByElement) {
+    if (listener != null) {
+      listener.notifyElementRejected(arena.view(element), arena.view(rejectByElement));
+    }
+  }
+}
@@ -0,0 +1,267 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import java.util.Arrays;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+
+/**
+ * The stop arrivals of a multi-criteria search stored as a struct of arrays. Each arrival is an
+ * index into the arrays, and the previous arrival is referenced by its index. This replaces the
+ * {@link org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.AbstractStopArrival}
+ * objects, which are created by the million for wide search windows.
+ * <p>
+ * Arrivals are never removed during a search, an arrival dropped from a pareto set may still be
+ * the previous arrival of another. Each search has its own arena, which is cleared when the search
+ * starts, see {@link #clear()}. The arrays of the last arena used in a thread are reused by the
+ * next search in the same thread, so the stop arrivals of a search are valid until the next search
+ * starts in the same thread. The paths are mapped when the destination is reached, so the result
+ * paths do not depend on the arena. The trips and transfers of the arrivals are released when the
+ * search is complete, see {@link #releasePayload()}, only the times, rounds and costs used by the
+ * stop arrivals are kept.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class StopArrivalArena<T extends RaptorTripSchedule> {
+
+  static final byte ACCESS = 0;
+  static final byte TRANSIT = 1;
+  static final byte TRANSFER = 2;
+
+  static final int NO_ARRIVAL = -1;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * Arrays larger than this are not reused by the next search, so the memory of an unusually large
+   * search is released when the search is done. 1M arrivals use about 32 MB.
+   */
+  private static final int MAX_REUSED_CAPACITY = 1 << 20;
+
+  /** The last arena used in each thread, the next search in the thread reuses its arrays. */
+  private static final ThreadLocal<StopArrivalArena<?>> LAST_USED = new ThreadLocal<>();
+
+  private byte[] type = new byte[INITIAL_CAPACITY];
+  private int[] stop = new int[INITIAL_CAPACITY];
+  /**
+   * The round is incremented for both transits and transfers, so that transits dominate
+   * transfers, see {@link
+   * org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.AbstractStopArrival}.
+   */
+  private int[] paretoRound = new int[INITIAL_CAPACITY];
+  private int[] arrivalTime = new int[INITIAL_CAPACITY];
+  private int[] travelDuration = new int[INITIAL_CAPACITY];
+  private int[] cost = new int[INITIAL_CAPACITY];
+  private int[] previous = new int[INITIAL_CAPACITY];
+  /** The access or transfer path, or the trip of a transit arrival. */
+  private Object[] payload = new Object[INITIAL_CAPACITY];
+
+  private int size = 0;
+
+  public StopArrivalArena() {}
+
+  /**
+   * Remove all arrivals, call this in the thread running the search when the search starts. The
+   * arrays of the last arena used in the same thread are taken over if they are larger, and this
+   * arena is the one the next search in the thread reuses.
+   */
+  public void clear() {
+    // Release the trips and transfers for the garbage collector
+    Arrays.fill(payload, 0, size, null);
+    size = 0;
+
+    StopArrivalArena<?> last = LAST_USED.get();
+    if (last != null && last != this && last.capacity() > capacity()) {
+      takeArraysOf(last);
+    }
+    LAST_USED.set(this);
+  }
+
+  /**
+   * Release the trips and transfers of the arrivals, call this when the search is complete. The
+   * arrays reused by the next search in the thread then only hold primitive values, and do not
+   * keep the transit data of a finished request reachable.
+   */
+  public void releasePayload() {
+    Arrays.fill(payload, 0, size, null);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** The capacity of the arrays, for logging. */
+  public int capacity() {
+    return stop.length;
+  }
+
+  int addAccess(int departureTime, RaptorTransfer access) {
+    int i = next();
+    type[i] = ACCESS;
+    stop[i] = access.stop();
+    paretoRound[i] = access.numberOfRides();
+    arrivalTime[i] = departureTime + access.durationInSeconds();
+    travelDuration[i] = access.durationInSeconds();
+    cost[i] = access.generalizedCost();
+    previous[i] = NO_ARRIVAL;
+    payload[i] = access;
+    return i;
+  }
+
+  int addTransit(int prev, int alightStop, int arrivalTime, int totalCost, T trip) {
+    int i = add(prev, type[prev] == TRANSIT ? 2 : 1, alightStop, arrivalTime, totalCost);
+    type[i] = TRANSIT;
+    payload[i] = trip;
+    return i;
+  }
+
+  int addTransfer(int prev, RaptorTransfer transfer, int arrivalTime) {
+    int i = add(prev, 1, transfer.stop(), arrivalTime, cost[prev] + transfer.generalizedCost());
+    type[i] = TRANSFER;
+    payload[i] = transfer;
+    return i;
+  }
+
+  /**
+   * Time-shift an access arrival to arrive as late as possible, and not later than the given time.
+   * Return the same arrival if it can not be shifted, see
+   * {@link org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.AccessStopArrival#timeShiftNewArrivalTime(int)}.
+   */
+  int timeShiftAccess(int index, int newRequestedArrivalTime) {
+    RaptorTransfer access = accessPath(index);
+    int newArrivalTime = access.latestArrivalTime(newRequestedArrivalTime);
+
+    if (newArrivalTime == -1 || newArrivalTime == arrivalTime[index]) {
+      return index;
+    }
+    return addAccess(newArrivalTime - access.durationInSeconds(), access);
+  }
+
+  /** Create a view of the arrival, used for path mapping and debugging. */
+  ArrivalView<T> view(int index) {
+    return new ArenaArrivalView<>(this, index);
+  }
+
+  byte type(int index) {
+    return type[index];
+  }
+
+  int stop(int index) {
+    return stop[index];
+  }
+
+  int paretoRound(int index) {
+    return paretoRound[index];
+  }
+
+  int round(int index) {
+    return (paretoRound[index] + 1) / 2;
+  }
+
+  int arrivalTime(int index) {
+    return arrivalTime[index];
+  }
+
+  int travelDuration(int index) {
+    return travelDuration[index];
+  }
+
+  int cost(int index) {
+    return cost[index];
+  }
+
+  int previous(int index) {
+    return previous[index];
+  }
+
+  boolean arrivedByAccess(int index) {
+    return type[index] == ACCESS;
+  }
+
+  boolean arrivedByTransit(int index) {
+    return type[index] == TRANSIT;
+  }
+
+  boolean arrivedByTransfer(int index) {
+    return type[index] == TRANSFER;
+  }
+
+  @SuppressWarnings("unchecked")
+  T trip(int index) {
+    return (T) payload[index];
+  }
+
+  RaptorTransfer accessPath(int index) {
+    return (RaptorTransfer) payload[index];
+  }
+
+  RaptorTransfer transferPath(int index) {
+    return (RaptorTransfer) payload[index];
+  }
+
+  /**
+   * The most recent transit arrival of the path ending in the given arrival, or
+   * {@link #NO_ARRIVAL} if the path has no transit.
+   */
+  int mostRecentTransitArrival(int index) {
+    while (index != NO_ARRIVAL && type[index] != TRANSIT) {
+      index = type[index] == TRANSFER ? previous[index] : NO_ARRIVAL;
+    }
+    return index;
+  }
+
+  /**
+   * Compare the arrival time, round and cost like
+   * {@link org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals.AbstractStopArrival#arrivalTimeRoundAndCostCriteria()}.
+   */
+  boolean leftDominanceExist(int l, int r) {
+    return (
+      arrivalTime[l] < arrivalTime[r] || paretoRound[l] < paretoRound[r] || cost[l] < cost[r]
+    );
+  }
+
+  /* private methods */
+
+  private int add(int prev, int paretoRoundIncrement, int stop, int arrivalTime, int cost) {
+    int i = next();
+    this.stop[i] = stop;
+    this.paretoRound[i] = paretoRound[prev] + paretoRoundIncrement;
+    this.arrivalTime[i] = arrivalTime;
+    this.travelDuration[i] = travelDuration[prev] + (arrivalTime - this.arrivalTime[prev]);
+    this.cost[i] = cost;
+    this.previous[i] = prev;
+    return i;
+  }
+
+  private void takeArraysOf(StopArrivalArena<?> other) {
+    Arrays.fill(other.payload, 0, other.size, null);
+    type = other.type;
+    stop = other.stop;
+    paretoRound = other.paretoRound;
+    arrivalTime = other.arrivalTime;
+    travelDuration = other.travelDuration;
+    cost = other.cost;
+    previous = other.previous;
+    payload = other.payload;
+  }
+
+  private int next() {
+    if (size == stop.length) {
+      int capacity = 2 * size;
+      if (capacity > MAX_REUSED_CAPACITY && LAST_USED.get() == this) {
+        LAST_USED.remove();
+      }
+      type = Arrays.copyOf(type, capacity);
+      stop = Arrays.copyOf(stop, capacity);
+      paretoRound = Arrays.copyOf(paretoRound, capacity);
+      arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+      travelDuration = Arrays.copyOf(travelDuration, capacity);
+      cost = Arrays.copyOf(cost, capacity);
+      previous = Arrays.copyOf(previous, capacity);
+      payload = Arrays.copyOf(payload, capacity);
+    }
+    return size++;
+  }
+}
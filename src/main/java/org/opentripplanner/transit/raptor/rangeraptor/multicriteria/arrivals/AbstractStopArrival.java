@@ -3,6 +3,7 @@ package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arrivals;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.view.ArrivalView;
 import org.opentripplanner.transit.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria;
 
 /**
  * Abstract super class for multi-criteria stop arrival.
@@ -71,13 +72,21 @@ public abstract class AbstractStopArrival<T extends RaptorTripSchedule> implemen
     this.cost = initialCost;
   }
 
+  /**
+   * The arrival time, pareto round and cost criteria. The values are stored packed in the pareto
+   * set, this is faster than comparing the arrivals with a {@link ParetoComparator}.
+   */
   public static <
     T extends RaptorTripSchedule
-  > ParetoComparator<AbstractStopArrival<T>> compareArrivalTimeRoundAndCost() {
-    // This is important with respect to performance. Using the short-circuit logical OR(||) is
-    // faster than bitwise inclusive OR(|) (even between boolean expressions)
-    return (l, r) ->
-      l.arrivalTime < r.arrivalTime || l.paretoRound < r.paretoRound || l.cost < r.cost;
+  > ParetoCriteria<AbstractStopArrival<T>> arrivalTimeRoundAndCostCriteria() {
+    return ParetoCriteria.of(
+      3,
+      (arrival, values) -> {
+        values[0] = arrival.arrivalTime;
+        values[1] = arrival.paretoRound;
+        values[2] = arrival.cost;
+      }
+    );
   }
 
   public static <
@@ -1,6 +1,7 @@
 package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.configure;
 
 import java.util.function.BiFunction;
+import org.opentripplanner.transit.raptor.api.path.Path;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Heuristics;
@@ -10,9 +11,14 @@ import org.opentripplanner.transit.raptor.rangeraptor.internalapi.WorkerState;
 import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.McRangeRaptorWorkerState;
 import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.MultiCriteriaRoutingStrategy;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena.ArenaMcRangeRaptorWorkerState;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena.ArenaMcStopArrivals;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena.ArenaMultiCriteriaRoutingStrategy;
+import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena.StopArrivalArena;
 import org.opentripplanner.transit.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
 import org.opentripplanner.transit.raptor.rangeraptor.path.DestinationArrivalPaths;
 import org.opentripplanner.transit.raptor.rangeraptor.path.configure.PathConfig;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
 
 /**
  * Configure and create multicriteria worker, state and child classes.
@@ -38,10 +44,22 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     Heuristics heuristics,
     BiFunction<WorkerState<T>, RoutingStrategy<T>, Worker<T>> createWorker
   ) {
+    if (context.useStopArrivalArena()) {
+      ArenaMcRangeRaptorWorkerState<T> state = createArenaState(heuristics);
+      return createWorker.apply(state, createArenaTransitWorkerStrategy(state));
+    }
     McRangeRaptorWorkerState<T> state = createState(heuristics);
     return createWorker.apply(state, createTransitWorkerStrategy(state));
   }
 
+  /**
+   * Create an empty set to merge the paths of several searches into, see
+   * {@link PathConfig#createPathParetoSet(boolean)}.
+   */
+  public ParetoSet<Path<T>> createPathParetoSet() {
+    return pathConfig.createPathParetoSet(true);
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createTransitWorkerStrategy(McRangeRaptorWorkerState<T> state) {
@@ -64,6 +82,37 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     );
   }
 
+  private RoutingStrategy<T> createArenaTransitWorkerStrategy(
+    ArenaMcRangeRaptorWorkerState<T> state
+  ) {
+    return new ArenaMultiCriteriaRoutingStrategy<>(
+      state,
+      context.slackProvider(),
+      context.costCalculator(),
+      context.debugFactory()
+    );
+  }
+
+  private ArenaMcRangeRaptorWorkerState<T> createArenaState(Heuristics heuristics) {
+    // The arena takes over the arrays of the thread running the search when the search starts
+    StopArrivalArena<T> arena = new StopArrivalArena<>();
+    return new ArenaMcRangeRaptorWorkerState<>(
+      arena,
+      new ArenaMcStopArrivals<>(
+        context.nStops(),
+        arena,
+        context.egressPaths(),
+        createDestinationArrivalPaths(),
+        context.debugFactory()
+      ),
+      createDestinationArrivalPaths(),
+      createHeuristicsProvider(heuristics),
+      context.costCalculator(),
+      context.calculator(),
+      context.lifeCycle()
+    );
+  }
+
   private McStopArrivals<T> createStopArrivals() {
     return new McStopArrivals<>(
       context.nStops(),
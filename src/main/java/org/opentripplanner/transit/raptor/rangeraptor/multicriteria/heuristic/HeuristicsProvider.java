@@ -1,7 +1,9 @@
 package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.heuristic;
 
+import java.util.function.IntFunction;
 import org.opentripplanner.transit.raptor.api.transit.CostCalculator;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
 import org.opentripplanner.transit.raptor.rangeraptor.debug.DebugHandlerFactory;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.RoundProvider;
@@ -62,9 +64,32 @@ public final class HeuristicsProvider<T extends RaptorTripSchedule> {
     return rejected;
   }
 
+  /**
+   * Same as {@link #rejectDestinationArrivalBasedOnHeuristic(AbstractStopArrival)}, for an
+   * arrival stored as primitives. The arrival view is only used for debugging.
+   */
+  public boolean rejectDestinationArrivalBasedOnHeuristic(
+    int stop,
+    int arrivalTime,
+    int travelDuration,
+    int cost,
+    IntFunction<ArrivalView<T>> arrivalView,
+    int arrival
+  ) {
+    if (heuristics == null || paths.isEmpty()) {
+      return false;
+    }
+    boolean rejected = !qualify(stop, arrivalTime, travelDuration, cost);
+
+    if (rejected && debugHandlerFactory.isDebugStopArrival(stop)) {
+      debugRejectByOptimization(arrivalView.apply(arrival));
+    }
+    return rejected;
+  }
+
   /* private methods */
 
-  private void debugRejectByOptimization(AbstractStopArrival<T> arrival) {
+  private void debugRejectByOptimization(ArrivalView<T> arrival) {
     if (debugHandlerFactory.isDebugStopArrival(arrival.stop())) {
       String details = rejectErrorMessage(arrival.stop()) + ", Existing paths: " + paths;
 
@@ -15,7 +15,7 @@ import org.opentripplanner.transit.raptor.rangeraptor.internalapi.SlackProvider;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.transit.raptor.rangeraptor.transit.AccessEgressFunctions;
 import org.opentripplanner.transit.raptor.rangeraptor.transit.TransitCalculator;
-import org.opentripplanner.transit.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria;
 import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
 import org.opentripplanner.util.lang.OtpNumberFormat;
 import org.opentripplanner.util.logging.ThrottleLogger;
@@ -24,10 +24,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The responsibility of this class is to collect result paths for destination arrivals. It does so
- * using a pareto set. The comparator is passed in as an argument to the constructor. This make is
+ * using a pareto set. The criteria are passed in as an argument to the constructor. This make is
  * possible to collect different sets in different scenarios.
  * <p/>
- * Depending on the pareto comparator passed into the constructor this class grantee that the best
+ * Depending on the pareto criteria passed into the constructor this class grantee that the best
  * paths with respect to <em>arrival time</em>, <em>rounds</em> and <em>travel duration</em> are
  * found. You may also add <em>cost</em> as a criteria (multi-criteria search).
  * <p/>
@@ -55,7 +55,7 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
   private int iterationDepartureTime = -1;
 
   public DestinationArrivalPaths(
-    ParetoComparator<Path<T>> paretoComparator,
+    ParetoCriteria<Path<T>> paretoCriteria,
     TransitCalculator<T> transitCalculator,
     @Nullable CostCalculator<T> costCalculator,
     SlackProvider slackProvider,
@@ -65,7 +65,7 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     WorkerLifeCycle lifeCycle
   ) {
     this.paths =
-      new ParetoSet<>(paretoComparator, debugHandlerFactory.paretoSetDebugPathListener());
+      new ParetoSet<>(paretoCriteria, debugHandlerFactory.paretoSetDebugPathListener());
     this.transitCalculator = transitCalculator;
     this.costCalculator = costCalculator;
     this.slackProvider = slackProvider;
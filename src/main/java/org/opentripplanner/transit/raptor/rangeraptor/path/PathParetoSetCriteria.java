@@ -0,0 +1,159 @@
+package org.opentripplanner.transit.raptor.rangeraptor.path;
+
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria;
+
+/**
+ * List of different pareto set criteria. Earlier we created these dynamically, but that affect
+ * the performance, so it is better to have one function for each use case.
+ * <p/>
+ * All criteria include the "standard" set of criteria:
+ * <ul>
+ *     <li>Arrival Time</li>
+ *     <li>Number of transfers</li>
+ *     <li>Total travel duration time</li>
+ * </ul>
+ * The {@code travelDuration} is added as a criteria to the pareto set in addition to the
+ * parameters used for each stop arrivals. The {@code travelDuration} is only needed at the
+ * destination, because Range Raptor works in iterations backwards in time.
+ * <p/>
+ * A lower value is better for all {@link ParetoCriteria}, so the departure times, where later is
+ * better, are negated.
+ */
+public class PathParetoSetCriteria {
+
+  /** Prevent this utility class from instantiation. */
+  private PathParetoSetCriteria() {}
+
+  public static <T extends RaptorTripSchedule> ParetoCriteria<Path<T>> criteriaStandard() {
+    return ParetoCriteria.of(
+      3,
+      (p, v) -> {
+        v[0] = p.endTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+      }
+    );
+  }
+
+  public static <
+    T extends RaptorTripSchedule
+  > ParetoCriteria<Path<T>> criteriaStandardAndLatestDeparture() {
+    return ParetoCriteria.of(
+      3,
+      (p, v) -> {
+        v[0] = -p.startTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+      }
+    );
+  }
+
+  public static <T extends RaptorTripSchedule> ParetoCriteria<Path<T>> criteriaWithTimetable() {
+    return ParetoCriteria.of(
+      4,
+      (p, v) -> {
+        v[0] = -p.rangeRaptorIterationDepartureTime();
+        v[1] = p.endTime();
+        v[2] = p.numberOfTransfers();
+        v[3] = p.durationInSeconds();
+      }
+    );
+  }
+
+  public static <
+    T extends RaptorTripSchedule
+  > ParetoCriteria<Path<T>> criteriaWithTimetableAndCost() {
+    return ParetoCriteria.of(
+      5,
+      (p, v) -> {
+        v[0] = -p.rangeRaptorIterationDepartureTime();
+        v[1] = p.endTime();
+        v[2] = p.numberOfTransfers();
+        v[3] = p.durationInSeconds();
+        v[4] = p.generalizedCost();
+      }
+    );
+  }
+
+  public static <
+    T extends RaptorTripSchedule
+  > ParetoCriteria<Path<T>> criteriaWithTimetableAndRelaxedCost(
+    double relaxCostAtDestinationArrival
+  ) {
+    return ParetoCriteria.ofRelaxedLastCriteria(
+      5,
+      (p, v) -> {
+        v[0] = -p.rangeRaptorIterationDepartureTime();
+        v[1] = p.endTime();
+        v[2] = p.numberOfTransfers();
+        v[3] = p.durationInSeconds();
+        v[4] = p.generalizedCost();
+        v[5] = relaxedCost(p, relaxCostAtDestinationArrival);
+      }
+    );
+  }
+
+  public static <T extends RaptorTripSchedule> ParetoCriteria<Path<T>> criteriaWithCost() {
+    return ParetoCriteria.of(
+      4,
+      (p, v) -> {
+        v[0] = p.endTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+        v[3] = p.generalizedCost();
+      }
+    );
+  }
+
+  public static <
+    T extends RaptorTripSchedule
+  > ParetoCriteria<Path<T>> criteriaWithCostAndLatestDeparture() {
+    return ParetoCriteria.of(
+      4,
+      (p, v) -> {
+        v[0] = -p.startTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+        v[3] = p.generalizedCost();
+      }
+    );
+  }
+
+  public static <T extends RaptorTripSchedule> ParetoCriteria<Path<T>> criteriaWithRelaxedCost(
+    double relaxCostAtDestinationArrival
+  ) {
+    return ParetoCriteria.ofRelaxedLastCriteria(
+      4,
+      (p, v) -> {
+        v[0] = p.endTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+        v[3] = p.generalizedCost();
+        v[4] = relaxedCost(p, relaxCostAtDestinationArrival);
+      }
+    );
+  }
+
+  public static <
+    T extends RaptorTripSchedule
+  > ParetoCriteria<Path<T>> criteriaWithRelaxedCostAndLatestDeparture(
+    double relaxCostAtDestinationArrival
+  ) {
+    return ParetoCriteria.ofRelaxedLastCriteria(
+      4,
+      (p, v) -> {
+        v[0] = -p.startTime();
+        v[1] = p.numberOfTransfers();
+        v[2] = p.durationInSeconds();
+        v[3] = p.generalizedCost();
+        v[4] = relaxedCost(p, relaxCostAtDestinationArrival);
+      }
+    );
+  }
+
+  private static int relaxedCost(Path<?> path, double relaxCostAtDestinationArrival) {
+    return (int) Math.round(path.generalizedCost() * relaxCostAtDestinationArrival);
+  }
+}
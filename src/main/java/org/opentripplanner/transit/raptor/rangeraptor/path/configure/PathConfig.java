@@ -1,14 +1,14 @@
 package org.opentripplanner.transit.raptor.rangeraptor.path.configure;
 
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorStandard;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorStandardAndLatestDepature;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithCost;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithCostAndLatestDeparture;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithRelaxedCost;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithRelaxedCostAndLatestDeparture;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithTimetable;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithTimetableAndCost;
-import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetComparators.comparatorWithTimetableAndRelaxedCost;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaStandard;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaStandardAndLatestDeparture;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithCost;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithCostAndLatestDeparture;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithRelaxedCost;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithRelaxedCostAndLatestDeparture;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithTimetable;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithTimetableAndCost;
+import static org.opentripplanner.transit.raptor.rangeraptor.path.PathParetoSetCriteria.criteriaWithTimetableAndRelaxedCost;
 
 import org.opentripplanner.transit.raptor.api.path.Path;
 import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
@@ -24,7 +24,8 @@ import org.opentripplanner.transit.raptor.rangeraptor.path.DestinationArrivalPat
 import org.opentripplanner.transit.raptor.rangeraptor.path.ForwardPathMapper;
 import org.opentripplanner.transit.raptor.rangeraptor.path.PathMapper;
 import org.opentripplanner.transit.raptor.rangeraptor.path.ReversePathMapper;
-import org.opentripplanner.transit.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
 
 /**
  * This class is responsible for creating a a result collector - the set of paths.
@@ -48,7 +49,7 @@ public class PathConfig<T extends RaptorTripSchedule> {
    */
   public DestinationArrivalPaths<T> createDestArrivalPaths(boolean includeCost) {
     return new DestinationArrivalPaths<>(
-      paretoComparator(includeCost),
+      paretoCriteria(includeCost),
       ctx.calculator(),
       ctx.costCalculator(),
       ctx.slackProvider(),
@@ -59,37 +60,45 @@ public class PathConfig<T extends RaptorTripSchedule> {
     );
   }
 
-  private ParetoComparator<Path<T>> paretoComparator(boolean includeCost) {
+  /**
+   * Create an empty pareto set using the same criteria as {@link #createDestArrivalPaths(boolean)}.
+   * This is used to merge the paths found by several searches.
+   */
+  public ParetoSet<Path<T>> createPathParetoSet(boolean includeCost) {
+    return new ParetoSet<>(paretoCriteria(includeCost));
+  }
+
+  private ParetoCriteria<Path<T>> paretoCriteria(boolean includeCost) {
     double relaxedCost = ctx.searchParams().relaxCostAtDestination();
     boolean includeRelaxedCost = includeCost && relaxedCost > 0.0;
     boolean includeTimetable = ctx.searchParams().timetableEnabled();
     boolean preferLateArrival = ctx.searchParams().preferLateArrival();
 
     if (includeTimetable && includeRelaxedCost) {
-      return comparatorWithTimetableAndRelaxedCost(relaxedCost);
+      return criteriaWithTimetableAndRelaxedCost(relaxedCost);
     }
     if (includeTimetable && includeCost) {
-      return comparatorWithTimetableAndCost();
+      return criteriaWithTimetableAndCost();
     }
     if (includeTimetable) {
-      return comparatorWithTimetable();
+      return criteriaWithTimetable();
     }
     if (includeRelaxedCost && preferLateArrival) {
-      return comparatorWithRelaxedCostAndLatestDeparture(relaxedCost);
+      return criteriaWithRelaxedCostAndLatestDeparture(relaxedCost);
     }
     if (includeRelaxedCost) {
-      return comparatorWithRelaxedCost(relaxedCost);
+      return criteriaWithRelaxedCost(relaxedCost);
     }
     if (includeCost && preferLateArrival) {
-      return comparatorWithCostAndLatestDeparture();
+      return criteriaWithCostAndLatestDeparture();
     }
     if (includeCost) {
-      return comparatorWithCost();
+      return criteriaWithCost();
     }
     if (preferLateArrival) {
-      return comparatorStandardAndLatestDepature();
+      return criteriaStandardAndLatestDeparture();
     }
-    return comparatorStandard();
+    return criteriaStandard();
   }
 
   private PathMapper<T> createPathMapper() {
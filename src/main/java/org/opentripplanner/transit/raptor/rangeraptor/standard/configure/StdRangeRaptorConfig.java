@@ -1,6 +1,7 @@
 package org.opentripplanner.transit.raptor.rangeraptor.standard.configure;
 
 import java.util.function.BiFunction;
+import org.opentripplanner.transit.raptor.api.path.Path;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.HeuristicSearch;
@@ -27,6 +28,7 @@ import org.opentripplanner.transit.raptor.rangeraptor.standard.stoparrivals.StdS
 import org.opentripplanner.transit.raptor.rangeraptor.standard.stoparrivals.StdStopArrivalsState;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.stoparrivals.path.EgressArrivalToPathAdapter;
 import org.opentripplanner.transit.raptor.rangeraptor.standard.stoparrivals.view.StopsCursor;
+import org.opentripplanner.transit.raptor.util.paretoset.ParetoSet;
 
 /**
  * The responsibility of this class is to wire different standard range raptor worker configurations
@@ -73,6 +75,14 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     return createWorker.apply(state, createWorkerStrategy(state));
   }
 
+  /**
+   * Create an empty set to merge the paths of several searches into, see
+   * {@link PathConfig#createPathParetoSet(boolean)}.
+   */
+  public ParetoSet<Path<T>> createPathParetoSet() {
+    return pathConfig.createPathParetoSet(false);
+  }
+
   /* private factory methods */
 
   private StdRangeRaptorWorkerState<T> createState() {
@@ -0,0 +1,116 @@
+package org.opentripplanner.transit.raptor.service;
+
+import java.util.Collection;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+import org.opentripplanner.transit.raptor.configure.HeuristicsCache;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.util.lang.ToStringBuilder;
+
+/**
+ * Heuristics from the {@link HeuristicsCache}, computed by another request with a different origin.
+ * The heuristics at each stop is shared, but the results at the destination of the heuristic
+ * search (the origin of the request) is calculated for the given destination paths.
+ */
+class CachedHeuristics implements Heuristics {
+
+  private static final int NOT_SET = Integer.MAX_VALUE;
+
+  private final Heuristics heuristics;
+  private final Collection<RaptorTransfer> destinationPaths;
+
+  private boolean aggregatedResultsCalculated = false;
+  private int minJourneyTravelDuration = NOT_SET;
+  private int minJourneyNumOfTransfers = NOT_SET;
+
+  CachedHeuristics(Heuristics heuristics, Collection<RaptorTransfer> destinationPaths) {
+    this.heuristics = heuristics;
+    this.destinationPaths = destinationPaths;
+  }
+
+  @Override
+  public boolean reached(int stop) {
+    return heuristics.reached(stop);
+  }
+
+  @Override
+  public int bestTravelDuration(int stop) {
+    return heuristics.bestTravelDuration(stop);
+  }
+
+  @Override
+  public int[] bestTravelDurationToIntArray(int unreached) {
+    return heuristics.bestTravelDurationToIntArray(unreached);
+  }
+
+  @Override
+  public int bestNumOfTransfers(int stop) {
+    return heuristics.bestNumOfTransfers(stop);
+  }
+
+  @Override
+  public int[] bestNumOfTransfersToIntArray(int unreached) {
+    return heuristics.bestNumOfTransfersToIntArray(unreached);
+  }
+
+  @Override
+  public int size() {
+    return heuristics.size();
+  }
+
+  @Override
+  public int bestOverallJourneyTravelDuration() {
+    calculateAggregatedResults();
+    return minJourneyTravelDuration;
+  }
+
+  @Override
+  public int bestOverallJourneyNumOfTransfers() {
+    calculateAggregatedResults();
+    return minJourneyNumOfTransfers;
+  }
+
+  /**
+   * The arrival times are not part of the cached heuristics, and the wait time depend on the time
+   * window of the request. Zero is returned, the cached heuristics are only used for destination
+   * pruning.
+   */
+  @Override
+  public int minWaitTimeForJourneysReachingDestination() {
+    return 0;
+  }
+
+  @Override
+  public boolean destinationReached() {
+    calculateAggregatedResults();
+    return minJourneyNumOfTransfers != NOT_SET;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CachedHeuristics.class)
+      .addDurationSec("minJourneyTravelDuration", minJourneyTravelDuration, NOT_SET)
+      .addNum("minJourneyNumOfTransfers", minJourneyNumOfTransfers, NOT_SET)
+      .addObj("heuristics", heuristics)
+      .toString();
+  }
+
+  /**
+   * Lazy calculate the results at the destination. The cached heuristics does not know if a stop
+   * is reached on-board, so all reached stops are used.
+   */
+  private void calculateAggregatedResults() {
+    if (aggregatedResultsCalculated) {
+      return;
+    }
+    for (RaptorTransfer it : destinationPaths) {
+      if (heuristics.reached(it.stop())) {
+        int t = heuristics.bestTravelDuration(it.stop()) + it.durationInSeconds();
+        minJourneyTravelDuration = Math.min(minJourneyTravelDuration, t);
+        int n = heuristics.bestNumOfTransfers(it.stop());
+        minJourneyNumOfTransfers = Math.min(minJourneyNumOfTransfers, n);
+      }
+    }
+    aggregatedResultsCalculated = true;
+  }
+}
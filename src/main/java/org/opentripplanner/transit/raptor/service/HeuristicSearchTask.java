@@ -8,6 +8,7 @@ import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
 import org.opentripplanner.transit.raptor.api.transit.SearchDirection;
+import org.opentripplanner.transit.raptor.configure.HeuristicsCache;
 import org.opentripplanner.transit.raptor.configure.RaptorConfig;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.HeuristicSearch;
 import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Heuristics;
@@ -34,6 +35,8 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
   private boolean run = false;
   private HeuristicSearch<T> search = null;
+  private HeuristicsCache cache = null;
+  private Heuristics cachedResult = null;
   private RaptorRequest<T> originalRequest;
   private RaptorRequest<T> heuristicReq;
 
@@ -76,6 +79,9 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
   @Nullable
   public Heuristics result() {
+    if (cachedResult != null) {
+      return cachedResult;
+    }
     return search == null ? null : search.heuristics();
   }
 
@@ -84,6 +90,15 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     return this;
   }
 
+  /**
+   * Share the result with other requests using the given cache. Only use this if the result is
+   * used for destination pruning, see {@link HeuristicsCache}.
+   */
+  public HeuristicSearchTask<T> withCache(@Nullable HeuristicsCache cache) {
+    this.cache = cache;
+    return this;
+  }
+
   public void forceRun() {
     enable();
     run();
@@ -106,13 +121,21 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
     long start = System.currentTimeMillis();
 
-    createHeuristicSearchIfNotExist(originalRequest);
+    HeuristicsCache.Key key = cache == null
+      ? null
+      : cache.key(originalRequest, direction, transitData);
 
-    LOG.debug("Heuristic search: {}", heuristicReq);
-    search.route();
-    LOG.debug("Heuristic result: {}", search.heuristics());
+    if (key != null) {
+      runUsingCache(key);
+    } else {
+      createHeuristicSearchIfNotExist(originalRequest);
 
-    if (!search.destinationReached()) {
+      LOG.debug("Heuristic search: {}", heuristicReq);
+      search.route();
+      LOG.debug("Heuristic result: {}", search.heuristics());
+    }
+
+    if (!result().destinationReached()) {
       throw new DestinationNotReachedException();
     }
     if (LOG.isDebugEnabled()) {
@@ -121,6 +144,30 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     }
   }
 
+  private void runUsingCache(HeuristicsCache.Key key) {
+    Heuristics heuristics = cache.get(key);
+
+    if (heuristics == null) {
+      long start = System.nanoTime();
+      createHeuristicSearchIfNotExist(cache.widenRequest(originalRequest, key));
+      LOG.debug("Heuristic search, cache miss: {}", heuristicReq);
+      search.route();
+      heuristics = search.heuristics();
+      cache.put(key, heuristics, System.nanoTime() - start);
+    } else {
+      LOG.debug("Heuristic search, cache hit: {}", originalRequest);
+    }
+    // The destination of a reverse heuristic search is the access of the request
+    cachedResult =
+      new CachedHeuristics(
+        heuristics,
+        direction.isForward()
+          ? originalRequest.searchParams().egressPaths()
+          : originalRequest.searchParams().accessPaths()
+      );
+    LOG.debug("Heuristic result: {}", cachedResult);
+  }
+
   private void createHeuristicSearchIfNotExist(RaptorRequest<T> request) {
     if (search == null) {
       var profile = MIN_TRAVEL_DURATION_BEST_TIME;
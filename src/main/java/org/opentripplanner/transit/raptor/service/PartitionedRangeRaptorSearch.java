@@ -0,0 +1,197 @@
+package org.opentripplanner.transit.raptor.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.opentripplanner.transit.raptor.api.path.Path;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.SearchParams;
+import org.opentripplanner.transit.raptor.api.response.StopArrivals;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransitDataProvider;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Worker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run the main Range Raptor search in parallel, by splitting the search window into sub-windows
+ * and searching each of them with its own worker, see
+ * {@link org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters#searchWindowPartitions()}.
+ * <p>
+ * The iteration departure times of the sub-windows are the same as the ones of the whole search
+ * window, each sub-window is searched from its latest to its earliest departure like the whole
+ * window would be. The paths are merged into one pareto set, in the same order as the iterations
+ * of the whole window, the latest sub-window first. Each sub-window search is deterministic, so
+ * the result does not depend on the order the searches complete.
+ * <p>
+ * The stop arrivals are the ones of the earliest sub-window. A journey departing later can always
+ * be reached by waiting, so the best arrival times and number of transfers at each stop are the
+ * same as for the whole window.
+ * <p>
+ * The round limit set by the number of additional transfers is carried over from the later
+ * sub-windows to the earlier ones when the paths are merged. A path in an earlier sub-window is
+ * dropped if it has more transfers than allowed by the paths of the later sub-windows, so the
+ * result is the same as searching the whole window in one thread.
+ */
+class PartitionedRangeRaptorSearch<T extends RaptorTripSchedule> implements Worker<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PartitionedRangeRaptorSearch.class);
+
+  private final RaptorConfig<T> config;
+  private final RaptorRequest<T> request;
+
+  /** The workers for each sub-window, the latest first. */
+  private final List<Worker<T>> workers = new ArrayList<>();
+
+  private final Collection<Path<T>> paths;
+
+  PartitionedRangeRaptorSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Function<RaptorRequest<T>, Worker<T>> createWorker
+  ) {
+    this.config = config;
+    this.request = request;
+    this.paths = config.createPathParetoSet(transitData, request);
+
+    SearchParams s = request.searchParams();
+    int step = config.iterationDepartureStepInSeconds();
+    int nIterations = numberOfIterations(config, request);
+    int nPartitions = Math.min(config.searchWindowPartitions(), nIterations);
+
+    // The iterations are at 'edt + searchWindow - i * step', for i in [1, nIterations]. The
+    // workers are created in this thread, only the routing is done in parallel.
+    int end = 0;
+    for (int p = 0; p < nPartitions; ++p) {
+      int start = end;
+      end = (int) (((long) nIterations * (p + 1)) / nPartitions);
+      int edt = s.earliestDepartureTime() + s.searchWindowInSeconds() - end * step;
+      int searchWindow = (end - start) * step;
+      workers.add(
+        createWorker.apply(
+          request
+            .mutate()
+            .searchParams()
+            .earliestDepartureTime(edt)
+            .searchWindowInSeconds(searchWindow)
+            .build()
+        )
+      );
+    }
+  }
+
+  /**
+   * Return {@code true} if the search window of the given request should be split. This require
+   * a thread pool, the parallel optimization and a forward search with at least two iterations.
+   * Debug requests are not split, to keep the debug events in order.
+   */
+  static boolean isSupported(RaptorConfig<?> config, RaptorRequest<?> request) {
+    return (
+      config.isMultiThreaded() &&
+      config.searchWindowPartitions() > 1 &&
+      request.runInParallel() &&
+      request.searchDirection().isForward() &&
+      request.debug().stops().isEmpty() &&
+      request.debug().path().isEmpty() &&
+      request.searchParams().isEarliestDepartureTimeSet() &&
+      request.searchParams().isSearchWindowSet() &&
+      numberOfIterations(config, request) > 1
+    );
+  }
+
+  @Override
+  public void route() {
+    // The thread pool may be shared with other searches, a sub-window not started when this
+    // thread is done with the first one is run in this thread instead of waiting for it.
+    List<AtomicBoolean> started = new ArrayList<>();
+    List<Future<?>> futures = new ArrayList<>();
+    workers.forEach(it -> started.add(new AtomicBoolean(false)));
+    for (int i = 1; i < workers.size(); ++i) {
+      var worker = workers.get(i);
+      var isStarted = started.get(i);
+      futures.add(config.threadPool().submit(() -> routeIfNotStarted(worker, isStarted)));
+    }
+    try {
+      routeIfNotStarted(workers.get(0), started.get(0));
+      for (int i = 1; i < workers.size(); ++i) {
+        if (!routeIfNotStarted(workers.get(i), started.get(i))) {
+          futures.get(i - 1).get();
+        }
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      LOG.error(e.getMessage() + ". Request: " + request, e);
+      throw new IllegalStateException(
+        "Failed to run the search window partitions in parallel. Details: " + e.getMessage()
+      );
+    } finally {
+      // Do not start the remaining sub-windows if one of them fails
+      started.forEach(it -> it.set(true));
+    }
+
+    mergePaths();
+    LOG.debug("RangeRaptor - search window split in {} partitions.", workers.size());
+  }
+
+  @Override
+  public Collection<Path<T>> paths() {
+    return paths;
+  }
+
+  @Override
+  public StopArrivals stopArrivals() {
+    return workers.get(workers.size() - 1).stopArrivals();
+  }
+
+  /* private methods */
+
+  /**
+   * Merge the paths of the sub-windows, the latest first. The round limit is applied as if the
+   * sub-windows were searched as one: the paths of a sub-window with more transfers than the
+   * fewest number of transfers found in the later sub-windows, plus the number of additional
+   * transfers, are dropped.
+   */
+  private void mergePaths() {
+    int numberOfAdditionalTransfers = request.searchParams().numberOfAdditionalTransfers();
+    int minNumberOfTransfers = Integer.MAX_VALUE;
+
+    for (Worker<T> worker : workers) {
+      int maxNumberOfTransfers = minNumberOfTransfers == Integer.MAX_VALUE
+        ? Integer.MAX_VALUE
+        : minNumberOfTransfers + numberOfAdditionalTransfers;
+      int minNumberOfTransfersInSubWindow = Integer.MAX_VALUE;
+
+      for (Path<T> path : worker.paths()) {
+        minNumberOfTransfersInSubWindow =
+          Math.min(minNumberOfTransfersInSubWindow, path.numberOfTransfers());
+        if (path.numberOfTransfers() <= maxNumberOfTransfers) {
+          paths.add(path);
+        }
+      }
+      minNumberOfTransfers = Math.min(minNumberOfTransfers, minNumberOfTransfersInSubWindow);
+    }
+  }
+
+  private static boolean routeIfNotStarted(Worker<?> worker, AtomicBoolean started) {
+    if (started.compareAndSet(false, true)) {
+      worker.route();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * The number of Range Raptor iterations, see
+   * {@link org.opentripplanner.transit.raptor.rangeraptor.transit.TransitCalculator#rangeRaptorMinutes()}.
+   */
+  private static int numberOfIterations(RaptorConfig<?> config, RaptorRequest<?> request) {
+    return (
+      request.searchParams().searchWindowInSeconds() / config.iterationDepartureStepInSeconds()
+    );
+  }
+}
@@ -9,6 +9,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
@@ -59,6 +60,12 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
     this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData);
     this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData);
+
+    // If the earliest-departure-time is set, the reverse heuristics are only used for destination
+    // pruning, and can be shared with other requests to the same destination
+    if (originalRequest.searchParams().isEarliestDepartureTimeSet()) {
+      revHeuristics.withCache(config.heuristicsCache());
+    }
   }
 
   public RaptorResponse<T> route() {
@@ -130,11 +137,11 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     LOG.debug("Main request: " + request.toString());
     Worker<T> worker;
 
-    // Create worker
-    if (request.profile().is(MULTI_CRITERIA)) {
-      worker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+    // Create worker, split the search window if the search can run in parallel
+    if (PartitionedRangeRaptorSearch.isSupported(config, request)) {
+      worker = new PartitionedRangeRaptorSearch<>(config, transitData, request, this::createWorker);
     } else {
-      worker = config.createStdWorker(transitData, request);
+      worker = createWorker(request);
     }
 
     // Route
@@ -144,6 +151,13 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     return new RaptorResponse<>(worker.paths(), worker.stopArrivals(), originalRequest, request);
   }
 
+  private Worker<T> createWorker(RaptorRequest<T> request) {
+    if (request.profile().is(MULTI_CRITERIA)) {
+      return config.createMcWorker(transitData, request, getDestinationHeuristics());
+    }
+    return config.createStdWorker(transitData, request);
+  }
+
   private boolean isItPossibleToRunHeuristicsInParallel() {
     SearchParams s = originalRequest.searchParams();
     return (
@@ -164,9 +178,22 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       fwdHeuristics.withRequest(originalRequest);
       revHeuristics.withRequest(originalRequest);
 
-      Future<?> f = config.threadPool().submit(fwdHeuristics::run);
+      // The thread pool may be shared with other searches, if the forward search is not started
+      // when the reverse search is done, it is run in this thread instead of waiting for it.
+      var fwdStarted = new AtomicBoolean(false);
+      Future<?> f = config
+        .threadPool()
+        .submit(() -> {
+          if (fwdStarted.compareAndSet(false, true)) {
+            fwdHeuristics.run();
+          }
+        });
       revHeuristics.run();
-      f.get();
+      if (fwdStarted.compareAndSet(false, true)) {
+        fwdHeuristics.run();
+      } else {
+        f.get();
+      }
       LOG.debug(
         "Route using RangeRaptor - " + "REVERSE and FORWARD heuristic search performed in parallel."
       );
@@ -0,0 +1,90 @@
+package org.opentripplanner.transit.raptor.util;
+
+import java.util.Arrays;
+import org.opentripplanner.transit.raptor.api.transit.IntIterator;
+
+/**
+ * A fixed size bit set made to be reused, like the set of routes to scan in each round of a
+ * search. Only the words set since the last {@link #clear()} are touched when the set is cleared
+ * and iterated, so the cost depends on the number of elements and not on the size of the set.
+ * <p>
+ * The set is its own iterator, see {@link #iterator()}. This class is not thread-safe, each
+ * search should have its own instance.
+ */
+public final class ReusableBitSet implements IntIterator {
+
+  private static final int ADDRESS_BITS_PER_WORD = 6;
+
+  private final long[] words;
+
+  /** The index of the words with at least one bit set, in the order they were first set. */
+  private final int[] touchedWords;
+
+  private int nTouchedWords = 0;
+
+  /** The position in {@link #touchedWords} of the word being iterated. */
+  private int cursor = 0;
+
+  /** The bits of the word being iterated not returned yet. */
+  private long remainingBits = 0L;
+
+  public ReusableBitSet(int size) {
+    this.words = new long[(size + (1 << ADDRESS_BITS_PER_WORD) - 1) >>> ADDRESS_BITS_PER_WORD];
+    this.touchedWords = new int[words.length];
+  }
+
+  public void set(int index) {
+    int wordIndex = index >>> ADDRESS_BITS_PER_WORD;
+    if (words[wordIndex] == 0L) {
+      touchedWords[nTouchedWords++] = wordIndex;
+    }
+    words[wordIndex] |= 1L << index;
+  }
+
+  public boolean get(int index) {
+    return (words[index >>> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0L;
+  }
+
+  public boolean isEmpty() {
+    return nTouchedWords == 0;
+  }
+
+  /** Unset all bits, only the words set since the last clear are touched. */
+  public void clear() {
+    for (int i = 0; i < nTouchedWords; ++i) {
+      words[touchedWords[i]] = 0L;
+    }
+    nTouchedWords = 0;
+    cursor = 0;
+    remainingBits = 0L;
+  }
+
+  /**
+   * Start an iteration over the set bits in ascending order. The returned iterator is this
+   * instance, it is valid until the set is changed or a new iteration is started.
+   */
+  public IntIterator iterator() {
+    Arrays.sort(touchedWords, 0, nTouchedWords);
+    cursor = 0;
+    remainingBits = nTouchedWords == 0 ? 0L : words[touchedWords[0]];
+    return this;
+  }
+
+  @Override
+  public int next() {
+    int bit = Long.numberOfTrailingZeros(remainingBits);
+    remainingBits &= remainingBits - 1;
+    return (touchedWords[cursor] << ADDRESS_BITS_PER_WORD) + bit;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (remainingBits == 0L) {
+      if (cursor + 1 >= nTouchedWords) {
+        return false;
+      }
+      remainingBits = words[touchedWords[++cursor]];
+    }
+    return true;
+  }
+}
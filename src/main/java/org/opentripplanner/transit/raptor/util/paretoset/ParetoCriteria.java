@@ -0,0 +1,113 @@
+package org.opentripplanner.transit.raptor.util.paretoset;
+
+import java.util.stream.IntStream;
+
+/**
+ * The criteria of a {@link ParetoSet} as a vector of int values, where a lower value is better.
+ * This is an alternative to the {@link ParetoComparator}; the values of each element are mapped
+ * once when the element is added, and stored packed in an int array in the set. The dominance
+ * check compare the int arrays, and does not call a comparator or read the fields of the
+ * elements.
+ * <p>
+ * A criteria compare the value at a "left" index of the left vector with the value at a "right"
+ * index of the right vector. For a normal criteria the two indexes are the same, while a relaxed
+ * criteria compare the value of the left vector with a relaxed value of the right vector, see
+ * {@link #ofRelaxedLastCriteria(int, ValuesMapper)}.
+ * <p>
+ * To use a criteria where a higher value is better, map the negated value.
+ *
+ * @param <T> The pareto set element type
+ */
+public final class ParetoCriteria<T> {
+
+  /** At least one of the left criteria dominates the right. */
+  static final int LEFT_DOMINANCE = 1;
+
+  /** At least one of the right criteria dominates the left. */
+  static final int RIGHT_DOMINANCE = 2;
+
+  static final int MUTUAL_DOMINANCE = LEFT_DOMINANCE | RIGHT_DOMINANCE;
+
+  private final int numberOfValues;
+  private final int[] leftIndex;
+  private final int[] rightIndex;
+  private final ValuesMapper<T> mapper;
+
+  private ParetoCriteria(
+    int numberOfValues,
+    int[] leftIndex,
+    int[] rightIndex,
+    ValuesMapper<T> mapper
+  ) {
+    this.numberOfValues = numberOfValues;
+    this.leftIndex = leftIndex;
+    this.rightIndex = rightIndex;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Each of the {@code numberOfCriteria} values mapped is a criteria.
+   */
+  public static <T> ParetoCriteria<T> of(int numberOfCriteria, ValuesMapper<T> mapper) {
+    int[] index = IntStream.range(0, numberOfCriteria).toArray();
+    return new ParetoCriteria<>(numberOfCriteria, index, index, mapper);
+  }
+
+  /**
+   * The last criteria is relaxed. The mapper must map one more value than the number of
+   * criteria: the relaxed value of the last criteria. The last criteria of the left vector
+   * dominates if it is less than the relaxed value of the right vector.
+   */
+  public static <T> ParetoCriteria<T> ofRelaxedLastCriteria(
+    int numberOfCriteria,
+    ValuesMapper<T> mapper
+  ) {
+    int[] leftIndex = IntStream.range(0, numberOfCriteria).toArray();
+    int[] rightIndex = leftIndex.clone();
+    rightIndex[numberOfCriteria - 1] = numberOfCriteria;
+    return new ParetoCriteria<>(numberOfCriteria + 1, leftIndex, rightIndex, mapper);
+  }
+
+  /** The number of int values mapped for each element. */
+  int numberOfValues() {
+    return numberOfValues;
+  }
+
+  void mapValues(T element, int[] values) {
+    mapper.mapValues(element, values);
+  }
+
+  /**
+   * Compare the vector in {@code left} starting at {@code leftOffset} with the vector in {@code
+   * right} starting at {@code rightOffset}. Return the {@link #LEFT_DOMINANCE} and {@link
+   * #RIGHT_DOMINANCE} flags.
+   */
+  int dominance(int[] left, int leftOffset, int[] right, int rightOffset) {
+    return (
+      (leftDominanceExist(left, leftOffset, right, rightOffset) ? LEFT_DOMINANCE : 0) |
+      (leftDominanceExist(right, rightOffset, left, leftOffset) ? RIGHT_DOMINANCE : 0)
+    );
+  }
+
+  private boolean leftDominanceExist(int[] left, int leftOffset, int[] right, int rightOffset) {
+    for (int i = 0; i < leftIndex.length; ++i) {
+      if (left[leftOffset + leftIndex[i]] < right[rightOffset + rightIndex[i]]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Map an element to its criteria values.
+   *
+   * @param <T> The pareto set element type
+   */
+  @FunctionalInterface
+  public interface ValuesMapper<T> {
+    /**
+     * Write the values of the given {@code element} to {@code values}, starting at index 0.
+     */
+    void mapValues(T element, int[] values);
+  }
+}
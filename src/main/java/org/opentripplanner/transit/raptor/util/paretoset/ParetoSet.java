@@ -1,5 +1,9 @@
 package org.opentripplanner.transit.raptor.util.paretoset;
 
+import static org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria.LEFT_DOMINANCE;
+import static org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria.MUTUAL_DOMINANCE;
+import static org.opentripplanner.transit.raptor.util.paretoset.ParetoCriteria.RIGHT_DOMINANCE;
+
 import java.util.AbstractCollection;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -20,16 +24,34 @@ import java.util.stream.Collectors;
  * {@code  [[1,7], [3,5], [5,3]] + [2,4] => [[1,7], [5,3], [2,4]]   -- less than dominates}
  * <p/>
  * No methods for removing elements like {@link #remove(Object)} are supported.
+ * <p/>
+ * The dominance is checked using a {@link ParetoComparator} or a {@link ParetoCriteria}. With
+ * the criteria, the criteria values of each element are stored in an int array in the same order
+ * as the elements, and the elements are only used as payload.
  *
  * @param <T> the element type
  */
 public class ParetoSet<T> extends AbstractCollection<T> {
 
+  private static final int INITIAL_CAPACITY = 16;
+
   private final ParetoComparator<T> comparator;
+  private final ParetoCriteria<T> criteria;
   private final ParetoSetEventListener<? super T> eventListener;
 
   @SuppressWarnings("unchecked")
-  private T[] elements = (T[]) new Object[16];
+  private T[] elements = (T[]) new Object[INITIAL_CAPACITY];
+
+  /**
+   * The criteria values of the elements, {@code stride} values for each element. Only used with
+   * a {@link ParetoCriteria}.
+   */
+  private int[] values;
+
+  /** The criteria values of the element added or tested, and of the good element. */
+  private final int[] newValues;
+  private final int[] goodValues;
+  private final int stride;
 
   private int size = 0;
 
@@ -46,7 +68,28 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     ParetoSetEventListener<? super T> eventListener
   ) {
     this.comparator = comparator;
+    this.criteria = null;
+    this.eventListener = eventListener;
+    this.values = null;
+    this.newValues = null;
+    this.goodValues = null;
+    this.stride = 0;
+  }
+
+  /**
+   * Create a new ParetoSet with int criteria and a drop event listener.
+   *
+   * @param criteria      The criteria to use with this set
+   * @param eventListener At most one listener can be registered to listen for drop events.
+   */
+  public ParetoSet(ParetoCriteria<T> criteria, ParetoSetEventListener<? super T> eventListener) {
+    this.comparator = null;
+    this.criteria = criteria;
     this.eventListener = eventListener;
+    this.stride = criteria.numberOfValues();
+    this.values = new int[INITIAL_CAPACITY * stride];
+    this.newValues = new int[stride];
+    this.goodValues = new int[stride];
   }
 
   /**
@@ -56,6 +99,13 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     this(comparator, null);
   }
 
+  /**
+   * Create a new ParetoSet with int criteria.
+   */
+  public ParetoSet(ParetoCriteria<T> criteria) {
+    this(criteria, null);
+  }
+
   public T get(int index) {
     return elements[index];
   }
@@ -78,13 +128,15 @@ public class ParetoSet<T> extends AbstractCollection<T> {
 
   @Override
   public boolean add(T newValue) {
+    mapNewValues(newValue);
+
     if (size == 0) {
       acceptAndAppendValue(newValue);
       return true;
     }
 
     // Quick shortcut, one element probably dominate most of the new elements
-    if (goodElement != null && leftVectorDominatesRightVector(goodElement, newValue)) {
+    if (goodElement != null && goodElementDominates(newValue)) {
       notifyElementRejected(newValue, goodElement);
       return false;
     }
@@ -94,17 +146,15 @@ public class ParetoSet<T> extends AbstractCollection<T> {
 
     for (int i = 0; i < size; ++i) {
       T it = elements[i];
+      int dominance = dominance(newValue, i);
 
-      boolean leftDominance = leftDominanceExist(newValue, it);
-      boolean rightDominance = rightDominanceExist(newValue, it);
-
-      if (leftDominance && rightDominance) {
+      if (dominance == MUTUAL_DOMINANCE) {
         mutualDominanceExist = true;
-      } else if (leftDominance) {
+      } else if (dominance == LEFT_DOMINANCE) {
         removeDominatedElementsFromRestOfSetAndAddNewElement(newValue, i);
         return true;
-      } else if (rightDominance) {
-        goodElement = elements[i];
+      } else if (dominance == RIGHT_DOMINANCE) {
+        setGoodElement(i);
         notifyElementRejected(newValue, it);
         return false;
       } else {
@@ -150,8 +200,10 @@ public class ParetoSet<T> extends AbstractCollection<T> {
       return true;
     }
 
+    mapNewValues(newValue);
+
     // Quick shortcut, one element probably dominate most of the new elements
-    if (goodElement != null && leftVectorDominatesRightVector(goodElement, newValue)) {
+    if (goodElement != null && goodElementDominates(newValue)) {
       notifyElementRejected(newValue, goodElement);
       return false;
     }
@@ -160,18 +212,17 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     boolean equivalentVectorExist = false;
 
     for (int i = size - 1; i >= 0; --i) {
-      boolean leftDominance = leftDominanceExist(newValue, elements[i]);
-      boolean rightDominance = rightDominanceExist(newValue, elements[i]);
+      int dominance = dominance(newValue, i);
 
-      if (leftDominance && rightDominance) {
+      if (dominance == MUTUAL_DOMINANCE) {
         if (equivalentVectorExist) {
           return false;
         }
         mutualDominanceExist = true;
-      } else if (leftDominance) {
+      } else if (dominance == LEFT_DOMINANCE) {
         return true;
-      } else if (rightDominance) {
-        goodElement = elements[i];
+      } else if (dominance == RIGHT_DOMINANCE) {
+        setGoodElement(i);
         return false;
       } else {
         if (mutualDominanceExist) {
@@ -268,8 +319,8 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     while (j < size) {
       notifyElementMoved(j, i);
       // Move next element(j) forward if it is not dominated by the new value
-      if (!leftVectorDominatesRightVector(newValue, elements[j])) {
-        elements[i] = elements[j];
+      if (dominance(newValue, j) != LEFT_DOMINANCE) {
+        moveElement(j, i);
         ++i;
       } else {
         notifyElementDropped(elements[j], newValue);
@@ -279,31 +330,81 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     }
     notifyElementMoved(j, i);
     notifyElementAccepted(newValue);
-    elements[i] = newValue;
+    setElement(i, newValue);
     size = i + 1;
   }
 
-  private boolean leftVectorDominatesRightVector(T left, T right) {
-    return leftDominanceExist(left, right) && !rightDominanceExist(left, right);
-  }
-
   private void acceptAndAppendValue(T newValue) {
     notifyElementAccepted(newValue);
-    elements[size++] = newValue;
+    setElement(size++, newValue);
   }
 
   private void assertEnoughSpaceInSet() {
     if (size == elements.length) {
       elements = Arrays.copyOf(elements, elements.length * 2);
+      if (criteria != null) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
     }
   }
 
-  private boolean leftDominanceExist(T left, T right) {
-    return comparator.leftDominanceExist(left, right);
+  /**
+   * Compare the new value with the element at the given index, and return the dominance flags
+   * with the new value as the left vector.
+   */
+  private int dominance(T newValue, int index) {
+    if (criteria != null) {
+      return criteria.dominance(newValues, 0, values, index * stride);
+    }
+    T it = elements[index];
+    return (
+      (comparator.leftDominanceExist(newValue, it) ? LEFT_DOMINANCE : 0) |
+      (comparator.leftDominanceExist(it, newValue) ? RIGHT_DOMINANCE : 0)
+    );
+  }
+
+  private boolean goodElementDominates(T newValue) {
+    if (criteria != null) {
+      return criteria.dominance(goodValues, 0, newValues, 0) == LEFT_DOMINANCE;
+    }
+    return (
+      comparator.leftDominanceExist(goodElement, newValue) &&
+      !comparator.leftDominanceExist(newValue, goodElement)
+    );
   }
 
-  private boolean rightDominanceExist(T left, T right) {
-    return comparator.leftDominanceExist(right, left);
+  private void mapNewValues(T newValue) {
+    if (criteria != null) {
+      criteria.mapValues(newValue, newValues);
+    }
+  }
+
+  private void setGoodElement(int index) {
+    goodElement = elements[index];
+    if (criteria != null) {
+      copyValues(values, index * stride, goodValues, 0);
+    }
+  }
+
+  private void setElement(int index, T newValue) {
+    elements[index] = newValue;
+    if (criteria != null) {
+      copyValues(newValues, 0, values, index * stride);
+    }
+  }
+
+  private void moveElement(int fromIndex, int toIndex) {
+    elements[toIndex] = elements[fromIndex];
+    if (criteria != null) {
+      copyValues(values, fromIndex * stride, values, toIndex * stride);
+    }
+  }
+
+  /** Copy the values of one element, this is faster than an array copy for a few values. */
+  private void copyValues(int[] src, int srcOffset, int[] dest, int destOffset) {
+    for (int i = 0; i < stride; ++i) {
+      dest[destOffset + i] = src[srcOffset + i];
+    }
   }
 
   private void notifyElementAccepted(T newElement) {
@@ -21,6 +21,13 @@ public class ParetoSetWithMarker<T> extends ParetoSet<T> {
     super(comparator, eventListener);
   }
 
+  public ParetoSetWithMarker(
+    ParetoCriteria<T> criteria,
+    ParetoSetEventListener<? super T> eventListener
+  ) {
+    super(criteria, eventListener);
+  }
+
   @Override
   public void clear() {
     super.clear();
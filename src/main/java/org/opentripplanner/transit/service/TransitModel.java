@@ -177,6 +177,16 @@ public class TransitModel implements Serializable {
       : timetableSnapshotProvider.getTimetableSnapshot();
   }
 
+  /**
+   * Epoch time in milliseconds at which the current realtime snapshot was committed, -1 if there
+   * are no realtime updaters or no snapshot is committed yet.
+   */
+  public long getTimetableSnapshotCommitTime() {
+    return timetableSnapshotProvider == null
+      ? -1
+      : timetableSnapshotProvider.getSnapshotCommitTime();
+  }
+
   /**
    * TODO OTP2 - This should be replaced by proper dependency injection
    */
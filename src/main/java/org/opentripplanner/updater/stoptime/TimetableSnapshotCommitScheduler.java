@@ -0,0 +1,43 @@
+package org.opentripplanner.updater.stoptime;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run the delayed commits of the timetable snapshot sources. A source commits its buffer after
+ * each update message, but not more often than its maximum snapshot frequency. The updates applied
+ * in between are committed by this scheduler when the frequency allows it, so that they do not
+ * wait for the next update message.
+ * <p>
+ * All sources share one daemon thread, a commit is short compared with the snapshot frequency.
+ */
+public class TimetableSnapshotCommitScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotCommitScheduler.class);
+
+  private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+    new ThreadFactoryBuilder().setNameFormat("timetable-snapshot-commit").setDaemon(true).build()
+  );
+
+  private TimetableSnapshotCommitScheduler() {}
+
+  /** Run the commit after the given delay. */
+  public static void schedule(Runnable commit, long delayMillis) {
+    SCHEDULER.schedule(
+      () -> {
+        try {
+          commit.run();
+        } catch (RuntimeException e) {
+          // The next update message commits the buffer
+          LOG.error("Failed to commit the timetable snapshot: {}", e.getMessage(), e);
+        }
+      },
+      Math.max(0, delayMillis),
+      TimeUnit.MILLISECONDS
+    );
+  }
+}
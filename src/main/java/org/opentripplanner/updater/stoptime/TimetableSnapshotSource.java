@@ -60,7 +60,8 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    */
   private final TimetableSnapshot buffer = new TimetableSnapshot();
   /**
-   * Lock to indicate that buffer is in use
+   * Lock to indicate that buffer is in use. Only the threads applying updates or committing the
+   * buffer use the lock, the routing threads read the {@link #snapshot} without locking.
    */
   private final ReentrantLock bufferLock = new ReentrantLock(true);
   /**
@@ -86,6 +87,10 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    * to more than one routing thread if the maximum snapshot frequency is exceeded.
    */
   private volatile TimetableSnapshot snapshot = null;
+  /** Epoch time in milliseconds at which the current snapshot was committed. */
+  private volatile long snapshotCommitTime = -1;
+  /** A commit of the buffer is scheduled, guarded by the {@link #bufferLock}. */
+  private boolean commitScheduled = false;
   /** Should expired realtime data be purged from the graph. */
   public boolean purgeExpiredData = true;
   protected LocalDate lastPurgeDate = null;
@@ -132,23 +137,9 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    * to the snapshot to release resources.
    */
   public TimetableSnapshot getTimetableSnapshot() {
-    TimetableSnapshot snapshotToReturn;
-
-    // Try to get a lock on the buffer
-    if (bufferLock.tryLock()) {
-      // Make a new snapshot if necessary
-      try {
-        snapshotToReturn = getTimetableSnapshot(false);
-      } finally {
-        bufferLock.unlock();
-      }
-    } else {
-      // No lock could be obtained because there is either a snapshot commit busy or updates
-      // are applied at this moment, just return the current snapshot
-      snapshotToReturn = snapshot;
-    }
-
-    return snapshotToReturn;
+    // The snapshot is committed by the thread applying the updates, or by the commit scheduler if
+    // the maximum snapshot frequency is exceeded. The routing threads never wait for a commit.
+    return snapshot;
   }
 
   /**
@@ -289,7 +280,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
 
       // Make a snapshot after each message in anticipation of incoming requests
       // Purge data if necessary (and force new snapshot if anything was purged)
-      // Make sure that the public (locking) getTimetableSnapshot function is not called.
+      // The public getTimetableSnapshot function only returns the committed snapshot.
       if (purgeExpiredData) {
         final boolean modified = purgeExpiredData();
         getTimetableSnapshot(modified);
@@ -304,20 +295,50 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
 
   private TimetableSnapshot getTimetableSnapshot(final boolean force) {
     final long now = System.currentTimeMillis();
-    if (force || now - lastSnapshotTime > maxSnapshotFrequency) {
+    if (force || now - lastSnapshotTime >= maxSnapshotFrequency) {
       if (force || buffer.isDirty()) {
         LOG.debug("Committing {}", buffer.toString());
         snapshot = buffer.commit(transitLayerUpdater, force);
+        snapshotCommitTime = System.currentTimeMillis();
       } else {
         LOG.debug("Buffer was unchanged, keeping old snapshot.");
       }
       lastSnapshotTime = System.currentTimeMillis();
     } else {
       LOG.debug("Snapshot frequency exceeded. Reusing snapshot {}", snapshot);
+      scheduleCommit(maxSnapshotFrequency - (now - lastSnapshotTime));
     }
     return snapshot;
   }
 
+  /**
+   * Commit the buffer later, if it is changed. The routing threads do not commit the buffer, so the
+   * updates not committed because of the snapshot frequency are committed by the scheduler. Call
+   * this with the lock held.
+   */
+  private void scheduleCommit(long delayMillis) {
+    if (commitScheduled || !buffer.isDirty()) {
+      return;
+    }
+    commitScheduled = true;
+    TimetableSnapshotCommitScheduler.schedule(this::commitScheduledSnapshot, delayMillis);
+  }
+
+  private void commitScheduledSnapshot() {
+    bufferLock.lock();
+    try {
+      commitScheduled = false;
+      getTimetableSnapshot(false);
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
+  @Override
+  public long getSnapshotCommitTime() {
+    return snapshotCommitTime;
+  }
+
   /**
    * Determine how the trip update should be handled.
    *
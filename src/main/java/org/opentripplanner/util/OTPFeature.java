@@ -29,6 +29,18 @@ public enum OTPFeature {
   ParallelRouting(false),
   TransferConstraints(true),
   FloatingBike(true),
+  /**
+   * Keep the state of street searches in structures indexed by vertex instead of hash maps, and
+   * scan the edges using the compressed adjacency index of the graph. This reduces the allocation
+   * and CPU time of access/egress and direct street searches.
+   */
+  IndexedStreetSearch(false),
+  /**
+   * Store the stop arrivals of the multi-criteria Raptor search in reusable int arrays, instead of
+   * creating an object for each stop arrival. This reduces the garbage created by searches with a
+   * wide search window.
+   */
+  RaptorStopArrivalArena(false),
 
   // Sandbox extension features - Must be turned OFF by default
   ActuatorAPI(false),
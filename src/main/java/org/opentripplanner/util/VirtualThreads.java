@@ -0,0 +1,51 @@
+package org.opentripplanner.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+
+/**
+ * OTP is compiled for Java 17, where virtual threads are not available. This class looks them up
+ * at runtime, so that they can be enabled in the config when OTP runs on a newer Java runtime.
+ */
+public class VirtualThreads {
+
+  @Nullable
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupExecutorFactory();
+
+  /** Return {@code true} if the Java runtime supports virtual threads. */
+  public static boolean isSupported() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Create an executor starting a new virtual thread for each task.
+   *
+   * @throws IllegalStateException if virtual threads are not supported by the Java runtime.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+      throw new IllegalStateException(
+        "Virtual threads are not supported by Java " + Runtime.version()
+      );
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create a virtual thread executor", e);
+    }
+  }
+
+  @Nullable
+  private static Method lookupExecutorFactory() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      // Fail here if the virtual threads are a preview feature not enabled in this runtime
+      ((ExecutorService) method.invoke(null)).shutdown();
+      return method;
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+}
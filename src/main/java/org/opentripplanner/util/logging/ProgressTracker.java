@@ -98,6 +98,13 @@ public class ProgressTracker {
     return new ProgressTracker(actionName, minBlockSize, size, QUIET_PERIOD_MILLISECONDS, false);
   }
 
+  /**
+   * Same as {@link #track(String, int, long)}, but the steps are formatted as bytes.
+   */
+  public static ProgressTracker trackBytes(String actionName, int minBlockSize, long size) {
+    return new ProgressTracker(actionName, minBlockSize, size, QUIET_PERIOD_MILLISECONDS, true);
+  }
+
   /**
    * Create an InputStream that decorate another InputStream with progress logging.
    *
@@ -1,6 +1,7 @@
 package org.opentripplanner;
 
 import com.csvreader.CsvReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -124,6 +125,19 @@ public class ConstantsForTests {
     );
   }
 
+  /**
+   * Create the minimal NeTEx bundle with the given number of threads to parse the group files.
+   */
+  public static NetexBundle createMinimalNetexBundle(int parseThreads) {
+    var configLoader = new ConfigLoader(new File(NETEX_DIR));
+    var json = (ObjectNode) configLoader.loadJsonByFilename("build-config.json");
+    ((ObjectNode) json.get("netex")).put("parseThreads", parseThreads);
+    return NetexConfig.netexBundleForTest(
+      new BuildConfig(json, NETEX_DIR, false),
+      new File(NETEX_DIR, NETEX_FILENAME)
+    );
+  }
+
   /**
    * Builds a new graph using the Portland test data.
    */
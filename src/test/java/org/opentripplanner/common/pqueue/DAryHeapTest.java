@@ -0,0 +1,83 @@
+package org.opentripplanner.common.pqueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class DAryHeapTest {
+
+  private static final int N = 50000;
+
+  @Test
+  public void extractInPriorityOrder() {
+    Random random = new Random(42);
+    List<Integer> input = new ArrayList<>(N);
+    for (int i = 0; i < N; i++) {
+      input.add(random.nextInt(10000));
+    }
+
+    PriorityQueue<Integer> expected = new PriorityQueue<>(input);
+    DAryHeap<Integer> heap = new DAryHeap<>(10, 0);
+    for (Integer i : input) {
+      heap.insert(i, i * 0.5);
+    }
+    assertEquals(N, heap.size());
+
+    while (!expected.isEmpty()) {
+      assertEquals(expected.poll(), heap.extract_min());
+    }
+    assertTrue(heap.empty());
+    assertNull(heap.peek_min());
+    assertNull(heap.extract_min());
+  }
+
+  @Test
+  public void rekey() {
+    DAryHeap<String> heap = new DAryHeap<>(10, 3);
+    heap.insert("A", 10, 0);
+    heap.insert("B", 20, 1);
+    heap.insert("C", 30, 2);
+    heap.insert("X", 15);
+
+    assertTrue(heap.contains(2));
+    assertEquals("C", heap.get(2));
+    assertThrows(IllegalStateException.class, () -> heap.insert("C'", 1, 2));
+
+    // decrease key
+    heap.rekey(2, "C'", 5);
+    // increase key
+    heap.rekey(0, "A'", 25);
+
+    assertEquals(5, heap.peek_min_key());
+    assertEquals("C'", heap.extract_min());
+    assertFalse(heap.contains(2));
+    assertEquals("X", heap.extract_min());
+    assertEquals("B", heap.extract_min());
+    assertEquals("A'", heap.extract_min());
+    assertTrue(heap.empty());
+  }
+
+  @Test
+  public void resetClearsKeys() {
+    DAryHeap<String> heap = new DAryHeap<>(10, 2);
+    heap.insert("A", 1, 0);
+    heap.insert("B", 2, 7);
+    heap.reset();
+
+    assertTrue(heap.empty());
+    assertFalse(heap.contains(0));
+    assertFalse(heap.contains(7));
+    assertNull(heap.get(7));
+
+    heap.insert("C", 3, 7);
+    assertEquals("C", heap.get(7));
+  }
+}
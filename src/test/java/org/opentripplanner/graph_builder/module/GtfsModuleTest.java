@@ -4,19 +4,33 @@ import static graphql.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.graph_builder.DataImportIssue;
+import org.opentripplanner.graph_builder.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issues.NegativeHopTime;
+import org.opentripplanner.graph_builder.issues.TripDegenerate;
 import org.opentripplanner.graph_builder.model.GtfsBundle;
 import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.trippattern.Deduplicator;
+import org.opentripplanner.transit.model.organization.Agency;
 import org.opentripplanner.transit.service.StopModel;
 import org.opentripplanner.transit.service.TransitModel;
 
 class GtfsModuleTest {
 
+  private static final Pattern BAD_TRIP_ID = Pattern.compile("bad-trip-\\d");
+
   @Test
   public void addShapesForFrequencyTrips() {
     var deduplicator = new Deduplicator();
@@ -45,4 +59,118 @@ class GtfsModuleTest {
     assertNotNull(pattern.getGeometry());
     assertNotNull(pattern.getHopGeometry(0));
   }
+
+  /**
+   * The feeds are loaded in parallel, but the agency id conflicts are resolved, the trip patterns
+   * created and the issues reported in the same order as the feeds are listed.
+   */
+  @Test
+  public void resolveConflictingAgencyIdsInFeedOrder(@TempDir Path tempDir) throws IOException {
+    var deduplicator = new Deduplicator();
+    var stopModel = new StopModel();
+    var graph = new Graph(stopModel, deduplicator);
+    var transitModel = new TransitModel(stopModel, deduplicator);
+    var issueStore = new DataImportIssueStore(true);
+
+    List<GtfsBundle> bundles = new ArrayList<>();
+    for (int i = 1; i <= 3; ++i) {
+      bundles.add(feedWithAgencyA(tempDir.resolve("feed-" + i), i));
+    }
+    var module = new GtfsModule(bundles, ServiceDateInterval.unbounded());
+
+    module.buildGraph(graph, transitModel, new HashMap<>(), issueStore);
+
+    assertEquals(
+      "[feed:A, feed:F1, feed:F2]",
+      transitModel.getAgencies().stream().map(Agency::getId).toList().toString()
+    );
+    assertEquals(
+      "[feed:route-1:0:01 feed:A, feed:route-2:0:01 feed:F1, feed:route-3:0:01 feed:F2]",
+      transitModel
+        .getTripPatterns()
+        .stream()
+        .map(p -> p.getId() + " " + p.getRoute().getAgency().getId())
+        .sorted()
+        .toList()
+        .toString()
+    );
+    assertEquals(
+      List.of(
+        "NegativeHopTime bad-trip-1",
+        "TripDegenerate bad-trip-1",
+        "NegativeHopTime bad-trip-2",
+        "TripDegenerate bad-trip-2",
+        "NegativeHopTime bad-trip-3",
+        "TripDegenerate bad-trip-3"
+      ),
+      issueStore
+        .getIssues()
+        .stream()
+        .filter(it -> it instanceof NegativeHopTime || it instanceof TripDegenerate)
+        .map(GtfsModuleTest::issueAndBadTripId)
+        .toList()
+    );
+  }
+
+  /**
+   * Write a feed with the agency id {@code A} and the feed id {@code feed}, the agency ids of the
+   * feeds conflict. Each feed has one valid trip and one trip with a negative hop time, the bad
+   * trip is reported when the feed is loaded and again when the trip patterns are created.
+   */
+  private static GtfsBundle feedWithAgencyA(Path dir, int n) throws IOException {
+    Files.createDirectories(dir);
+    write(
+      dir,
+      "agency.txt",
+      "agency_id,agency_name,agency_url,agency_timezone",
+      "A,Agency " + n + ",http://agency.example.com,Europe/Oslo"
+    );
+    write(
+      dir,
+      "stops.txt",
+      "stop_id,stop_name,stop_lat,stop_lon",
+      "stop-" + n + "-a,Stop A,59.90,10.70",
+      "stop-" + n + "-b,Stop B,59.91,10.70"
+    );
+    write(
+      dir,
+      "routes.txt",
+      "route_id,agency_id,route_short_name,route_long_name,route_type",
+      "route-" + n + ",A," + n + ",Route " + n + ",3"
+    );
+    write(
+      dir,
+      "calendar.txt",
+      "service_id,monday,tuesday,wednesday,thursday,friday,saturday,sunday,start_date,end_date",
+      "service-" + n + ",1,1,1,1,1,1,1,20220101,20221231"
+    );
+    write(
+      dir,
+      "trips.txt",
+      "route_id,service_id,trip_id,direction_id",
+      "route-" + n + ",service-" + n + ",trip-" + n + ",0",
+      "route-" + n + ",service-" + n + ",bad-trip-" + n + ",0"
+    );
+    write(
+      dir,
+      "stop_times.txt",
+      "trip_id,arrival_time,departure_time,stop_id,stop_sequence",
+      "trip-" + n + ",08:00:00,08:00:00,stop-" + n + "-a,1",
+      "trip-" + n + ",08:05:00,08:05:00,stop-" + n + "-b,2",
+      "bad-trip-" + n + ",08:10:00,08:10:00,stop-" + n + "-a,1",
+      "bad-trip-" + n + ",08:05:00,08:05:00,stop-" + n + "-b,2"
+    );
+    var bundle = new GtfsBundle(dir.toFile());
+    bundle.setFeedId(new GtfsFeedId.Builder().id("feed").build());
+    return bundle;
+  }
+
+  private static void write(Path dir, String fileName, String... lines) throws IOException {
+    Files.write(dir.resolve(fileName), List.of(lines));
+  }
+
+  private static String issueAndBadTripId(DataImportIssue issue) {
+    Matcher m = BAD_TRIP_ID.matcher(issue.getMessage());
+    return issue.getClass().getSimpleName() + " " + (m.find() ? m.group() : "?");
+  }
 }
@@ -0,0 +1,137 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+class OSMNodeStoreTest {
+
+  private final OSMNodeStore subject = new OSMNodeStore();
+
+  @Test
+  void untaggedNodesAreStoredAsCoordinates() {
+    // Two sequences of increasing ids, like two input files
+    for (long id : new long[] { 3, 5, 8, 1, 4, 9 }) {
+      subject.put(node(id));
+    }
+    subject.trimToSize();
+
+    assertEquals(6, subject.size());
+    for (long id : new long[] { 1, 3, 4, 5, 8, 9 }) {
+      assertTrue(subject.containsKey(id));
+      OSMNode node = subject.get(id);
+      assertEquals(id, node.getId());
+      assertEquals(id + 0.1, node.lat, 0.0);
+      assertEquals(id + 0.2, node.lon, 0.0);
+      assertEquals(node(id), node);
+    }
+    for (long id : new long[] { 0, 2, 6, 7, 10 }) {
+      assertFalse(subject.containsKey(id));
+      assertNull(subject.get(id));
+    }
+  }
+
+  @Test
+  void taggedAndVirtualNodesAreStoredAsObjects() {
+    OSMNode tagged = node(7);
+    tagged.addTag("highway", "traffic_signals");
+    OSMNode virtual = node(-1);
+
+    subject.put(node(5));
+    subject.put(tagged);
+    subject.put(virtual);
+    subject.put(node(6));
+
+    assertEquals(4, subject.size());
+    assertSame(tagged, subject.get(7));
+    assertSame(virtual, subject.get(-1));
+    assertTrue(subject.containsKey(6));
+    assertTrue(subject.get(7).hasTrafficLight());
+  }
+
+  @Test
+  void addManyNodes() {
+    int n = 10_000;
+    for (int i = 1; i <= n; ++i) {
+      subject.put(node(2L * i));
+    }
+    assertEquals(n, subject.size());
+    assertEquals(2 * n, subject.get(2 * n).getId());
+    assertNull(subject.get(2 * n - 1));
+  }
+
+  @Test
+  void unsortedNodesAreFoundBeforeAndAfterTrimToSize() {
+    int n = 100_000;
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= n; ++id) {
+      ids.add(2 * id);
+    }
+    Collections.shuffle(ids, new Random(7));
+
+    for (long id : ids) {
+      assertFalse(subject.containsKey(id));
+      subject.put(node(id));
+    }
+    assertEquals(n, subject.size());
+    assertNodes(n);
+
+    subject.trimToSize();
+
+    assertEquals(n, subject.size());
+    assertTrue(subject.toString().contains("unsortedCoordinates: 0"), subject.toString());
+    assertNodes(n);
+  }
+
+  @Test
+  void nodesAddedAfterTrimToSize() {
+    for (long id : new long[] { 10, 20, 30 }) {
+      subject.put(node(id));
+    }
+    subject.trimToSize();
+
+    subject.put(node(15));
+    subject.put(node(40));
+
+    assertEquals(5, subject.size());
+    for (long id : new long[] { 10, 15, 20, 30, 40 }) {
+      assertEquals(node(id), subject.get(id));
+    }
+    subject.trimToSize();
+    for (long id : new long[] { 10, 15, 20, 30, 40 }) {
+      assertEquals(node(id), subject.get(id));
+    }
+    assertNull(subject.get(25));
+  }
+
+  /** The even ids from 2 to 2n are in the store, the odd ids are not. */
+  private void assertNodes(int n) {
+    for (long id = 1; id <= 2L * n + 1; ++id) {
+      if (id % 2 == 0) {
+        OSMNode node = subject.get(id);
+        assertEquals(id, node.getId());
+        assertEquals(id + 0.1, node.lat, 0.0);
+        assertEquals(id + 0.2, node.lon, 0.0);
+      } else {
+        assertNull(subject.get(id));
+      }
+    }
+  }
+
+  private static OSMNode node(long id) {
+    OSMNode node = new OSMNode();
+    node.setId(id);
+    node.lat = id + 0.1;
+    node.lon = id + 0.2;
+    return node;
+  }
+}
@@ -5,14 +5,26 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gnu.trove.list.TLongList;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.DataSource;
+import org.opentripplanner.datastore.FileType;
 import org.opentripplanner.graph_builder.DataImportIssueStore;
 import org.opentripplanner.openstreetmap.OpenStreetMapProvider;
 import org.opentripplanner.openstreetmap.model.OSMNode;
 import org.opentripplanner.openstreetmap.model.OSMWay;
+import org.opentripplanner.openstreetmap.model.OSMWithTags;
 
 public class OpenStreetMapParserTest {
 
@@ -47,4 +59,86 @@ public class OpenStreetMapParserTest {
     assertEquals("Potlatch 0.9a", wayA.getTag("created_by"));
     assertEquals("secondary", wayA.getTag("highway"));
   }
+
+  /**
+   * A local file is memory mapped, other sources are cached in memory or read once for each
+   * phase. The database must be the same in all three cases.
+   */
+  @Test
+  public void sameDatabaseForEachWayOfReadingTheFile() {
+    File osmFile = new File(
+      URLDecoder.decode(getClass().getResource("skoyen.osm.pbf").getPath(), StandardCharsets.UTF_8)
+    );
+
+    String mappedFile = describe(new OpenStreetMapProvider(osmFile, false));
+    String cachedInMemory = describe(new OpenStreetMapProvider(streamSource(osmFile), true));
+    String streamed = describe(new OpenStreetMapProvider(streamSource(osmFile), false));
+
+    assertEquals(mappedFile, cachedInMemory);
+    assertEquals(mappedFile, streamed);
+  }
+
+  /**
+   * Read the file and list the ways, with the tags and the nodes of each way, and the nodes with
+   * their coordinates and tags.
+   */
+  private static String describe(OpenStreetMapProvider provider) {
+    OSMDatabase osmdb = new OSMDatabase(new DataImportIssueStore(false), Set.of());
+    provider.readOSM(osmdb);
+
+    List<String> lines = new ArrayList<>();
+    lines.add("nodes: " + osmdb.nodeCount() + ", ways: " + osmdb.wayCount());
+    osmdb
+      .getWays()
+      .stream()
+      .sorted(Comparator.comparingLong(OSMWay::getId))
+      .forEach(way -> {
+        lines.add("way " + way.getId() + " " + tags(way) + " " + way.getNodeRefs());
+        for (long nodeId : way.getNodeRefs().toArray()) {
+          OSMNode node = osmdb.getNode(nodeId);
+          if (node != null) {
+            lines.add("  node " + nodeId + " " + node.lat + " " + node.lon + " " + tags(node));
+          }
+        }
+      });
+    return String.join("\n", lines);
+  }
+
+  private static Map<String, String> tags(OSMWithTags entity) {
+    return entity.getTags() == null ? Map.of() : new TreeMap<>(entity.getTags());
+  }
+
+  /** A source which is not a local file, the provider cannot memory map it. */
+  private static DataSource streamSource(File file) {
+    return new DataSource() {
+      @Override
+      public String name() {
+        return file.getName();
+      }
+
+      @Override
+      public String path() {
+        return file.getPath();
+      }
+
+      @Override
+      public FileType type() {
+        return FileType.OSM;
+      }
+
+      @Override
+      public long size() {
+        return file.length();
+      }
+
+      @Override
+      public InputStream asInputStream() {
+        try {
+          return new FileInputStream(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
 }
@@ -80,8 +80,53 @@ public class NetexBundleSmokeTest {
     assetServiceCalendar(transitBuilder.buildCalendarServiceData());
   }
 
+  /**
+   * The group files are parsed in parallel when more than one parse thread is used, the files
+   * must still be mapped in the same order, so the transit model is the same as with one thread.
+   */
+  @Test
+  public void parseGroupFilesInParallel() {
+    String expected = loadAndDescribe(ConstantsForTests.createMinimalNetexBundle(1));
+    String actual = loadAndDescribe(ConstantsForTests.createMinimalNetexBundle(4));
+
+    assertEquals(expected, actual);
+  }
+
   /* private methods */
 
+  /**
+   * Load the bundle and list the entities of the transit model, in the order they are stored.
+   */
+  private static String loadAndDescribe(NetexBundle netexBundle) {
+    OtpTransitServiceBuilder transitBuilder = netexBundle.loadBundle(
+      new Deduplicator(),
+      new DataImportIssueStore(false)
+    );
+    OtpTransitService otpModel = transitBuilder.build();
+    CalendarServiceData cal = transitBuilder.buildCalendarServiceData();
+
+    List<Object> lines = new ArrayList<>();
+    lines.add(otpModel.getAllAgencies());
+    lines.add(otpModel.getAllOperators());
+    lines.add(otpModel.getAllMultiModalStations());
+    lines.add(otpModel.getAllStations());
+    lines.add(otpModel.getAllStops());
+    for (TripPattern p : otpModel.getTripPatterns()) {
+      lines.add(p.getId() + " " + p.getStops() + " " + p.scheduledTripsAsStream().toList());
+    }
+    for (Trip t : otpModel.getAllTrips()) {
+      lines.add(t + " " + t.getServiceId() + " " + otpModel.getStopTimesForTrip(t));
+    }
+    for (FeedScopedId serviceId : otpModel.getAllServiceIds()) {
+      lines.add(serviceId + " " + cal.getServiceDatesForServiceId(serviceId));
+    }
+    otpModel
+      .getNoticeAssignments()
+      .forEach((entity, notice) -> lines.add(entity.getId() + " " + notice.getId()));
+
+    return lines.stream().map(Object::toString).collect(Collectors.joining("\n"));
+  }
+
   private static <T> List<T> list(Collection<T> collection) {
     return new ArrayList<>(collection);
   }
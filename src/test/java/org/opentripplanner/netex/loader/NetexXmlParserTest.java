@@ -0,0 +1,71 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.bind.JAXBElement;
+import org.junit.jupiter.api.Test;
+import org.rutebanken.netex.model.Common_VersionFrameStructure;
+import org.rutebanken.netex.model.CompositeFrame;
+import org.rutebanken.netex.model.VersionFrameDefaultsStructure;
+
+public class NetexXmlParserTest {
+
+  private static final File NETEX_FILE = new File("src/test/resources/netex/netex_minimal.zip");
+
+  private final NetexXmlParser subject = new NetexXmlParser();
+
+  @Test
+  public void parseXmlDocFramesReturnTheSameFramesAsParseXmlDoc() throws Exception {
+    try (ZipFile zipFile = new ZipFile(NETEX_FILE)) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        List<String> expected = new ArrayList<>();
+        var doc = subject.parseXmlDoc(zipFile.getInputStream(entry));
+        for (var it : doc.getDataObjects().getCompositeFrameOrCommonFrame()) {
+          listFrames(it.getValue(), expected);
+        }
+
+        List<String> result = new ArrayList<>();
+        subject.parseXmlDocFrames(
+          zipFile.getInputStream(entry),
+          defaults -> result.add(toString(defaults)),
+          frame -> result.add(toString(frame))
+        );
+
+        assertFalse(expected.isEmpty(), entry.getName());
+        assertEquals(expected, result, entry.getName());
+      }
+    }
+  }
+
+  /** List the frames in the same order as they are streamed */
+  private static void listFrames(Common_VersionFrameStructure frame, List<String> frames) {
+    if (frame instanceof CompositeFrame composite) {
+      frames.add(toString(composite.getFrameDefaults()));
+      for (JAXBElement<? extends Common_VersionFrameStructure> it : composite
+        .getFrames()
+        .getCommonFrame()) {
+        listFrames(it.getValue(), frames);
+      }
+    } else {
+      frames.add(toString(frame));
+    }
+  }
+
+  private static String toString(Common_VersionFrameStructure frame) {
+    return frame.getClass().getSimpleName() + " " + frame.getId();
+  }
+
+  private static String toString(VersionFrameDefaultsStructure defaults) {
+    if (defaults == null || defaults.getDefaultLocale() == null) {
+      return "FrameDefaults -";
+    }
+    return "FrameDefaults " + defaults.getDefaultLocale().getTimeZone();
+  }
+}
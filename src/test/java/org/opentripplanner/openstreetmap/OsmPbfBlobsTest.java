@@ -0,0 +1,97 @@
+package org.opentripplanner.openstreetmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OsmPbfBlobsTest {
+
+  /**
+   * The file has four blobs, the header blob data is at [18, 205) and the data blobs are at
+   * [222, 23956), [23972, 38464) and [38480, 46957).
+   */
+  private static final File FILE = new File(
+    "src/test/resources/org/opentripplanner/graph_builder/module/osm/skoyen.osm.pbf"
+  );
+
+  private static final IntPredicate ALL = i -> true;
+
+  @Test
+  void allSourcesReturnTheSameBlobs() throws IOException {
+    var expected = blobs(OsmPbfBlobs.ofBytes(Files.readAllBytes(FILE.toPath())), ALL);
+
+    assertEquals(
+      List.of("0 OSMHeader 205", "1 OSMData 23751", "2 OSMData 14508", "3 OSMData 8493"),
+      expected.stream().map(it -> it.substring(0, it.lastIndexOf(' '))).toList()
+    );
+    assertEquals(expected, blobs(OsmPbfBlobs.mapFile(FILE), ALL));
+    assertEquals(expected, blobs(OsmPbfBlobs.ofInputStream(OsmPbfBlobsTest::openFile), ALL));
+  }
+
+  /**
+   * <ul>
+   *   <li>1 - each blob is mapped in its own segment, larger than the max segment size.</li>
+   *   <li>23937 - the second blob ends one byte after the first segment.</li>
+   *   <li>23938 - the second blob ends at the end of the first segment.</li>
+   *   <li>1 GB - the file is mapped in one segment.</li>
+   * </ul>
+   */
+  @ParameterizedTest
+  @ValueSource(longs = { 1, 23937, 23938, 1L << 30 })
+  void mapFileInSegments(long maxSegmentSize) throws IOException {
+    var expected = blobs(OsmPbfBlobs.ofBytes(Files.readAllBytes(FILE.toPath())), ALL);
+
+    assertEquals(expected, blobs(OsmPbfBlobs.mapFile(FILE, maxSegmentSize), ALL));
+  }
+
+  @Test
+  void skippedBlobsAreNotPassedOn() throws IOException {
+    IntPredicate odd = i -> i % 2 == 1;
+    var expected = blobs(OsmPbfBlobs.ofBytes(Files.readAllBytes(FILE.toPath())), odd);
+
+    assertEquals(4, expected.size());
+    assertEquals("0 OSMHeader 205 skipped", expected.get(0));
+    assertEquals("2 OSMData 14508 skipped", expected.get(2));
+    assertEquals(expected, blobs(OsmPbfBlobs.mapFile(FILE, 1), odd));
+    assertEquals(expected, blobs(OsmPbfBlobs.ofInputStream(OsmPbfBlobsTest::openFile), odd));
+  }
+
+  /**
+   * List the index, type and size of each blob, and the length and hash of the decoded block.
+   */
+  private static List<String> blobs(OsmPbfBlobs blobs, IntPredicate filter) throws IOException {
+    List<String> result = new ArrayList<>();
+    blobs.forEachBlob(
+      filter,
+      (index, type, size, blob) -> {
+        String block = "skipped";
+        if (blob != null) {
+          byte[] bytes = OsmPbfBlobs.decode(blob);
+          block = bytes.length + "/" + Arrays.hashCode(bytes);
+        }
+        result.add(index + " " + type + " " + size + " " + block);
+      }
+    );
+    return result;
+  }
+
+  private static FileInputStream openFile() {
+    try {
+      return new FileInputStream(FILE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
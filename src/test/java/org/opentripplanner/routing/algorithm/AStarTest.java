@@ -109,6 +109,34 @@ public class AStarTest {
     assertEquals("leary_20th", states.get(6).getVertex().getLabel());
   }
 
+  @Test
+  public void testForwardWithIndexedSearchState() {
+    RoutingRequest options = new RoutingRequest();
+    options.walkSpeed = 1.0;
+    Vertex from = graph.getVertex("56th_24th");
+    Vertex to = graph.getVertex("leary_20th");
+    ShortestPathTree tree = AStarBuilder
+      .oneToOne()
+      .setContext(new RoutingContext(options, graph, from, to))
+      .setIndexedSearchState(true)
+      .getShortestPathTree();
+
+    GraphPath path = tree.getPath(to);
+    tree.release();
+
+    List<State> states = path.states;
+
+    assertEquals(7, states.size());
+
+    assertEquals("56th_24th", states.get(0).getVertex().getLabel());
+    assertEquals("market_24th", states.get(1).getVertex().getLabel());
+    assertEquals("market_ballard", states.get(2).getVertex().getLabel());
+    assertEquals("market_22nd", states.get(3).getVertex().getLabel());
+    assertEquals("market_leary", states.get(4).getVertex().getLabel());
+    assertEquals("leary_vernon", states.get(5).getVertex().getLabel());
+    assertEquals("leary_20th", states.get(6).getVertex().getLabel());
+  }
+
   @Test
   public void testBack() {
     RoutingRequest options = new RoutingRequest();
@@ -0,0 +1,69 @@
+package org.opentripplanner.routing.algorithm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RoutingExecutorTest {
+
+  private static final RoutingExecutorParameters ONE_THREAD = new RoutingExecutorParameters() {
+    @Override
+    public int threadPoolSize() {
+      return 1;
+    }
+
+    @Override
+    public int queueSize() {
+      return 1;
+    }
+  };
+
+  @Test
+  void runAllTasks() {
+    var subject = new RoutingExecutor(ONE_THREAD, new SimpleMeterRegistry());
+    var count = new AtomicInteger();
+
+    subject.runAll(count::incrementAndGet, count::incrementAndGet, count::incrementAndGet);
+
+    assertEquals(3, count.get());
+    subject.shutdown();
+  }
+
+  @Test
+  void nestedTasksDoNotWaitForTheQueue() {
+    // With one thread, the nested tasks are queued behind the task waiting for them
+    var subject = new RoutingExecutor(ONE_THREAD, new SimpleMeterRegistry());
+    var count = new AtomicInteger();
+    Runnable nested = () -> subject.runAll(count::incrementAndGet, count::incrementAndGet);
+
+    subject.runAll(nested, nested, nested);
+
+    assertEquals(6, count.get());
+    subject.shutdown();
+  }
+
+  @Test
+  void rethrowTheTaskException() {
+    var subject = new RoutingExecutor(ONE_THREAD, new SimpleMeterRegistry());
+    var exception = new IllegalStateException("Expected");
+
+    var result = assertThrows(
+      CompletionException.class,
+      () ->
+        subject.runAll(
+          () -> {},
+          () -> {
+            throw exception;
+          }
+        )
+    );
+
+    assertSame(exception, result.getCause());
+    subject.shutdown();
+  }
+}
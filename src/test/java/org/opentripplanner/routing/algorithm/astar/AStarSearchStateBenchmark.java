@@ -0,0 +1,94 @@
+package org.opentripplanner.routing.algorithm.astar;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.spt.DominanceFunction;
+import org.opentripplanner.routing.spt.ShortestPathTree;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+/**
+ * Compare the default hash map based search state ({@code BinHeap} and {@link ShortestPathTree}
+ * backed by an identity map) with the indexed search state on the Portland test graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AStarSearchStateBenchmark {
+
+  private static final int N_SEARCHES = 20;
+
+  @Param({ "false", "true" })
+  public boolean indexed;
+
+  private Graph graph;
+  private final List<StreetVertex> origins = new ArrayList<>();
+  private final List<StreetVertex> destinations = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    graph = ConstantsForTests.buildNewPortlandGraph(false).graph;
+    List<StreetVertex> vertices = graph.getVerticesOfType(StreetVertex.class);
+    Random random = new Random(42);
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      origins.add(vertices.get(random.nextInt(vertices.size())));
+      destinations.add(vertices.get(random.nextInt(vertices.size())));
+    }
+  }
+
+  /** Search all directions, like the access/egress and transfer searches. */
+  @Benchmark
+  public void walkAllDirections(Blackhole blackhole) {
+    for (StreetVertex origin : origins) {
+      RoutingRequest request = new RoutingRequest(TraverseMode.WALK);
+      ShortestPathTree spt = AStarBuilder
+        .allDirectionsMaxDuration(Duration.ofMinutes(20))
+        .setDominanceFunction(new DominanceFunction.MinimumWeight())
+        .setContext(new RoutingContext(request, graph, Set.of(origin), null))
+        .setIndexedSearchState(indexed)
+        .getShortestPathTree();
+      blackhole.consume(spt.getVertexCount());
+      spt.release();
+    }
+  }
+
+  /** Search from one vertex to another, like the direct street search. */
+  @Benchmark
+  public void carOneToOne(Blackhole blackhole) {
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      RoutingRequest request = new RoutingRequest(TraverseMode.CAR);
+      blackhole.consume(
+        AStarBuilder
+          .oneToOne()
+          .setDominanceFunction(new DominanceFunction.MinimumWeight())
+          .setContext(new RoutingContext(request, graph, origins.get(i), destinations.get(i)))
+          .setIndexedSearchState(indexed)
+          .getPathsToTarget()
+      );
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package org.opentripplanner.routing.algorithm.astar.landmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.algorithm.astar.AStarBuilder;
+import org.opentripplanner.routing.algorithm.astar.strategies.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.LandmarkRemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.RemainingWeightHeuristic;
+import org.opentripplanner.routing.algorithm.astar.strategies.TrivialRemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.core.State;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.edgetype.StreetEdge;
+import org.opentripplanner.routing.edgetype.StreetTraversalPermission;
+import org.opentripplanner.routing.graph.Edge;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.routing.spt.DominanceFunction;
+import org.opentripplanner.routing.spt.GraphPath;
+import org.opentripplanner.routing.spt.ShortestPathTree;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+public class LandmarkTableTest extends GraphRoutingTest {
+
+  private static final int SIZE = 5;
+
+  private Graph graph;
+  private List<StreetVertex> vertices;
+
+  @BeforeEach
+  public void setUp() {
+    // A grid of streets, with a fast one-way street along the first row and a street closed for
+    // cars in the middle of the grid.
+    var otpModel = graphOf(
+      new Builder() {
+        @Override
+        public void build() {
+          vertices = new ArrayList<>();
+          for (int i = 0; i < SIZE; ++i) {
+            for (int j = 0; j < SIZE; ++j) {
+              vertices.add(intersection(i + "_" + j, 60 + i * 0.001, 10 + j * 0.002));
+            }
+          }
+          for (int i = 0; i < SIZE; ++i) {
+            for (int j = 0; j < SIZE; ++j) {
+              if (j + 1 < SIZE) {
+                if (i == 0) {
+                  street(at(i, j), at(i, j + 1), 110, StreetTraversalPermission.ALL)
+                    .setCarSpeed(30);
+                } else {
+                  street(at(i, j), at(i, j + 1), 110, StreetTraversalPermission.ALL);
+                  street(at(i, j + 1), at(i, j), 110, StreetTraversalPermission.ALL);
+                }
+              }
+              if (i + 1 < SIZE) {
+                var permission = i == 2 && j == 2
+                  ? StreetTraversalPermission.PEDESTRIAN
+                  : StreetTraversalPermission.ALL;
+                street(at(i, j), at(i + 1, j), 100, permission, permission);
+              }
+            }
+          }
+        }
+      }
+    );
+    graph = otpModel.graph;
+  }
+
+  @Test
+  public void lowerBoundsAreAdmissible() {
+    for (TraverseMode mode : List.of(TraverseMode.CAR, TraverseMode.BICYCLE)) {
+      LandmarkTable table = new LandmarkTableBuilder(graph, mode, 4).build();
+      assertEquals(4, table.landmarkCount());
+      assertEquals(SIZE * SIZE, table.rowCount());
+
+      double[][] exact = allPairsCosts(mode);
+      double[] targetFrom = new double[table.landmarkCount()];
+      double[] targetTo = new double[table.landmarkCount()];
+
+      for (int t = 0; t < vertices.size(); ++t) {
+        table.copyCosts(table.row(vertices.get(t)), targetFrom, targetTo);
+        for (int v = 0; v < vertices.size(); ++v) {
+          int row = table.row(vertices.get(v));
+          assertTrue(table.lowerBound(row, targetFrom, targetTo, false) <= exact[v][t] + 1e-9);
+          assertTrue(table.lowerBound(row, targetFrom, targetTo, true) <= exact[t][v] + 1e-9);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void landmarkHeuristicFindsTheSamePaths() {
+    LandmarkTable table = new LandmarkTableBuilder(graph, TraverseMode.CAR, 4).build();
+
+    for (boolean arriveBy : List.of(false, true)) {
+      for (int[] fromTo : new int[][] { { 0, 24 }, { 4, 20 }, { 24, 0 }, { 12, 3 } }) {
+        Vertex from = vertices.get(fromTo[0]);
+        Vertex to = vertices.get(fromTo[1]);
+
+        GraphPath expected = route(from, to, arriveBy, new EuclideanRemainingWeightHeuristic());
+        GraphPath actual = route(from, to, arriveBy, new LandmarkRemainingWeightHeuristic(table));
+
+        assertNotNull(actual);
+        assertEquals(expected.getWeight(), actual.getWeight(), 1e-6);
+      }
+    }
+  }
+
+  @Test
+  public void bicycleEstimateIsAdmissibleWithLowReluctanceAndSafetyFactor() {
+    for (StreetVertex v : vertices) {
+      for (Edge e : v.getOutgoing()) {
+        if (e instanceof StreetEdge street) {
+          street.setBicycleSafetyFactor(0.5f);
+        }
+      }
+    }
+    LandmarkTable table = new LandmarkTableBuilder(graph, TraverseMode.BICYCLE, 4).build();
+    Vertex target = at(0, 0);
+
+    // The weight from every vertex to the target, with a backward search
+    var reverse = new RoutingRequest(TraverseMode.BICYCLE);
+    reverse.bikeReluctance = 0.5;
+    reverse.arriveBy = true;
+    ShortestPathTree spt = new AStarBuilder(new TrivialRemainingWeightHeuristic(), null)
+      .setDominanceFunction(new DominanceFunction.MinimumWeight())
+      .setContext(new RoutingContext(reverse, graph, at(SIZE - 1, SIZE - 1), target))
+      .getShortestPathTree();
+
+    var request = new RoutingRequest(TraverseMode.BICYCLE);
+    request.bikeReluctance = 0.5;
+    var context = new RoutingContext(request, graph, at(SIZE - 1, SIZE - 1), target);
+    var heuristic = new LandmarkRemainingWeightHeuristic(table);
+    heuristic.initialize(context);
+
+    for (StreetVertex v : vertices) {
+      State reached = spt.getState(v);
+      if (reached != null) {
+        double estimate = heuristic.estimateRemainingWeight(new State(v, request, context));
+        assertTrue(estimate <= reached.getWeight() + 1e-6, v + ": " + estimate);
+      }
+    }
+  }
+
+  @Test
+  public void tableIsBuiltOnTheCurrentGraph() {
+    // Create the index before a vertex is removed, like island pruning does
+    graph.getAdjacencyIndex();
+    StreetVertex removed = at(SIZE - 1, SIZE - 1);
+    for (Edge e : List.copyOf(removed.getOutgoing())) {
+      graph.removeEdge(e);
+    }
+    for (Edge e : List.copyOf(removed.getIncoming())) {
+      graph.removeEdge(e);
+    }
+    graph.removeIfUnconnected(removed);
+
+    LandmarkTable table = new LandmarkTableBuilder(graph, TraverseMode.CAR, 4).build();
+
+    assertEquals(SIZE * SIZE - 1, table.rowCount());
+    assertEquals(-1, table.row(removed));
+    assertTrue(graph.getAdjacencyIndex().contains(at(SIZE - 1, SIZE - 2)));
+  }
+
+  private StreetVertex at(int i, int j) {
+    return vertices.get(i * SIZE + j);
+  }
+
+  private GraphPath route(
+    Vertex from,
+    Vertex to,
+    boolean arriveBy,
+    RemainingWeightHeuristic heuristic
+  ) {
+    var request = new RoutingRequest(TraverseMode.CAR);
+    request.arriveBy = arriveBy;
+    return new AStarBuilder(heuristic, null)
+      .setDominanceFunction(new DominanceFunction.MinimumWeight())
+      .setContext(new RoutingContext(request, graph, from, to))
+      .getShortestPathTree()
+      .getPath(arriveBy ? from : to);
+  }
+
+  /** The reference costs between all vertices, with Floyd-Warshall. */
+  private double[][] allPairsCosts(TraverseMode mode) {
+    int n = vertices.size();
+    double[][] costs = new double[n][n];
+    for (int i = 0; i < n; ++i) {
+      for (int j = 0; j < n; ++j) {
+        costs[i][j] = i == j ? 0 : Double.POSITIVE_INFINITY;
+      }
+      for (Edge e : vertices.get(i).getOutgoing()) {
+        double c = LandmarkTable.edgeCost(mode, e);
+        int j = vertices.indexOf(e.getToVertex());
+        if (c >= 0) {
+          costs[i][j] = Math.min(costs[i][j], c);
+        }
+      }
+    }
+    for (int k = 0; k < n; ++k) {
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          costs[i][j] = Math.min(costs[i][j], costs[i][k] + costs[k][j]);
+        }
+      }
+    }
+    return costs;
+  }
+}
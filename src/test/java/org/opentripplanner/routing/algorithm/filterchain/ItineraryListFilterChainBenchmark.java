@@ -0,0 +1,87 @@
+package org.opentripplanner.routing.algorithm.filterchain;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.model.plan.SortOrder;
+
+/**
+ * Filter a list of random itineraries with the default filters: group-by-similarity, remove
+ * transit if street-only is better and crop to the max number of itineraries. The filters do not
+ * need a graph, the itineraries are made with the {@code TestItineraryBuilder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItineraryListFilterChainBenchmark implements PlanTestConstants {
+
+  @Param({ "50", "200" })
+  public int size;
+
+  private List<Itinerary> itineraries;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(42);
+    itineraries = new ArrayList<>();
+    itineraries.add(newItinerary(A, T11_00).walk(3600, E).build());
+    for (int i = 1; i < size; ++i) {
+      int start = T11_00 + random.nextInt(3600);
+      int busEnd = start + D2m + D10m + random.nextInt(1200);
+      var builder = newItinerary(A, start).walk(D2m, B).bus(i, start + D2m, busEnd, C);
+      if (random.nextBoolean()) {
+        builder.walk(D5m, E);
+      } else {
+        builder.rail(i, busEnd + D5m, busEnd + D5m + D10m + random.nextInt(600), E);
+      }
+      itineraries.add(builder.build());
+    }
+  }
+
+  @Benchmark
+  public List<Itinerary> filter() {
+    var chain = new ItineraryListFilterChainBuilder(SortOrder.STREET_AND_ARRIVAL_TIME)
+      .withMaxNumberOfItineraries(20)
+      .addGroupBySimilarity(GroupBySimilarity.createWithOneItineraryPerGroup(0.85))
+      .addGroupBySimilarity(
+        GroupBySimilarity.createWithMoreThanOneItineraryPerGroup(0.68, 3, true, 2.0)
+      )
+      .withRemoveTransitWithHigherCostThanBestOnStreetOnly(true)
+      .build();
+    return chain.filter(copyOf(itineraries));
+  }
+
+  /**
+   * The filters flag the itineraries for deletion, so each invocation filters new copies. The
+   * measured time includes making the copies.
+   */
+  private static List<Itinerary> copyOf(List<Itinerary> itineraries) {
+    List<Itinerary> copies = new ArrayList<>(itineraries.size());
+    for (Itinerary it : itineraries) {
+      var copy = new Itinerary(it.getLegs());
+      copy.setGeneralizedCost(it.getGeneralizedCost());
+      copies.add(copy);
+    }
+    return copies;
+  }
+}
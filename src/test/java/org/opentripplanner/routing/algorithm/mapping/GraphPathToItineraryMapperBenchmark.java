@@ -0,0 +1,77 @@
+package org.opentripplanner.routing.algorithm.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.algorithm.astar.AStarBuilder;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.core.TraverseMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.spt.DominanceFunction;
+import org.opentripplanner.routing.spt.GraphPath;
+import org.opentripplanner.routing.vertextype.StreetVertex;
+
+/**
+ * Map street paths between random vertices on the Portland test graph to itineraries. The paths
+ * are found once, only the mapping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphPathToItineraryMapperBenchmark {
+
+  private static final int N_SEARCHES = 20;
+
+  private final List<GraphPath> paths = new ArrayList<>();
+  private GraphPathToItineraryMapper mapper;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var model = ConstantsForTests.buildNewPortlandGraph(false);
+    Graph graph = model.graph;
+    mapper =
+      new GraphPathToItineraryMapper(
+        model.transitModel.getTimeZone(),
+        graph.streetNotesService,
+        graph.ellipsoidToGeoidDifference
+      );
+
+    List<StreetVertex> vertices = graph.getVerticesOfType(StreetVertex.class);
+    Random random = new Random(42);
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      var origin = vertices.get(random.nextInt(vertices.size()));
+      var destination = vertices.get(random.nextInt(vertices.size()));
+      RoutingRequest request = new RoutingRequest(TraverseMode.CAR);
+      paths.addAll(
+        AStarBuilder
+          .oneToOne()
+          .setDominanceFunction(new DominanceFunction.MinimumWeight())
+          .setContext(new RoutingContext(request, graph, origin, destination))
+          .getPathsToTarget()
+      );
+    }
+  }
+
+  @Benchmark
+  public List<Itinerary> mapItineraries() {
+    return mapper.mapItineraries(paths);
+  }
+}
@@ -0,0 +1,83 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TransferWithDuration;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTransfer;
+
+class RaptorTransferIndexTest {
+
+  private final RoutingRequest request = new RoutingRequest();
+  private final RoutingContext routingContext = new RoutingContext(
+    request,
+    new Graph(),
+    Set.of(),
+    Set.of()
+  );
+
+  private final Transfer t01 = new Transfer(1, 100);
+  private final Transfer t02 = new Transfer(2, 200);
+  private final Transfer t02Long = new Transfer(2, 300);
+  private final Transfer t21 = new Transfer(1, 50);
+
+  private final RaptorTransferIndex subject = RaptorTransferIndex.create(
+    List.of(List.of(t01, t02Long, t02), List.of(), List.of(t21)),
+    routingContext
+  );
+
+  @Test
+  void forwardTransfers() {
+    var cursor = subject.forwardCursor();
+
+    var transfers = toList(cursor.reset(0));
+    assertEquals(2, transfers.size());
+    // Only the cheapest transfer to each stop is kept
+    assertEquals(Set.of(t01, t02), Set.of(transfer(transfers.get(0)), transfer(transfers.get(1))));
+
+    assertFalse(cursor.reset(1).hasNext());
+
+    // The cursor is reused for the next stop
+    transfers = toList(cursor.reset(2));
+    assertEquals(1, transfers.size());
+    assertEquals(1, transfers.get(0).stop());
+    assertSame(t21, transfer(transfers.get(0)));
+  }
+
+  @Test
+  void reversedTransfers() {
+    var transfers = toList(subject.reversedCursor().reset(1));
+
+    // Ordered by the from-stop
+    assertEquals(List.of(0, 2), transfers.stream().map(RaptorTransfer::stop).toList());
+    assertEquals((int) Math.ceil(50 / request.walkSpeed), transfers.get(1).durationInSeconds());
+    assertFalse(subject.reversedCursor().reset(0).hasNext());
+  }
+
+  @Test
+  void transfersAreCreatedOnceWithTheIndex() {
+    var forward = subject.forwardCursor();
+    var reversed = subject.reversedCursor();
+
+    assertSame(forward.reset(2).next(), forward.reset(2).next());
+    assertSame(reversed.reset(1).next(), subject.reversedCursor().reset(1).next());
+  }
+
+  private static List<RaptorTransfer> toList(RaptorTransferIndex.Cursor cursor) {
+    var result = new ArrayList<RaptorTransfer>();
+    cursor.forEachRemaining(result::add);
+    return result;
+  }
+
+  private static Transfer transfer(RaptorTransfer it) {
+    return ((TransferWithDuration) it).transfer();
+  }
+}
@@ -0,0 +1,105 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opentripplanner.model.StopPattern;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.TripPattern;
+import org.opentripplanner.routing.trippattern.TripTimes;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+
+class TripPatternForDateListTest {
+
+  private static final LocalDate DATE = LocalDate.of(2022, 1, 1);
+
+  private static final int N = 3 * TripPatternForDateList.BLOCK_SIZE + 5;
+
+  private final List<TripPatternForDate> patterns = createPatterns(N + 10);
+
+  @Test
+  void containsAllElements() {
+    var subject = TripPatternForDateList.of(patterns.subList(0, N));
+
+    assertEquals(N, subject.size());
+    assertEquals(Set.copyOf(patterns.subList(0, N)), new HashSet<>(subject));
+  }
+
+  @Test
+  void previousVersionIsNotChanged() {
+    var previous = TripPatternForDateList.of(patterns.subList(0, N));
+
+    var editor = previous.edit();
+    editor.remove(patterns.get(0));
+    editor.remove(patterns.get(N - 1));
+    editor.add(patterns.get(N));
+    var subject = editor.build();
+
+    assertEquals(Set.copyOf(patterns.subList(0, N)), new HashSet<>(previous));
+    var expected = new HashSet<>(patterns.subList(1, N + 1));
+    expected.remove(patterns.get(N - 1));
+    assertEquals(expected, new HashSet<>(subject));
+    assertEquals(N - 1, subject.size());
+  }
+
+  @Test
+  void editorContinuesWithTheNextVersion() {
+    var editor = TripPatternForDateList.of(patterns.subList(0, 10)).edit();
+
+    assertTrue(editor.remove(patterns.get(3)));
+    assertFalse(editor.remove(patterns.get(3)));
+    var first = editor.build();
+    assertTrue(editor.add(patterns.get(3)));
+    assertFalse(editor.add(patterns.get(3)));
+    assertTrue(editor.remove(patterns.get(4)));
+    var second = editor.build();
+
+    assertEquals(9, first.size());
+    assertEquals(9, second.size());
+    var expected = new HashSet<>(patterns.subList(0, 10));
+    expected.remove(patterns.get(4));
+    assertEquals(expected, new HashSet<>(second));
+  }
+
+  @Test
+  void removeMostElements() {
+    var editor = TripPatternForDateList.of(patterns.subList(0, N)).edit();
+
+    for (int i = 0; i < N - 2; ++i) {
+      editor.remove(patterns.get(i));
+    }
+    var subject = editor.build();
+
+    assertEquals(Set.copyOf(patterns.subList(N - 2, N)), new HashSet<>(subject));
+    assertEquals(2, subject.size());
+  }
+
+  /** Create patterns which are different because they are for different dates. */
+  private static List<TripPatternForDate> createPatterns(int n) {
+    var stopTime = new StopTime();
+    stopTime.setStop(TransitModelForTest.stopForTest("TEST:STOP", 0, 0));
+    var pattern = new TripPattern(
+      TransitModelForTest.id("P1"),
+      TransitModelForTest.route("1").build(),
+      new StopPattern(List.of(stopTime))
+    );
+    var tripPattern = new TripPatternWithRaptorStopIndexes(pattern, new int[0]);
+    var tripTimes = Mockito.mock(TripTimes.class);
+
+    var result = new ArrayList<TripPatternForDate>();
+    for (int i = 0; i < n; ++i) {
+      result.add(
+        new TripPatternForDate(tripPattern, List.of(tripTimes), List.of(), DATE.plusDays(i))
+      );
+    }
+    return result;
+  }
+}
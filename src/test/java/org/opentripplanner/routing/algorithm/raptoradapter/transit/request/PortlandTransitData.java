@@ -0,0 +1,72 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import io.micrometer.core.instrument.Metrics;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.api.request.RoutingRequest;
+import org.opentripplanner.routing.core.RoutingContext;
+import org.opentripplanner.routing.graph.Vertex;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.standalone.server.Router;
+import org.opentripplanner.transit.raptor.util.IntIterators;
+import org.opentripplanner.util.time.ServiceDateUtils;
+
+/**
+ * Raptor transit data for the Portland test graph, shared by the Raptor benchmarks. The data is
+ * created for a day within the service period of the Portland GTFS feed.
+ */
+class PortlandTransitData {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2009, 11, 17);
+
+  private PortlandTransitData() {}
+
+  static RaptorRoutingRequestTransitData create() {
+    var model = ConstantsForTests.buildNewPortlandGraph(false);
+    var router = new Router(
+      model.graph,
+      model.transitModel,
+      RouterConfig.DEFAULT,
+      Metrics.globalRegistry
+    );
+    // The transit layer is created when the router starts
+    router.startup();
+
+    ZoneId zoneId = model.transitModel.getTimeZone();
+    RoutingRequest request = router.copyDefaultRoutingRequest();
+    request.setDateTime(SERVICE_DATE.atStartOfDay(zoneId).toInstant());
+
+    return new RaptorRoutingRequestTransitData(
+      model.transitModel.getTransferService(),
+      model.transitModel.getTransitLayer(),
+      ServiceDateUtils.asStartOfService(SERVICE_DATE, zoneId),
+      0,
+      0,
+      new RoutingRequestTransitDataProviderFilter(request, model.transitModel.index),
+      new RoutingContext(
+        Transfer.prepareTransferRoutingRequest(request),
+        model.graph,
+        (Vertex) null,
+        null
+      )
+    );
+  }
+
+  /** Pick random stops served by at least one pattern, the same stops for the same seed. */
+  static List<Integer> randomStops(RaptorRoutingRequestTransitData data, int n, long seed) {
+    Random random = new Random(seed);
+    List<Integer> stops = new ArrayList<>();
+    while (stops.size() < n) {
+      int stop = random.nextInt(data.numberOfStops());
+      if (data.routeIndexIterator(IntIterators.singleValueIterator(stop)).hasNext()) {
+        stops.add(stop);
+      }
+    }
+    return stops;
+  }
+}
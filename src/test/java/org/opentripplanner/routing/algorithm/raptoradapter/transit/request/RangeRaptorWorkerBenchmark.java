@@ -0,0 +1,93 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.transit.raptor._data.transit.TestTransfer;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+import org.opentripplanner.transit.raptor.rangeraptor.internalapi.Worker;
+import org.opentripplanner.util.time.TimeUtils;
+
+/**
+ * Run the standard and multi-criteria Range Raptor workers between random stops on the Portland
+ * test graph, without heuristics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RangeRaptorWorkerBenchmark {
+
+  private static final int N_SEARCHES = 10;
+  private static final int ACCESS_EGRESS_DURATION = 120;
+
+  private final RaptorConfig<TripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private RaptorRoutingRequestTransitData transitData;
+  private final List<RaptorRequest<TripSchedule>> stdRequests = new ArrayList<>();
+  private final List<RaptorRequest<TripSchedule>> mcRequests = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    transitData = PortlandTransitData.create();
+    List<Integer> stops = PortlandTransitData.randomStops(transitData, 2 * N_SEARCHES, 42);
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      int origin = stops.get(2 * i);
+      int destination = stops.get(2 * i + 1);
+      stdRequests.add(request(RaptorProfile.STANDARD, origin, destination));
+      mcRequests.add(request(RaptorProfile.MULTI_CRITERIA, origin, destination));
+    }
+  }
+
+  @Benchmark
+  public void standard(Blackhole blackhole) {
+    for (RaptorRequest<TripSchedule> request : stdRequests) {
+      Worker<TripSchedule> worker = config.createStdWorker(transitData, request);
+      worker.route();
+      blackhole.consume(worker.paths());
+    }
+  }
+
+  @Benchmark
+  public void multiCriteria(Blackhole blackhole) {
+    for (RaptorRequest<TripSchedule> request : mcRequests) {
+      Worker<TripSchedule> worker = config.createMcWorker(transitData, request, null);
+      worker.route();
+      blackhole.consume(worker.paths());
+    }
+  }
+
+  private static RaptorRequest<TripSchedule> request(
+    RaptorProfile profile,
+    int origin,
+    int destination
+  ) {
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+    builder.profile(profile);
+    builder
+      .searchParams()
+      .addAccessPaths(TestTransfer.walk(origin, ACCESS_EGRESS_DURATION))
+      .addEgressPaths(TestTransfer.walk(destination, ACCESS_EGRESS_DURATION))
+      .earliestDepartureTime(TimeUtils.hm2time(8, 0))
+      .searchWindowInSeconds(30 * 60)
+      .latestArrivalTime(TimeUtils.hm2time(10, 0));
+    return builder.build();
+  }
+}
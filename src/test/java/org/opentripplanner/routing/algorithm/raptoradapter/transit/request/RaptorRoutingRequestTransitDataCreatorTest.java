@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
 
 import java.time.LocalDate;
@@ -92,6 +93,10 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     assertEquals(-82800, ((TripScheduleWithOffset) r3.getTripSchedule(0)).getSecondsOffset());
     assertEquals(0, ((TripScheduleWithOffset) r3.getTripSchedule(1)).getSecondsOffset());
     assertEquals(86400, ((TripScheduleWithOffset) r3.getTripSchedule(2)).getSecondsOffset());
+
+    // The trip schedules are created once and reused by the trip searches
+    assertSame(r3.getTripSchedule(1), r3.getTripSchedule(1));
+    assertEquals(LocalDate.of(2019, 3, 31), r3.getTripSchedule(1).getServiceDate());
   }
 
   private static TripPatternForDates findTripPatternForDate(
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -114,6 +115,50 @@ public class RoutingRequestTransitDataProviderFilterTest {
     assertTrue(valid);
   }
 
+  @Test
+  public void equalFiltersForSimilarRequests() {
+    var filter = new RoutingRequestTransitDataProviderFilter(
+      false,
+      DEFAULT_ACCESSIBILITY,
+      false,
+      List.of(new MainAndSubMode(TransitMode.BUS), new MainAndSubMode(TransitMode.RAIL)),
+      Set.of(ROUTE.getId()),
+      Set.of()
+    );
+
+    // The order of the modes and the accessibility costs do not change the result
+    var same = new RoutingRequestTransitDataProviderFilter(
+      false,
+      new WheelchairAccessibilityRequest(
+        false,
+        DEFAULT_ACCESSIBILITY.trip(),
+        DEFAULT_ACCESSIBILITY.stop(),
+        DEFAULT_ACCESSIBILITY.elevator(),
+        DEFAULT_ACCESSIBILITY.inaccessibleStreetReluctance() + 1,
+        DEFAULT_ACCESSIBILITY.maxSlope(),
+        DEFAULT_ACCESSIBILITY.slopeExceededReluctance(),
+        DEFAULT_ACCESSIBILITY.stairsReluctance()
+      ),
+      false,
+      List.of(new MainAndSubMode(TransitMode.RAIL), new MainAndSubMode(TransitMode.BUS)),
+      Set.of(ROUTE.getId()),
+      Set.of()
+    );
+
+    var different = new RoutingRequestTransitDataProviderFilter(
+      false,
+      DEFAULT_ACCESSIBILITY.withEnabled(true),
+      false,
+      List.of(new MainAndSubMode(TransitMode.BUS), new MainAndSubMode(TransitMode.RAIL)),
+      Set.of(ROUTE.getId()),
+      Set.of()
+    );
+
+    assertEquals(filter, same);
+    assertEquals(filter.hashCode(), same.hashCode());
+    assertNotEquals(filter, different);
+  }
+
   @Test
   public void bannedRouteFilteringTest() {
     TripPatternForDate tripPatternForDate = createTestTripPatternForDate();
@@ -0,0 +1,131 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.transit.raptor._data.transit.TestRoute;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleBoardOrAlightEvent;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleSearch;
+import org.opentripplanner.transit.raptor.api.transit.SearchDirection;
+import org.opentripplanner.transit.raptor.util.IntIterators;
+import org.opentripplanner.util.time.TimeUtils;
+
+/**
+ * Search for the first trip to board at random stop positions and times in all trip patterns of
+ * the Portland test graph, and in a dense bus pattern with a departure every few minutes all day.
+ * The dense pattern has more trips than the binary search threshold, so both the linear and the
+ * binary search are measured. The trip of each result is fetched, like the routing strategies do
+ * after each search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final int N_SEARCHES_PER_PATTERN = 10;
+
+  private static final int DENSE_PATTERN_N_STOPS = 30;
+  private static final int DENSE_PATTERN_HEADWAY = 240;
+  private static final int DENSE_PATTERN_TRAVEL_TIME_BETWEEN_STOPS = 120;
+  private static final int N_DENSE_PATTERN_SEARCHES = 1000;
+
+  private final List<RaptorTripScheduleSearch<TripSchedule>> searches = new ArrayList<>();
+  private final List<int[]> stopPositions = new ArrayList<>();
+  private final List<int[]> boardTimes = new ArrayList<>();
+
+  private RaptorTripScheduleSearch<TestTripSchedule> denseSearch;
+  private final int[] denseStopPositions = new int[N_DENSE_PATTERN_SEARCHES];
+  private final int[] denseBoardTimes = new int[N_DENSE_PATTERN_SEARCHES];
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var transitData = PortlandTransitData.create();
+    var routes = transitData.routeIndexIterator(
+      IntIterators.intIncIterator(0, transitData.numberOfStops())
+    );
+    Random random = new Random(42);
+    while (routes.hasNext()) {
+      var timetable = (TripPatternForDates) transitData.getRouteForIndex(routes.next());
+      int[] stopPos = new int[N_SEARCHES_PER_PATTERN];
+      int[] times = new int[N_SEARCHES_PER_PATTERN];
+      for (int i = 0; i < N_SEARCHES_PER_PATTERN; ++i) {
+        // The last stop can not be boarded
+        stopPos[i] = random.nextInt(timetable.numberOfStopsInPattern() - 1);
+        times[i] = TimeUtils.hm2time(5, 0) + random.nextInt(18 * 3600);
+      }
+      searches.add(TripScheduleSearchFactory.create(SearchDirection.FORWARD, timetable));
+      stopPositions.add(stopPos);
+      boardTimes.add(times);
+    }
+    setupDenseBusPattern(random);
+  }
+
+  @Benchmark
+  public void boardSearch(Blackhole blackhole) {
+    for (int p = 0; p < searches.size(); ++p) {
+      var search = searches.get(p);
+      int[] stopPos = stopPositions.get(p);
+      int[] times = boardTimes.get(p);
+      for (int i = 0; i < N_SEARCHES_PER_PATTERN; ++i) {
+        blackhole.consume(tripOf(search.search(times[i], stopPos[i])));
+      }
+    }
+  }
+
+  @Benchmark
+  public void boardSearchDenseBusPattern(Blackhole blackhole) {
+    for (int i = 0; i < N_DENSE_PATTERN_SEARCHES; ++i) {
+      blackhole.consume(tripOf(denseSearch.search(denseBoardTimes[i], denseStopPositions[i])));
+    }
+  }
+
+  private static <T extends RaptorTripSchedule> T tripOf(
+    RaptorTripScheduleBoardOrAlightEvent<T> result
+  ) {
+    return result == null ? null : result.getTrip();
+  }
+
+  private void setupDenseBusPattern(Random random) {
+    int[] stops = new int[DENSE_PATTERN_N_STOPS];
+    for (int s = 0; s < DENSE_PATTERN_N_STOPS; ++s) {
+      stops[s] = s;
+    }
+    var trips = new ArrayList<TestTripSchedule.Builder>();
+    int lastDeparture = TimeUtils.hm2time(24, 0);
+    for (int t = TimeUtils.hm2time(5, 0); t < lastDeparture; t += DENSE_PATTERN_HEADWAY) {
+      int[] times = new int[DENSE_PATTERN_N_STOPS];
+      for (int s = 0; s < DENSE_PATTERN_N_STOPS; ++s) {
+        times[s] = t + s * DENSE_PATTERN_TRAVEL_TIME_BETWEEN_STOPS;
+      }
+      trips.add(TestTripSchedule.schedule().departures(times));
+    }
+    var route = TestRoute
+      .route("Dense", stops)
+      .withTimetable(trips.toArray(TestTripSchedule.Builder[]::new));
+    denseSearch = route.tripSearch(SearchDirection.FORWARD);
+
+    for (int i = 0; i < N_DENSE_PATTERN_SEARCHES; ++i) {
+      denseStopPositions[i] = random.nextInt(DENSE_PATTERN_N_STOPS - 1);
+      denseBoardTimes[i] = TimeUtils.hm2time(5, 0) + random.nextInt(18 * 3600);
+    }
+  }
+}
@@ -16,10 +16,12 @@ import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.common.geometry.GeometryUtils;
 import org.opentripplanner.common.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.astar.AStarBuilder;
 import org.opentripplanner.routing.api.request.RoutingRequest;
 import org.opentripplanner.routing.edgetype.StreetEdge;
 import org.opentripplanner.routing.edgetype.StreetTraversalPermission;
 import org.opentripplanner.routing.edgetype.TemporaryEdge;
+import org.opentripplanner.routing.graph.AdjacencyIndex;
 import org.opentripplanner.routing.graph.Edge;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.Vertex;
@@ -82,6 +84,32 @@ public class TemporaryVerticesContainerTest {
     }
   }
 
+  @Test
+  public void permanentVerticesStayInTheAdjacencyIndexAfterRouting() {
+    AdjacencyIndex index = g.getAdjacencyIndex();
+
+    // Route twice, the temporary edges are added to and removed from the permanent vertices
+    for (int i = 0; i < 2; ++i) {
+      RoutingRequest request = new RoutingRequest();
+      request.from = from;
+      request.to = to;
+
+      try (var temporaryVertices = new TemporaryVerticesContainer(g, request)) {
+        var paths = AStarBuilder
+          .oneToOne()
+          .setContext(new RoutingContext(request, g, temporaryVertices))
+          .setIndexedSearchState(true)
+          .getPathsToTarget();
+        assertFalse(paths.isEmpty());
+      }
+
+      for (Vertex v : permanentVertexes) {
+        assertTrue(index.contains(v), v.getLabel());
+        assertFalse(v.hasTemporaryEdges(), v.getLabel());
+      }
+    }
+  }
+
   private static <T extends Collection<String>> T findAllReachableVertexes(
     Vertex vertex,
     boolean forward,
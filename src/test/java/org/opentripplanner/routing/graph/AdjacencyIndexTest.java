@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.edgetype.TemporaryEdge;
+
+public class AdjacencyIndexTest {
+
+  private final Graph graph = new Graph();
+  private final Vertex a = new SimpleConcreteVertex(graph, "A", 60.0, 10.0);
+  private final Vertex b = new SimpleConcreteVertex(graph, "B", 60.0, 10.1);
+  private final Vertex c = new SimpleConcreteVertex(graph, "C", 60.1, 10.1);
+  private final Edge ab = new SimpleConcreteEdge(a, b);
+  private final Edge ac = new SimpleConcreteEdge(a, c);
+  private final Edge bc = new SimpleConcreteEdge(b, c);
+  private final Edge cb = new SimpleConcreteEdge(c, b);
+
+  @Test
+  public void denseIndices() {
+    AdjacencyIndex index = graph.getAdjacencyIndex();
+
+    assertEquals(3, index.vertexCount());
+    assertEquals(4, index.edgeCount());
+    for (Vertex v : List.of(a, b, c)) {
+      assertTrue(v.getIndex() >= 0 && v.getIndex() < 3);
+      assertEquals(v, index.vertex(v.getIndex()));
+    }
+    for (Edge e : List.of(ab, ac, bc, cb)) {
+      assertTrue(e.getIndex() >= 0 && e.getIndex() < 4);
+      assertEquals(e, index.edge(e.getIndex()));
+    }
+  }
+
+  @Test
+  public void edgesInBothDirections() {
+    AdjacencyIndex index = graph.getAdjacencyIndex();
+
+    assertEquals(List.of(ab, ac), edges(index, a, false));
+    assertEquals(List.of(), edges(index, a, true));
+    assertEquals(List.of(bc), edges(index, b, false));
+    assertEquals(List.of(ab, cb), edges(index, b, true));
+    assertEquals(List.of(ac, bc), edges(index, c, true));
+  }
+
+  @Test
+  public void modifiedVerticesAreNotContained() {
+    AdjacencyIndex index = graph.getAdjacencyIndex();
+    assertTrue(index.contains(a));
+    assertTrue(index.contains(c));
+
+    Vertex temporary = new SimpleConcreteVertex(null, "T", 60.0, 10.05);
+    Edge e = new SimpleConcreteEdge(a, temporary);
+
+    assertFalse(index.contains(a));
+    assertFalse(index.contains(temporary));
+    assertTrue(index.contains(c));
+    assertEquals(Vertex.NO_INDEX, temporary.getIndex());
+    assertEquals(Edge.NO_INDEX, e.getIndex());
+    assertNotEquals(Vertex.NO_INDEX, a.getIndex());
+  }
+
+  @Test
+  public void temporaryEdgesDoNotRemoveVerticesFromTheIndex() {
+    AdjacencyIndex index = graph.getAdjacencyIndex();
+
+    Vertex temporary = new SimpleConcreteVertex(null, "T", 60.0, 10.05);
+    Edge e = new TemporaryConcreteEdge(a, temporary);
+
+    assertTrue(index.contains(a));
+    assertTrue(a.hasTemporaryEdges());
+    assertEquals(List.of(ab, ac), edges(index, a, false));
+
+    a.removeOutgoing(e);
+
+    assertTrue(index.contains(a));
+    assertFalse(a.hasTemporaryEdges());
+  }
+
+  private static List<Edge> edges(AdjacencyIndex index, Vertex v, boolean incoming) {
+    List<Edge> result = new ArrayList<>();
+    int end = index.edgesEnd(v.getIndex(), incoming);
+    for (int i = index.edgesStart(v.getIndex(), incoming); i < end; ++i) {
+      result.add(index.edge(index.edgeAt(i, incoming)));
+    }
+    return result;
+  }
+
+  private static class TemporaryConcreteEdge extends SimpleConcreteEdge implements TemporaryEdge {
+
+    TemporaryConcreteEdge(Vertex v1, Vertex v2) {
+      super(v1, v2);
+    }
+  }
+}
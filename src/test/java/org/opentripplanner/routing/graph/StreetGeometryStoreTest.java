@@ -0,0 +1,97 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.jupiter.api.Test;
+
+class StreetGeometryStoreTest {
+
+  private static final byte[] A = { 1, 2, 3 };
+  private static final byte[] B = { 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+
+  @Test
+  void addAndGet() {
+    var builder = new StreetGeometryStore.Builder();
+    int a = builder.add(A);
+    int b = builder.add(B);
+    var subject = builder.build();
+
+    assertNotEquals(a, b);
+    assertArrayEquals(A, subject.get(a));
+    assertArrayEquals(B, subject.get(b));
+  }
+
+  @Test
+  void storeSharedGeometriesOnce() {
+    var builder = new StreetGeometryStore.Builder();
+    int a = builder.add(A);
+
+    assertEquals(a, builder.add(A));
+    assertEquals(8, builder.build().size());
+  }
+
+  @Test
+  void readAfterWrite() {
+    var builder = new StreetGeometryStore.Builder();
+    int a = builder.add(A);
+    int b = builder.add(B);
+    var bytes = new ByteArrayOutputStream();
+    var store = builder.build();
+    try (var output = new Output(bytes)) {
+      store.write(output);
+    }
+
+    var subject = deserializedCopy(store);
+    subject.read(new Input(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertArrayEquals(A, subject.get(a));
+    assertArrayEquals(B, subject.get(b));
+  }
+
+  @Test
+  void mapAfterWrite() throws IOException {
+    var builder = new StreetGeometryStore.Builder();
+    int a = builder.add(A);
+    int b = builder.add(B);
+    File file = File.createTempFile("geometry", ".bin");
+    file.deleteOnExit();
+    var store = builder.build();
+    try (var output = new Output(new FileOutputStream(file))) {
+      // Something written before the store, like the graph
+      output.writeInt(42);
+      store.write(output);
+    }
+
+    var subject = deserializedCopy(store);
+    subject.map(file, Integer.BYTES);
+
+    assertArrayEquals(A, subject.get(a));
+    assertArrayEquals(B, subject.get(b));
+  }
+
+  /** A copy of the store without the content, like the store in a deserialized graph. */
+  private static StreetGeometryStore deserializedCopy(StreetGeometryStore store) {
+    try {
+      var bytes = new ByteArrayOutputStream();
+      try (var out = new ObjectOutputStream(bytes)) {
+        out.writeObject(store);
+      }
+      try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+        return (StreetGeometryStore) in.readObject();
+      }
+    } catch (IOException | ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
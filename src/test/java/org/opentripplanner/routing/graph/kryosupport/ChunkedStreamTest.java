@@ -0,0 +1,106 @@
+package org.opentripplanner.routing.graph.kryosupport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ChunkedStreamTest {
+
+  private static final int N_THREADS = 3;
+  private static final byte[] TRAILER = { 7, 8, 9 };
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(N_THREADS);
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void readWhatIsWritten() throws IOException {
+    // More than a few chunks, to fill the read ahead and the pending writes
+    byte[] data = data(10 * ChunkedOutputStream.CHUNK_SIZE + 17);
+    byte[] file = write(data);
+
+    var in = new ByteArrayInputStream(file);
+    var subject = newInputStream(in);
+
+    assertArrayEquals(data, subject.readAllBytes());
+    assertEquals(file.length - TRAILER.length, subject.sectionSize());
+    // The underlying stream is positioned after the section
+    assertArrayEquals(TRAILER, in.readAllBytes());
+  }
+
+  @Test
+  void closeSkipsTheRestOfTheSection() throws IOException {
+    byte[] file = write(data(3 * ChunkedOutputStream.CHUNK_SIZE));
+
+    var in = new ByteArrayInputStream(file);
+    var subject = newInputStream(in);
+    subject.read();
+    subject.close();
+
+    assertArrayEquals(TRAILER, in.readAllBytes());
+  }
+
+  @Test
+  void emptySection() throws IOException {
+    byte[] file = write(new byte[0]);
+
+    var in = new ByteArrayInputStream(file);
+
+    assertEquals(-1, newInputStream(in).read());
+    assertArrayEquals(TRAILER, in.readAllBytes());
+  }
+
+  @Test
+  void detectCorruptChunks() throws IOException {
+    byte[] file = write(data(1000));
+    // Flip a bit in the checksum of the first chunk
+    file[ChunkedInputStream.HEADER_SIZE - 1] ^= 1;
+
+    var subject = newInputStream(new ByteArrayInputStream(file));
+
+    var exception = assertThrows(IOException.class, subject::readAllBytes);
+    assertEquals(
+      "Failed to read graph chunk: Graph chunk checksum mismatch, the graph file is corrupt.",
+      exception.getMessage()
+    );
+  }
+
+  private byte[] write(byte[] data) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var subject = new ChunkedOutputStream(out, executor, N_THREADS, "Test", -1, m -> {})) {
+      // Write in pieces not aligned with the chunks, like Kryo
+      for (int i = 0; i < data.length; i += 1000) {
+        subject.write(data, i, Math.min(1000, data.length - i));
+        subject.flush();
+      }
+    }
+    out.write(TRAILER);
+    return out.toByteArray();
+  }
+
+  private ChunkedInputStream newInputStream(ByteArrayInputStream in) {
+    return new ChunkedInputStream(in, executor, N_THREADS, "Test", -1, m -> {});
+  }
+
+  /** Data which is partly compressible, like a serialized graph. */
+  private static byte[] data(int size) {
+    var random = new Random(42);
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; ++i) {
+      data[i] = (byte) (i % 3 == 0 ? random.nextInt() : i / 1024);
+    }
+    return data;
+  }
+}
@@ -0,0 +1,42 @@
+package org.opentripplanner.standalone.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitedExecutorTest {
+
+  private static final int LIMIT = 2;
+  private static final int TASKS = 20;
+
+  @Test
+  void limitTheNumberOfRunningTasks() throws InterruptedException {
+    var subject = new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), LIMIT);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var done = new CountDownLatch(TASKS);
+
+    for (int i = 0; i < TASKS; ++i) {
+      subject.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertTrue(maxRunning.get() <= LIMIT);
+    assertEquals(0, running.get());
+    subject.shutdown();
+  }
+}
@@ -119,9 +119,13 @@ public class RaptorArchitectureTest {
       .dependsOn(rrCommon, mcArrivals)
       .verify();
     RR_MULTI_CRITERIA.dependsOn(rrCommon, mcArrivals, mcHeuristics).verify();
+    var mcArena = RR_MULTI_CRITERIA
+      .subPackage("arena")
+      .dependsOn(rrCommon, mcHeuristics, RR_MULTI_CRITERIA)
+      .verify();
 
     RR_MC_CONFIGURE
-      .dependsOn(rrCommon, RR_CONTEXT, pathConfigure, mcHeuristics, RR_MULTI_CRITERIA)
+      .dependsOn(rrCommon, RR_CONTEXT, pathConfigure, mcHeuristics, RR_MULTI_CRITERIA, mcArena)
       .verify();
   }
 
@@ -1,6 +1,5 @@
 package org.opentripplanner.transit.raptor._data.transit;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripSearchTimetable;
 import org.opentripplanner.transit.raptor.api.transit.RaptorTripScheduleSearch;
@@ -9,6 +8,8 @@ import org.opentripplanner.transit.raptor.api.transit.SearchDirection;
 public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSchedule> {
 
   private final TestTripSchedule[] trips;
+  private final int[] arrivalTimes;
+  private final int[] departureTimes;
 
   public TestTripSearchTimetable(TestRoute route) {
     int nTrips = route.timetable().numberOfTripSchedules();
@@ -17,6 +18,17 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
     for (int i = 0; i < nTrips; ++i) {
       trips[i] = route.getTripSchedule(i);
     }
+
+    int nStops = route.pattern().numberOfStopsInPattern();
+    this.arrivalTimes = new int[nStops * nTrips];
+    this.departureTimes = new int[nStops * nTrips];
+
+    for (int s = 0; s < nStops; ++s) {
+      for (int i = 0; i < nTrips; ++i) {
+        arrivalTimes[s * nTrips + i] = trips[i].arrival(s);
+        departureTimes[s * nTrips + i] = trips[i].departure(s);
+      }
+    }
   }
 
   @Override
@@ -30,13 +42,13 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
   }
 
   @Override
-  public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    return (int tripIndex) -> trips[tripIndex].arrival(stopPositionInPattern);
+  public int[] arrivalTimes() {
+    return arrivalTimes;
   }
 
   @Override
-  public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    return (int tripIndex) -> trips[tripIndex].departure(stopPositionInPattern);
+  public int[] departureTimes() {
+    return departureTimes;
   }
 
   @Override
@@ -0,0 +1,158 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.util.time.TimeUtils.hm2time;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestRoute;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.Optimization;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequest;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider;
+import org.opentripplanner.transit.raptor.configure.HeuristicsCache;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+
+/**
+ * Feature under test
+ * <p>
+ * Requests to the same destination share the reverse heuristics, and the result is the same as
+ * without the cache.
+ */
+public class G02_HeuristicsCacheTest implements RaptorTestConstants {
+
+  /** The slack is part of the cache key, the requests must share the same instance. */
+  private static final RaptorSlackProvider SLACK = RaptorSlackProvider.defaultSlackProvider(
+    D1m,
+    0,
+    0
+  );
+
+  private final TestTransitData data = new TestTransitData() {
+    @Override
+    public Object transitDataKey() {
+      return "data";
+    }
+  };
+
+  private final RaptorConfig<TestTripSchedule> config = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int heuristicsCacheMaxSize() {
+        return 10;
+      }
+    }
+  );
+  private final RaptorService<TestTripSchedule> cachedService = new RaptorService<>(config);
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * <pre>
+   * Routes:
+   *   R1:  A - B - C - D
+   *   R2:  B - E - D
+   * Egress:
+   *   D  1m
+   * </pre>
+   */
+  @BeforeEach
+  public void setup() {
+    data.withRoutes(
+      TestRoute
+        .route("R1", STOP_A, STOP_B, STOP_C, STOP_D)
+        .withTimetable(schedule("0:10 0:15 0:20 0:30"), schedule("0:20 0:25 0:30 0:40")),
+      TestRoute.route("R2", STOP_B, STOP_E, STOP_D).withTimetable(schedule("0:17 0:22 0:27"))
+    );
+  }
+
+  @Test
+  public void requestsToTheSameDestinationShareTheHeuristics() {
+    var fromA = request(STOP_A, hm2time(0, 50));
+    var fromB = request(STOP_B, hm2time(0, 55));
+
+    assertEquals(route(raptorService, fromA), route(cachedService, fromA));
+    assertEquals(route(raptorService, fromB), route(cachedService, fromB));
+
+    HeuristicsCache cache = config.heuristicsCache();
+    assertNotNull(cache);
+    assertEquals(1, cache.missCount());
+    assertEquals(1, cache.hitCount());
+    assertEquals(0.5, cache.hitRatio());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void clearRemovesTheHeuristics() {
+    route(cachedService, request(STOP_A, hm2time(0, 50)));
+    HeuristicsCache cache = config.heuristicsCache();
+    cache.clear();
+    assertEquals(0, cache.size());
+
+    route(cachedService, request(STOP_B, hm2time(0, 55)));
+    assertEquals(2, cache.missCount());
+    assertEquals(0, cache.hitCount());
+  }
+
+  @Test
+  public void otherTimeBucketIsNotShared() {
+    route(cachedService, request(STOP_A, hm2time(1, 0)));
+    route(cachedService, request(STOP_A, hm2time(1, 20)));
+
+    HeuristicsCache cache = config.heuristicsCache();
+    assertEquals(2, cache.missCount());
+    assertEquals(0, cache.hitCount());
+  }
+
+  @Test
+  public void otherEgressIsNotShared() {
+    route(cachedService, request(STOP_A, hm2time(1, 0)));
+    var otherEgress = requestBuilder(STOP_A, hm2time(1, 0));
+    otherEgress.searchParams().addEgressPaths(walk(STOP_E, D1m));
+    route(cachedService, otherEgress.build());
+
+    HeuristicsCache cache = config.heuristicsCache();
+    assertEquals(2, cache.missCount());
+    assertEquals(0, cache.hitCount());
+  }
+
+  private RaptorRequest<TestTripSchedule> request(int fromStop, int latestArrivalTime) {
+    return requestBuilder(fromStop, latestArrivalTime).build();
+  }
+
+  private RaptorRequestBuilder<TestTripSchedule> requestBuilder(
+    int fromStop,
+    int latestArrivalTime
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder.profile(RaptorProfile.MULTI_CRITERIA);
+    builder.slackProvider(SLACK);
+    builder.optimizations().add(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+    builder
+      .searchParams()
+      .addAccessPaths(walk(fromStop, D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(latestArrivalTime)
+      .searchWindowInSeconds(D20m);
+    return builder;
+  }
+
+  private String route(
+    RaptorService<TestTripSchedule> service,
+    RaptorRequest<TestTripSchedule> request
+  ) {
+    return pathsToString(service.route(request, data));
+  }
+}
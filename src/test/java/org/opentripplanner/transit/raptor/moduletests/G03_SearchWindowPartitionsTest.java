@@ -0,0 +1,207 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.transit.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+import static org.opentripplanner.transit.raptor.api.request.RaptorProfile.STANDARD;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.Optimization;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+
+/**
+ * Feature under test
+ * <p>
+ * The search window is split into sub-windows searched in parallel, and the result is the same as
+ * searching the whole window in one thread. This includes the round limit set by the number of
+ * additional transfers, which is carried over from the later sub-windows to the earlier ones.
+ */
+public class G03_SearchWindowPartitionsTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+
+  private final RaptorConfig<TestTripSchedule> config = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+
+      @Override
+      public int searchWindowPartitions() {
+        return 3;
+      }
+    }
+  );
+  private final RaptorService<TestTripSchedule> partitionedService = new RaptorService<>(config);
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * <pre>
+   * Routes:
+   *   R1:  A - B - C - D
+   *   R2:  B - E - D
+   *   R3:  A - E
+   * Transfer:
+   *   C - E 2m
+   * Egress:
+   *   D  1m
+   * </pre>
+   */
+  @BeforeEach
+  public void setup() {
+    data
+      .withRoutes(
+        route("R1", STOP_A, STOP_B, STOP_C, STOP_D)
+          .withTimetable(
+            schedule("0:05 0:10 0:15 0:25"),
+            schedule("0:20 0:25 0:30 0:40"),
+            schedule("0:35 0:40 0:45 0:55"),
+            schedule("0:50 0:55 1:00 1:10")
+          ),
+        route("R2", STOP_B, STOP_E, STOP_D)
+          .withTimetable(
+            schedule("0:12 0:18 0:24"),
+            schedule("0:27 0:33 0:39"),
+            schedule("0:57 1:03 1:09")
+          ),
+        route("R3", STOP_A, STOP_E).withTimetable(schedule("0:08 0:20"), schedule("0:38 0:50"))
+      )
+      .withTransfer(STOP_C, walk(STOP_E, D2m));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    config.shutdown();
+  }
+
+  @Test
+  public void standard() {
+    assertSameResult(STANDARD);
+  }
+
+  @Test
+  public void multiCriteria() {
+    assertSameResult(MULTI_CRITERIA);
+  }
+
+  /**
+   * The latest sub-window needs two more transfers than the earliest, and its path is kept because
+   * it is faster. The round limit set by the number of additional transfers in the earliest
+   * sub-window must not be applied to the later ones.
+   * <pre>
+   * Routes:
+   *   R1:  A 0:10 - D 0:40
+   *   R2:  A 0:45 - B 0:50
+   *   R3:  B 0:52 - C 0:57
+   *   R4:  C 0:59 - D 1:05
+   * </pre>
+   */
+  @Test
+  public void laterSubWindowNeedsMoreTransfers() {
+    var data = new TestTransitData()
+      .withRoutes(
+        route("R1", STOP_A, STOP_D).withTimetable(schedule("0:10 0:40")),
+        route("R2", STOP_A, STOP_B).withTimetable(schedule("0:45 0:50")),
+        route("R3", STOP_B, STOP_C).withTimetable(schedule("0:52 0:57")),
+        route("R4", STOP_C, STOP_D).withTimetable(schedule("0:59 1:05"))
+      );
+
+    for (RaptorProfile profile : new RaptorProfile[] { STANDARD, MULTI_CRITERIA }) {
+      var expected = assertSameResultWithoutAdditionalTransfers(profile, data);
+      assertTrue(expected.contains("R4"), profile + ": " + expected);
+    }
+  }
+
+  /**
+   * The latest sub-window reaches the destination without transfers. The earliest sub-window has
+   * a faster path with one transfer, which is not found by one search, because the round limit
+   * set in the later iterations stops the search after the first round. The path must be dropped
+   * when the sub-windows are merged.
+   * <pre>
+   * Routes:
+   *   R1:  A 0:45 - D 1:05
+   *   R2:  A 0:10 - B 0:20
+   *   R3:  B 0:22 - D 0:30
+   * </pre>
+   */
+  @Test
+  public void earlierSubWindowNeedsMoreTransfers() {
+    var data = new TestTransitData()
+      .withRoutes(
+        route("R1", STOP_A, STOP_D).withTimetable(schedule("0:45 1:05")),
+        route("R2", STOP_A, STOP_B).withTimetable(schedule("0:10 0:20")),
+        route("R3", STOP_B, STOP_D).withTimetable(schedule("0:22 0:30"))
+      );
+
+    for (RaptorProfile profile : new RaptorProfile[] { STANDARD, MULTI_CRITERIA }) {
+      var expected = assertSameResultWithoutAdditionalTransfers(profile, data);
+      assertTrue(expected.contains("R1"), profile + ": " + expected);
+      assertFalse(expected.contains("R3"), profile + ": " + expected);
+    }
+  }
+
+  /**
+   * Search with no additional transfers, assert that the partitioned search returns the same
+   * paths as one search and return them.
+   */
+  private String assertSameResultWithoutAdditionalTransfers(
+    RaptorProfile profile,
+    TestTransitData data
+  ) {
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request.profile(profile).enableOptimization(Optimization.PARALLEL);
+    request
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00 + D20m)
+      .numberOfAdditionalTransfers(0)
+      .searchWindow(Duration.ofMinutes(60));
+
+    var expected = pathsToString(raptorService.route(request.build(), data));
+
+    assertEquals(
+      expected,
+      pathsToString(partitionedService.route(request.build(), data)),
+      profile.name()
+    );
+    return expected;
+  }
+
+  private void assertSameResult(RaptorProfile profile) {
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request.profile(profile).enableOptimization(Optimization.PARALLEL);
+    request
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00 + D20m)
+      // Keep the best path for each departure, to get paths from all sub-windows
+      .timetableEnabled(true)
+      .searchWindow(Duration.ofMinutes(60));
+
+    var expected = pathsToString(raptorService.route(request.build(), data));
+
+    assertEquals(expected, pathsToString(partitionedService.route(request.build(), data)));
+  }
+}
@@ -0,0 +1,197 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.transit.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.flex;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.flexAndWalk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.transit.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.Optimization;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.transit.raptor.api.transit.SearchDirection;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+
+/**
+ * Feature under test
+ * <p>
+ * The multi-criteria search with the stop arrivals stored in the {@code StopArrivalArena} returns
+ * the same paths as the search with one object for each stop arrival. The fixtures are the ones
+ * of the access/egress, flex access and search window partitions module tests.
+ */
+public class G04_StopArrivalArenaTest implements RaptorTestConstants {
+
+  private final RaptorConfig<TestTripSchedule> partitionedConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+
+      @Override
+      public int searchWindowPartitions() {
+        return 3;
+      }
+    }
+  );
+  private final RaptorService<TestTripSchedule> partitionedService = new RaptorService<>(
+    partitionedConfig
+  );
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  @AfterEach
+  public void tearDown() {
+    partitionedConfig.shutdown();
+  }
+
+  /** See {@link B03_AccessEgressTest} */
+  @Test
+  public void accessAndEgress() {
+    var data = new TestTransitData();
+    data.withRoute(
+      route("R1", STOP_A, STOP_B, STOP_C, STOP_D, STOP_E, STOP_F, STOP_G, STOP_H)
+        .withTimetable(schedule("0:10, 0:14, 0:18, 0:22, 0:28, 0:32, 0:36, 0:40"))
+    );
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1s), walk(STOP_B, D4m), walk(STOP_C, D7m), walk(STOP_D, D20m))
+      .addEgressPaths(walk(STOP_E, D20m), walk(STOP_F, D7m), walk(STOP_G, D4m), walk(STOP_H, D1s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00);
+
+    assertSameResult(data, request);
+  }
+
+  /** See {@link B10_FlexAccessTest} */
+  @Test
+  public void flexAccess() {
+    var data = new TestTransitData();
+    data.withRoute(
+      route("R1", STOP_B, STOP_C, STOP_D, STOP_E, STOP_F)
+        .withTimetable(schedule("0:10, 0:12, 0:14, 0:16, 0:20"))
+    );
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request
+      .searchParams()
+      .addAccessPaths(
+        walk(STOP_B, D10m),
+        flexAndWalk(STOP_C, D2m, TWO_RIDES),
+        flex(STOP_D, D3m, TWO_RIDES),
+        flexAndWalk(STOP_E, D7m, ONE_RIDE)
+      )
+      .addEgressPaths(walk(STOP_F, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_30);
+
+    assertSameResult(data, request);
+  }
+
+  /** See {@link G03_SearchWindowPartitionsTest} */
+  @Test
+  public void transfers() {
+    var data = transfersData();
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00 + D20m)
+      .searchWindow(Duration.ofMinutes(60));
+
+    assertSameResult(data, request);
+  }
+
+  /**
+   * The sub-window searches are created in one thread and run in others, each of them must use
+   * its own arena.
+   */
+  @Test
+  public void partitionedSearchWindow() {
+    var data = transfersData();
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request.profile(MULTI_CRITERIA).enableOptimization(Optimization.PARALLEL);
+    request
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00 + D20m)
+      .timetableEnabled(true)
+      .searchWindow(Duration.ofMinutes(60));
+
+    var expected = pathsToString(raptorService.route(request.build(), data));
+    request.enableOptimization(Optimization.STOP_ARRIVAL_ARENA);
+
+    // Repeat the search, the arena arrays are reused by the next search in the same thread
+    for (int i = 0; i < 3; ++i) {
+      assertEquals(expected, pathsToString(partitionedService.route(request.build(), data)));
+    }
+  }
+
+  /**
+   * <pre>
+   * Routes:
+   *   R1:  A - B - C - D
+   *   R2:  B - E - D
+   *   R3:  A - E
+   * Transfer:
+   *   C - E 2m
+   * </pre>
+   */
+  private static TestTransitData transfersData() {
+    return new TestTransitData()
+      .withRoutes(
+        route("R1", STOP_A, STOP_B, STOP_C, STOP_D)
+          .withTimetable(
+            schedule("0:05 0:10 0:15 0:25"),
+            schedule("0:20 0:25 0:30 0:40"),
+            schedule("0:35 0:40 0:45 0:55"),
+            schedule("0:50 0:55 1:00 1:10")
+          ),
+        route("R2", STOP_B, STOP_E, STOP_D)
+          .withTimetable(
+            schedule("0:12 0:18 0:24"),
+            schedule("0:27 0:33 0:39"),
+            schedule("0:57 1:03 1:09")
+          ),
+        route("R3", STOP_A, STOP_E).withTimetable(schedule("0:08 0:20"), schedule("0:38 0:50"))
+      )
+      .withTransfer(STOP_C, walk(STOP_E, D2m));
+  }
+
+  private void assertSameResult(
+    TestTransitData data,
+    RaptorRequestBuilder<TestTripSchedule> request
+  ) {
+    request.profile(MULTI_CRITERIA);
+    for (SearchDirection direction : SearchDirection.values()) {
+      for (boolean timetable : List.of(true, false)) {
+        request.searchDirection(direction).searchParams().timetableEnabled(timetable);
+
+        request.disableOptimization(Optimization.STOP_ARRIVAL_ARENA);
+        var expected = pathsToString(raptorService.route(request.build(), data));
+        request.enableOptimization(Optimization.STOP_ARRIVAL_ARENA);
+        var actual = pathsToString(raptorService.route(request.build(), data));
+
+        assertFalse(expected.isEmpty(), direction + ", timetable: " + timetable);
+        assertEquals(expected, actual, direction + ", timetable: " + timetable);
+      }
+    }
+  }
+}
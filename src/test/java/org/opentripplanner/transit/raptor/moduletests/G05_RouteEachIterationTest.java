@@ -0,0 +1,96 @@
+package org.opentripplanner.transit.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+import static org.opentripplanner.transit.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.transit.raptor.api.transit.RaptorSlackProvider.defaultSlackProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.RaptorService;
+import org.opentripplanner.transit.raptor._data.RaptorTestConstants;
+import org.opentripplanner.transit.raptor._data.transit.TestTransitData;
+import org.opentripplanner.transit.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.transit.raptor.api.request.RaptorProfile;
+import org.opentripplanner.transit.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.transit.raptor.configure.RaptorConfig;
+import org.opentripplanner.util.time.TimeUtils;
+
+/**
+ * Feature under test
+ * <p>
+ * {@link RaptorService#routeEachIteration} passes the stop arrivals to the listener once for each
+ * Range Raptor iteration, from the latest to the earliest departure time in the search window.
+ */
+public class G05_RouteEachIterationTest implements RaptorTestConstants {
+
+  private static final int T00_05 = TimeUtils.hm2time(0, 5);
+  private static final int T00_20 = TimeUtils.hm2time(0, 20);
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * <pre>
+   * Route R1:  A 0:05 0:20 0:35
+   *            B 0:15 0:30 0:45
+   * Access:
+   *   A  1m
+   * </pre>
+   */
+  @BeforeEach
+  public void setup() {
+    data.withRoute(
+      route("R1", STOP_A, STOP_B)
+        .withTimetable(schedule("0:05 0:15"), schedule("0:20 0:30"), schedule("0:35 0:45"))
+    );
+    requestBuilder
+      .profile(RaptorProfile.STANDARD)
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D1m))
+      .allowEmptyEgressPaths(true)
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofMinutes(30))
+      .latestArrivalTime(T01_00);
+    requestBuilder.slackProvider(defaultSlackProvider(D1m, 0, 0));
+  }
+
+  @Test
+  public void oneCallbackForEachIteration() {
+    List<String> expected = new ArrayList<>();
+    for (int t = T00_00 + 29 * D1m; t >= T00_00; t -= D1m) {
+      // Arrive at A one minute after the departure, and board the first trip leaving after that
+      int arrivalAtB;
+      if (t < T00_05) {
+        arrivalAtB = TimeUtils.hm2time(0, 15);
+      } else if (t < T00_20) {
+        arrivalAtB = TimeUtils.hm2time(0, 30);
+      } else {
+        arrivalAtB = TimeUtils.hm2time(0, 45);
+      }
+      expected.add(TimeUtils.timeToStrCompact(t) + " " + TimeUtils.timeToStrCompact(arrivalAtB));
+    }
+
+    List<String> result = new ArrayList<>();
+    raptorService.routeEachIteration(
+      requestBuilder.build(),
+      data,
+      (departureTime, stopArrivals) ->
+        result.add(
+          TimeUtils.timeToStrCompact(departureTime) +
+          " " +
+          TimeUtils.timeToStrCompact(stopArrivals.bestArrivalTime(STOP_B))
+        )
+    );
+
+    assertEquals(30, result.size());
+    assertEquals(expected, result);
+  }
+}
@@ -0,0 +1,135 @@
+package org.opentripplanner.transit.raptor.rangeraptor.multicriteria.arena;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.raptor._data.transit.TestTransfer.walk;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.api.transit.RaptorTripSchedule;
+import org.opentripplanner.transit.raptor.api.view.ArrivalView;
+
+public class ArenaStopArrivalParetoSetTest {
+
+  // 08:35 in seconds
+  private static final int A_TIME = ((8 * 60) + 35) * 60;
+  private static final int ANY = 3;
+  private static final int STOP_1 = 1;
+  private static final int STOP_2 = 2;
+  private static final int STOP_3 = 3;
+  private static final int STOP_4 = 4;
+
+  private final StopArrivalArena<RaptorTripSchedule> arena = new StopArrivalArena<>();
+  private final ArenaStopArrivalParetoSet<RaptorTripSchedule> subject =
+    new ArenaStopArrivalParetoSet<>(arena, null);
+
+  @Test
+  public void testTimeDominance() {
+    subject.add(access(STOP_1, 10, ANY));
+    subject.add(access(STOP_2, 9, ANY));
+    subject.add(access(STOP_3, 9, ANY));
+    subject.add(access(STOP_4, 11, ANY));
+    assertStopsInSet(STOP_2);
+  }
+
+  @Test
+  public void testCostDominance() {
+    subject.add(access(STOP_1, ANY, 20));
+    subject.add(access(STOP_2, ANY, 10));
+    subject.add(access(STOP_3, ANY, 10));
+    subject.add(access(STOP_4, ANY, 30));
+    assertStopsInSet(STOP_2);
+  }
+
+  @Test
+  public void testRoundDominance() {
+    int access = access(STOP_1, 10, ANY);
+    subject.add(arena.addTransfer(access, walk(STOP_2, 20, ANY), A_TIME + 30));
+    subject.add(access(STOP_3, 30, 2 * ANY));
+    assertStopsInSet(STOP_3);
+  }
+
+  @Test
+  public void testMutualDominance() {
+    subject.add(access(STOP_1, 10, 20));
+    subject.add(access(STOP_2, 20, 10));
+    assertStopsInSet(STOP_1, STOP_2);
+  }
+
+  @Test
+  public void testMarker() {
+    subject.add(access(STOP_1, 10, 20));
+    subject.markAtEndOfSet();
+    assertEquals(1, subject.marker());
+
+    subject.add(access(STOP_2, 20, 10));
+    assertEquals(1, subject.marker());
+
+    // Dominates both elements, the marker moves to the new element
+    subject.add(access(STOP_3, 5, 5));
+    assertStopsInSet(STOP_3);
+    assertEquals(0, subject.marker());
+  }
+
+  @Test
+  public void testArrivalViewAndPrevious() {
+    int access = access(STOP_1, 10, 5);
+    int transfer = arena.addTransfer(access, walk(STOP_2, 60, 7), A_TIME + 70);
+
+    ArrivalView<RaptorTripSchedule> view = arena.view(transfer);
+    assertEquals(STOP_2, view.stop());
+    assertEquals(A_TIME + 70, view.arrivalTime());
+    assertEquals(12, view.cost());
+    assertTrue(view.arrivedByTransfer());
+    assertFalse(view.arrivedByTransit());
+    assertNull(view.mostRecentTransitArrival());
+
+    ArrivalView<RaptorTripSchedule> prev = view.previous();
+    assertTrue(prev.arrivedByAccess());
+    assertEquals(STOP_1, prev.stop());
+    assertNull(prev.previous());
+    assertEquals(arena.view(access), prev);
+  }
+
+  @Test
+  public void testClearAndGrow() {
+    for (int i = 0; i < 3000; ++i) {
+      access(STOP_1, i, i);
+    }
+    assertEquals(3000, arena.size());
+    assertTrue(arena.capacity() >= 3000);
+
+    arena.clear();
+    assertEquals(0, arena.size());
+  }
+
+  @Test
+  public void testReleasePayload() {
+    int access = access(STOP_1, 10, 5);
+    int transfer = arena.addTransfer(access, walk(STOP_2, 60, 7), A_TIME + 70);
+
+    arena.releasePayload();
+
+    // The arrivals are kept for the stop arrivals, without the transfer and access paths
+    assertEquals(2, arena.size());
+    assertEquals(A_TIME + 70, arena.arrivalTime(transfer));
+    assertEquals(12, arena.cost(transfer));
+    assertNull(arena.transferPath(transfer));
+    assertNull(arena.accessPath(access));
+  }
+
+  private int access(int stop, int duration, int cost) {
+    return arena.addAccess(A_TIME, walk(stop, duration, cost));
+  }
+
+  private void assertStopsInSet(int... expStopIndexes) {
+    int[] result = new int[subject.size()];
+    for (int i = 0; i < result.length; ++i) {
+      result[i] = arena.stop(subject.get(i));
+    }
+    Arrays.sort(result);
+    assertEquals(Arrays.toString(expStopIndexes), Arrays.toString(result));
+  }
+}
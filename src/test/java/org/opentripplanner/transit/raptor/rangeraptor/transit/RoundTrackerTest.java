@@ -102,6 +102,11 @@ public class RoundTrackerTest {
       public void onIterationComplete(Runnable iterationComplete) {
         throw new IllegalStateException("Not expected");
       }
+
+      @Override
+      public void onRouteSearchComplete(Runnable routeSearchComplete) {
+        throw new IllegalStateException("Not expected");
+      }
     };
   }
 }
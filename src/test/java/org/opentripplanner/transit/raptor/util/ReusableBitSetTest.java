@@ -0,0 +1,52 @@
+package org.opentripplanner.transit.raptor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.raptor.api.transit.IntIterator;
+
+public class ReusableBitSetTest {
+
+  @Test
+  public void test() {
+    ReusableBitSet set = new ReusableBitSet(200);
+
+    // Empty set does not have any elements
+    assertTrue(set.isEmpty());
+    assertFalse(set.iterator().hasNext());
+
+    // The elements are returned in ascending order, not in the order they are set
+    set.set(130);
+    set.set(2);
+    set.set(64);
+    set.set(2);
+    set.set(199);
+    assertFalse(set.isEmpty());
+    assertTrue(set.get(64));
+    assertFalse(set.get(63));
+    assertEquals("[2, 64, 130, 199]", toString(set.iterator()));
+
+    // The set can be iterated again
+    assertEquals("[2, 64, 130, 199]", toString(set.iterator()));
+
+    // After clear, the set is empty and can be reused
+    set.clear();
+    assertTrue(set.isEmpty());
+    assertFalse(set.get(64));
+    assertFalse(set.iterator().hasNext());
+
+    set.set(63);
+    set.set(0);
+    assertEquals("[0, 63]", toString(set.iterator()));
+  }
+
+  private static String toString(IntIterator it) {
+    StringBuilder buf = new StringBuilder();
+    while (it.hasNext()) {
+      buf.append(buf.length() == 0 ? "[" : ", ").append(it.next());
+    }
+    return buf.append("]").toString();
+  }
+}
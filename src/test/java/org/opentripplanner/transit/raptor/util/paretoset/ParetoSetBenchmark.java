@@ -0,0 +1,72 @@
+package org.opentripplanner.transit.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insert random arrivals into a pareto set with the same criteria as the multi-criteria stop
+ * arrivals: arrival time, number of transfers and generalized cost. The dominance is checked with
+ * a {@link ParetoComparator} or with packed {@link ParetoCriteria}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3;
+
+  private static final ParetoCriteria<Vector> CRITERIA = ParetoCriteria.of(
+    3,
+    (v, values) -> {
+      values[0] = v.v1;
+      values[1] = v.v2;
+      values[2] = v.v3;
+    }
+  );
+
+  @Param({ "10", "100", "1000" })
+  public int size;
+
+  @Param({ "false", "true" })
+  public boolean packedCriteria;
+
+  private Vector[] vectors;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(42);
+    vectors = new Vector[size];
+    for (int i = 0; i < size; ++i) {
+      int arrivalTime = random.nextInt(3600);
+      int transfers = random.nextInt(5);
+      // Trade a later arrival for a lower cost, to keep many arrivals in the set
+      int cost = 2 * (3600 - arrivalTime) + random.nextInt(1800);
+      vectors[i] = new Vector("V" + i, arrivalTime, transfers, cost);
+    }
+  }
+
+  @Benchmark
+  public int add() {
+    var set = packedCriteria ? new ParetoSet<>(CRITERIA) : new ParetoSet<>(COMPARATOR);
+    for (Vector it : vectors) {
+      set.add(it);
+    }
+    return set.size();
+  }
+}
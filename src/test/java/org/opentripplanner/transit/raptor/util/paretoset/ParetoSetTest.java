@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.Test;
@@ -190,6 +191,58 @@ public class ParetoSetTest {
     testReplace(set, v0, vector(5, 4), "2nd value qualifies it, first is equivalent");
   }
 
+  @Test
+  public void testTwoCriteria_lessThen_and_lessThenValue_withRelaxedCriteria() {
+    // Given a set with the same criteria as above: [v1, v2] compared with [v1, v2 + 1]
+    ParetoSet<Vector> set = new ParetoSet<>(
+      ParetoCriteria.ofRelaxedLastCriteria(
+        2,
+        (v, values) -> {
+          values[0] = v.v1;
+          values[1] = v.v2;
+          values[2] = v.v2 + 1;
+        }
+      )
+    );
+    Vector v0 = new Vector("V0", 5, 5);
+
+    testNotAdded(set, v0, vector(6, 6), "1st value is to big");
+    testNotAdded(set, v0, vector(5, 7), "2nd value disqualifies it");
+    testNotAdded(set, v0, vector(5, 6), "regarded as the same value");
+
+    keepBoth(set, v0, vector(4, 8), "1st value qualifies it, 2nd does not");
+    keepBoth(set, v0, vector(6, 5), "2nd value qualifies it, 1st does not");
+    keepBoth(set, v0, vector(5, 5), "2nd value qualifies it, 1st does not");
+
+    testReplace(set, v0, vector(4, 4), "1st and 2nd value qualifies it");
+    testReplace(set, v0, vector(5, 4), "2nd value qualifies it, first is equivalent");
+  }
+
+  @Test
+  public void criteriaAndComparatorKeepTheSameElements() {
+    ParetoSet<Vector> expected = new ParetoSet<>((l, r) ->
+      l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3
+    );
+    ParetoSet<Vector> subject = new ParetoSet<>(
+      ParetoCriteria.of(
+        3,
+        (v, values) -> {
+          values[0] = v.v1;
+          values[1] = v.v2;
+          values[2] = v.v3;
+        }
+      )
+    );
+    Random random = new Random(7);
+
+    for (int i = 0; i < 1000; ++i) {
+      var v = new Vector("V" + i, random.nextInt(50), random.nextInt(5), random.nextInt(50));
+      assertEquals(expected.qualify(v), subject.qualify(v), v.toString());
+      assertEquals(expected.add(v), subject.add(v), v.toString());
+      assertEquals(names(expected), names(subject));
+    }
+  }
+
   @Test
   public void testOneVectorDominatesMany() {
     // Given a set and function
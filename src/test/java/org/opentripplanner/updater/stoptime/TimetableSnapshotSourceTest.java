@@ -69,7 +69,7 @@ public class TimetableSnapshotSourceTest {
   }
 
   @Test
-  public void testGetSnapshot() throws InvalidProtocolBufferException {
+  public void testGetSnapshot() throws InvalidProtocolBufferException, InterruptedException {
     updater.applyTripUpdates(fullDataset, List.of(TripUpdate.parseFrom(cancellation)), feedId);
 
     final TimetableSnapshot snapshot = updater.getTimetableSnapshot();
@@ -79,8 +79,8 @@ public class TimetableSnapshotSourceTest {
     updater.applyTripUpdates(fullDataset, List.of(TripUpdate.parseFrom(cancellation)), feedId);
     assertSame(snapshot, updater.getTimetableSnapshot());
 
-    updater.maxSnapshotFrequency = (-1);
-    final TimetableSnapshot newSnapshot = updater.getTimetableSnapshot();
+    // The second update is committed when the snapshot frequency allows it
+    final TimetableSnapshot newSnapshot = awaitNewSnapshot(snapshot);
     assertNotNull(newSnapshot);
     assertNotSame(snapshot, newSnapshot);
   }
@@ -931,4 +931,13 @@ public class TimetableSnapshotSourceTest {
     assertNotSame(snapshotA.resolve(pattern, null), snapshotA.resolve(pattern, serviceDate));
     assertSame(snapshotB.resolve(pattern, null), snapshotB.resolve(pattern, previously));
   }
+
+  private TimetableSnapshot awaitNewSnapshot(TimetableSnapshot snapshot)
+    throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 5000;
+    while (updater.getTimetableSnapshot() == snapshot && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    return updater.getTimetableSnapshot();
+  }
 }